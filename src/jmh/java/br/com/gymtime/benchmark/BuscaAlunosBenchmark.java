@@ -0,0 +1,70 @@
+package br.com.gymtime.benchmark;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.search.AlunoSearchIndex;
+import br.com.gymtime.util.DocumentoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca instantânea no {@link AlunoSearchIndex} com {@value #ALUNOS} alunos na academia consultada: os 10 primeiros
+ * resultados de um prefixo comum de nome, de duas palavras e do início de um CPF. A meta é ficar abaixo de 1 ms
+ * por busca (a unidade do relatório é µs).
+ * <p>
+ * O índice é montado sem banco de dados; outra academia com o mesmo número de alunos ocupa o restante do mapa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BuscaAlunosBenchmark {
+
+    static final int ALUNOS = 100_000;
+    private static final int LIMITE = 10;
+    private static final long ACADEMIA = 1L;
+    private static final long OUTRA_ACADEMIA = 2L;
+
+    private static final String[] NOMES = {
+            "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique", "Isabela", "João",
+            "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael", "Sofia", "Thiago", "Vitória", "Wesley"
+    };
+    private static final String[] SOBRENOMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa"
+    };
+
+    @Param({"ana", "ana sil", "529"})
+    public String consulta;
+
+    private AlunoSearchIndex indice;
+
+    @Setup
+    public void montarIndice() {
+        indice = new AlunoSearchIndex(null, null, DadosBenchmark.criarShards(), null);
+        Random aleatorio = new Random(42);
+        for (long academia : new long[]{ACADEMIA, OUTRA_ACADEMIA}) {
+            ContextoAcademia.executar(academia, () -> {
+                for (int i = 0; i < ALUNOS; i++) {
+                    long id = academia * ALUNOS + i;
+                    String nome = NOMES[aleatorio.nextInt(NOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)]
+                            + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+                    indice.indexar(new AlunoSearchResultDTO(id, nome, "aluno" + id + "@gymtime.com",
+                            "119" + (10_000_000 + aleatorio.nextInt(90_000_000)),
+                            DocumentoUtils.gerarCpf(aleatorio.nextInt(1_000_000_000))));
+                }
+                return null;
+            });
+        }
+    }
+
+    @Benchmark
+    public List<AlunoSearchResultDTO> buscar() {
+        return ContextoAcademia.executar(ACADEMIA, () -> indice.buscar(consulta, LIMITE));
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.gymtime.benchmark;
+
+import br.com.gymtime.dto.ExercicioCatalogoUsoDTO;
+import br.com.gymtime.mapper.AlunoMapper;
+import br.com.gymtime.mapper.TreinoMapper;
+import br.com.gymtime.model.Aluno;
+import br.com.gymtime.model.Exercicio;
+import br.com.gymtime.model.ExercicioCatalogo;
+import br.com.gymtime.model.Treino;
+import br.com.gymtime.repository.ExercicioCatalogoRepository;
+import br.com.gymtime.search.ExercicioCatalogIndex;
+import br.com.gymtime.shard.RoteadorShards;
+import br.com.gymtime.shard.Shards;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dados compartilhados pelos benchmarks: um aluno típico com os seus treinos e exercícios, montado em memória
+ * (sem banco de dados), e os mappers ligados a um catálogo de exercícios já carregado.
+ */
+final class DadosBenchmark {
+
+    static final int TREINOS_POR_ALUNO = 4;
+    static final int EXERCICIOS_POR_TREINO = 8;
+
+    private static final String[] EXERCICIOS = {
+            "Supino reto", "Supino inclinado", "Crucifixo", "Agachamento livre", "Leg press", "Cadeira extensora",
+            "Mesa flexora", "Stiff", "Remada curvada", "Puxada frontal", "Rosca direta", "Rosca martelo",
+            "Tríceps pulley", "Tríceps testa", "Desenvolvimento", "Elevação lateral"
+    };
+
+    private DadosBenchmark() {
+    }
+
+    /**
+     * Cria o catálogo de exercícios em memória a partir de um repositório falso que devolve os nomes acima.
+     */
+    static List<ExercicioCatalogo> criarCatalogo() {
+        List<ExercicioCatalogo> catalogo = new ArrayList<>();
+        for (int i = 0; i < EXERCICIOS.length; i++) {
+            ExercicioCatalogo exercicio = new ExercicioCatalogo(EXERCICIOS[i]);
+            definirId(exercicio, (long) i + 1);
+            catalogo.add(exercicio);
+        }
+        return catalogo;
+    }
+
+    static TreinoMapper criarTreinoMapper(List<ExercicioCatalogo> catalogo) {
+        List<ExercicioCatalogoUsoDTO> usos = catalogo.stream()
+                .map(exercicio -> new ExercicioCatalogoUsoDTO(exercicio.getId(), exercicio.getNome(), 10))
+                .toList();
+        ExercicioCatalogoRepository repositorio = (ExercicioCatalogoRepository) Proxy.newProxyInstance(
+                ExercicioCatalogoRepository.class.getClassLoader(),
+                new Class<?>[]{ExercicioCatalogoRepository.class},
+                (proxy, metodo, args) -> {
+                    if (metodo.getName().equals("findAllComUsos")) {
+                        return usos;
+                    }
+                    throw new UnsupportedOperationException(metodo.getName());
+                });
+        ExercicioCatalogIndex indice = new ExercicioCatalogIndex(repositorio, criarShards(), null);
+        indice.construir();
+        return new TreinoMapper(indice);
+    }
+
+    /**
+     * Um único shard, sem banco: {@link Shards#emTodos} apenas executa a consulta na thread atual.
+     */
+    static Shards criarShards() {
+        return new Shards(new StaticListableBeanFactory().getBeanProvider(RoteadorShards.class), null);
+    }
+
+    static AlunoMapper criarAlunoMapper(TreinoMapper treinoMapper) {
+        return new AlunoMapper(treinoMapper);
+    }
+
+    /**
+     * Cria um aluno com {@value #TREINOS_POR_ALUNO} treinos de {@value #EXERCICIOS_POR_TREINO} exercícios.
+     */
+    static Aluno criarAluno(List<ExercicioCatalogo> catalogo) {
+        Aluno aluno = new Aluno();
+        aluno.setId(1L);
+        aluno.setNome("Gabriela Oliveira Santos");
+        aluno.setEmail("gabriela.santos@gymtime.com");
+        aluno.setTelefone("(11) 98765-4321");
+        aluno.setCpf("529.982.247-25");
+        long exercicioId = 1;
+        for (int t = 0; t < TREINOS_POR_ALUNO; t++) {
+            Treino treino = new Treino("Treino " + (char) ('A' + t), "Hipertrofia - membros superiores e inferiores", aluno);
+            treino.setId((long) t + 1);
+            treino.setDataCriacao(LocalDate.of(2025, 3, 1));
+            treino.setDataAtualizacao(LocalDate.of(2025, 3, 15));
+            for (int e = 0; e < EXERCICIOS_POR_TREINO; e++) {
+                Exercicio exercicio = new Exercicio(catalogo.get((t * 3 + e) % catalogo.size()), "4x10-12");
+                exercicio.setId(exercicioId++);
+                treino.addExercicio(exercicio);
+            }
+            aluno.getTreinos().add(treino);
+        }
+        return aluno;
+    }
+
+    private static void definirId(ExercicioCatalogo exercicio, Long id) {
+        try {
+            Field campo = ExercicioCatalogo.class.getDeclaredField("id");
+            campo.setAccessible(true);
+            campo.set(exercicio, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
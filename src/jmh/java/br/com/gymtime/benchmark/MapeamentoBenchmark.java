@@ -0,0 +1,53 @@
+package br.com.gymtime.benchmark;
+
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.mapper.AlunoMapper;
+import br.com.gymtime.mapper.TreinoMapper;
+import br.com.gymtime.model.Aluno;
+import br.com.gymtime.model.ExercicioCatalogo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão de entidades para DTOs, como feita pelo {@code AlunoServiceImpl} e pelo {@code TreinoServiceImpl}
+ * (via {@link AlunoMapper} e {@link TreinoMapper}) em toda leitura de aluno ou treino.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapeamentoBenchmark {
+
+    private AlunoMapper alunoMapper;
+    private TreinoMapper treinoMapper;
+    private Aluno aluno;
+
+    @Setup
+    public void preparar() {
+        List<ExercicioCatalogo> catalogo = DadosBenchmark.criarCatalogo();
+        treinoMapper = DadosBenchmark.criarTreinoMapper(catalogo);
+        alunoMapper = DadosBenchmark.criarAlunoMapper(treinoMapper);
+        aluno = DadosBenchmark.criarAluno(catalogo);
+    }
+
+    @Benchmark
+    public AlunoResponseDTO alunoCompleto() {
+        return alunoMapper.convertToAlunoResponseDTO(aluno);
+    }
+
+    @Benchmark
+    public AlunoSearchResultDTO alunoParaBusca() {
+        return alunoMapper.convertToAlunoSearchResultDTO(aluno);
+    }
+
+    @Benchmark
+    public TreinoResponseDTO treino() {
+        return treinoMapper.convertToTreinoResponseDTO(aluno.getTreinos().get(0));
+    }
+}
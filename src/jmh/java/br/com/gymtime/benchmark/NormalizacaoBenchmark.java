@@ -0,0 +1,96 @@
+package br.com.gymtime.benchmark;
+
+import br.com.gymtime.model.Aluno;
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.util.TextoUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalização dos campos do aluno feita nos setters da entidade a cada criação ou atualização:
+ * remoção da máscara do CPF e do telefone e a forma normalizada do nome usada nas buscas.
+ * <p>
+ * Os benchmarks com sufixo {@code Regex} reproduzem a implementação anterior ao {@link DocumentoUtils}
+ * ({@code replaceAll("[^0-9]", "")} e {@code matches("\\d{11}")} + {@code substring}), para comparação.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NormalizacaoBenchmark {
+
+    /**
+     * CPF com e sem máscara (somente o benchmark de {@code setCpf} é parametrizado).
+     */
+    @State(Scope.Thread)
+    public static class Cpf {
+        @Param({"529.982.247-25", "52998224725"})
+        public String valor;
+    }
+
+    private final Aluno aluno = new Aluno();
+
+    // Campos não finais, para que o JIT não trate os valores como constantes.
+    private String cpfArmazenado = "52998224725";
+    private String telefoneArmazenado = "11987654321";
+
+    @Benchmark
+    public String setCpf(Cpf cpf) {
+        aluno.setCpf(cpf.valor);
+        return aluno.getCpf();
+    }
+
+    @Benchmark
+    public String setTelefone() {
+        aluno.setTelefone("(11) 98765-4321");
+        return aluno.getTelefone();
+    }
+
+    @Benchmark
+    public String normalizarNome() {
+        return TextoUtils.normalizarParaBusca("  Gabriela   Olíveira Santos ");
+    }
+
+    @Benchmark
+    public String apenasDigitosRegex(Cpf cpf) {
+        return cpf.valor.replaceAll("[^0-9]", "");
+    }
+
+    @Benchmark
+    public boolean validarCpf(Cpf cpf) {
+        return DocumentoUtils.isCpfValido(cpf.valor);
+    }
+
+    @Benchmark
+    public String formatarCpf() {
+        return DocumentoUtils.formatarCpf(cpfArmazenado);
+    }
+
+    @Benchmark
+    public String formatarCpfRegex() {
+        String cpf = cpfArmazenado;
+        if (cpf.matches("\\d{11}")) {
+            return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9, 11);
+        }
+        return cpf;
+    }
+
+    @Benchmark
+    public String formatarTelefone() {
+        return DocumentoUtils.formatarTelefone(telefoneArmazenado);
+    }
+
+    @Benchmark
+    public String formatarTelefoneRegex() {
+        String telefone = telefoneArmazenado;
+        if (telefone.matches("\\d{11}")) {
+            return "(" + telefone.substring(0, 2) + ") " + telefone.substring(2, 7) + "-" + telefone.substring(7, 11);
+        } else if (telefone.matches("\\d{10}")) {
+            return "(" + telefone.substring(0, 2) + ") " + telefone.substring(2, 6) + "-" + telefone.substring(6, 10);
+        }
+        return telefone;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.gymtime.benchmark;
+
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.model.ExercicioCatalogo;
+import br.com.gymtime.pdf.TreinoPdfRenderer;
+import com.lowagie.text.DocumentException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração da ficha de treino em PDF (OpenPDF) pelo {@link TreinoPdfRenderer},
+ * usada em {@code /web/alunos/{alunoId}/treinos/imprimir-pdf/{treinoId}}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfBenchmark {
+
+    private final TreinoPdfRenderer renderer = new TreinoPdfRenderer();
+    private AlunoResponseDTO aluno;
+
+    @Setup
+    public void preparar() {
+        List<ExercicioCatalogo> catalogo = DadosBenchmark.criarCatalogo();
+        aluno = DadosBenchmark.criarAlunoMapper(DadosBenchmark.criarTreinoMapper(catalogo))
+                .convertToAlunoResponseDTO(DadosBenchmark.criarAluno(catalogo));
+    }
+
+    @Benchmark
+    public byte[] fichaDeTreino() throws DocumentException {
+        return renderer.renderizar(aluno, aluno.treinos().get(0));
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.gymtime.benchmark;
+
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.model.ExercicioCatalogo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON (Jackson) de um {@link AlunoResponseDTO} com os seus treinos e exercícios,
+ * o corpo de resposta de {@code GET /api/v1/alunos/{id}}. O {@link ObjectMapper} replica a configuração
+ * padrão do Spring Boot (datas ISO-8601).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializacaoBenchmark {
+
+    private ObjectMapper objectMapper;
+    private AlunoResponseDTO aluno;
+
+    @Setup
+    public void preparar() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<ExercicioCatalogo> catalogo = DadosBenchmark.criarCatalogo();
+        aluno = DadosBenchmark.criarAlunoMapper(DadosBenchmark.criarTreinoMapper(catalogo))
+                .convertToAlunoResponseDTO(DadosBenchmark.criarAluno(catalogo));
+    }
+
+    @Benchmark
+    public byte[] alunoComTreinos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(aluno);
+    }
+}
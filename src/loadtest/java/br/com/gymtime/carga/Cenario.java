@@ -0,0 +1,99 @@
+package br.com.gymtime.carga;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Cenários do teste de carga. Cada requisição sorteia um cenário conforme os pesos do mix configurado.
+ */
+enum Cenario {
+
+    /** {@code GET /api/v1/alunos/{id}}: aluno com treinos e exercícios. */
+    ALUNO("aluno") {
+        @Override
+        HttpRequest.Builder requisicao(String url, MassaDeTeste massa, SplittableRandom aleatorio) {
+            return get(url + "/api/v1/alunos/" + massa.sortearAluno(aleatorio));
+        }
+    },
+
+    /** {@code GET /api/v1/alunos/{id}/treinos}: treinos de um aluno. */
+    TREINOS_DO_ALUNO("treinos-do-aluno") {
+        @Override
+        HttpRequest.Builder requisicao(String url, MassaDeTeste massa, SplittableRandom aleatorio) {
+            return get(url + "/api/v1/alunos/" + massa.sortearAluno(aleatorio) + "/treinos");
+        }
+    },
+
+    /** {@code PUT /api/v1/treinos/{id}}: regrava um treino existente com os mesmos dados. */
+    ATUALIZAR_TREINO("atualizar-treino") {
+        @Override
+        HttpRequest.Builder requisicao(String url, MassaDeTeste massa, SplittableRandom aleatorio) {
+            MassaDeTeste.TreinoExistente treino = massa.sortearTreino(aleatorio);
+            return HttpRequest.newBuilder(URI.create(url + "/api/v1/treinos/" + treino.treinoId()))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(treino.corpoAtualizacao()));
+        }
+    },
+
+    /** {@code GET /web/alunos}: uma das primeiras páginas da listagem ou uma busca por prefixo de nome. */
+    LISTA_WEB("lista-web") {
+        @Override
+        HttpRequest.Builder requisicao(String url, MassaDeTeste massa, SplittableRandom aleatorio) {
+            if (aleatorio.nextBoolean()) {
+                return get(url + "/web/alunos?page=" + aleatorio.nextInt(50) + "&size=20");
+            }
+            return get(url + "/web/alunos?q=" + PREFIXOS_BUSCA[aleatorio.nextInt(PREFIXOS_BUSCA.length)]);
+        }
+    },
+
+    /** {@code GET /web/alunos/{alunoId}/treinos/imprimir-pdf/{treinoId}}: ficha de treino em PDF. */
+    PDF("pdf") {
+        @Override
+        HttpRequest.Builder requisicao(String url, MassaDeTeste massa, SplittableRandom aleatorio) {
+            MassaDeTeste.TreinoExistente treino = massa.sortearTreino(aleatorio);
+            return get(url + "/web/alunos/" + treino.alunoId() + "/treinos/imprimir-pdf/" + treino.treinoId());
+        }
+    };
+
+    /**
+     * Inícios de nomes e sobrenomes usados na busca da listagem web.
+     */
+    private static final String[] PREFIXOS_BUSCA = {"ana", "bru", "gab", "jul", "luc", "mar", "raf", "sil", "san", "oli", "fer", "cos"};
+
+    static final Duration TEMPO_LIMITE = Duration.ofSeconds(30);
+
+    private final String chave;
+
+    Cenario(String chave) {
+        this.chave = chave;
+    }
+
+    String chave() {
+        return chave;
+    }
+
+    /**
+     * Monta a próxima requisição do cenário.
+     *
+     * @param url       A URL base da aplicação (sem barra no final).
+     * @param massa     Os IDs disponíveis.
+     * @param aleatorio O gerador de números aleatórios da thread.
+     * @return A requisição, sem o tempo limite (definido por quem envia).
+     */
+    abstract HttpRequest.Builder requisicao(String url, MassaDeTeste massa, SplittableRandom aleatorio);
+
+    static Cenario daChave(String chave) {
+        for (Cenario cenario : values()) {
+            if (cenario.chave.equals(chave)) {
+                return cenario;
+            }
+        }
+        throw new IllegalArgumentException("Cenário desconhecido: " + chave);
+    }
+
+    private static HttpRequest.Builder get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).GET();
+    }
+}
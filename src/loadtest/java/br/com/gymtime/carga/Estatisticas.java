@@ -0,0 +1,80 @@
+package br.com.gymtime.carga;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latências e erros registrados para um cenário durante a fase de medição.
+ * Todas as latências são guardadas (em nanossegundos), de forma que os percentis são exatos.
+ */
+final class Estatisticas {
+
+    private long[] latencias = new long[1024];
+    private int quantidade;
+    private long erros;
+
+    /**
+     * Resumo de um cenário, gravado no relatório JSON.
+     *
+     * @param nome       O nome do cenário.
+     * @param requisicoes O número de requisições da fase de medição, incluindo as descartadas no modelo aberto.
+     * @param erros      As requisições com status HTTP de erro (4xx/5xx), sem resposta ou descartadas.
+     * @param vazao      As requisições por segundo.
+     * @param latenciaMs Os percentis da latência, em milissegundos.
+     */
+    record Resumo(String nome, long requisicoes, long erros, double vazao, Latencia latenciaMs) {}
+
+    record Latencia(double p50, double p95, double p99, double max, double media) {}
+
+    synchronized void registrar(long latenciaNanos, boolean erro) {
+        if (quantidade == latencias.length) {
+            latencias = Arrays.copyOf(latencias, quantidade * 2);
+        }
+        latencias[quantidade++] = latenciaNanos;
+        if (erro) {
+            erros++;
+        }
+    }
+
+    /**
+     * Junta as latências de outro cenário a estas (usado para o total).
+     */
+    synchronized void incluir(Estatisticas outras) {
+        synchronized (outras) {
+            for (int i = 0; i < outras.quantidade; i++) {
+                registrar(outras.latencias[i], false);
+            }
+            erros += outras.erros;
+        }
+    }
+
+    synchronized Resumo resumir(String nome, double segundos) {
+        long[] ordenadas = Arrays.copyOf(latencias, quantidade);
+        Arrays.sort(ordenadas);
+        double soma = 0;
+        for (long latencia : ordenadas) {
+            soma += latencia;
+        }
+        Latencia latencia = quantidade == 0
+                ? new Latencia(0, 0, 0, 0, 0)
+                : new Latencia(ms(percentil(ordenadas, 50)), ms(percentil(ordenadas, 95)), ms(percentil(ordenadas, 99)),
+                ms(ordenadas[quantidade - 1]), ms(soma / quantidade));
+        return new Resumo(nome, quantidade, erros, arredondar(quantidade / segundos), latencia);
+    }
+
+    /**
+     * Percentil pelo método do "nearest rank".
+     */
+    private static long percentil(long[] ordenadas, double percentil) {
+        int posicao = (int) Math.ceil(percentil / 100 * ordenadas.length);
+        return ordenadas[Math.max(posicao, 1) - 1];
+    }
+
+    private static double ms(double nanos) {
+        return arredondar(nanos / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 1000) / 1000.0;
+    }
+}
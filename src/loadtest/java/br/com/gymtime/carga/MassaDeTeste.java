@@ -0,0 +1,84 @@
+package br.com.gymtime.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * IDs usados pelos cenários, descobertos na aplicação antes da carga.
+ * <p>
+ * Os alunos são sorteados no intervalo {@code 1..alunos} (o intervalo gerado pelo profile {@code seed}).
+ * Para os cenários que precisam de um treino existente (atualização e PDF), uma amostra de alunos é consultada
+ * em {@code GET /api/v1/alunos/{id}/treinos}; de cada treino encontrado é guardado o corpo do {@code PUT},
+ * com os mesmos dados do treino, para que a carga não altere a massa de teste.
+ */
+final class MassaDeTeste {
+
+    /**
+     * Um treino existente e o corpo JSON que o atualiza com os próprios dados.
+     */
+    record TreinoExistente(long alunoId, long treinoId, String corpoAtualizacao) {}
+
+    private final long alunos;
+    private final List<TreinoExistente> treinos;
+
+    private MassaDeTeste(long alunos, List<TreinoExistente> treinos) {
+        this.alunos = alunos;
+        this.treinos = treinos;
+    }
+
+    static MassaDeTeste descobrir(HttpClient cliente, String url, long alunos, int amostra, long semente)
+            throws IOException, InterruptedException {
+        ObjectMapper json = new ObjectMapper();
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        List<TreinoExistente> treinos = new ArrayList<>();
+        for (int i = 0; i < amostra; i++) {
+            long alunoId = 1 + aleatorio.nextLong(alunos);
+            HttpResponse<String> resposta = cliente.send(
+                    HttpRequest.newBuilder(URI.create(url + "/api/v1/alunos/" + alunoId + "/treinos")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (resposta.statusCode() != 200) {
+                continue;
+            }
+            for (JsonNode treino : json.readTree(resposta.body())) {
+                ObjectNode corpo = json.createObjectNode();
+                corpo.set("nome", treino.get("nome"));
+                corpo.set("descricao", treino.get("descricao"));
+                ArrayNode exercicios = corpo.putArray("exercicios");
+                for (JsonNode exercicio : treino.get("exercicios")) {
+                    exercicios.addObject()
+                            .put("nomeExercicio", exercicio.get("nomeExercicio").asText())
+                            .set("seriesRepeticoes", exercicio.get("seriesRepeticoes"));
+                }
+                treinos.add(new TreinoExistente(alunoId, treino.get("id").asLong(), json.writeValueAsString(corpo)));
+            }
+        }
+        if (treinos.isEmpty()) {
+            throw new IllegalStateException("Nenhum treino encontrado entre " + amostra + " alunos sorteados em 1.." + alunos
+                    + ". A aplicação foi iniciada com o profile 'seed'?");
+        }
+        return new MassaDeTeste(alunos, List.copyOf(treinos));
+    }
+
+    long sortearAluno(SplittableRandom aleatorio) {
+        return 1 + aleatorio.nextLong(alunos);
+    }
+
+    TreinoExistente sortearTreino(SplittableRandom aleatorio) {
+        return treinos.get(aleatorio.nextInt(treinos.size()));
+    }
+
+    int quantidadeTreinos() {
+        return treinos.size();
+    }
+}
@@ -0,0 +1,316 @@
+package br.com.gymtime.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga HTTP da aplicação empacotada, com relatório de latência (p50/p95/p99/máx) e vazão por cenário.
+ * <p>
+ * Dois modelos de carga:
+ * <ul>
+ *     <li><b>fechado</b>: {@code usuarios} usuários virtuais, cada um enviando a próxima requisição assim que
+ *     recebe a resposta da anterior (mais a pausa opcional). Mede a capacidade máxima com N clientes.</li>
+ *     <li><b>aberto</b>: as requisições chegam a uma {@code taxa} fixa (req/s), independente das respostas.
+ *     A latência é medida a partir do instante planejado de envio, de forma que a fila formada quando a
+ *     aplicação não acompanha a taxa aparece nos percentis (sem "coordinated omission").</li>
+ * </ul>
+ * Os primeiros {@code aquecimento} segundos não entram no relatório. O relatório JSON é gravado em
+ * {@code saida}; com um {@code rotulo} (ex: versão ou modo de execução) os relatórios de diferentes execuções
+ * podem ser comparados lado a lado. O processo termina com código 1 se algum SLO de latência não for atendido ou se
+ * alguma requisição do modelo aberto foi descartada.
+ * <p>
+ * Uso (com a aplicação rodando com o profile {@code seed}):
+ * <pre>
+ * mvn -P carga compile exec:exec -Dcarga.args="url=http://localhost:8080 modelo=aberto taxa=100 duracao=120 rotulo=v1-jvm"
+ * </pre>
+ */
+public final class TesteDeCarga {
+
+    private static final Map<String, String> PADROES = new LinkedHashMap<>();
+
+    static {
+        PADROES.put("url", "http://localhost:8080");
+        PADROES.put("modelo", "fechado");
+        PADROES.put("usuarios", "16");
+        PADROES.put("taxa", "50");
+        PADROES.put("pausa-ms", "0");
+        PADROES.put("maximo-em-voo", "512");
+        PADROES.put("aquecimento", "10");
+        PADROES.put("duracao", "60");
+        PADROES.put("alunos", "10000");
+        PADROES.put("amostra", "200");
+        PADROES.put("semente", "42");
+        PADROES.put("mix", "aluno:30,treinos-do-aluno:25,atualizar-treino:10,lista-web:25,pdf:10");
+        PADROES.put("slo", "p95:250,p99:1000");
+        PADROES.put("rotulo", "");
+        PADROES.put("saida", "target/carga");
+    }
+
+    /**
+     * Resultado da verificação de um SLO de latência em um cenário.
+     */
+    record VerificacaoSlo(String cenario, String percentil, double limiteMs, double medidoMs, boolean atendido) {}
+
+    /**
+     * Relatório gravado em JSON ao final da execução.
+     */
+    record Relatorio(String rotulo, String inicio, String url, String modelo, Map<String, String> parametros,
+                     long descartadas, Estatisticas.Resumo total, List<Estatisticas.Resumo> cenarios,
+                     List<VerificacaoSlo> slos) {}
+
+    private final Map<String, String> parametros;
+    private final String url;
+    private final Cenario[] cenarios;
+    private final long[] pesosAcumulados;
+    private final Map<Cenario, Estatisticas> estatisticas = new EnumMap<>(Cenario.class);
+    private final AtomicLong descartadas = new AtomicLong();
+    private final ExecutorService executorHttp = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    private final HttpClient cliente;
+
+    private TesteDeCarga(Map<String, String> parametros) {
+        this.parametros = parametros;
+        this.url = parametros.get("url").replaceAll("/+$", "");
+        this.cliente = HttpClient.newBuilder()
+                .executor(executorHttp)
+                .connectTimeout(Cenario.TEMPO_LIMITE)
+                .build();
+
+        String[] pares = parametros.get("mix").split(",");
+        this.cenarios = new Cenario[pares.length];
+        this.pesosAcumulados = new long[pares.length];
+        long total = 0;
+        for (int i = 0; i < pares.length; i++) {
+            String[] par = pares[i].trim().split(":");
+            cenarios[i] = Cenario.daChave(par[0].trim());
+            total += Long.parseLong(par[1].trim());
+            pesosAcumulados[i] = total;
+            estatisticas.put(cenarios[i], new Estatisticas());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = new LinkedHashMap<>(PADROES);
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (esperado chave=valor): " + arg);
+            }
+            parametros.put(arg.substring(0, igual), arg.substring(igual + 1));
+        }
+        boolean aprovado = new TesteDeCarga(parametros).executar();
+        System.exit(aprovado ? 0 : 1);
+    }
+
+    private boolean executar() throws Exception {
+        String inicio = LocalDateTime.now().toString();
+        MassaDeTeste massa = MassaDeTeste.descobrir(cliente, url, inteiro("alunos"), (int) inteiro("amostra"), inteiro("semente"));
+        System.out.printf("Massa de teste: alunos 1..%d, %d treinos amostrados.%n", inteiro("alunos"), massa.quantidadeTreinos());
+
+        long aquecimento = TimeUnit.SECONDS.toNanos(inteiro("aquecimento"));
+        long duracao = TimeUnit.SECONDS.toNanos(inteiro("duracao"));
+        long inicioMedicao = System.nanoTime() + aquecimento;
+        long fimMedicao = inicioMedicao + duracao;
+
+        String modelo = parametros.get("modelo");
+        System.out.printf("Carga (%s) por %d s de aquecimento e %d s de medição em %s...%n",
+                modelo, inteiro("aquecimento"), inteiro("duracao"), url);
+        switch (modelo) {
+            case "fechado" -> executarFechado(massa, inicioMedicao, fimMedicao);
+            case "aberto" -> executarAberto(massa, inicioMedicao, fimMedicao);
+            default -> throw new IllegalArgumentException("Modelo de carga desconhecido (fechado|aberto): " + modelo);
+        }
+        executorHttp.shutdownNow();
+
+        double segundos = duracao / 1e9;
+        Estatisticas todas = new Estatisticas();
+        List<Estatisticas.Resumo> resumos = new ArrayList<>();
+        for (Map.Entry<Cenario, Estatisticas> entrada : estatisticas.entrySet()) {
+            resumos.add(entrada.getValue().resumir(entrada.getKey().chave(), segundos));
+            todas.incluir(entrada.getValue());
+        }
+        List<VerificacaoSlo> slos = verificarSlos(resumos);
+        Relatorio relatorio = new Relatorio(parametros.get("rotulo"), inicio, url, modelo, parametros,
+                descartadas.get(), todas.resumir("total", segundos), resumos, slos);
+
+        imprimir(relatorio);
+        Path arquivo = gravar(relatorio);
+        System.out.println("Relatório gravado em " + arquivo.toAbsolutePath());
+        return relatorio.descartadas() == 0 && slos.stream().allMatch(VerificacaoSlo::atendido);
+    }
+
+    /**
+     * Modelo fechado: cada usuário virtual envia uma requisição por vez.
+     */
+    private void executarFechado(MassaDeTeste massa, long inicioMedicao, long fimMedicao) throws InterruptedException {
+        int usuarios = (int) inteiro("usuarios");
+        long pausa = TimeUnit.MILLISECONDS.toNanos(inteiro("pausa-ms"));
+        long semente = inteiro("semente");
+        List<Thread> threads = new ArrayList<>();
+        for (int u = 0; u < usuarios; u++) {
+            SplittableRandom aleatorio = new SplittableRandom(semente + u + 1);
+            Thread usuario = new Thread(() -> {
+                while (System.nanoTime() < fimMedicao) {
+                    Cenario cenario = sortearCenario(aleatorio);
+                    HttpRequest requisicao = cenario.requisicao(url, massa, aleatorio).timeout(Cenario.TEMPO_LIMITE).build();
+                    long envio = System.nanoTime();
+                    boolean erro;
+                    try {
+                        erro = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                    } catch (IOException e) {
+                        erro = true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (envio >= inicioMedicao && envio < fimMedicao) {
+                        estatisticas.get(cenario).registrar(System.nanoTime() - envio, erro);
+                    }
+                    if (pausa > 0) {
+                        LockSupport.parkNanos(pausa);
+                    }
+                }
+            }, "usuario-virtual-" + u);
+            usuario.start();
+            threads.add(usuario);
+        }
+        for (Thread usuario : threads) {
+            usuario.join();
+        }
+    }
+
+    /**
+     * Modelo aberto: as requisições são enviadas em instantes planejados a uma taxa fixa.
+     * Se a aplicação não acompanhar e o número de requisições em andamento atingir {@code maximo-em-voo},
+     * as novas requisições não são enviadas. Cada uma delas é registrada como erro, com a latência do tempo limite
+     * ({@link Cenario#TEMPO_LIMITE}), no cenário sorteado para ela: assim os percentis não ficam melhores justamente
+     * quando a aplicação está sobrecarregada. O total de descartadas também vai para o relatório.
+     */
+    private void executarAberto(MassaDeTeste massa, long inicioMedicao, long fimMedicao) throws InterruptedException {
+        long intervalo = (long) (1e9 / Double.parseDouble(parametros.get("taxa")));
+        int maximoEmVoo = (int) inteiro("maximo-em-voo");
+        Semaphore emVoo = new Semaphore(maximoEmVoo);
+        SplittableRandom aleatorio = new SplittableRandom(inteiro("semente"));
+
+        long planejado = System.nanoTime();
+        while (planejado < fimMedicao) {
+            long espera = planejado - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            boolean medir = planejado >= inicioMedicao;
+            Cenario cenario = sortearCenario(aleatorio);
+            if (!emVoo.tryAcquire()) {
+                if (medir) {
+                    descartadas.incrementAndGet();
+                    estatisticas.get(cenario).registrar(Cenario.TEMPO_LIMITE.toNanos(), true);
+                }
+            } else {
+                HttpRequest requisicao = cenario.requisicao(url, massa, aleatorio).timeout(Cenario.TEMPO_LIMITE).build();
+                long instantePlanejado = planejado;
+                cliente.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((resposta, falha) -> {
+                            emVoo.release();
+                            if (medir) {
+                                boolean erro = falha != null || resposta.statusCode() >= 400;
+                                estatisticas.get(cenario).registrar(System.nanoTime() - instantePlanejado, erro);
+                            }
+                        });
+            }
+            planejado += intervalo;
+        }
+        // Aguarda as respostas das requisições ainda em andamento.
+        emVoo.tryAcquire(maximoEmVoo, Cenario.TEMPO_LIMITE.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    private Cenario sortearCenario(SplittableRandom aleatorio) {
+        long sorteio = aleatorio.nextLong(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (sorteio < pesosAcumulados[i]) {
+                return cenarios[i];
+            }
+        }
+        return cenarios[cenarios.length - 1];
+    }
+
+    /**
+     * Verifica os SLOs de latência de cada cenário. O SLO geral ({@code slo=p95:250,p99:1000}) pode ser
+     * substituído por cenário (ex: {@code slo.pdf=p95:800,p99:2000}).
+     */
+    private List<VerificacaoSlo> verificarSlos(List<Estatisticas.Resumo> resumos) {
+        List<VerificacaoSlo> verificacoes = new ArrayList<>();
+        for (Estatisticas.Resumo resumo : resumos) {
+            String especificacao = parametros.getOrDefault("slo." + resumo.nome(), parametros.get("slo"));
+            if (especificacao.isBlank()) {
+                continue;
+            }
+            for (String par : especificacao.split(",")) {
+                String[] partes = par.trim().split(":");
+                double limite = Double.parseDouble(partes[1]);
+                double medido = switch (partes[0]) {
+                    case "p50" -> resumo.latenciaMs().p50();
+                    case "p95" -> resumo.latenciaMs().p95();
+                    case "p99" -> resumo.latenciaMs().p99();
+                    case "max" -> resumo.latenciaMs().max();
+                    default -> throw new IllegalArgumentException("Percentil desconhecido no SLO: " + partes[0]);
+                };
+                verificacoes.add(new VerificacaoSlo(resumo.nome(), partes[0], limite, medido, medido <= limite));
+            }
+        }
+        return verificacoes;
+    }
+
+    private static void imprimir(Relatorio relatorio) {
+        System.out.printf("%n%-18s %9s %7s %9s %9s %9s %9s %9s%n", "cenário", "reqs", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "máx ms");
+        List<Estatisticas.Resumo> linhas = new ArrayList<>(relatorio.cenarios());
+        linhas.add(relatorio.total());
+        for (Estatisticas.Resumo resumo : linhas) {
+            System.out.printf("%-18s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", resumo.nome(), resumo.requisicoes(), resumo.erros(),
+                    resumo.vazao(), resumo.latenciaMs().p50(), resumo.latenciaMs().p95(), resumo.latenciaMs().p99(), resumo.latenciaMs().max());
+        }
+        if (relatorio.descartadas() > 0) {
+            System.out.printf("REQUISIÇÕES DESCARTADAS (máximo em voo atingido, contadas como erros): %d%n",
+                    relatorio.descartadas());
+        }
+        for (VerificacaoSlo slo : relatorio.slos()) {
+            if (!slo.atendido()) {
+                System.out.printf("SLO NÃO ATENDIDO: %s %s = %.2f ms (limite %.2f ms)%n",
+                        slo.cenario(), slo.percentil(), slo.medidoMs(), slo.limiteMs());
+            }
+        }
+    }
+
+    private Path gravar(Relatorio relatorio) throws IOException {
+        Path diretorio = Path.of(parametros.get("saida"));
+        Files.createDirectories(diretorio);
+        String nome = "carga-" + (relatorio.rotulo().isBlank() ? "" : relatorio.rotulo() + "-")
+                + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now()) + ".json";
+        Path arquivo = diretorio.resolve(nome);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(arquivo.toFile(), relatorio);
+        return arquivo;
+    }
+
+    private long inteiro(String parametro) {
+        return Long.parseLong(parametros.get(parametro));
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.gymtime.academia;
+
+import br.com.gymtime.repository.AcademiaRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Filtro que associa cada requisição a uma academia ({@link ContextoAcademia}).
+ * <p>
+ * A aplicação não autentica os usuários; a academia só é aceita de uma origem confiável, nesta ordem:
+ * <ol>
+ *     <li>O header {@value #HEADER}, acompanhado do header {@value #HEADER_ASSINATURA} com a assinatura do gateway
+ *     (que autentica o usuário e remove os headers enviados pelo cliente): {@link #assinar(String, long)} com a chave
+ *     {@code gymtime.academia.gateway.chave}. Sem a chave configurada, ou com uma assinatura inválida, a requisição
+ *     responde 401. Um valor que não é um número responde 400.</li>
+ *     <li>O host da requisição, para a camada web (o navegador não envia o header do gateway): a academia cuja coluna
+ *     {@code host} é o host acessado.</li>
+ *     <li>A academia padrão, se {@code gymtime.academia.padrao-sem-identificacao} estiver habilitada (instalações com
+ *     uma única academia). Caso contrário, a requisição responde 401.</li>
+ * </ol>
+ * Uma academia inexistente responde 404. As academias e os hosts já encontrados ficam em memória (as academias não
+ * são removidas), para que a verificação não custe uma consulta por requisição; um host sem academia é consultado a
+ * cada requisição, para que uma academia recém-cadastrada nunca seja atendida como a academia padrão.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class AcademiaFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Academia-Id";
+    public static final String HEADER_ASSINATURA = "X-Academia-Assinatura";
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    private final AcademiaRepository academiaRepository;
+    private final SecretKeySpec chaveGateway;
+    private final boolean padraoSemIdentificacao;
+    private final Set<Long> existentes = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> hosts = new ConcurrentHashMap<>();
+
+    public AcademiaFilter(AcademiaRepository academiaRepository,
+                          @Value("${gymtime.academia.gateway.chave:}") String chaveGateway,
+                          @Value("${gymtime.academia.padrao-sem-identificacao}") boolean padraoSemIdentificacao) {
+        if (!chaveGateway.isEmpty() && chaveGateway.length() < 32) {
+            throw new IllegalArgumentException("A chave de assinatura do gateway (gymtime.academia.gateway.chave) deve ter ao menos 32 caracteres.");
+        }
+        this.academiaRepository = academiaRepository;
+        this.chaveGateway = chaveGateway.isEmpty() ? null : new SecretKeySpec(chaveGateway.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.padraoSemIdentificacao = padraoSemIdentificacao;
+        existentes.add(ContextoAcademia.PADRAO);
+    }
+
+    /**
+     * Calcula a assinatura do header {@value #HEADER}, como o gateway deve fazer:
+     * {@code base64url(HMAC-SHA256(chave, id da academia))}, sem preenchimento.
+     *
+     * @param chave    A chave compartilhada com o gateway.
+     * @param academia O ID da academia.
+     * @return O valor do header {@value #HEADER_ASSINATURA}.
+     */
+    public static String assinar(String chave, long academia) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(hmac(new SecretKeySpec(chave.getBytes(StandardCharsets.UTF_8), ALGORITMO), academia));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String valor = request.getHeader(HEADER);
+        long academia;
+        if (valor != null) {
+            try {
+                academia = Long.parseLong(valor.trim());
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Header " + HEADER + " inválido: " + valor);
+                return;
+            }
+            if (!assinaturaValida(academia, request.getHeader(HEADER_ASSINATURA))) {
+                log.warn("Header {} sem assinatura válida do gateway recusado (academia {}).", HEADER, academia);
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Header " + HEADER + " sem assinatura válida.");
+                return;
+            }
+        } else {
+            Optional<Long> doHost = academiaDoHost(request.getServerName());
+            if (doHost.isPresent()) {
+                academia = doHost.get();
+            } else if (padraoSemIdentificacao) {
+                academia = ContextoAcademia.PADRAO;
+            } else {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Academia não identificada.");
+                return;
+            }
+        }
+        if (!existe(academia)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Academia não encontrada com ID: " + academia);
+            return;
+        }
+
+        Long anterior = ContextoAcademia.definir(academia);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContextoAcademia.definir(anterior);
+        }
+    }
+
+    private boolean assinaturaValida(long academia, String assinatura) {
+        if (chaveGateway == null || assinatura == null) {
+            return false;
+        }
+        try {
+            return MessageDigest.isEqual(Base64.getUrlDecoder().decode(assinatura.trim()), hmac(chaveGateway, academia));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static byte[] hmac(SecretKeySpec chave, long academia) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(Long.toString(academia).getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponível para verificar o header " + HEADER + ".", e);
+        }
+    }
+
+    private Optional<Long> academiaDoHost(String host) {
+        if (host == null || host.isEmpty()) {
+            return Optional.empty();
+        }
+        String normalizado = host.toLowerCase(Locale.ROOT);
+        Long conhecida = hosts.get(normalizado);
+        if (conhecida != null) {
+            return Optional.of(conhecida);
+        }
+        Optional<Long> encontrada = academiaRepository.findIdByHost(normalizado);
+        encontrada.ifPresent(id -> {
+            hosts.put(normalizado, id);
+            existentes.add(id);
+        });
+        return encontrada;
+    }
+
+    private boolean existe(long academia) {
+        if (existentes.contains(academia)) {
+            return true;
+        }
+        if (academiaRepository.existsById(academia)) {
+            existentes.add(academia);
+            return true;
+        }
+        return false;
+    }
+}
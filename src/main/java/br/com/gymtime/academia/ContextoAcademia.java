@@ -0,0 +1,67 @@
+package br.com.gymtime.academia;
+
+import java.util.function.Supplier;
+
+/**
+ * A academia (tenant) associada à thread atual.
+ * <p>
+ * Cada requisição HTTP é associada a uma academia pelo {@link AcademiaFilter}. O Hibernate lê a academia daqui
+ * ({@link ResolvedorAcademia}) ao abrir cada sessão: as consultas de {@code Aluno} e {@code Treino} são filtradas
+ * por ela e as novas linhas são gravadas nela. Fora de uma requisição (inicialização, tarefas agendadas, testes),
+ * vale a {@link #PADRAO academia padrão}.
+ */
+public final class ContextoAcademia {
+
+    /**
+     * A academia criada pela migração V7, dona dos dados anteriores a ela.
+     */
+    public static final long PADRAO = 1L;
+
+    private static final ThreadLocal<Long> ATUAL = new ThreadLocal<>();
+
+    private ContextoAcademia() {
+    }
+
+    /**
+     * @return A academia da thread atual, ou a {@link #PADRAO academia padrão} se nenhuma foi definida.
+     */
+    public static long atual() {
+        Long academia = ATUAL.get();
+        return academia != null ? academia : PADRAO;
+    }
+
+    /**
+     * @return A academia definida explicitamente para a thread atual, ou {@code null}.
+     */
+    public static Long definida() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Associa a thread atual a uma academia.
+     *
+     * @param academia A academia, ou {@code null} para remover a associação.
+     * @return A academia associada anteriormente, a ser restaurada ao final.
+     */
+    public static Long definir(Long academia) {
+        Long anterior = ATUAL.get();
+        if (academia == null) {
+            ATUAL.remove();
+        } else {
+            ATUAL.set(academia);
+        }
+        return anterior;
+    }
+
+    /**
+     * Executa a ação com a thread associada à academia informada, restaurando a associação anterior ao final.
+     */
+    public static <T> T executar(Long academia, Supplier<T> acao) {
+        Long anterior = definir(academia);
+        try {
+            return acao.get();
+        } finally {
+            definir(anterior);
+        }
+    }
+}
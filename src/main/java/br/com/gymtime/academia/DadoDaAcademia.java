@@ -0,0 +1,9 @@
+package br.com.gymtime.academia;
+
+/**
+ * Entidade que pertence a uma academia, cuja coluna {@code academia_id} é o {@code @TenantId} do Hibernate.
+ */
+public interface DadoDaAcademia {
+
+    Long getAcademiaId();
+}
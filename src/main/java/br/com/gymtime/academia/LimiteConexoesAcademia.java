@@ -0,0 +1,134 @@
+package br.com.gymtime.academia;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource que limita as conexões em uso por academia, para que uma academia com muito movimento não ocupe
+ * o pool inteiro e deixe as outras esperando.
+ * <p>
+ * Cada academia tem um semáforo com {@code limite} permissões: uma conexão só é entregue depois de obter uma
+ * permissão, devolvida quando a conexão é fechada. Se a permissão não vier dentro do tempo de espera, a conexão é
+ * recusada com uma {@link SQLTransientConnectionException}, como o próprio Hikari faz quando o pool se esgota.
+ * Apenas as threads com uma academia definida ({@link ContextoAcademia#definida()}), ou seja, as requisições HTTP,
+ * são limitadas. Uma thread que já tem uma conexão da academia obtém as seguintes sem nova permissão, para que não
+ * espere por si mesma.
+ */
+public class LimiteConexoesAcademia extends DelegatingDataSource {
+
+    private static final ThreadLocal<int[]> EM_USO_NA_THREAD = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final int limite;
+    private final long esperaNanos;
+    private final MeterRegistry meterRegistry;
+    private final Map<Long, Semaphore> semaforos = new ConcurrentHashMap<>();
+
+    public LimiteConexoesAcademia(DataSource alvo, int limite, Duration espera, MeterRegistry meterRegistry) {
+        super(alvo);
+        if (limite < 1) {
+            throw new IllegalArgumentException("O limite de conexões por academia deve ser positivo: " + limite);
+        }
+        this.limite = limite;
+        this.esperaNanos = espera.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Semaphore semaforo = obterPermissao();
+        return liberarAoFechar(semaforo, () -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Semaphore semaforo = obterPermissao();
+        return liberarAoFechar(semaforo, () -> super.getConnection(username, password));
+    }
+
+    /**
+     * @return As conexões da academia em uso, para as métricas e os testes.
+     */
+    public int emUso(long academia) {
+        Semaphore semaforo = semaforos.get(academia);
+        return semaforo == null ? 0 : limite - semaforo.availablePermits();
+    }
+
+    /**
+     * @return O semáforo do qual uma permissão foi obtida, ou {@code null} se a conexão não é limitada.
+     */
+    private Semaphore obterPermissao() throws SQLException {
+        Long academia = ContextoAcademia.definida();
+        if (academia == null || EM_USO_NA_THREAD.get()[0] > 0) {
+            return null;
+        }
+        Semaphore semaforo = semaforos.computeIfAbsent(academia, id -> {
+            Semaphore novo = new Semaphore(limite, true);
+            meterRegistry.gauge("gymtime.academia.conexoes.em_uso",
+                    Tags.of("academia", id.toString()), novo, s -> limite - s.availablePermits());
+            return novo;
+        });
+        try {
+            if (!semaforo.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS)) {
+                meterRegistry.counter("gymtime.academia.conexoes.recusadas", "academia", academia.toString()).increment();
+                throw new SQLTransientConnectionException("Limite de " + limite + " conexões da academia " + academia
+                        + " atingido; tente novamente em instantes.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando uma conexão da academia " + academia + ".", e);
+        }
+        return semaforo;
+    }
+
+    private Connection liberarAoFechar(Semaphore semaforo, FonteConexao fonte) throws SQLException {
+        if (semaforo == null) {
+            return fonte.obter();
+        }
+        Connection conexao;
+        try {
+            conexao = fonte.obter();
+        } catch (SQLException | RuntimeException e) {
+            semaforo.release();
+            throw e;
+        }
+        int[] emUso = EM_USO_NA_THREAD.get();
+        emUso[0]++;
+        AtomicBoolean liberada = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    if (metodo.getName().equals("close") && liberada.compareAndSet(false, true)) {
+                        try {
+                            conexao.close();
+                        } finally {
+                            emUso[0]--;
+                            semaforo.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexao, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface FonteConexao {
+        Connection obter() throws SQLException;
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.gymtime.academia;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Implementação base dos repositórios Spring Data da aplicação.
+ * <p>
+ * O Hibernate aplica o filtro de academia do {@code @TenantId} a todas as consultas, mas não ao carregamento pela
+ * chave primária ({@code EntityManager.find}), usado por {@link #findById(Object)}. Aqui o resultado é descartado se
+ * pertencer a outra academia, mantendo o {@code find}: uma entidade já carregada na sessão continua sendo devolvida
+ * sem nova consulta.
+ */
+public class RepositorioDaAcademia<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    public RepositorioDaAcademia(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return super.findById(id).filter(entidade -> !(entidade instanceof DadoDaAcademia dado)
+                || dado.getAcademiaId() == ContextoAcademia.atual());
+    }
+}
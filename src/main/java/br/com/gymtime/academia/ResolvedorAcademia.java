@@ -0,0 +1,20 @@
+package br.com.gymtime.academia;
+
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+
+/**
+ * Informa ao Hibernate a academia de cada nova sessão, que é o valor das colunas {@code @TenantId}
+ * ({@code academia_id}) nas consultas e nas inserções.
+ */
+public class ResolvedorAcademia implements CurrentTenantIdentifierResolver<Long> {
+
+    @Override
+    public Long resolveCurrentTenantIdentifier() {
+        return ContextoAcademia.atual();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.gymtime.config;
+
+import br.com.gymtime.academia.LimiteConexoesAcademia;
+import br.com.gymtime.academia.RepositorioDaAcademia;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Separação dos dados por academia.
+ * <ul>
+ *     <li>Os repositórios usam {@link RepositorioDaAcademia}, que aplica a academia também à busca pelo ID.</li>
+ *     <li>Limite de conexões por academia ({@link LimiteConexoesAcademia}), configurado por
+ *     {@code gymtime.academia.conexoes-maximas} e {@code gymtime.academia.espera-conexao}.</li>
+ * </ul>
+ * O limite envolve o DataSource da aplicação antes do proxy de instrumentação SQL ({@link DataSourceProxyConfig}),
+ * que continua sendo o DataSource externo.
+ */
+@Configuration
+@EnableJpaRepositories(basePackages = "br.com.gymtime.repository", repositoryBaseClass = RepositorioDaAcademia.class)
+public class AcademiaConfig {
+
+    @Bean
+    public static BeanPostProcessor limiteConexoesAcademiaPostProcessor(Environment ambiente,
+                                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        return new LimiteConexoesPostProcessor(ambiente, meterRegistry);
+    }
+
+    /**
+     * Ordenado, para ser aplicado antes do pós-processador (sem ordem) do proxy de instrumentação.
+     */
+    private record LimiteConexoesPostProcessor(Environment ambiente, ObjectProvider<MeterRegistry> meterRegistry)
+            implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LimiteConexoesAcademia)
+                    && !(bean instanceof ProxyDataSource)) {
+                return new LimiteConexoesAcademia(dataSource,
+                        ambiente.getRequiredProperty("gymtime.academia.conexoes-maximas", Integer.class),
+                        ambiente.getRequiredProperty("gymtime.academia.espera-conexao", Duration.class),
+                        meterRegistry.getObject());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.gymtime.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas ({@code @Scheduled}), executadas pelo agendador do Spring Boot
+ * (configurável por {@code spring.task.scheduling.*}).
+ * Usado pelos snapshots periódicos do banco em memória ({@code GerenciadorSnapshot}), pelo despacho dos eventos de
+ * domínio ({@code DespachanteEventos}), pela leitura das invalidações de outros nós ({@code BarramentoInvalidacaoBanco})
+ * e pelo expurgo dos alunos removidos ({@code ExpurgoAlunosRemovidos}).
+ */
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
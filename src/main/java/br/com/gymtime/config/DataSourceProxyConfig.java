@@ -0,0 +1,46 @@
+package br.com.gymtime.config;
+
+import br.com.gymtime.jfr.SqlJfrListener;
+import br.com.gymtime.metrics.SqlStatsListener;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração do proxy do DataSource (datasource-proxy).
+ * <p>
+ * Todas as instruções SQL passam pelo proxy, que alimenta as estatísticas por requisição
+ * ({@link SqlStatsListener}), gera os eventos JFR de SQL ({@link SqlJfrListener}) e, com o logger
+ * {@code gymtime.sql} em DEBUG, registra cada instrução com os parâmetros e o tempo de execução.
+ * Substitui o antigo {@code spring.jpa.show-sql}.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * Envolve o DataSource criado pelo Spring Boot com o proxy de instrumentação.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatsListener())
+                            .listener(new SqlJfrListener())
+                            .logQueryBySlf4j(SLF4JLogLevel.DEBUG, "gymtime.sql")
+                            .multiline()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.gymtime.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração das métricas da aplicação (Micrometer).
+ * <p>
+ * As métricas de requisições HTTP (por endpoint), do pool de conexões Hikari e do Hibernate são
+ * registradas automaticamente pelo Actuator. Esta classe habilita a anotação {@code @Timed}, usada
+ * nas implementações dos serviços para medir a latência de cada método.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Nome da métrica de latência dos métodos de serviço, com as tags {@code class} e {@code method}.
+     */
+    public static final String METRICA_SERVICO = "gymtime.service";
+
+    /**
+     * Aspecto que cria um timer para cada método (ou classe) anotado com {@code @Timed}.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
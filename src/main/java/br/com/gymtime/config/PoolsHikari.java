@@ -0,0 +1,31 @@
+package br.com.gymtime.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+
+/**
+ * Criação dos pools Hikari adicionais (réplicas de leitura e shards), com as mesmas configurações do pool padrão.
+ */
+final class PoolsHikari {
+
+    private PoolsHikari() {
+    }
+
+    /**
+     * Cria um pool com as credenciais de {@code spring.datasource.*} e as configurações de
+     * {@code spring.datasource.hikari.*}, apontando para a URL informada.
+     *
+     * @param nome O nome do pool, usado na tag {@code pool} das métricas {@code hikaricp.*}.
+     */
+    static HikariDataSource criar(DataSourceProperties propriedades, String url, String nome, Binder binder,
+                                  MicrometerMetricsTrackerFactory metricas) {
+        HikariDataSource pool = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).url(url.trim()).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nome);
+        pool.setMetricsTrackerFactory(metricas);
+        return pool;
+    }
+}
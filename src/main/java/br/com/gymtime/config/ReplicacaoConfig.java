@@ -0,0 +1,61 @@
+package br.com.gymtime.config;
+
+import br.com.gymtime.replicacao.EstadoReplica;
+import br.com.gymtime.replicacao.RoteadorLeitura;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicas de leitura: substitui o DataSource do Spring Boot por um que envia as transações somente leitura
+ * às réplicas e o restante ao banco primário ({@link RoteadorLeitura}). Habilitado com
+ * {@code gymtime.replica.habilitado=true}.
+ * <p>
+ * O primário usa as propriedades {@code spring.datasource.*} (inclusive {@code spring.datasource.hikari.*});
+ * cada URL de {@code gymtime.replica.urls} ganha um pool com as mesmas configurações, que podem ser
+ * sobrescritas em {@code gymtime.replica.hikari.*}. Os pools não são beans: apenas o DataSource roteado passa
+ * pelo proxy de instrumentação SQL ({@link DataSourceProxyConfig}), e cada instrução é contada uma vez.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gymtime.replica.habilitado", havingValue = "true")
+public class ReplicacaoConfig {
+
+    @Bean(destroyMethod = "close")
+    public RoteadorLeitura roteadorLeitura(DataSourceProperties propriedades, Environment ambiente,
+                                           MeterRegistry meterRegistry, ObjectProvider<EstadoReplica> estado,
+                                           @Value("${gymtime.replica.urls}") List<String> urls,
+                                           @Value("${gymtime.replica.atraso-maximo}") Duration atrasoMaximo) {
+        Binder binder = Binder.get(ambiente);
+        MicrometerMetricsTrackerFactory metricas = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource primario = PoolsHikari.criar(propriedades, propriedades.determineUrl(), "primario", binder, metricas);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = PoolsHikari.criar(propriedades, urls.get(i), "replica-" + i, binder, metricas);
+            binder.bind("gymtime.replica.hikari", Bindable.ofInstance(replica));
+            replicas.add(replica);
+        }
+        return new RoteadorLeitura(primario, replicas, atrasoMaximo, estado, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorLeitura roteadorLeitura) {
+        return roteadorLeitura.criarDataSource();
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.gymtime.config;
+
+import br.com.gymtime.shard.RoteadorShards;
+import br.com.gymtime.shard.Shards;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Particionamento dos dados de alunos em shards ({@link Shards}). Habilitado com {@code gymtime.shard.habilitado=true}.
+ * <p>
+ * {@code spring.datasource.*} passa a ser o banco de diretório, com os dados globais, e cada URL de
+ * {@code gymtime.shard.urls} ganha um pool com as mesmas configurações ({@code spring.datasource.hikari.*}).
+ * As migrações do Flyway são aplicadas em todos os bancos. Os shards devem começar vazios, e a quantidade de
+ * shards não pode mudar depois que houver dados: o shard de cada registro é derivado do seu ID.
+ * <p>
+ * Não combina com as réplicas de leitura ({@code gymtime.replica.habilitado}), os snapshots
+ * ({@code gymtime.snapshot.habilitado}) e o profile {@code seed}, que acessam um único banco.
+ */
+@Configuration
+@ConditionalOnProperty(name = "gymtime.shard.habilitado", havingValue = "true")
+public class ShardConfig {
+
+    @Bean(destroyMethod = "close")
+    public RoteadorShards roteadorShards(DataSourceProperties propriedades, Environment ambiente, MeterRegistry meterRegistry,
+                                         @Value("${gymtime.shard.urls}") List<String> urls) {
+        Binder binder = Binder.get(ambiente);
+        MicrometerMetricsTrackerFactory metricas = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        HikariDataSource diretorio = PoolsHikari.criar(propriedades, propriedades.determineUrl(), "diretorio", binder, metricas);
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            shards.add(PoolsHikari.criar(propriedades, urls.get(i), "shard-" + i, binder, metricas));
+        }
+        return new RoteadorShards(diretorio, shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteadorShards roteadorShards) {
+        return roteadorShards.criarDataSource();
+    }
+
+    /**
+     * Aplica as migrações no diretório e em todos os shards, no lugar da migração padrão do Spring Boot.
+     */
+    @Bean
+    public FlywayMigrationStrategy migracaoShards(RoteadorShards roteadorShards) {
+        return roteadorShards::migrar;
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.gymtime.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+import org.springframework.web.servlet.resource.WebJarsResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuração de entrega dos recursos estáticos (CSS, JS e WebJars).
+ * <p>
+ * Os arquivos de {@code /css} e {@code /js} são servidos com a URL "carimbada" pelo hash do conteúdo
+ * (ex: {@code /css/style-5f1c...css}), reescrita automaticamente pelo Thymeleaf em {@code @{...}}.
+ * Como a URL muda sempre que o conteúdo muda, a resposta pode ser marcada como {@code immutable}
+ * e o navegador não precisa revalidá-la em recarregamentos. Quando existe uma variante pré-comprimida
+ * ({@code .gz} ou {@code .br}) gerada no build, ela é entregue de acordo com o {@code Accept-Encoding}.
+ * <p>
+ * Os templates referenciam os WebJars sem a versão (ex: {@code /webjars/font-awesome/css/all.min.css}): o
+ * {@link WebJarsResourceResolver} completa o caminho com a versão presente no classpath, e o Thymeleaf escreve a URL
+ * já com a versão. Assim, a troca de versão no {@code pom.xml} não exige alterar os templates, e a URL entregue ao
+ * navegador continua mudando junto com o conteúdo, o que permite a mesma política de cache.
+ */
+@Configuration
+public class WebResourceConfig implements WebMvcConfigurer {
+
+    private static final CacheControl CACHE_IMUTAVEL = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registrarComHashDeConteudo(registry, "/css/**", "classpath:/static/css/");
+        registrarComHashDeConteudo(registry, "/js/**", "classpath:/static/js/");
+
+        registry.addResourceHandler("/webjars/**")
+                .addResourceLocations("classpath:/META-INF/resources/webjars/")
+                .setCacheControl(CACHE_IMUTAVEL)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new WebJarsResourceResolver());
+    }
+
+    /**
+     * Registra um diretório estático cujas URLs recebem o hash do conteúdo.
+     * @param registry O registro de handlers de recursos.
+     * @param padrao O padrão de URL atendido (ex: "/css/**").
+     * @param local O diretório do classpath que contém os arquivos.
+     */
+    private void registrarComHashDeConteudo(ResourceHandlerRegistry registry, String padrao, String local) {
+        registry.addResourceHandler(padrao)
+                .addResourceLocations(local)
+                .setCacheControl(CACHE_IMUTAVEL)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
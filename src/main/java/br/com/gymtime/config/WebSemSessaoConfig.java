@@ -0,0 +1,33 @@
+package br.com.gymtime.config;
+
+import br.com.gymtime.web.FlashMapCookieManager;
+import br.com.gymtime.web.SemSessaoFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMapManager;
+
+/**
+ * Camada web sem sessão HTTP, para que qualquer nó atenda qualquer requisição.
+ * <p>
+ * Os atributos flash usam o {@link FlashMapCookieManager} no lugar do {@code SessionFlashMapManager} padrão
+ * (o auto-configurado do Spring Boot só é criado na ausência de um bean {@code flashMapManager}), e o
+ * {@link SemSessaoFilter} impede que uma sessão seja criada. A chave {@code gymtime.web.flash.chave} precisa ser
+ * a mesma em todos os nós e não tem valor padrão fora do profile dev: sem ela, a aplicação não inicia.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebSemSessaoConfig {
+
+    @Bean(name = DispatcherServlet.FLASH_MAP_MANAGER_BEAN_NAME)
+    public FlashMapManager flashMapManager(ObjectMapper objectMapper,
+                                           @Value("${gymtime.web.flash.chave:}") String chave) {
+        if (chave.isBlank()) {
+            throw new IllegalStateException("gymtime.web.flash.chave deve ser definida (ex: via variável GYMTIME_FLASH_CHAVE).");
+        }
+        return new FlashMapCookieManager(objectMapper, chave);
+    }
+}
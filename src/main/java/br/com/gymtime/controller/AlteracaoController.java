@@ -0,0 +1,52 @@
+package br.com.gymtime.controller;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlteracaoDTO;
+import br.com.gymtime.feed.FeedAlteracoes;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Controller REST do feed de alterações de alunos e treinos (Server-Sent Events).
+ */
+@RestController
+@RequestMapping("/api/v1")
+@RequiredArgsConstructor
+@Tag(name = "Alterações", description = "Feed de alterações de alunos e treinos, para atualizar painéis sem consultas periódicas")
+public class AlteracaoController {
+
+    private final FeedAlteracoes feedAlteracoes;
+
+    /**
+     * Abre o feed de alterações da academia da requisição.
+     * @param ultimoEventoId O ID do último evento recebido, enviado automaticamente pelo {@code EventSource} ao reconectar.
+     * @return O fluxo de eventos; cada evento traz um {@link AlteracaoDTO}.
+     */
+    @Operation(summary = "Feed de alterações de alunos e treinos",
+            description = "Fluxo Server-Sent Events com um evento ('aluno' ou 'treino') para cada criação, atualização ou remoção confirmada. "
+                    + "Com o header Last-Event-ID, as alterações perdidas desde aquele evento são enviadas primeiro; se não estiverem mais disponíveis, "
+                    + "é enviado o evento 'reinicio' e o cliente deve recarregar os dados.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Fluxo de eventos aberto",
+                    content = { @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                            schema = @Schema(implementation = AlteracaoDTO.class)) })
+    })
+    @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @Parameter(description = "ID do último evento recebido", example = "42")
+            @RequestHeader(name = "Last-Event-ID", required = false) Long ultimoEventoId) {
+        return feedAlteracoes.assinar(ContextoAcademia.atual(), ultimoEventoId);
+    }
+}
@@ -2,6 +2,7 @@ package br.com.gymtime.controller;
 
 import br.com.gymtime.dto.AlunoCreateDTO;
 import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
 import br.com.gymtime.dto.AlunoUpdateDTO;
 import br.com.gymtime.service.AlunoService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +31,11 @@ import java.util.List;
 @Tag(name = "Alunos", description = "Endpoints para o gerenciamento de alunos")
 public class AlunoController {
 
+    /**
+     * Número máximo de resultados aceito na busca instantânea.
+     */
+    private static final int LIMITE_MAXIMO_BUSCA = 50;
+
     private final AlunoService alunoService;
 
     /**
@@ -81,6 +87,27 @@ public class AlunoController {
         return ResponseEntity.ok(alunos);
     }
 
+    /**
+     * Busca instantânea de alunos por prefixo de nome, CPF ou telefone, pensada para o autocomplete da recepção.
+     * @param q O texto digitado, com ou sem máscara (ex: "ana", "123.456", "(11) 9999").
+     * @param limit O número máximo de resultados (entre 1 e 50).
+     * @return Um ResponseEntity com status 200 (OK) e os alunos encontrados.
+     */
+    @Operation(summary = "Busca instantânea de alunos",
+            description = "Busca alunos por prefixo do nome, do CPF ou do telefone usando um índice em memória. Pensado para autocomplete.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Busca realizada com sucesso",
+                    content = { @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = AlunoSearchResultDTO.class))) })
+    })
+    @GetMapping("/search")
+    public ResponseEntity<List<AlunoSearchResultDTO>> searchAlunos(
+            @Parameter(description = "Texto a ser buscado (nome, CPF ou telefone)", required = true, example = "ana") @RequestParam String q,
+            @Parameter(description = "Número máximo de resultados", example = "10") @RequestParam(defaultValue = "10") int limit) {
+        int limite = Math.max(1, Math.min(limit, LIMITE_MAXIMO_BUSCA));
+        return ResponseEntity.ok(alunoService.searchAlunos(q, limite));
+    }
+
     /**
      * Busca um aluno específico pelo seu ID.
      * @param id O ID único do aluno a ser buscado.
@@ -149,12 +176,14 @@ public class AlunoController {
 
     /**
      * Deleta um aluno do sistema.
-     * O delete é em cascata e removerá também todos os treinos associados a este aluno.
+     * A remoção é lógica e imediata: o aluno e os seus treinos deixam de aparecer em todas as consultas, e as linhas
+     * são apagadas depois, em segundo plano ({@link br.com.gymtime.expurgo.ExpurgoAlunosRemovidos}).
      * @param id O ID do aluno a ser deletado.
      * @return Um ResponseEntity com status 204 (No Content) indicando sucesso na operação.
      */
     @Operation(summary = "Deleta um aluno pelo ID",
-            description = "Remove permanentemente um aluno e todos os seus dados associados (treinos e exercícios) do sistema.")
+            description = "Remove um aluno e todos os seus dados associados (treinos e exercícios). Os dados deixam de aparecer "
+                    + "imediatamente, e o e-mail e o CPF ficam livres para um novo cadastro; a exclusão física é feita depois, em segundo plano.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Aluno deletado com sucesso", content = @Content),
             @ApiResponse(responseCode = "404", description = "Aluno não encontrado para o ID informado", content = @Content)
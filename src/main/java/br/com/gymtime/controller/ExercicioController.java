@@ -0,0 +1,64 @@
+package br.com.gymtime.controller;
+
+import br.com.gymtime.dto.ExercicioSuggestionDTO;
+import br.com.gymtime.service.ExercicioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controller REST para o catálogo de exercícios compartilhado entre os treinos.
+ * Fornece o endpoint de sugestões usado pelo autocomplete do formulário de treino.
+ */
+@RestController
+@RequestMapping("/api/v1/exercicios")
+@Tag(name = "Exercícios", description = "Endpoints para o catálogo de exercícios")
+public class ExercicioController {
+
+    /**
+     * Número máximo de sugestões aceito por requisição.
+     */
+    private static final int LIMITE_MAXIMO_SUGESTOES = 50;
+
+    private final ExercicioService exercicioService;
+
+    /**
+     * Construtor para injeção de dependência do ExercicioService.
+     * @param exercicioService O serviço que contém a lógica de negócio do catálogo de exercícios.
+     */
+    @Autowired
+    public ExercicioController(final ExercicioService exercicioService) {
+        this.exercicioService = exercicioService;
+    }
+
+    /**
+     * Sugere nomes de exercícios já cadastrados que começam com o prefixo informado.
+     * @param prefix O início do nome do exercício (ex: "sup").
+     * @param limit O número máximo de sugestões (entre 1 e 50).
+     * @return Um ResponseEntity com status 200 (OK) e as sugestões, das mais usadas para as menos usadas.
+     */
+    @Operation(summary = "Sugere nomes de exercícios",
+            description = "Retorna os nomes de exercícios do catálogo que começam com o prefixo informado, ignorando acentos e maiúsculas, ordenados pela quantidade de usos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sugestões retornadas com sucesso",
+                    content = { @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ExercicioSuggestionDTO.class))) })
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ExercicioSuggestionDTO>> suggestExercicios(
+            @Parameter(description = "Início do nome do exercício", required = true, example = "sup") @RequestParam String prefix,
+            @Parameter(description = "Número máximo de sugestões", example = "10") @RequestParam(defaultValue = "10") int limit) {
+        int limite = Math.max(1, Math.min(limit, LIMITE_MAXIMO_SUGESTOES));
+        return ResponseEntity.ok(exercicioService.suggestExercicios(prefix, limite));
+    }
+}
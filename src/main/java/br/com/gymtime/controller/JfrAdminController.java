@@ -0,0 +1,132 @@
+package br.com.gymtime.controller;
+
+import br.com.gymtime.jfr.GravadorJfr;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controller administrativo para gravações sob demanda do JDK Flight Recorder.
+ * Só existe quando {@code gymtime.jfr.habilitado=true} e exige o header {@value #HEADER_TOKEN}.
+ * O arquivo gerado pode ser aberto no JDK Mission Control (JMC) ou analisado com a ferramenta {@code jfr}.
+ */
+@RestController
+@RequestMapping("/admin/jfr")
+@ConditionalOnProperty(name = "gymtime.jfr.habilitado", havingValue = "true")
+@Tag(name = "Administração", description = "Endpoints de diagnóstico da JVM (desabilitados por padrão)")
+public class JfrAdminController {
+
+    public static final String HEADER_TOKEN = "X-Admin-Token";
+
+    /**
+     * Tempo, além da duração da gravação, para encerrá-la e gravar o arquivo antes de a requisição expirar.
+     */
+    private static final Duration MARGEM_RESPOSTA = Duration.ofSeconds(30);
+
+    private final GravadorJfr gravadorJfr;
+
+    /**
+     * Construtor para injeção de dependência do GravadorJfr.
+     * @param gravadorJfr O componente que controla as gravações do JFR.
+     */
+    @Autowired
+    public JfrAdminController(final GravadorJfr gravadorJfr) {
+        this.gravadorJfr = gravadorJfr;
+    }
+
+    /**
+     * Grava a JVM pelo tempo informado e devolve o arquivo {@code .jfr}.
+     * A requisição é assíncrona: nenhuma thread do Tomcat fica presa durante a gravação, e a resposta é escrita
+     * quando o arquivo fica pronto.
+     * @param token O token de administração.
+     * @param perfil O perfil do JFR: "default" (overhead ~1%) ou "profile" (amostragem mais detalhada).
+     * @param duracao A duração da gravação, em segundos.
+     * @return A resposta com o arquivo, preenchida ao fim da gravação.
+     */
+    @Operation(summary = "Grava um perfil da JVM com o JDK Flight Recorder",
+            description = "Inicia uma gravação JFR, aguarda a duração informada e devolve o arquivo .jfr, com os eventos da JVM e os eventos da aplicação (chamadas de serviço, instruções SQL e geração de PDFs).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Gravação concluída; o corpo é o arquivo .jfr"),
+            @ApiResponse(responseCode = "400", description = "Perfil ou duração inválidos"),
+            @ApiResponse(responseCode = "401", description = "Token de administração ausente ou inválido"),
+            @ApiResponse(responseCode = "409", description = "Já existe uma gravação em andamento")
+    })
+    @PostMapping
+    public DeferredResult<ResponseEntity<StreamingResponseBody>> gravar(
+            @Parameter(description = "Token de administração") @RequestHeader(value = HEADER_TOKEN, required = false) String token,
+            @Parameter(description = "Perfil do JFR (default ou profile)", example = "profile") @RequestParam(defaultValue = "profile") String perfil,
+            @Parameter(description = "Duração da gravação em segundos", example = "30") @RequestParam(defaultValue = "30") long duracao) throws IOException {
+        if (!gravadorJfr.isTokenValido(token)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token de administração inválido.");
+        }
+        if (duracao < 1 || duracao > gravadorJfr.getDuracaoMaxima().toSeconds()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A duração deve estar entre 1 e " + gravadorJfr.getDuracaoMaxima().toSeconds() + " segundos.");
+        }
+        if (!gravadorJfr.reservar()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Já existe uma gravação JFR em andamento.");
+        }
+
+        CompletableFuture<Path> gravacao;
+        try {
+            gravacao = gravadorJfr.gravar(perfil, Duration.ofSeconds(duracao));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        DeferredResult<ResponseEntity<StreamingResponseBody>> resultado =
+                new DeferredResult<>(Duration.ofSeconds(duracao).plus(MARGEM_RESPOSTA).toMillis());
+        gravacao.whenComplete((arquivo, falha) -> {
+            if (falha != null) {
+                resultado.setErrorResult(falha);
+                return;
+            }
+            try {
+                if (!resultado.setResult(resposta(arquivo))) {
+                    // O cliente desistiu ou a requisição expirou: ninguém vai ler o arquivo.
+                    Files.deleteIfExists(arquivo);
+                }
+            } catch (IOException e) {
+                resultado.setErrorResult(e);
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Monta a resposta com o arquivo da gravação, que é removido depois de enviado.
+     */
+    private static ResponseEntity<StreamingResponseBody> resposta(Path arquivo) throws IOException {
+        String nome = "gymtime-" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now()) + ".jfr";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(arquivo))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + nome)
+                .body(saida -> {
+                    try {
+                        Files.copy(arquivo, saida);
+                    } finally {
+                        Files.deleteIfExists(arquivo);
+                    }
+                });
+    }
+}
@@ -0,0 +1,18 @@
+package br.com.gymtime.dto;
+
+/**
+ * DTO (Data Transfer Object) de um evento do feed de alterações ({@code GET /api/v1/changes}).
+ * O evento só identifica a entidade alterada: quem precisa dos dados novos os consulta nos endpoints de sempre.
+ *
+ * @param tipo     O tipo da entidade alterada ("ALUNO" ou "TREINO").
+ * @param operacao A operação feita ("CRIADO", "ATUALIZADO" ou "REMOVIDO").
+ * @param id       O ID da entidade.
+ * @param versao   A posição da alteração na sequência de alterações, crescente; também é o ID do evento.
+ */
+public record AlteracaoDTO(
+        String tipo,
+        String operacao,
+        Long id,
+        long versao
+) {
+}
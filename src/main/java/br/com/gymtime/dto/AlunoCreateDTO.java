@@ -1,5 +1,6 @@
 package br.com.gymtime.dto;
 
+import br.com.gymtime.validation.CpfValido;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -13,7 +14,7 @@ import jakarta.validation.constraints.Size;
  * @param nome     O nome completo do aluno. Deve conter apenas letras e espaços.
  * @param email    O endereço de e-mail do aluno. Deve ser único e ter um formato válido.
  * @param telefone O número de telefone do aluno (opcional). Deve conter 10 ou 11 dígitos.
- * @param cpf      O CPF do aluno. Deve ser único e conter exatamente 11 dígitos.
+ * @param cpf      O CPF do aluno. Deve ser único, conter exatamente 11 dígitos e ter dígitos verificadores válidos.
  */
 public record AlunoCreateDTO(
         /**
@@ -48,11 +49,12 @@ public record AlunoCreateDTO(
         /**
          * CPF do aluno.
          * - Não pode ser nulo ou em branco.
-         * - Deve conter exatamente 11 dígitos numéricos.
+         * - Deve conter exatamente 11 dígitos numéricos, com dígitos verificadores válidos.
          * - Máscara de formatação (ex: XXX.XXX.XXX-XX).
          */
         @NotBlank(message = "O CPF não pode estar em branco.")
         @Pattern(regexp = "^[0-9]{11}$", message = "CPF deve conter exatamente 11 números.")
+        @CpfValido
         String cpf
 ) {
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package br.com.gymtime.dto;
 
+import br.com.gymtime.util.DocumentoUtils;
+
 import java.util.List;
 
 /**
@@ -29,13 +31,7 @@ public record AlunoResponseDTO(
      * @return O CPF formatado como String. Se o CPF for nulo ou inválido, retorna o valor original.
      */
     public String getFormattedCpf() {
-        if (cpf != null && cpf.matches("\\d{11}")) { //
-            return cpf.substring(0, 3) + "." +
-                    cpf.substring(3, 6) + "." +
-                    cpf.substring(6, 9) + "-" +
-                    cpf.substring(9, 11);
-        }
-        return cpf; // Retorna original se não estiver no formato esperado para formatação
+        return DocumentoUtils.formatarCpf(cpf);
     }
 
     /**
@@ -47,17 +43,6 @@ public record AlunoResponseDTO(
      * @return O telefone formatado como String. Se o telefone for nulo, vazio ou inválido, retorna o valor original.
      */
     public String getFormattedTelefone() {
-        if (telefone != null && !telefone.isEmpty()) { //
-            if (telefone.matches("\\d{11}")) { // Celular (XX) XXXXX-XXXX //
-                return "(" + telefone.substring(0, 2) + ") " +
-                        telefone.substring(2, 7) + "-" +
-                        telefone.substring(7, 11);
-            } else if (telefone.matches("\\d{10}")) { // Fixo (XX) XXXX-XXXX //
-                return "(" + telefone.substring(0, 2) + ") " +
-                        telefone.substring(2, 6) + "-" +
-                        telefone.substring(6, 10);
-            }
-        }
-        return telefone; // Retorna original ou vazio/nulo
+        return DocumentoUtils.formatarTelefone(telefone);
     }
-}
\ No newline at end of file
+}
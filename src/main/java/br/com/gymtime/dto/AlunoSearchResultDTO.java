@@ -0,0 +1,21 @@
+package br.com.gymtime.dto;
+
+/**
+ * DTO (Data Transfer Object) com os dados de um aluno retornados pela busca instantânea (autocomplete).
+ * As instâncias são mantidas diretamente no índice de busca em memória, por isso o record é imutável
+ * e não inclui a lista de treinos.
+ *
+ * @param id       O identificador único do aluno.
+ * @param nome     O nome completo do aluno.
+ * @param email    O endereço de e-mail do aluno.
+ * @param telefone O número de telefone do aluno, contendo apenas dígitos.
+ * @param cpf      O CPF do aluno, contendo apenas os 11 dígitos.
+ */
+public record AlunoSearchResultDTO(
+        Long id,
+        String nome,
+        String email,
+        String telefone,
+        String cpf
+) {
+}
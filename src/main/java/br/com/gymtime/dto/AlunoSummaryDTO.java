@@ -0,0 +1,44 @@
+package br.com.gymtime.dto;
+
+import br.com.gymtime.util.DocumentoUtils;
+
+/**
+ * DTO (Data Transfer Object) com a visão resumida de um Aluno, usada nas listagens paginadas.
+ * Diferente do {@link AlunoResponseDTO}, não carrega a árvore de treinos e exercícios:
+ * apenas a quantidade de treinos, calculada diretamente na consulta.
+ *
+ * @param id                O identificador único do aluno.
+ * @param nome              O nome completo do aluno.
+ * @param email             O endereço de e-mail do aluno.
+ * @param telefone          O número de telefone do aluno, contendo apenas dígitos.
+ * @param cpf               O CPF do aluno, contendo apenas os 11 dígitos.
+ * @param quantidadeTreinos A quantidade de treinos associados ao aluno.
+ */
+public record AlunoSummaryDTO(
+        Long id,
+        String nome,
+        String email,
+        String telefone,
+        String cpf,
+        int quantidadeTreinos
+) {
+    /**
+     * Formata o CPF armazenado para o padrão de exibição brasileiro.
+     * Exemplo: "12345678901" se torna "123.456.789-01".
+     *
+     * @return O CPF formatado como String. Se o CPF for nulo ou inválido, retorna o valor original.
+     */
+    public String getFormattedCpf() {
+        return DocumentoUtils.formatarCpf(cpf);
+    }
+
+    /**
+     * Formata o número de telefone armazenado para um padrão de exibição.
+     * Cobre formatos de celular (11 dígitos) e fixo (10 dígitos).
+     *
+     * @return O telefone formatado como String. Se o telefone for nulo, vazio ou inválido, retorna o valor original.
+     */
+    public String getFormattedTelefone() {
+        return DocumentoUtils.formatarTelefone(telefone);
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.gymtime.dto;
 
+import br.com.gymtime.validation.CpfValido;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
@@ -13,7 +14,7 @@ import jakarta.validation.constraints.Size;
  * @param nome     O novo nome do aluno. Se fornecido, deve ter entre 2 e 100 caracteres.
  * @param email    O novo e-mail do aluno. Se fornecido, deve ser único e ter um formato válido.
  * @param telefone O novo telefone do aluno. Se fornecido, deve conter 10 ou 11 dígitos.
- * @param cpf      O novo CPF do aluno. Se fornecido, deve ser único e conter 11 dígitos.
+ * @param cpf      O novo CPF do aluno. Se fornecido, deve ser único, conter 11 dígitos e ter dígitos verificadores válidos.
  */
 public record AlunoUpdateDTO(
         /**
@@ -39,9 +40,10 @@ public record AlunoUpdateDTO(
 
         /**
          * Novo CPF para o aluno.
-         * Se um valor for fornecido, ele deve conter exatamente 11 dígitos.
+         * Se um valor for fornecido, ele deve conter exatamente 11 dígitos, com dígitos verificadores válidos.
          */
         @Pattern(regexp = "^[0-9]{11}$", message = "CPF deve conter exatamente 11 números.")
+        @CpfValido
         String cpf
 ) {
 }
\ No newline at end of file
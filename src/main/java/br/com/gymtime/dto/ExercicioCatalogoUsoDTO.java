@@ -0,0 +1,16 @@
+package br.com.gymtime.dto;
+
+/**
+ * DTO (Data Transfer Object) com um exercício do catálogo e a quantidade de treinos que o utilizam.
+ * Usado para carregar o catálogo de exercícios em memória na inicialização da aplicação.
+ *
+ * @param id   O identificador do exercício no catálogo.
+ * @param nome O nome canônico do exercício (ex: "Supino reto").
+ * @param usos A quantidade de exercícios de treinos que referenciam este item do catálogo.
+ */
+public record ExercicioCatalogoUsoDTO(
+        Long id,
+        String nome,
+        long usos
+) {
+}
@@ -0,0 +1,14 @@
+package br.com.gymtime.dto;
+
+/**
+ * DTO (Data Transfer Object) com uma sugestão de nome de exercício para o autocomplete.
+ * Também é usado para carregar do banco a quantidade de usos de cada nome de exercício.
+ *
+ * @param nomeExercicio O nome canônico do exercício (ex: "Supino reto").
+ * @param usos          A quantidade de exercícios cadastrados com este nome.
+ */
+public record ExercicioSuggestionDTO(
+        String nomeExercicio,
+        long usos
+) {
+}
@@ -0,0 +1,126 @@
+package br.com.gymtime.evento;
+
+import br.com.gymtime.shard.RoteadorShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entrega aos {@link OuvinteEventos} os eventos de domínio gravados no outbox pelo {@link PublicadorEventos}.
+ * <p>
+ * A cada {@code gymtime.eventos.intervalo}, lê os eventos pendentes em lotes de {@code gymtime.eventos.lote}, entrega
+ * cada lote a todos os ouvintes e só então remove as suas linhas: se o nó parar ou um ouvinte falhar no meio do
+ * caminho, o lote é entregue de novo ("pelo menos uma vez"). Assim, o custo de cada ouvinte a mais fica aqui, e não
+ * na latência das escritas.
+ * <p>
+ * Cada nó despacha os eventos que ele mesmo gravou, na ordem em que foram gravados. Os eventos de outro nó só são
+ * assumidos depois de {@code gymtime.eventos.assumir-apos}, o que cobre um nó que parou com eventos pendentes. Com
+ * shards, o outbox de cada shard é lido separadamente.
+ * <p>
+ * Métricas:
+ * <ul>
+ *     <li>{@code gymtime.eventos.despachados}: eventos entregues a todos os ouvintes;</li>
+ *     <li>{@code gymtime.eventos.atraso}: tempo entre a gravação de um evento e a sua leitura para entrega;</li>
+ *     <li>{@code gymtime.eventos.falhas}: lotes que um ouvinte não conseguiu receber, por ouvinte.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class DespachanteEventos {
+
+    private static final String SQL_LEITURA = "select id, entidade, operacao, entidade_id, academia_id, origem, "
+            + "datediff('MILLISECOND', criado_em, localtimestamp) as atraso from eventos_outbox "
+            + "where origem = ? or criado_em < dateadd('MILLISECOND', ?, localtimestamp) order by id limit ?";
+
+    /**
+     * O outbox do banco principal ou, com shards, o de cada shard.
+     */
+    private final List<JdbcTemplate> outboxes = new ArrayList<>();
+    private final ObjectProvider<OuvinteEventos> ouvintes;
+    private final NoAplicacao noAplicacao;
+    private final MeterRegistry meterRegistry;
+    private final int lote;
+    private final Duration assumirApos;
+    private final Timer atraso;
+
+    public DespachanteEventos(JdbcTemplate jdbcTemplate,
+                              ObjectProvider<RoteadorShards> roteadorShards,
+                              ObjectProvider<OuvinteEventos> ouvintes,
+                              NoAplicacao noAplicacao,
+                              MeterRegistry meterRegistry,
+                              @Value("${gymtime.eventos.lote}") int lote,
+                              @Value("${gymtime.eventos.assumir-apos}") Duration assumirApos) {
+        RoteadorShards roteador = roteadorShards.getIfAvailable();
+        if (roteador == null) {
+            outboxes.add(jdbcTemplate);
+        } else {
+            roteador.shards().forEach(shard -> outboxes.add(new JdbcTemplate(shard)));
+        }
+        this.ouvintes = ouvintes;
+        this.noAplicacao = noAplicacao;
+        this.meterRegistry = meterRegistry;
+        this.lote = lote;
+        this.assumirApos = assumirApos;
+        this.atraso = Timer.builder("gymtime.eventos.atraso")
+                .description("Tempo entre a gravação de um evento de domínio no outbox e a sua leitura para entrega")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Despacha todos os eventos pendentes, lote a lote. Um lote que falha fica para o ciclo seguinte, junto com os
+     * posteriores do mesmo outbox, para manter a ordem.
+     */
+    @Scheduled(fixedDelayString = "${gymtime.eventos.intervalo}")
+    public synchronized void despachar() {
+        for (JdbcTemplate outbox : outboxes) {
+            int despachados;
+            do {
+                despachados = despacharLote(outbox);
+            } while (despachados == lote);
+        }
+    }
+
+    /**
+     * @return Quantos eventos foram entregues e removidos; zero se não havia eventos ou se algum ouvinte falhou.
+     */
+    private int despacharLote(JdbcTemplate outbox) {
+        List<Long> linhas = new ArrayList<>();
+        List<EventoDominio> eventos = new ArrayList<>();
+        outbox.query(SQL_LEITURA, resultado -> {
+            linhas.add(resultado.getLong("id"));
+            eventos.add(new EventoDominio(EventoDominio.Entidade.valueOf(resultado.getString("entidade")),
+                    EventoDominio.Operacao.valueOf(resultado.getString("operacao")),
+                    resultado.getLong("entidade_id"), resultado.getLong("academia_id"), resultado.getString("origem")));
+            atraso.record(Math.max(0, resultado.getLong("atraso")), TimeUnit.MILLISECONDS);
+        }, noAplicacao.id(), -assumirApos.toMillis(), lote);
+        if (eventos.isEmpty()) {
+            return 0;
+        }
+
+        for (OuvinteEventos ouvinte : ouvintes.orderedStream().toList()) {
+            try {
+                ouvinte.receber(eventos);
+            } catch (RuntimeException e) {
+                meterRegistry.counter("gymtime.eventos.falhas", "ouvinte", ouvinte.getClass().getSimpleName()).increment();
+                log.error("Falha ao entregar {} eventos a {}; o lote será entregue novamente.",
+                        eventos.size(), ouvinte.getClass().getSimpleName(), e);
+                return 0;
+            }
+        }
+        outbox.batchUpdate("delete from eventos_outbox where id = ?", linhas.stream().map(id -> new Object[]{id}).toList());
+        meterRegistry.counter("gymtime.eventos.despachados").increment(eventos.size());
+        log.debug("{} eventos de domínio despachados.", eventos.size());
+        return eventos.size();
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.gymtime.evento;
+
+/**
+ * Fato ocorrido no domínio (um aluno ou treino criado, atualizado ou removido), já confirmado no banco.
+ * <p>
+ * Os eventos são gravados no outbox pelo {@link PublicadorEventos}, na transação da alteração, e entregues depois aos
+ * {@link OuvinteEventos} pelo {@link DespachanteEventos}.
+ *
+ * @param entidade O tipo da entidade alterada.
+ * @param operacao A operação feita na entidade.
+ * @param id O ID da entidade.
+ * @param academia A academia da entidade.
+ * @param origem O nó da aplicação em que a alteração foi feita ({@link NoAplicacao}).
+ */
+public record EventoDominio(Entidade entidade, Operacao operacao, Long id, long academia, String origem) {
+
+    public enum Entidade {
+        ALUNO,
+        TREINO
+    }
+
+    public enum Operacao {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.gymtime.evento;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identifica este nó da aplicação nas linhas gravadas no banco e compartilhadas com os outros nós (outbox de eventos e
+ * invalidações). Um novo ID é gerado a cada inicialização.
+ */
+@Component
+public class NoAplicacao {
+
+    private final String id = UUID.randomUUID().toString();
+
+    public String id() {
+        return id;
+    }
+}
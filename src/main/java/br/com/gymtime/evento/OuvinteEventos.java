@@ -0,0 +1,19 @@
+package br.com.gymtime.evento;
+
+import java.util.List;
+
+/**
+ * Recebe do {@link DespachanteEventos} os eventos de domínio confirmados, fora das requisições que os geraram.
+ * <p>
+ * A entrega é "pelo menos uma vez": se algum ouvinte falhar, o lote inteiro é entregue de novo a todos no ciclo
+ * seguinte, assim como os eventos de um nó que parou antes de despachá-los. Por isso cada ouvinte deve tolerar
+ * eventos repetidos. Os ouvintes são chamados na ordem de {@link org.springframework.core.annotation.Order}.
+ */
+public interface OuvinteEventos {
+
+    /**
+     * @param eventos Um lote de eventos, na ordem em que foram gravados.
+     * @throws RuntimeException Para que o lote seja entregue novamente.
+     */
+    void receber(List<EventoDominio> eventos);
+}
@@ -0,0 +1,58 @@
+package br.com.gymtime.evento;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grava os eventos de domínio no outbox ({@code eventos_outbox}), na transação da alteração que os gerou.
+ * <p>
+ * A publicação custa uma única instrução, independentemente de quantos ouvintes existam: a entrega é feita depois,
+ * em segundo plano, pelo {@link DespachanteEventos}. Como a linha é confirmada junto com a alteração, um evento nunca
+ * se perde depois do commit nem é entregue se a transação for desfeita. Com shards, a linha fica no banco da
+ * transação, isto é, no shard do aluno.
+ */
+@Component
+@RequiredArgsConstructor
+public class PublicadorEventos {
+
+    private static final String SQL_INSERCAO =
+            "insert into eventos_outbox (entidade, operacao, entidade_id, academia_id, origem) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NoAplicacao noAplicacao;
+
+    /**
+     * Publica um evento para cada entidade alterada da academia atual.
+     *
+     * @param entidade O tipo das entidades alteradas.
+     * @param operacao A operação feita nas entidades.
+     * @param ids Os IDs das entidades alteradas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publicar(EventoDominio.Entidade entidade, EventoDominio.Operacao operacao, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long academia = ContextoAcademia.atual();
+        jdbcTemplate.batchUpdate(SQL_INSERCAO, ids.stream()
+                .map(id -> new Object[]{entidade.name(), operacao.name(), id, academia, noAplicacao.id()})
+                .toList());
+    }
+
+    /**
+     * Publica o evento de uma única entidade da academia atual.
+     *
+     * @see #publicar(EventoDominio.Entidade, EventoDominio.Operacao, Collection)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publicar(EventoDominio.Entidade entidade, EventoDominio.Operacao operacao, Long id) {
+        publicar(entidade, operacao, List.of(id));
+    }
+}
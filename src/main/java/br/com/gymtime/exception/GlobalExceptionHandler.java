@@ -2,16 +2,19 @@ package br.com.gymtime.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -94,6 +97,25 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Manipula a exceção {@link InvalidCpfException}.
+     * Retorna um status HTTP 400 (Bad Request).
+     * @param ex A exceção lançada.
+     * @param request O contexto da requisição web.
+     * @return Um ResponseEntity contendo os detalhes do erro e o status 400.
+     */
+    @ExceptionHandler(InvalidCpfException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidCpfException(InvalidCpfException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "CPF Inválido",
+                ex.getMessage(),
+                request.getDescription(false).replace("uri=", "")
+        );
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Manipula a exceção {@link MethodArgumentNotValidException}, lançada quando a validação de um
      * argumento anotado com @Valid falha.
@@ -126,6 +148,32 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(validationErrorDetails, headers, status);
     }
 
+    /**
+     * Manipula a exceção {@link CannotCreateTransactionException}, lançada quando não foi possível obter uma conexão
+     * com o banco, seja pelo pool esgotado ou pelo limite de conexões da academia ({@code LimiteConexoesAcademia}).
+     * Retorna um status HTTP 503 (Service Unavailable) com o header {@code Retry-After}.
+     * @param ex A exceção lançada.
+     * @param request O contexto da requisição web.
+     * @return Um ResponseEntity contendo os detalhes do erro e o status 503.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorDetails> handleCannotCreateTransactionException(CannotCreateTransactionException ex, WebRequest request) {
+        Throwable causa = NestedExceptionUtils.getMostSpecificCause(ex);
+        log.warn("Conexão com o banco indisponível: {}", causa.getMessage());
+
+        ErrorDetails errorDetails = new ErrorDetails(
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Serviço Indisponível",
+                causa instanceof SQLTransientConnectionException ? causa.getMessage()
+                        : "O banco de dados está ocupado. Tente novamente em instantes.",
+                request.getDescription(false).replace("uri=", "")
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorDetails);
+    }
+
     /**
      * Manipulador "catch-all" para qualquer outra exceção não tratada especificamente.
      * Loga a exceção completa no servidor para depuração e retorna uma mensagem de erro
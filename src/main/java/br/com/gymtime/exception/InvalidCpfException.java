@@ -0,0 +1,24 @@
+package br.com.gymtime.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando um CPF não tem 11 dígitos ou os seus dígitos verificadores não conferem.
+ * A validação é feita antes de qualquer consulta ao banco de dados.
+ * A anotação {@code @ResponseStatus(HttpStatus.BAD_REQUEST)} instrui o Spring a
+ * retornar o status HTTP 400 (Bad Request) sempre que esta exceção não for
+ * tratada por um manipulador mais específico.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCpfException extends RuntimeException {
+
+    /**
+     * Construtor da exceção.
+     *
+     * @param message A mensagem de erro detalhando o problema no CPF.
+     */
+    public InvalidCpfException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.gymtime.expurgo;
+
+import br.com.gymtime.shard.RoteadorShards;
+import br.com.gymtime.snapshot.RemocoesDiretas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Apaga fisicamente os alunos removidos ({@code removido_em} preenchido), junto com os seus treinos e exercícios.
+ * <p>
+ * A remoção de um aluno é lógica e não apaga nada na requisição. O expurgo roda em {@code gymtime.expurgo.cron},
+ * fora do horário de pico, e apaga as linhas das folhas para a raiz (exercícios, treinos e por fim alunos) em lotes de
+ * {@code gymtime.expurgo.lote}. Cada lote seleciona os IDs e os apaga em uma instrução com commit próprio, o que
+ * mantém os bloqueios curtos, e o ritmo é limitado a {@code gymtime.expurgo.linhas-por-segundo}. Uma execução para depois de
+ * {@code gymtime.expurgo.duracao-maxima}; o que faltar fica para a seguinte. Com shards, cada shard é expurgado
+ * separadamente.
+ * <p>
+ * O expurgo usa SQL direto, sem as entidades: não passa pelo filtro de academia nem pelos listeners do Hibernate. Os
+ * IDs apagados em cada lote são informados aos componentes que acompanham as alterações do banco
+ * ({@link RemocoesDiretas}): o log de alterações dos snapshots, que passa a ter um snapshot pendente, e a réplica de
+ * leitura local, que apaga as mesmas linhas. Um aluno restaurado de um snapshot anterior ao expurgo continua
+ * removido e é expurgado de novo.
+ * <p>
+ * Métricas:
+ * <ul>
+ *     <li>{@code gymtime.expurgo.linhas}: linhas apagadas, por tabela;</li>
+ *     <li>{@code gymtime.expurgo.duracao}: duração de cada execução;</li>
+ *     <li>{@code gymtime.expurgo.pendentes}: alunos removidos ainda não expurgados, ao fim da última execução.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class ExpurgoAlunosRemovidos {
+
+    /**
+     * As etapas, na ordem das chaves estrangeiras. Cada uma apaga no máximo um lote por instrução.
+     */
+    private enum Etapa {
+
+        EXERCICIOS("exercicios", "select e.id from exercicios e join treinos t on t.id = e.treino_id "
+                + "join alunos a on a.academia_id = t.academia_id and a.id = t.aluno_id where a.removido_em is not null "
+                + "fetch first ? rows only"),
+
+        TREINOS("treinos", "select t.id from treinos t join alunos a on a.academia_id = t.academia_id and a.id = t.aluno_id "
+                + "where a.removido_em is not null and not exists (select 1 from exercicios e where e.treino_id = t.id) "
+                + "fetch first ? rows only"),
+
+        ALUNOS("alunos", "select a.id from alunos a where a.removido_em is not null "
+                + "and not exists (select 1 from treinos t where t.academia_id = a.academia_id and t.aluno_id = a.id) "
+                + "fetch first ? rows only");
+
+        private final String tabela;
+        private final String selecao;
+
+        Etapa(String tabela, String selecao) {
+            this.tabela = tabela;
+            this.selecao = selecao;
+        }
+
+        String exclusao() {
+            return "delete from " + tabela + " where id = any(?)";
+        }
+    }
+
+    /**
+     * O banco principal ou, com shards, cada shard.
+     */
+    private final List<JdbcTemplate> bancos = new ArrayList<>();
+    private final ObjectProvider<RemocoesDiretas> remocoesDiretas;
+    private final MeterRegistry meterRegistry;
+    private final int lote;
+    private final int linhasPorSegundo;
+    private final Duration duracaoMaxima;
+    private final Timer duracao;
+    private final AtomicLong pendentes = new AtomicLong();
+
+    public ExpurgoAlunosRemovidos(JdbcTemplate jdbcTemplate,
+                                  ObjectProvider<RoteadorShards> roteadorShards,
+                                  ObjectProvider<RemocoesDiretas> remocoesDiretas,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${gymtime.expurgo.lote}") int lote,
+                                  @Value("${gymtime.expurgo.linhas-por-segundo}") int linhasPorSegundo,
+                                  @Value("${gymtime.expurgo.duracao-maxima}") Duration duracaoMaxima) {
+        RoteadorShards roteador = roteadorShards.getIfAvailable();
+        if (roteador == null) {
+            bancos.add(jdbcTemplate);
+        } else {
+            roteador.shards().forEach(shard -> bancos.add(new JdbcTemplate(shard)));
+        }
+        this.remocoesDiretas = remocoesDiretas;
+        this.meterRegistry = meterRegistry;
+        this.lote = lote;
+        this.linhasPorSegundo = linhasPorSegundo;
+        this.duracaoMaxima = duracaoMaxima;
+        this.duracao = Timer.builder("gymtime.expurgo.duracao")
+                .description("Duração de cada execução do expurgo de alunos removidos")
+                .register(meterRegistry);
+        meterRegistry.gauge("gymtime.expurgo.pendentes", pendentes);
+    }
+
+    /**
+     * Expurga os alunos removidos, lote a lote, até terminar ou atingir {@code gymtime.expurgo.duracao-maxima}.
+     */
+    @Scheduled(cron = "${gymtime.expurgo.cron}")
+    public synchronized void expurgar() {
+        long inicio = System.nanoTime();
+        long limite = inicio + duracaoMaxima.toNanos();
+        long apagadas = 0;
+        try {
+            for (JdbcTemplate banco : bancos) {
+                for (Etapa etapa : Etapa.values()) {
+                    int apagadasNoLote;
+                    do {
+                        if (System.nanoTime() >= limite) {
+                            log.info("Expurgo interrompido após {}: {} linhas apagadas, o restante fica para a próxima execução.",
+                                    duracaoMaxima, apagadas);
+                            return;
+                        }
+                        apagadasNoLote = apagarLote(banco, etapa);
+                        apagadas += apagadasNoLote;
+                        meterRegistry.counter("gymtime.expurgo.linhas", "tabela", etapa.tabela).increment(apagadasNoLote);
+                        aguardar(apagadasNoLote);
+                    } while (apagadasNoLote == lote);
+                }
+            }
+            if (apagadas > 0) {
+                log.info("Expurgo concluído: {} linhas apagadas.", apagadas);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Expurgo interrompido: {} linhas apagadas.", apagadas);
+        } finally {
+            duracao.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            pendentes.set(bancos.stream()
+                    .mapToLong(banco -> banco.queryForObject("select count(*) from alunos where removido_em is not null", Long.class))
+                    .sum());
+        }
+    }
+
+    /**
+     * Apaga até um lote de linhas da etapa e informa os IDs apagados.
+     *
+     * @return A quantidade de linhas apagadas.
+     */
+    private int apagarLote(JdbcTemplate banco, Etapa etapa) {
+        List<Long> ids = banco.queryForList(etapa.selecao, Long.class, lote);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        banco.update(etapa.exclusao(), (Object) ids.toArray(Long[]::new));
+        remocoesDiretas.forEach(destino -> destino.registrarRemocoes(etapa.tabela, ids));
+        return ids.size();
+    }
+
+    /**
+     * Limita o ritmo a {@code gymtime.expurgo.linhas-por-segundo}, aguardando o tempo correspondente às linhas apagadas.
+     */
+    private void aguardar(int apagadas) throws InterruptedException {
+        long pausa = apagadas * 1000L / linhasPorSegundo;
+        if (pausa > 0) {
+            Thread.sleep(pausa);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package br.com.gymtime.feed;
+
+import br.com.gymtime.dto.AlteracaoDTO;
+import br.com.gymtime.invalidacao.BarramentoInvalidacao;
+import br.com.gymtime.invalidacao.Invalidacao;
+import br.com.gymtime.invalidacao.OuvinteAlteracoes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feed de alterações de alunos e treinos por Server-Sent Events, para que os painéis não precisem consultar as
+ * listagens periodicamente só para perceber edições.
+ * <p>
+ * As alterações vêm do barramento de invalidação ({@link OuvinteAlteracoes}), já confirmadas e de todos os nós, e
+ * são enviadas aos assinantes da mesma academia. O ID de cada evento é a posição da alteração na sequência do
+ * cluster, que segue a ordem dos commits, de forma que um cliente que reconecta com {@code Last-Event-ID}, em
+ * qualquer nó, recebe primeiro as alterações que perdeu ({@link BarramentoInvalidacao#historico(long, long)}); se
+ * elas já foram descartadas, recebe um evento {@value #EVENTO_REINICIO} e deve recarregar os dados. As alterações
+ * que chegam enquanto o histórico é enviado esperam na fila do assinante e só são enviadas depois dele, sem as que
+ * o histórico já trouxe. A entrega é "pelo menos uma vez": um evento pode chegar repetido na reconexão.
+ * <p>
+ * Cada assinante é uma requisição assíncrona do servlet ({@link SseEmitter}): uma conexão parada não ocupa nenhuma
+ * thread. O barramento apenas coloca as alterações na fila de cada assinante; o envio é feito por um grupo de
+ * {@code gymtime.alteracoes.threads-envio} threads, uma conexão de cada vez, para que um cliente lento não atrase
+ * os demais nem a sincronização do barramento. Um assinante com {@code gymtime.alteracoes.fila} eventos pendentes é
+ * desconectado (métrica {@code gymtime.alteracoes.desconectados}) e retoma pelo {@code Last-Event-ID} ao
+ * reconectar. Um comentário é enviado a cada {@code gymtime.alteracoes.heartbeat}, o que mantém a conexão aberta
+ * nos proxies e descarta os assinantes que já desconectaram.
+ */
+@Component
+@Slf4j
+public class FeedAlteracoes implements OuvinteAlteracoes {
+
+    public static final String EVENTO_REINICIO = "reinicio";
+
+    private final BarramentoInvalidacao barramentoInvalidacao;
+    private final Duration duracaoConexao;
+    private final Duration esperaReconexao;
+    private final int fila;
+    private final ExecutorService envio;
+    private final Counter desconectados;
+
+    /**
+     * Academia -> conexões abertas.
+     */
+    private final Map<Long, Set<Assinante>> assinantes = new ConcurrentHashMap<>();
+
+    public FeedAlteracoes(BarramentoInvalidacao barramentoInvalidacao,
+                          MeterRegistry meterRegistry,
+                          @Value("${gymtime.alteracoes.duracao-conexao}") Duration duracaoConexao,
+                          @Value("${gymtime.alteracoes.espera-reconexao}") Duration esperaReconexao,
+                          @Value("${gymtime.alteracoes.fila}") int fila,
+                          @Value("${gymtime.alteracoes.threads-envio}") int threadsEnvio) {
+        this.barramentoInvalidacao = barramentoInvalidacao;
+        this.duracaoConexao = duracaoConexao;
+        this.esperaReconexao = esperaReconexao;
+        this.fila = fila;
+        AtomicInteger numero = new AtomicInteger();
+        this.envio = Executors.newFixedThreadPool(threadsEnvio, tarefa -> {
+            Thread thread = new Thread(tarefa, "feed-alteracoes-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.desconectados = Counter.builder("gymtime.alteracoes.desconectados")
+                .description("Assinantes do feed de alterações desconectados por não acompanharem os eventos")
+                .register(meterRegistry);
+        meterRegistry.gauge("gymtime.alteracoes.assinantes", assinantes,
+                mapa -> mapa.values().stream().mapToInt(Set::size).sum());
+    }
+
+    /**
+     * Abre uma conexão do feed para a academia.
+     *
+     * @param academia A academia cujas alterações serão enviadas.
+     * @param ultimoEventoId O último evento recebido pelo cliente (header {@code Last-Event-ID}), ou {@code null}
+     *                       para receber apenas as alterações a partir de agora.
+     * @return A conexão, encerrada após {@code gymtime.alteracoes.duracao-conexao} (o cliente reconecta sozinho).
+     */
+    public SseEmitter assinar(long academia, Long ultimoEventoId) {
+        return assinar(academia, ultimoEventoId, new SseEmitter(duracaoConexao.toMillis()));
+    }
+
+    SseEmitter assinar(long academia, Long ultimoEventoId, SseEmitter emitter) {
+        Set<Assinante> daAcademia = assinantes.computeIfAbsent(academia, id -> ConcurrentHashMap.newKeySet());
+        Assinante assinante = new Assinante(daAcademia, emitter);
+        // Registrado antes de ler o histórico, para que nenhuma alteração entregue nesse meio tempo se perca: ela
+        // fica na fila até o histórico ser enviado.
+        daAcademia.add(assinante);
+        emitter.onCompletion(assinante::descartar);
+        emitter.onTimeout(() -> {
+            // Encerramento normal: o cliente reconecta com o último ID recebido.
+            assinante.descartar();
+            emitter.complete();
+        });
+        emitter.onError(erro -> assinante.descartar());
+
+        // Só descarta os eventos até o ID do cliente se o histórico a partir dele foi enviado; após um reinício, o
+        // cliente recarrega os dados e recebe todas as alterações seguintes.
+        long ultimaEnviada = 0;
+        try {
+            emitter.send(SseEmitter.event().comment("conectado").reconnectTime(esperaReconexao.toMillis()));
+            if (ultimoEventoId != null) {
+                Optional<List<Invalidacao>> historico = barramentoInvalidacao.historico(academia, ultimoEventoId);
+                if (historico.isEmpty()) {
+                    emitter.send(SseEmitter.event().name(EVENTO_REINICIO).data("historico-indisponivel"));
+                } else {
+                    ultimaEnviada = ultimoEventoId;
+                    for (Invalidacao alteracao : historico.get()) {
+                        emitter.send(evento(alteracao));
+                        ultimaEnviada = alteracao.sequencia();
+                    }
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            assinante.descartar();
+            emitter.completeWithError(e);
+            return emitter;
+        }
+        assinante.liberar(ultimaEnviada);
+        return emitter;
+    }
+
+    @Override
+    public void alterado(List<Invalidacao> alteracoes) {
+        for (Invalidacao alteracao : alteracoes) {
+            Set<Assinante> daAcademia = assinantes.get(alteracao.academia());
+            if (daAcademia == null || daAcademia.isEmpty()) {
+                continue;
+            }
+            for (Assinante assinante : daAcademia) {
+                assinante.enfileirar(alteracao);
+            }
+        }
+    }
+
+    /**
+     * Envia o heartbeat às conexões sem eventos pendentes, descartando as que já foram fechadas pelo cliente.
+     */
+    @Scheduled(fixedDelayString = "${gymtime.alteracoes.heartbeat}")
+    public void heartbeat() {
+        assinantes.values().forEach(daAcademia -> daAcademia.forEach(Assinante::heartbeat));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        envio.shutdownNow();
+    }
+
+    private static SseEmitter.SseEventBuilder evento(Invalidacao alteracao) {
+        return SseEmitter.event()
+                .id(Long.toString(alteracao.sequencia()))
+                .name(alteracao.entidade().name().toLowerCase(Locale.ROOT))
+                .data(new AlteracaoDTO(alteracao.entidade().name(), alteracao.operacao().name(),
+                        alteracao.id(), alteracao.sequencia()));
+    }
+
+    /**
+     * Uma conexão do feed e a sua fila de eventos pendentes. No máximo uma tarefa de envio por assinante fica
+     * agendada no grupo de envio, o que preserva a ordem dos eventos. O {@link SseEmitter} nunca é usado com o
+     * bloqueio do assinante, que apenas protege a fila: um envio demorado não bloqueia quem enfileira.
+     */
+    private final class Assinante {
+
+        private final Set<Assinante> daAcademia;
+        private final SseEmitter emitter;
+        private final Deque<Invalidacao> pendentes = new ArrayDeque<>();
+
+        /**
+         * Posição do último evento enviado; os eventos da fila que o histórico já enviou são descartados.
+         */
+        private long ultimaEnviada;
+
+        /**
+         * O histórico já foi enviado e a fila pode ser esvaziada.
+         */
+        private boolean liberado;
+
+        /**
+         * Há uma tarefa de envio agendada ou em execução.
+         */
+        private boolean enviando;
+
+        private boolean heartbeatPendente;
+
+        /**
+         * A fila encheu: a conexão deve ser encerrada pela tarefa de envio.
+         */
+        private boolean atrasado;
+
+        private boolean descartado;
+
+        Assinante(Set<Assinante> daAcademia, SseEmitter emitter) {
+            this.daAcademia = daAcademia;
+            this.emitter = emitter;
+        }
+
+        synchronized void enfileirar(Invalidacao alteracao) {
+            if (descartado) {
+                return;
+            }
+            if (pendentes.size() >= fila) {
+                // O cliente não acompanha os eventos: a conexão é encerrada e ele retoma pelo Last-Event-ID.
+                log.warn("Assinante do feed de alterações desconectado com {} eventos pendentes.", pendentes.size());
+                desconectados.increment();
+                descartar();
+                atrasado = true;
+            } else {
+                pendentes.addLast(alteracao);
+            }
+            agendar();
+        }
+
+        synchronized void heartbeat() {
+            if (!descartado && pendentes.isEmpty()) {
+                heartbeatPendente = true;
+                agendar();
+            }
+        }
+
+        synchronized void liberar(long ultimaEnviada) {
+            this.ultimaEnviada = ultimaEnviada;
+            liberado = true;
+            agendar();
+        }
+
+        synchronized void descartar() {
+            descartado = true;
+            pendentes.clear();
+            daAcademia.remove(this);
+        }
+
+        private void agendar() {
+            if (liberado && !enviando && (atrasado || heartbeatPendente || !pendentes.isEmpty())) {
+                enviando = true;
+                envio.execute(this::enviar);
+            }
+        }
+
+        /**
+         * Envia os eventos pendentes, até esvaziar a fila. Executado pelo grupo de envio.
+         */
+        private void enviar() {
+            while (true) {
+                Invalidacao proxima = null;
+                boolean encerrar;
+                synchronized (this) {
+                    encerrar = atrasado;
+                    if (descartado || (pendentes.isEmpty() && !heartbeatPendente)) {
+                        enviando = false;
+                        atrasado = false;
+                        if (!encerrar) {
+                            return;
+                        }
+                    } else {
+                        proxima = pendentes.pollFirst();
+                        heartbeatPendente = false;
+                    }
+                }
+                try {
+                    if (encerrar) {
+                        emitter.complete();
+                        return;
+                    }
+                    if (proxima == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else if (proxima.sequencia() > ultimaEnviada) {
+                        emitter.send(evento(proxima));
+                        ultimaEnviada = proxima.sequencia();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado: a conexão é encerrada e sai da lista.
+                    descartar();
+                    emitter.completeWithError(e);
+                    log.debug("Assinante do feed de alterações desconectado: {}", e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.gymtime.invalidacao;
+
+import br.com.gymtime.evento.OuvinteEventos;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Distribui entre os nós da aplicação as invalidações dos dados mantidos em memória.
+ * <p>
+ * O barramento recebe do outbox, como {@link OuvinteEventos}, os eventos de domínio de cada escrita já confirmada e
+ * os entrega, nos outros nós, aos {@link OuvinteInvalidacao} registrados. O nó em que a escrita foi feita não recebe a
+ * própria invalidação, pois já atualiza a sua memória após o commit. Os {@link OuvinteAlteracoes}, como o feed de
+ * alterações, recebem as de todos os nós. A implementação padrão ({@link BarramentoInvalidacaoBanco}) usa uma tabela do próprio banco e não depende de
+ * infraestrutura adicional; outra implementação (ex: mensageria) pode substituí-la com
+ * {@code gymtime.invalidacao.barramento}.
+ */
+public interface BarramentoInvalidacao extends OuvinteEventos {
+
+    /**
+     * Lista as alterações de uma academia posteriores a uma posição da sequência, para que um cliente do feed de
+     * alterações retome de onde parou.
+     *
+     * @param academia A academia.
+     * @param depoisDe A última posição da sequência já conhecida pelo cliente.
+     * @return As alterações em ordem, ou vazio se parte delas já foi descartada e não é possível retomar.
+     */
+    Optional<List<Invalidacao>> historico(long academia, long depoisDe);
+}
@@ -0,0 +1,252 @@
+package br.com.gymtime.invalidacao;
+
+import br.com.gymtime.evento.EventoDominio;
+import br.com.gymtime.evento.NoAplicacao;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BarramentoInvalidacao} sobre a tabela {@code invalidacoes} do próprio banco, sem infraestrutura adicional.
+ * <p>
+ * Cada evento de domínio recebido do outbox ({@link br.com.gymtime.evento.DespachanteEventos}) vira uma linha, com a
+ * identificação do nó que fez a alteração ({@link NoAplicacao}).
+ * A cada {@code gymtime.invalidacao.intervalo}, cada nó lê as linhas de outros nós gravadas desde a leitura anterior
+ * e as entrega aos {@link OuvinteInvalidacao}: o atraso entre a escrita em um nó e a atualização da memória dos
+ * outros fica limitado a esse intervalo (mais o tempo da leitura). Os {@link OuvinteAlteracoes} recebem, no mesmo
+ * ciclo, as linhas de todos os nós.
+ * <p>
+ * O ID da linha é atribuído na inserção, e não no commit, e não serve para ler as linhas em ordem. Antes de cada
+ * leitura, o nó numera as linhas já confirmadas que ainda não têm posição (coluna {@code sequencia}), com o bloqueio
+ * da linha única de {@code invalidacoes_sequencia}: como uma linha confirmada depois de uma numeração só é numerada
+ * na seguinte, a sequência segue a ordem dos commits, sem lacunas, e quem já leu até uma posição nunca vê aparecer
+ * uma linha anterior a ela. A leitura é feita a partir da última posição lida; é ela que o feed de alterações usa
+ * para retomar ({@link #historico(long, long)}). As linhas mais antigas que {@code gymtime.invalidacao.retencao} são
+ * removidas, sempre do início da sequência.
+ * <p>
+ * Métricas:
+ * <ul>
+ *     <li>{@code gymtime.invalidacao.publicadas}: invalidações gravadas por este nó, por entidade;</li>
+ *     <li>{@code gymtime.invalidacao.atraso}: tempo entre a gravação de uma invalidação e a sua leitura aqui;</li>
+ *     <li>{@code gymtime.invalidacao.aplicadas}: invalidações aplicadas à memória deste nó, por ouvinte.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "gymtime.invalidacao.barramento", havingValue = "banco", matchIfMissing = true)
+@Slf4j
+public class BarramentoInvalidacaoBanco implements BarramentoInvalidacao {
+
+    private static final String SQL_LEITURA = "select sequencia, entidade, operacao, entidade_id, academia_id, origem, "
+            + "datediff('MILLISECOND', criada_em, localtimestamp) as atraso from invalidacoes "
+            + "where sequencia > ? order by sequencia";
+
+    private static final String SQL_HISTORICO = "select sequencia, entidade, operacao, entidade_id, academia_id from invalidacoes "
+            + "where academia_id = ? and sequencia > ? order by sequencia";
+
+    private static final String SQL_BLOQUEAR_SEQUENCIA = "select ultima from invalidacoes_sequencia where id = 1 for update";
+
+    private static final String SQL_NAO_NUMERADAS = "select id from invalidacoes where sequencia is null order by id";
+
+    private static final String SQL_NUMERAR = "update invalidacoes set sequencia = ? where id = ?";
+
+    private static final String SQL_ATUALIZAR_SEQUENCIA = "update invalidacoes_sequencia set ultima = ? where id = 1";
+
+    private static final String SQL_LIMPEZA = "delete from invalidacoes where sequencia <= (select max(sequencia) "
+            + "from invalidacoes where criada_em < dateadd('MILLISECOND', ?, localtimestamp))";
+
+    private static final String SQL_INSERCAO =
+            "insert into invalidacoes (entidade, operacao, entidade_id, academia_id, origem) values (?, ?, ?, ?, ?)";
+
+    /**
+     * Identifica este nó nas linhas gravadas, para que ele ignore as próprias invalidações.
+     */
+    private final String origem;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transacao;
+    private final List<OuvinteInvalidacao> ouvintes;
+    private final ObjectProvider<OuvinteAlteracoes> ouvintesAlteracoes;
+    private final MeterRegistry meterRegistry;
+    private final Duration retencao;
+    private final Timer atraso;
+
+    /**
+     * Última posição da sequência lida; {@code null} até a aplicação terminar de inicializar.
+     */
+    private Long ultimaLida;
+
+    public BarramentoInvalidacaoBanco(JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      NoAplicacao noAplicacao,
+                                      List<OuvinteInvalidacao> ouvintes,
+                                      ObjectProvider<OuvinteAlteracoes> ouvintesAlteracoes,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${gymtime.invalidacao.retencao}") Duration retencao) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.origem = noAplicacao.id();
+        this.ouvintes = ouvintes;
+        this.ouvintesAlteracoes = ouvintesAlteracoes;
+        this.meterRegistry = meterRegistry;
+        this.retencao = retencao;
+        this.atraso = Timer.builder("gymtime.invalidacao.atraso")
+                .description("Tempo entre a gravação de uma invalidação por outro nó e a sua leitura")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Grava uma invalidação para cada evento, com a origem do evento: os eventos de um nó que parou, despachados por
+     * este, também chegam à memória deste nó. Uma falha é propagada para que o despachante entregue o lote de novo.
+     */
+    @Override
+    public void receber(List<EventoDominio> eventos) {
+        jdbcTemplate.batchUpdate(SQL_INSERCAO, eventos.stream()
+                .map(evento -> new Object[]{evento.entidade().name(), evento.operacao().name(), evento.id(),
+                        evento.academia(), evento.origem()})
+                .toList());
+        eventos.stream()
+                .collect(Collectors.groupingBy(EventoDominio::entidade, Collectors.counting()))
+                .forEach((entidade, quantidade) -> meterRegistry.counter("gymtime.invalidacao.publicadas",
+                        "entidade", entidade.name()).increment(quantidade));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Não é possível retomar se a posição seguinte à conhecida já foi removida pela retenção, nem de uma posição
+     * posterior à última atribuída (a sequência recomeça quando o banco é recriado). Apenas as linhas já
+     * numeradas são listadas: as demais chegam ao feed pela sincronização, com posições maiores.
+     */
+    @Override
+    public Optional<List<Invalidacao>> historico(long academia, long depoisDe) {
+        long ultima = jdbcTemplate.queryForObject("select ultima from invalidacoes_sequencia where id = 1", Long.class);
+        if (depoisDe > ultima) {
+            // Posição que esta sequência ainda não atribuiu: a sequência recomeçou (banco recriado) ou o ID é inválido.
+            return Optional.empty();
+        }
+        Long primeiraRetida = jdbcTemplate.queryForObject("select min(sequencia) from invalidacoes", Long.class);
+        boolean descartadas = primeiraRetida == null ? ultima > depoisDe : primeiraRetida > depoisDe + 1;
+        if (descartadas) {
+            return Optional.empty();
+        }
+        return Optional.of(jdbcTemplate.query(SQL_HISTORICO, (resultado, linha) -> ler(resultado), academia, depoisDe));
+    }
+
+    /**
+     * Passa a ler as invalidações a partir da última posição já numerada. Executado antes da construção dos índices
+     * em memória, que também acontece ao fim da inicialização, para que nenhuma alteração feita entre as duas coisas
+     * fique de fora: as linhas ainda não numeradas recebem posições maiores.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void iniciar() {
+        ultimaLida = jdbcTemplate.queryForObject("select ultima from invalidacoes_sequencia where id = 1", Long.class);
+        log.info("Barramento de invalidação iniciado (nó {}).", origem);
+    }
+
+    /**
+     * Numera as invalidações confirmadas desde a sincronização anterior (de qualquer nó), lê as posteriores à última
+     * posição lida e as entrega aos ouvintes: as dos outros nós aos {@link OuvinteInvalidacao}, e todas aos
+     * {@link OuvinteAlteracoes}.
+     */
+    @Scheduled(fixedDelayString = "${gymtime.invalidacao.intervalo}")
+    public synchronized void sincronizar() {
+        if (ultimaLida == null) {
+            return;
+        }
+        numerar();
+        List<Invalidacao> todas = new ArrayList<>();
+        List<Invalidacao> novas = new ArrayList<>();
+        jdbcTemplate.query(SQL_LEITURA, resultado -> {
+            Invalidacao invalidacao = ler(resultado);
+            todas.add(invalidacao);
+            if (!origem.equals(resultado.getString("origem"))) {
+                novas.add(invalidacao);
+                atraso.record(Math.max(0, resultado.getLong("atraso")), TimeUnit.MILLISECONDS);
+            }
+        }, ultimaLida);
+
+        if (todas.isEmpty()) {
+            return;
+        }
+        ultimaLida = todas.get(todas.size() - 1).sequencia();
+        ouvintesAlteracoes.orderedStream().forEach(ouvinte -> {
+            try {
+                ouvinte.alterado(todas);
+            } catch (RuntimeException e) {
+                log.error("Falha ao entregar {} alterações a {}.", todas.size(), ouvinte.getClass().getSimpleName(), e);
+            }
+        });
+        if (novas.isEmpty()) {
+            return;
+        }
+        for (OuvinteInvalidacao ouvinte : ouvintes) {
+            try {
+                int aplicadas = ouvinte.invalidar(novas);
+                meterRegistry.counter("gymtime.invalidacao.aplicadas", "ouvinte", ouvinte.getClass().getSimpleName())
+                        .increment(aplicadas);
+            } catch (RuntimeException e) {
+                log.error("Falha ao aplicar {} invalidações em {}.", novas.size(), ouvinte.getClass().getSimpleName(), e);
+            }
+        }
+        log.debug("{} invalidações de outros nós aplicadas.", novas.size());
+    }
+
+    /**
+     * Remove as invalidações que todos os nós já tiveram tempo de ler: até a última posição gravada antes da
+     * retenção, para que as posições retidas continuem sem lacunas.
+     */
+    @Scheduled(fixedDelayString = "${gymtime.invalidacao.retencao}", initialDelayString = "${gymtime.invalidacao.retencao}")
+    public void limpar() {
+        int removidas = jdbcTemplate.update(SQL_LIMPEZA, -retencao.toMillis());
+        log.debug("{} invalidações antigas removidas.", removidas);
+    }
+
+    /**
+     * Dá a próxima posição da sequência, em ordem de ID, a cada linha confirmada ainda sem posição. O bloqueio de
+     * {@code invalidacoes_sequencia} serializa a numeração entre os nós.
+     */
+    private void numerar() {
+        transacao.executeWithoutResult(status -> {
+            long ultima = jdbcTemplate.queryForObject(SQL_BLOQUEAR_SEQUENCIA, Long.class);
+            List<Long> linhas = jdbcTemplate.queryForList(SQL_NAO_NUMERADAS, Long.class);
+            if (linhas.isEmpty()) {
+                return;
+            }
+            List<Object[]> posicoes = new ArrayList<>(linhas.size());
+            for (Long linha : linhas) {
+                posicoes.add(new Object[]{++ultima, linha});
+            }
+            jdbcTemplate.batchUpdate(SQL_NUMERAR, posicoes);
+            jdbcTemplate.update(SQL_ATUALIZAR_SEQUENCIA, ultima);
+        });
+    }
+
+    private static Invalidacao ler(ResultSet resultado) throws SQLException {
+        return new Invalidacao(EventoDominio.Entidade.valueOf(resultado.getString("entidade")),
+                EventoDominio.Operacao.valueOf(resultado.getString("operacao")),
+                resultado.getLong("entidade_id"), resultado.getLong("academia_id"), resultado.getLong("sequencia"));
+    }
+}
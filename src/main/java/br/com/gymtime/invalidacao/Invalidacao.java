@@ -0,0 +1,18 @@
+package br.com.gymtime.invalidacao;
+
+import br.com.gymtime.evento.EventoDominio;
+
+/**
+ * Aviso de que uma entidade foi alterada (criada, atualizada ou removida) e que as cópias em memória dela estão
+ * desatualizadas. A invalidação não diz o que mudou: quem a recebe relê a entidade do banco.
+ *
+ * @param entidade O tipo da entidade alterada.
+ * @param operacao A operação que alterou a entidade.
+ * @param id O ID da entidade.
+ * @param academia A academia da entidade, usada para relê-la.
+ * @param sequencia A posição da alteração na sequência de alterações de todo o cluster, crescente na ordem dos
+ *                  commits.
+ */
+public record Invalidacao(EventoDominio.Entidade entidade, EventoDominio.Operacao operacao, Long id, long academia,
+                          long sequencia) {
+}
@@ -0,0 +1,17 @@
+package br.com.gymtime.invalidacao;
+
+import java.util.List;
+
+/**
+ * Interessado em todas as alterações, inclusive as feitas por este nó (ao contrário de {@link OuvinteInvalidacao},
+ * que só recebe as dos outros nós).
+ */
+public interface OuvinteAlteracoes {
+
+    /**
+     * Recebe as alterações de um ciclo de leitura do barramento, na ordem da sequência.
+     *
+     * @param alteracoes As alterações lidas, de qualquer academia.
+     */
+    void alterado(List<Invalidacao> alteracoes);
+}
@@ -0,0 +1,17 @@
+package br.com.gymtime.invalidacao;
+
+import java.util.List;
+
+/**
+ * Dado em memória que precisa ser atualizado quando outro nó altera as entidades de que ele depende.
+ */
+public interface OuvinteInvalidacao {
+
+    /**
+     * Atualiza a memória para as invalidações recebidas de outros nós.
+     *
+     * @param invalidacoes As invalidações de um mesmo ciclo de leitura, na ordem em que foram publicadas.
+     * @return Quantas invalidações foram aplicadas por este ouvinte (as demais não lhe dizem respeito).
+     */
+    int invalidar(List<Invalidacao> invalidacoes);
+}
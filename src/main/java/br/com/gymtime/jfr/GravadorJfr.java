@@ -0,0 +1,140 @@
+package br.com.gymtime.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Gravações sob demanda do JDK Flight Recorder, usadas pelo endpoint administrativo {@code /admin/jfr}.
+ * <p>
+ * Habilitado apenas com {@code gymtime.jfr.habilitado=true}; nesse caso o token de acesso
+ * ({@code gymtime.jfr.token}) é obrigatório. Apenas uma gravação pode estar em andamento por vez. O fim de cada
+ * gravação é agendado no {@link TaskScheduler} da aplicação, e nenhuma thread fica parada esperando a duração.
+ * Além dos eventos da JVM do perfil escolhido ({@code default} ou {@code profile}), a gravação inclui
+ * os eventos da aplicação: {@link ServicoEvento}, {@link SqlEvento} e {@link PdfEvento}.
+ */
+@Component
+@ConditionalOnProperty(name = "gymtime.jfr.habilitado", havingValue = "true")
+@Slf4j
+public class GravadorJfr {
+
+    private final byte[] token;
+    private final Duration duracaoMaxima;
+    private final AtomicBoolean gravando = new AtomicBoolean();
+    private final TaskScheduler taskScheduler;
+
+    public GravadorJfr(TaskScheduler taskScheduler,
+                       @Value("${gymtime.jfr.token:}") String token,
+                       @Value("${gymtime.jfr.duracao-maxima:5m}") Duration duracaoMaxima) {
+        if (token.isBlank()) {
+            throw new IllegalStateException("gymtime.jfr.token deve ser definido quando gymtime.jfr.habilitado=true.");
+        }
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.duracaoMaxima = duracaoMaxima;
+        this.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Compara o token informado com o configurado, em tempo constante.
+     *
+     * @param tokenInformado O token recebido na requisição.
+     * @return {@code true} se o token for válido.
+     */
+    public boolean isTokenValido(String tokenInformado) {
+        return tokenInformado != null && MessageDigest.isEqual(token, tokenInformado.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Duration getDuracaoMaxima() {
+        return duracaoMaxima;
+    }
+
+    /**
+     * Reserva o gravador para uma nova gravação.
+     *
+     * @return {@code false} se já houver uma gravação em andamento.
+     */
+    public boolean reservar() {
+        return gravando.compareAndSet(false, true);
+    }
+
+    /**
+     * Inicia uma gravação pelo tempo informado. A gravação é encerrada e gravada em um arquivo {@code .jfr} por uma
+     * tarefa agendada, sem ocupar a thread de quem chamou; o arquivo deve ser removido por quem o recebeu.
+     * O gravador deve ter sido reservado com {@link #reservar()}; a reserva é liberada ao final (ou já aqui, se a
+     * gravação não puder ser iniciada).
+     *
+     * @param perfil  O perfil de configuração do JFR ({@code default}: baixo overhead; {@code profile}: mais detalhado).
+     * @param duracao O tempo de gravação (limitado à duração máxima configurada).
+     * @return O arquivo temporário com a gravação, disponível ao fim da duração.
+     * @throws IllegalArgumentException se o perfil não existir.
+     */
+    public CompletableFuture<Path> gravar(String perfil, Duration duracao) throws IOException {
+        boolean iniciada = false;
+        try {
+            Configuration configuracao;
+            try {
+                configuracao = Configuration.getConfiguration(perfil);
+            } catch (ParseException | IOException e) {
+                throw new IllegalArgumentException("Perfil JFR desconhecido: " + perfil);
+            }
+            Path arquivo = Files.createTempFile("gymtime-", ".jfr");
+            Recording gravacao = new Recording(configuracao);
+            try {
+                gravacao.setName("gymtime-sob-demanda");
+                gravacao.enable(ServicoEvento.class);
+                gravacao.enable(SqlEvento.class);
+                gravacao.enable(PdfEvento.class);
+                log.info("Iniciando gravação JFR (perfil '{}', {} s).", perfil, duracao.toSeconds());
+                gravacao.start();
+            } catch (RuntimeException e) {
+                gravacao.close();
+                Files.deleteIfExists(arquivo);
+                throw e;
+            }
+            CompletableFuture<Path> resultado = new CompletableFuture<>();
+            taskScheduler.schedule(() -> concluir(gravacao, arquivo, resultado), Instant.now().plus(duracao));
+            iniciada = true;
+            return resultado;
+        } finally {
+            if (!iniciada) {
+                gravando.set(false);
+            }
+        }
+    }
+
+    /**
+     * Encerra a gravação, grava o arquivo e libera a reserva do gravador.
+     */
+    private void concluir(Recording gravacao, Path arquivo, CompletableFuture<Path> resultado) {
+        try (gravacao) {
+            gravacao.stop();
+            gravacao.dump(arquivo);
+            log.info("Gravação JFR concluída: {} bytes.", Files.size(arquivo));
+            resultado.complete(arquivo);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(arquivo);
+            } catch (IOException falhaRemocao) {
+                e.addSuppressed(falhaRemocao);
+            }
+            resultado.completeExceptionally(e);
+        } finally {
+            gravando.set(false);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.gymtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR da geração de uma ficha de treino em PDF, emitido pelo {@code TreinoPdfRenderer}.
+ */
+@Name("br.com.gymtime.Pdf")
+@Label("Geração de PDF")
+@Category({"GymTime", "PDF"})
+@Description("Geração da ficha de treino em PDF.")
+@StackTrace(false)
+public class PdfEvento extends Event {
+
+    @Label("ID do Aluno")
+    public long alunoId;
+
+    @Label("ID do Treino")
+    public long treinoId;
+
+    @Label("Exercícios")
+    public int exercicios;
+
+    @Label("Tamanho")
+    @DataAmount
+    public long bytes;
+}
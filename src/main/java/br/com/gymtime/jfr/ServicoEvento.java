@@ -0,0 +1,33 @@
+package br.com.gymtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma chamada a um método da camada de serviço, emitido pelo {@link ServicoJfrAspect}.
+ * A duração do evento é o tempo da chamada, incluindo a transação.
+ */
+@Name("br.com.gymtime.Servico")
+@Label("Chamada de Serviço")
+@Category({"GymTime", "Serviço"})
+@Description("Chamada a um método da camada de serviço, com o ID da entidade quando houver.")
+@StackTrace(false)
+public class ServicoEvento extends Event {
+
+    @Label("Serviço")
+    String servico;
+
+    @Label("Método")
+    String metodo;
+
+    @Label("ID da Entidade")
+    @Description("Primeiro argumento numérico da chamada (ex: ID do aluno ou do treino); 0 se não houver.")
+    long entidadeId;
+
+    @Label("Exceção")
+    String excecao;
+}
@@ -0,0 +1,47 @@
+package br.com.gymtime.jfr;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emite um {@link ServicoEvento} para cada chamada aos métodos públicos das implementações de serviço.
+ * Sem uma gravação JFR ativa, o custo é apenas a verificação de {@link ServicoEvento#isEnabled()}.
+ */
+@Aspect
+@Component
+public class ServicoJfrAspect {
+
+    @Around("execution(public * br.com.gymtime.service.impl..*(..))")
+    public Object registrar(ProceedingJoinPoint chamada) throws Throwable {
+        ServicoEvento evento = new ServicoEvento();
+        if (!evento.isEnabled()) {
+            return chamada.proceed();
+        }
+        evento.begin();
+        try {
+            return chamada.proceed();
+        } catch (Throwable e) {
+            evento.excecao = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.servico = chamada.getSignature().getDeclaringType().getSimpleName();
+                evento.metodo = chamada.getSignature().getName();
+                evento.entidadeId = primeiroId(chamada.getArgs());
+                evento.commit();
+            }
+        }
+    }
+
+    private static long primeiroId(Object[] argumentos) {
+        for (Object argumento : argumentos) {
+            if (argumento instanceof Long || argumento instanceof Integer) {
+                return ((Number) argumento).longValue();
+            }
+        }
+        return 0;
+    }
+}
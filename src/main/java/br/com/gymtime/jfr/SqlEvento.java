@@ -0,0 +1,33 @@
+package br.com.gymtime.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma instrução SQL executada no pool de conexões, emitido pelo {@link SqlJfrListener}.
+ * O rastro de pilha é registrado para que o JMC mostre qual código de aplicação originou cada consulta.
+ */
+@Name("br.com.gymtime.Sql")
+@Label("Instrução SQL")
+@Category({"GymTime", "SQL"})
+@Description("Instrução SQL executada pela aplicação, com os parâmetros numéricos (IDs).")
+@StackTrace(true)
+public class SqlEvento extends Event {
+
+    @Label("SQL")
+    String sql;
+
+    @Label("IDs")
+    @Description("Parâmetros numéricos da instrução, normalmente os IDs das entidades. Textos (nomes, CPFs) não são registrados.")
+    String ids;
+
+    @Label("Tamanho do Lote")
+    int lote;
+
+    @Label("Sucesso")
+    boolean sucesso;
+}
@@ -0,0 +1,66 @@
+package br.com.gymtime.jfr;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Listener do datasource-proxy que emite um {@link SqlEvento} para cada instrução executada.
+ * O evento é iniciado antes da execução e guardado na própria {@link ExecutionInfo} até o fim dela.
+ */
+public class SqlJfrListener implements QueryExecutionListener {
+
+    private static final String CHAVE_EVENTO = SqlEvento.class.getName();
+    private static final int MAXIMO_IDS = 20;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlEvento evento = new SqlEvento();
+        if (evento.isEnabled()) {
+            evento.begin();
+            execInfo.addCustomValue(CHAVE_EVENTO, evento);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlEvento evento = execInfo.getCustomValue(CHAVE_EVENTO, SqlEvento.class);
+        if (evento == null) {
+            return;
+        }
+        evento.end();
+        if (evento.shouldCommit() && !queryInfoList.isEmpty()) {
+            QueryInfo consulta = queryInfoList.get(0);
+            evento.sql = consulta.getQuery();
+            evento.ids = ids(consulta);
+            evento.lote = execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+            evento.sucesso = execInfo.isSuccess();
+            evento.commit();
+        }
+    }
+
+    /**
+     * Junta os parâmetros numéricos da primeira execução da instrução (no máximo {@value #MAXIMO_IDS}).
+     */
+    private static String ids(QueryInfo consulta) {
+        if (consulta.getParametersList().isEmpty()) {
+            return null;
+        }
+        StringJoiner ids = new StringJoiner(",");
+        int quantidade = 0;
+        for (ParameterSetOperation parametro : consulta.getParametersList().get(0)) {
+            Object[] argumentos = parametro.getArgs();
+            if (argumentos.length > 1 && (argumentos[1] instanceof Long || argumentos[1] instanceof Integer)) {
+                ids.add(argumentos[1].toString());
+                if (++quantidade == MAXIMO_IDS) {
+                    break;
+                }
+            }
+        }
+        return quantidade == 0 ? null : ids.toString();
+    }
+}
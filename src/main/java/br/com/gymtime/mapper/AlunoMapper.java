@@ -0,0 +1,62 @@
+package br.com.gymtime.mapper;
+
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.model.Aluno;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Conversão da entidade {@link Aluno} para os seus DTOs de resposta.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlunoMapper {
+
+    private final TreinoMapper treinoMapper;
+
+    /**
+     * Converte uma entidade {@link Aluno} para seu DTO de resposta {@link AlunoResponseDTO},
+     * incluindo os treinos e os exercícios de cada treino.
+     * @param aluno A entidade a ser convertida.
+     * @return O DTO correspondente.
+     */
+    public AlunoResponseDTO convertToAlunoResponseDTO(Aluno aluno) {
+        if (aluno == null) {
+            return null;
+        }
+
+        List<TreinoResponseDTO> treinoDTOs = (aluno.getTreinos() == null)
+                ? Collections.emptyList()
+                : aluno.getTreinos().stream().map(treinoMapper::convertToTreinoResponseDTO).collect(Collectors.toList());
+
+        return new AlunoResponseDTO(
+                aluno.getId(),
+                aluno.getNome(),
+                aluno.getEmail(),
+                aluno.getTelefone(),
+                aluno.getCpf(),
+                treinoDTOs
+        );
+    }
+
+    /**
+     * Converte uma entidade {@link Aluno} para o DTO usado no índice de busca {@link AlunoSearchResultDTO}.
+     * @param aluno A entidade a ser convertida.
+     * @return O DTO correspondente.
+     */
+    public AlunoSearchResultDTO convertToAlunoSearchResultDTO(Aluno aluno) {
+        return new AlunoSearchResultDTO(
+                aluno.getId(),
+                aluno.getNome(),
+                aluno.getEmail(),
+                aluno.getTelefone(),
+                aluno.getCpf()
+        );
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.gymtime.mapper;
+
+import br.com.gymtime.dto.ExercicioResponseDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.model.Exercicio;
+import br.com.gymtime.model.Treino;
+import br.com.gymtime.search.ExercicioCatalogIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Conversão das entidades {@link Treino} e {@link Exercicio} para os seus DTOs de resposta.
+ * Compartilhada pelos serviços de alunos e de treinos (e usada diretamente pelos benchmarks JMH).
+ */
+@Component
+@RequiredArgsConstructor
+public class TreinoMapper {
+
+    private final ExercicioCatalogIndex exercicioCatalogIndex;
+
+    /**
+     * Converte uma entidade {@link Exercicio} para seu DTO de resposta {@link ExercicioResponseDTO}.
+     * O nome é lido do catálogo de exercícios em memória.
+     * @param exercicio A entidade a ser convertida.
+     * @return O DTO correspondente.
+     */
+    public ExercicioResponseDTO convertToExercicioResponseDTO(Exercicio exercicio) {
+        if (exercicio == null) return null;
+        return new ExercicioResponseDTO(
+                exercicio.getId(),
+                exercicioCatalogIndex.nomeDe(exercicio.getCatalogo()),
+                exercicio.getSeriesRepeticoes()
+        );
+    }
+
+    /**
+     * Converte uma entidade {@link Treino} para seu DTO de resposta {@link TreinoResponseDTO}.
+     * @param treino A entidade a ser convertida.
+     * @return O DTO correspondente.
+     */
+    public TreinoResponseDTO convertToTreinoResponseDTO(Treino treino) {
+        if (treino == null) return null;
+
+        List<ExercicioResponseDTO> exercicioDTOs = treino.getExercicios() == null ? Collections.emptyList()
+                : treino.getExercicios().stream()
+                .map(this::convertToExercicioResponseDTO)
+                .collect(Collectors.toList());
+
+        return new TreinoResponseDTO(
+                treino.getId(),
+                treino.getNome(),
+                treino.getDescricao(),
+                treino.getDataCriacao(),
+                treino.getDataAtualizacao(),
+                treino.getAluno() != null ? treino.getAluno().getId() : null,
+                exercicioDTOs
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.gymtime.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Estatísticas das instruções SQL executadas durante uma requisição HTTP.
+ * <p>
+ * Uma instância é associada à thread da requisição pelo {@link SqlStatsFilter} e alimentada pelo
+ * {@link SqlStatsListener} a cada instrução executada no pool de conexões. Além do total de instruções
+ * e do tempo gasto no JDBC, guarda quantas vezes cada "forma" de instrução se repetiu, o que permite
+ * detectar o padrão N+1 (a mesma consulta executada uma vez para cada item de uma lista).
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> ATUAL = new ThreadLocal<>();
+
+    private static final Pattern LITERAIS_TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern LITERAIS_NUMERICOS = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private int instrucoes;
+    private long tempoJdbcNanos;
+    private long inicioInstrucaoNanos;
+    private final Map<String, Integer> repeticoesPorForma = new HashMap<>();
+
+    private SqlRequestStats() {
+    }
+
+    /**
+     * Inicia a contagem para a requisição que está sendo processada na thread corrente.
+     * @return As estatísticas da requisição.
+     */
+    public static SqlRequestStats iniciar() {
+        SqlRequestStats stats = new SqlRequestStats();
+        ATUAL.set(stats);
+        return stats;
+    }
+
+    /**
+     * Retorna as estatísticas da requisição da thread corrente.
+     * @return As estatísticas, ou {@code null} se a thread não estiver processando uma requisição HTTP.
+     */
+    public static SqlRequestStats atual() {
+        return ATUAL.get();
+    }
+
+    /**
+     * Encerra a contagem da thread corrente.
+     */
+    public static void encerrar() {
+        ATUAL.remove();
+    }
+
+    /**
+     * Marca o início da execução de uma instrução.
+     * @param agoraNanos O valor de {@link System#nanoTime()} antes da execução.
+     */
+    void iniciarInstrucao(long agoraNanos) {
+        inicioInstrucaoNanos = agoraNanos;
+    }
+
+    /**
+     * Registra uma instrução executada.
+     * @param sql O SQL executado (com os parâmetros como {@code ?} em instruções preparadas).
+     * @param agoraNanos O valor de {@link System#nanoTime()} após a execução.
+     */
+    void registrar(String sql, long agoraNanos) {
+        instrucoes++;
+        tempoJdbcNanos += agoraNanos - inicioInstrucaoNanos;
+        repeticoesPorForma.merge(forma(sql), 1, Integer::sum);
+    }
+
+    public int getInstrucoes() {
+        return instrucoes;
+    }
+
+    public long getTempoJdbcNanos() {
+        return tempoJdbcNanos;
+    }
+
+    /**
+     * Retorna quantas vezes cada forma de instrução foi executada na requisição.
+     * @return Forma da instrução -> número de execuções.
+     */
+    public Map<String, Integer> getRepeticoesPorForma() {
+        return repeticoesPorForma;
+    }
+
+    /**
+     * Reduz uma instrução à sua "forma": literais viram {@code ?} e os espaços são colapsados, de forma que
+     * {@code select ... where id=1} e {@code select ... where id=2} contam como a mesma instrução.
+     */
+    static String forma(String sql) {
+        String semTexto = LITERAIS_TEXTO.matcher(sql).replaceAll("?");
+        String semNumeros = LITERAIS_NUMERICOS.matcher(semTexto).replaceAll("?");
+        return ESPACOS.matcher(semNumeros).replaceAll(" ").trim();
+    }
+}
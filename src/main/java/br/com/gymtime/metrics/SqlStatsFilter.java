@@ -0,0 +1,267 @@
+package br.com.gymtime.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro que mede as instruções SQL executadas em cada requisição HTTP.
+ * <p>
+ * Para cada requisição:
+ * <ul>
+ *     <li>adiciona o header {@code Server-Timing} com o número de instruções e o tempo gasto no JDBC,
+ *     visível na aba "Timing" das ferramentas de desenvolvedor do navegador;</li>
+ *     <li>registra as métricas {@code gymtime.sql.statements} e {@code gymtime.sql.time} por endpoint;</li>
+ *     <li>registra um aviso no log (e a métrica {@code gymtime.sql.n_plus_one}) quando uma mesma forma de
+ *     instrução se repete mais vezes do que o limite configurado, o sintoma típico de um N+1.</li>
+ * </ul>
+ * A resposta não fica em buffer: o header é adicionado imediatamente antes do commit, na primeira escrita no corpo,
+ * em um flush ou, sem corpo, ao fim da requisição. Assim, downloads e fluxos de eventos (SSE) são enviados à medida
+ * que são escritos. As consultas feitas depois da primeira escrita (ex: carregamento tardio durante a renderização de
+ * uma página) entram nas métricas, mas não no header. Os recursos estáticos, que não acessam o banco, não passam pelo
+ * filtro.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@Slf4j
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    private static final String[] PREFIXOS_IGNORADOS = {"/css/", "/js/", "/webjars/", "/h2-console", "/favicon.ico"};
+
+    private final MeterRegistry meterRegistry;
+    private final int limiteRepeticoes;
+
+    public SqlStatsFilter(MeterRegistry meterRegistry,
+                          @Value("${gymtime.sql.limite-repeticoes:10}") int limiteRepeticoes) {
+        this.meterRegistry = meterRegistry;
+        this.limiteRepeticoes = limiteRepeticoes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        for (String prefixo : PREFIXOS_IGNORADOS) {
+            if (caminho.startsWith(prefixo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.iniciar();
+        RespostaComServerTiming resposta = new RespostaComServerTiming(response, stats);
+        try {
+            filterChain.doFilter(request, resposta);
+        } finally {
+            SqlRequestStats.encerrar();
+            resposta.adicionarServerTiming();
+            registrarMetricas(request, stats);
+        }
+    }
+
+    private static String serverTiming(SqlRequestStats stats) {
+        return String.format(Locale.ROOT, "db;desc=\"consultas SQL: %d\";dur=%.3f",
+                stats.getInstrucoes(), stats.getTempoJdbcNanos() / 1_000_000.0);
+    }
+
+    private void registrarMetricas(HttpServletRequest request, SqlRequestStats stats) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = padrao != null ? padrao.toString() : "NONE";
+        String metodo = request.getMethod();
+
+        DistributionSummary.builder("gymtime.sql.statements")
+                .description("Instruções SQL executadas por requisição")
+                .tags("uri", uri, "method", metodo)
+                .register(meterRegistry)
+                .record(stats.getInstrucoes());
+        Timer.builder("gymtime.sql.time")
+                .description("Tempo gasto no JDBC por requisição")
+                .tags("uri", uri, "method", metodo)
+                .register(meterRegistry)
+                .record(stats.getTempoJdbcNanos(), TimeUnit.NANOSECONDS);
+
+        for (Map.Entry<String, Integer> forma : stats.getRepeticoesPorForma().entrySet()) {
+            if (forma.getValue() > limiteRepeticoes) {
+                log.warn("Possível N+1 em {} {}: a mesma instrução foi executada {} vezes: {}",
+                        metodo, uri, forma.getValue(), forma.getKey());
+                Counter.builder("gymtime.sql.n_plus_one")
+                        .description("Requisições em que uma mesma instrução SQL se repetiu acima do limite")
+                        .tags("uri", uri, "method", metodo)
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+
+    /**
+     * Resposta que adiciona o header {@code Server-Timing} uma única vez, antes de qualquer coisa que possa fazer o
+     * commit da resposta: escrita no corpo, flush, erro ou redirecionamento.
+     */
+    private static final class RespostaComServerTiming extends HttpServletResponseWrapper {
+
+        private final SqlRequestStats stats;
+        private boolean headerAdicionado;
+        private ServletOutputStream saida;
+        private PrintWriter escritor;
+
+        RespostaComServerTiming(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void adicionarServerTiming() {
+            if (headerAdicionado) {
+                return;
+            }
+            headerAdicionado = true;
+            if (!isCommitted()) {
+                addHeader("Server-Timing", serverTiming(stats));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (saida == null) {
+                saida = new SaidaComServerTiming(super.getOutputStream(), this);
+            }
+            return saida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (escritor == null) {
+                escritor = new PrintWriter(new EscritorComServerTiming(super.getWriter(), this));
+            }
+            return escritor;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            adicionarServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            adicionarServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            adicionarServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            adicionarServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+
+    private static final class SaidaComServerTiming extends ServletOutputStream {
+
+        private final ServletOutputStream destino;
+        private final RespostaComServerTiming resposta;
+
+        SaidaComServerTiming(ServletOutputStream destino, RespostaComServerTiming resposta) {
+            this.destino = destino;
+            this.resposta = resposta;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            resposta.adicionarServerTiming();
+            destino.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            resposta.adicionarServerTiming();
+            destino.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            resposta.adicionarServerTiming();
+            destino.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            resposta.adicionarServerTiming();
+            destino.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return destino.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            destino.setWriteListener(writeListener);
+        }
+    }
+
+    private static final class EscritorComServerTiming extends Writer {
+
+        private final PrintWriter destino;
+        private final RespostaComServerTiming resposta;
+
+        EscritorComServerTiming(PrintWriter destino, RespostaComServerTiming resposta) {
+            this.destino = destino;
+            this.resposta = resposta;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            resposta.adicionarServerTiming();
+            destino.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            resposta.adicionarServerTiming();
+            destino.write(str, off, len);
+        }
+
+        @Override
+        public void flush() {
+            resposta.adicionarServerTiming();
+            destino.flush();
+        }
+
+        @Override
+        public void close() {
+            resposta.adicionarServerTiming();
+            destino.close();
+        }
+    }
+}
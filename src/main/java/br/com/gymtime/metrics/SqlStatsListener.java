@@ -0,0 +1,35 @@
+package br.com.gymtime.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Listener do datasource-proxy que contabiliza cada instrução executada nas estatísticas da requisição
+ * corrente ({@link SqlRequestStats}). Instruções executadas fora de uma requisição HTTP (inicialização,
+ * tarefas agendadas) são ignoradas.
+ * <p>
+ * Um lote (batch) conta como uma única instrução, pois é enviado ao banco em uma única ida e volta.
+ */
+public class SqlStatsListener implements QueryExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlRequestStats stats = SqlRequestStats.atual();
+        if (stats != null) {
+            // O tempo medido pelo datasource-proxy tem resolução de milissegundos; medimos em nanossegundos.
+            stats.iniciarInstrucao(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlRequestStats stats = SqlRequestStats.atual();
+        if (stats == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        stats.registrar(queryInfoList.get(0).getQuery(), System.nanoTime());
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.gymtime.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Representa uma academia (tenant) da instalação.
+ * Mapeia a tabela "academias": cada aluno e cada treino pertence a uma academia (coluna {@code academia_id}).
+ * As academias são cadastradas diretamente no banco; a aplicação apenas as consulta.
+ */
+@Entity
+@Immutable
+@Table(name = "academias")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Academia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String nome;
+
+    /**
+     * Host pelo qual a camada web da academia é acessada (em minúsculas), ou {@code null}.
+     */
+    @Column(unique = true)
+    private String host;
+}
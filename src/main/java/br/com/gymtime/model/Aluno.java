@@ -1,12 +1,18 @@
 package br.com.gymtime.model;
 
+import br.com.gymtime.academia.DadoDaAcademia;
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.util.TextoUtils;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -14,19 +20,35 @@ import java.util.Objects;
 /**
  * Representa a entidade Aluno no banco de dados.
  * Mapeia a tabela "alunos" e contém as informações cadastrais de um aluno.
+ * Os alunos removidos ({@link #removidoEm} preenchido) ficam fora de todas as consultas até serem expurgados.
  */
 @Entity
-@Table(name = "alunos")
+@Table(name = "alunos", indexes = {
+        @Index(name = "idx_alunos_nome_busca", columnList = "academia_id, nome_busca"),
+        @Index(name = "uk_alunos_email_busca", columnList = "academia_id, email_busca, removido_em", unique = true),
+        @Index(name = "uk_alunos_cpf", columnList = "academia_id, cpf, removido_em", unique = true),
+        @Index(name = "idx_alunos_removido_em", columnList = "removido_em")
+})
+@SQLRestriction("removido_em is null")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-public class Aluno {
+public class Aluno implements DadoDaAcademia {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * A academia do aluno, preenchida pelo Hibernate com a academia da sessão ({@code ContextoAcademia}),
+     * que também filtra todas as consultas de alunos.
+     */
+    @TenantId
+    @Setter(AccessLevel.NONE)
+    @Column(name = "academia_id", nullable = false, updatable = false)
+    private Long academiaId;
+
     @NotBlank(message = "O nome não pode estar em branco.")
     @Size(min = 2, max = 100, message = "O nome deve ter entre 2 e 100 caracteres.")
     @Column(nullable = false, length = 100)
@@ -34,16 +56,39 @@ public class Aluno {
 
     @Email(message = "Formato de email inválido.")
     @NotBlank(message = "O email não pode estar em branco.")
-    @Column(nullable = false, unique = true, length = 100)
+    @Column(nullable = false, length = 100)
     private String email;
 
+    /**
+     * Nome normalizado (sem acentos, minúsculo, espaços colapsados) usado nas buscas por prefixo.
+     * É mantido automaticamente pelo {@link #setNome(String)}.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "nome_busca", nullable = false, length = 100)
+    private String nomeBusca;
+
+    /**
+     * E-mail em minúsculas usado nas buscas por prefixo.
+     * É mantido automaticamente pelo {@link #setEmail(String)}.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_busca", nullable = false, length = 100)
+    private String emailBusca;
+
     @Column(length = 11) // Armazena apenas os 11 dígitos, se houver.
     private String telefone;
 
     @NotBlank(message = "O CPF não pode estar em branco (apenas números).")
-    @Column(nullable = false, unique = true, length = 11)
+    @Column(nullable = false, length = 11)
     private String cpf;
 
+    /**
+     * Momento da remoção do aluno, ou {@code null} se ele está ativo. A remoção é lógica: o aluno, os seus treinos e
+     * os exercícios deles são apagados depois, em lotes, pelo {@code ExpurgoAlunosRemovidos}.
+     */
+    @Column(name = "removido_em")
+    private LocalDateTime removidoEm;
+
     /**
      * Lista de treinos associados a este aluno.
      * - cascade = CascadeType.ALL: Operações de persistência (salvar, deletar) no Aluno são propagadas para seus Treinos.
@@ -54,6 +99,26 @@ public class Aluno {
     @ToString.Exclude // Exclui este campo do método toString() para evitar LazyInitializationException e recursão infinita.
     private List<Treino> treinos = new ArrayList<>();
 
+    /**
+     * Setter customizado para o campo 'nome'.
+     * Atualiza também a coluna de busca {@code nome_busca} com a forma normalizada do nome.
+     * @param nome O nome do aluno.
+     */
+    public void setNome(String nome) {
+        this.nome = nome;
+        this.nomeBusca = TextoUtils.normalizarParaBusca(nome);
+    }
+
+    /**
+     * Setter customizado para o campo 'email'.
+     * Atualiza também a coluna de busca {@code email_busca} com o e-mail em minúsculas.
+     * @param email O e-mail do aluno.
+     */
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailBusca = TextoUtils.normalizarEmail(email);
+    }
+
     /**
      * Setter customizado para o campo 'telefone'.
      * Remove todos os caracteres não numéricos antes de atribuir o valor.
@@ -61,12 +126,8 @@ public class Aluno {
      * @param telefone O número de telefone a ser definido, possivelmente com máscara.
      */
     public void setTelefone(String telefone) {
-        if (telefone != null) {
-            String digitos = telefone.replaceAll("[^0-9]", "");
-            this.telefone = digitos.isEmpty() ? null : digitos;
-        } else {
-            this.telefone = null;
-        }
+        String digitos = DocumentoUtils.apenasDigitos(telefone);
+        this.telefone = digitos == null || digitos.isEmpty() ? null : digitos;
     }
 
     /**
@@ -75,11 +136,7 @@ public class Aluno {
      * @param cpf O CPF a ser definido, possivelmente com máscara.
      */
     public void setCpf(String cpf) {
-        if (cpf != null) {
-            this.cpf = cpf.replaceAll("[^0-9]", "");
-        } else {
-            this.cpf = null;
-        }
+        this.cpf = DocumentoUtils.apenasDigitos(cpf);
     }
 
     /**
@@ -2,7 +2,6 @@ package br.com.gymtime.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
@@ -13,7 +12,10 @@ import java.util.Objects;
  * Cada exercício é um componente de um Treino.
  */
 @Entity
-@Table(name = "exercicios")
+@Table(name = "exercicios", indexes = {
+        @Index(name = "idx_exercicios_treino", columnList = "treino_id"),
+        @Index(name = "idx_exercicios_catalogo", columnList = "catalogo_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,10 +26,16 @@ public class Exercicio {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @NotBlank(message = "O nome do exercício não pode estar em branco.")
-    @Size(max = 150, message = "O nome do exercício deve ter no máximo 150 caracteres.")
-    @Column(nullable = false, length = 150)
-    private String nomeExercicio;
+    /**
+     * O exercício do catálogo, que guarda o nome. Vários exercícios de treinos diferentes apontam para a
+     * mesma linha do catálogo, em vez de repetirem o nome em cada linha de "exercicios".
+     * - fetch = FetchType.LAZY: na conversão para DTO, o nome é lido do catálogo em memória pelo ID,
+     *   sem carregar a entidade.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "catalogo_id", nullable = false)
+    @ToString.Exclude
+    private ExercicioCatalogo catalogo;
 
     @Size(max = 100, message = "Séries e repetições devem ter no máximo 100 caracteres.")
     @Column(length = 100)
@@ -47,11 +55,11 @@ public class Exercicio {
     /**
      * Construtor customizado para facilitar a criação de um novo exercício
      * a partir de um DTO, que é o formato esperado pelo TreinoServiceImpl.
-     * @param nomeExercicio O nome do exercício.
+     * @param catalogo O exercício do catálogo correspondente ao nome informado.
      * @param seriesRepeticoes A descrição das séries e repetições.
      */
-    public Exercicio(String nomeExercicio, String seriesRepeticoes) {
-        this.nomeExercicio = nomeExercicio;
+    public Exercicio(ExercicioCatalogo catalogo, String seriesRepeticoes) {
+        this.catalogo = catalogo;
         this.seriesRepeticoes = seriesRepeticoes;
     }
 
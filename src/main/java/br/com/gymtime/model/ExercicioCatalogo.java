@@ -0,0 +1,66 @@
+package br.com.gymtime.model;
+
+import br.com.gymtime.util.TextoUtils;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Representa um exercício do catálogo compartilhado entre todos os treinos.
+ * Mapeia a tabela "exercicio_catalogo": cada nome distinto de exercício é gravado uma única vez
+ * e referenciado pelos {@link Exercicio} através do seu ID.
+ * <p>
+ * As linhas do catálogo nunca são alteradas nem removidas, o que permite mantê-las em memória
+ * (ver {@code ExercicioCatalogIndex}) sem risco de ficarem desatualizadas.
+ */
+@Entity
+@Immutable
+@Table(name = "exercicio_catalogo")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ExercicioCatalogo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * O nome canônico do exercício, exibido nos treinos (ex: "Supino reto").
+     */
+    @Column(nullable = false, length = 150)
+    private String nome;
+
+    /**
+     * O nome sem acentos, em minúsculas e com espaços colapsados, que identifica o exercício no catálogo.
+     */
+    @Column(name = "nome_normalizado", nullable = false, unique = true, length = 150)
+    private String nomeNormalizado;
+
+    /**
+     * Cria um novo exercício do catálogo.
+     * @param nome O nome canônico do exercício, já com os espaços colapsados.
+     */
+    public ExercicioCatalogo(String nome) {
+        this.nome = nome;
+        this.nomeNormalizado = TextoUtils.normalizarParaBusca(nome);
+    }
+
+    /**
+     * Compara dois objetos ExercicioCatalogo com base em seus IDs.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ExercicioCatalogo that = (ExercicioCatalogo) o;
+        return id != null && id.equals(that.id);
+    }
+
+    /**
+     * Gera um hash code baseado na classe, estável antes e depois da persistência.
+     */
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
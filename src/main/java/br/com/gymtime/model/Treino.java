@@ -1,9 +1,12 @@
 package br.com.gymtime.model;
 
+import br.com.gymtime.academia.DadoDaAcademia;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -13,18 +16,28 @@ import java.util.Objects;
 /**
  * Representa a entidade Treino no banco de dados.
  * Um Treino é associado a um Aluno e contém uma lista de Exercícios.
+ * Os treinos de um aluno removido ficam fora de todas as consultas, como o próprio aluno, até serem expurgados.
  */
 @Entity
-@Table(name = "treinos")
+@Table(name = "treinos", indexes = @Index(name = "idx_treinos_aluno", columnList = "academia_id, aluno_id"))
+@SQLRestriction("exists (select 1 from alunos a where a.academia_id = academia_id and a.id = aluno_id and a.removido_em is null)")
 @Getter
 @Setter
 @NoArgsConstructor
-public class Treino {
+public class Treino implements DadoDaAcademia {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * A academia do treino, sempre a mesma do aluno; preenchida pelo Hibernate com a academia da sessão.
+     */
+    @TenantId
+    @Setter(AccessLevel.NONE)
+    @Column(name = "academia_id", nullable = false, updatable = false)
+    private Long academiaId;
+
     @Column(nullable = false, length = 100)
     private String nome;
 
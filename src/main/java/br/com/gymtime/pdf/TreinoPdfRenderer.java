@@ -0,0 +1,96 @@
+package br.com.gymtime.pdf;
+
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.jfr.PdfEvento;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.FontFactory;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfWriter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Geração da ficha de treino em PDF (OpenPDF), usada pela impressão de treinos da interface web.
+ * Cada geração emite um evento JFR ({@link PdfEvento}) com os IDs do aluno e do treino.
+ */
+@Component
+public class TreinoPdfRenderer {
+
+    /**
+     * Gera os bytes de um arquivo PDF para uma ficha de treino.
+     * @param aluno O DTO do aluno.
+     * @param treino O DTO do treino.
+     * @return Um array de bytes contendo o PDF.
+     * @throws DocumentException Se ocorrer um erro durante a criação do documento.
+     */
+    public byte[] renderizar(AlunoResponseDTO aluno, TreinoResponseDTO treino) throws DocumentException {
+        PdfEvento evento = new PdfEvento();
+        evento.begin();
+        byte[] pdf = gerar(aluno, treino);
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.alunoId = aluno.id() != null ? aluno.id() : 0;
+            evento.treinoId = treino.id() != null ? treino.id() : 0;
+            evento.exercicios = treino.exercicios().size();
+            evento.bytes = pdf.length;
+            evento.commit();
+        }
+        return pdf;
+    }
+
+    private byte[] gerar(AlunoResponseDTO aluno, TreinoResponseDTO treino) throws DocumentException {
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+            Document document = new Document(PageSize.A4);
+            PdfWriter.getInstance(document, baos);
+            document.open();
+
+            // Definição de fontes
+            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
+            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
+            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 12);
+            Font tableHeaderFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11);
+            Font tableBodyFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
+
+            // Conteúdo do PDF
+            document.add(new Paragraph("Ficha de Treino - GymTime", titleFont));
+            document.add(new Paragraph(" "));
+            document.add(new Paragraph("Aluno: " + aluno.nome(), normalFont));
+            document.add(new Paragraph("Treino: " + treino.nome(), normalFont));
+            if (treino.descricao() != null && !treino.descricao().isBlank()) {
+                document.add(new Paragraph("Descrição: " + treino.descricao(), normalFont));
+            }
+            document.add(new Paragraph(" "));
+            document.add(new Paragraph("Exercícios", headerFont));
+            document.add(new Paragraph(" "));
+
+            // Tabela de exercícios
+            PdfPTable table = new PdfPTable(2);
+            table.setWidthPercentage(100);
+            table.setWidths(new float[]{3f, 1.5f});
+
+            table.addCell(new PdfPCell(new Phrase("Exercício", tableHeaderFont)));
+            table.addCell(new PdfPCell(new Phrase("Séries/Repetições", tableHeaderFont)));
+
+            treino.exercicios().forEach(ex -> {
+                table.addCell(new Phrase(ex.nomeExercicio(), tableBodyFont));
+                table.addCell(new Phrase(ex.seriesRepeticoes() != null ? ex.seriesRepeticoes() : "-", tableBodyFont));
+            });
+
+            document.add(table);
+            document.close();
+
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new DocumentException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.gymtime.replicacao;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DataSource que entrega cada conexão física do pool escolhido pelo {@link RoteadorLeitura}.
+ * <p>
+ * A escolha acontece na obtenção da conexão; por isso este DataSource é sempre usado por trás de um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} ({@link RoteadorLeitura#criarDataSource()}),
+ * que adia a obtenção até a primeira instrução: o {@code JpaTransactionManager} pede a conexão ao iniciar a transação,
+ * antes de marcá-la como somente leitura no {@code TransactionSynchronizationManager}.
+ */
+class DataSourceRoteado extends AbstractRoutingDataSource {
+
+    private final RoteadorLeitura roteador;
+
+    DataSourceRoteado(RoteadorLeitura roteador) {
+        this.roteador = roteador;
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(RoteadorLeitura.PRIMARIO, roteador.primario());
+        List<? extends DataSource> replicas = roteador.replicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            destinos.put(i, replicas.get(i));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(roteador.primario());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return roteador.destino();
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.gymtime.replicacao;
+
+/**
+ * Estado de sincronização das réplicas de leitura, consultado pelo {@link RoteadorLeitura} a cada transação
+ * somente leitura. Implementado pelo {@code ReplicadorLocal} (réplicas H2 mantidas pela aplicação) e pela
+ * {@link SondaAtrasoReplica} (réplicas mantidas pela replicação do próprio banco). Sem uma implementação registrada,
+ * as réplicas não são usadas.
+ */
+public interface EstadoReplica {
+
+    /**
+     * @return Há quanto tempo a alteração mais antiga ainda não aplicada nas réplicas foi gravada no primário, em
+     * nanossegundos; zero se as réplicas estão em dia e {@link Long#MAX_VALUE} se ainda não foram sincronizadas.
+     */
+    long atrasoNanos();
+}
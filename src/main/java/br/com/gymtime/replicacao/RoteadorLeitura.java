@@ -0,0 +1,148 @@
+package br.com.gymtime.replicacao;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decide, a cada conexão obtida, se ela vem do pool do banco primário ou de uma das réplicas de leitura.
+ * <p>
+ * Transações somente leitura ({@code @Transactional(readOnly = true)}, inclusive as dos repositórios do Spring Data)
+ * são distribuídas entre as réplicas em rodízio. Todo o resto vai para o primário: transações de escrita,
+ * acessos fora de transação e leituras dentro de uma transação de escrita. Uma leitura também vai para o primário:
+ * <ul>
+ *     <li>quando a mesma requisição HTTP já executou uma transação de escrita (ler o que acabou de gravar);</li>
+ *     <li>quando o atraso das réplicas ({@link EstadoReplica}) passa de {@code gymtime.replica.atraso-maximo},
+ *     inclusive antes da primeira sincronização.</li>
+ * </ul>
+ * O atraso vem do {@code ReplicadorLocal} ou, com réplicas externas, da {@link SondaAtrasoReplica}. Sem nenhum
+ * {@link EstadoReplica} registrado, o atraso é desconhecido e todas as leituras vão para o primário.
+ * As decisões são contadas na métrica {@code gymtime.datasource.roteamento}, por destino e motivo.
+ */
+public class RoteadorLeitura implements AutoCloseable {
+
+    static final String PRIMARIO = "primario";
+
+    private static final String ATRIBUTO_ESCRITA = RoteadorLeitura.class.getName() + ".ESCRITA";
+
+    private final HikariDataSource primario;
+    private final List<HikariDataSource> replicas;
+    private final long atrasoMaximoNanos;
+    private final ObjectProvider<EstadoReplica> estado;
+    private final AtomicInteger proximaReplica = new AtomicInteger();
+
+    private final Counter escritas;
+    private final Counter leiturasReplica;
+    private final Counter leiturasAposEscrita;
+    private final Counter leiturasComAtraso;
+
+    public RoteadorLeitura(HikariDataSource primario, List<HikariDataSource> replicas, Duration atrasoMaximo,
+                           ObjectProvider<EstadoReplica> estado, MeterRegistry meterRegistry) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Nenhuma réplica de leitura configurada em gymtime.replica.urls.");
+        }
+        this.primario = primario;
+        this.replicas = List.copyOf(replicas);
+        this.atrasoMaximoNanos = atrasoMaximo.toNanos();
+        this.estado = estado;
+
+        escritas = contador(meterRegistry, PRIMARIO, "escrita");
+        leiturasReplica = contador(meterRegistry, "replica", "leitura");
+        leiturasAposEscrita = contador(meterRegistry, PRIMARIO, "leitura-apos-escrita");
+        leiturasComAtraso = contador(meterRegistry, PRIMARIO, "atraso-replica");
+        Gauge.builder("gymtime.replica.atraso", this, RoteadorLeitura::atrasoSegundos)
+                .description("Atraso da réplica de leitura em relação ao primário (NaN antes da primeira sincronização)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public DataSource primario() {
+        return primario;
+    }
+
+    public List<? extends DataSource> replicas() {
+        return replicas;
+    }
+
+    /**
+     * Cria o DataSource da aplicação: as conexões são obtidas do primário ou de uma réplica apenas na primeira
+     * instrução, quando já se sabe se a transação é somente leitura.
+     */
+    public DataSource criarDataSource() {
+        return new LazyConnectionDataSourceProxy(new DataSourceRoteado(this));
+    }
+
+    /**
+     * @return {@link #PRIMARIO} ou o índice da réplica em {@link #replicas()}.
+     */
+    Object destino() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                marcarEscritaNaRequisicao();
+                escritas.increment();
+            }
+            return PRIMARIO;
+        }
+        if (escritaNaRequisicao()) {
+            leiturasAposEscrita.increment();
+            return PRIMARIO;
+        }
+        if (atrasoNanos() > atrasoMaximoNanos) {
+            leiturasComAtraso.increment();
+            return PRIMARIO;
+        }
+        leiturasReplica.increment();
+        return Math.floorMod(proximaReplica.getAndIncrement(), replicas.size());
+    }
+
+    @Override
+    public void close() {
+        for (HikariDataSource replica : replicas) {
+            replica.close();
+        }
+        primario.close();
+    }
+
+    private long atrasoNanos() {
+        EstadoReplica atual = estado.getIfAvailable();
+        return atual != null ? atual.atrasoNanos() : Long.MAX_VALUE;
+    }
+
+    private double atrasoSegundos() {
+        long atraso = atrasoNanos();
+        return atraso == Long.MAX_VALUE ? Double.NaN : atraso / 1e9;
+    }
+
+    /**
+     * Marca a requisição HTTP atual, se houver, para que as leituras seguintes nela usem o primário.
+     */
+    private static void marcarEscritaNaRequisicao() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        if (requisicao != null) {
+            requisicao.setAttribute(ATRIBUTO_ESCRITA, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private static boolean escritaNaRequisicao() {
+        RequestAttributes requisicao = RequestContextHolder.getRequestAttributes();
+        return requisicao != null && requisicao.getAttribute(ATRIBUTO_ESCRITA, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String destino, String motivo) {
+        return Counter.builder("gymtime.datasource.roteamento")
+                .description("Conexões obtidas pelo roteamento entre o primário e as réplicas de leitura")
+                .tags("destino", destino, "motivo", motivo)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.gymtime.replicacao;
+
+import br.com.gymtime.evento.NoAplicacao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Mede o atraso das réplicas de leitura mantidas pela replicação do próprio banco
+ * ({@code gymtime.replica.replicador-local=false}), por meio de batimentos gravados no primário.
+ * <p>
+ * A cada {@code gymtime.replica.sonda.intervalo}, a sonda lê em cada réplica a última sequência do seu nó em
+ * {@code replica_batimentos} e, em seguida, grava no primário a sequência seguinte. O atraso é o tempo decorrido desde a
+ * gravação da primeira sequência que alguma réplica ainda não tinha recebido na última leitura, medido com
+ * {@link System#nanoTime()} do próprio nó: não depende dos relógios dos bancos. Uma réplica parada é percebida em até
+ * um intervalo, e o intervalo deve ser bem menor que {@code gymtime.replica.atraso-maximo}.
+ * <p>
+ * Antes da primeira leitura e enquanto alguma réplica não puder ser lida, o atraso é {@link Long#MAX_VALUE}, e as
+ * leituras ficam no primário.
+ */
+@Component
+@ConditionalOnExpression("${gymtime.replica.habilitado:false} and !${gymtime.replica.replicador-local:true}")
+@Slf4j
+public class SondaAtrasoReplica implements EstadoReplica {
+
+    private static final String SQL_ATUALIZAR = "update replica_batimentos set sequencia = ?, gravado_em = localtimestamp "
+            + "where origem = ?";
+    private static final String SQL_INSERIR = "insert into replica_batimentos (origem, sequencia) values (?, ?)";
+    private static final String SQL_LER = "select sequencia from replica_batimentos where origem = ?";
+    private static final String SQL_REMOVER_PARADOS = "delete from replica_batimentos "
+            + "where origem <> ? and gravado_em < dateadd('MINUTE', -10, localtimestamp)";
+
+    /**
+     * Valores especiais de {@link #pendenteDesde}: réplicas sem leitura válida e réplicas em dia.
+     */
+    private static final long SEM_LEITURA = Long.MIN_VALUE;
+    private static final long EM_DIA = Long.MAX_VALUE;
+
+    private final JdbcTemplate primario;
+    private final List<JdbcTemplate> replicas;
+    private final String origem;
+
+    /**
+     * Sequência gravada -> instante da gravação ({@link System#nanoTime()}), desde a mais antiga que alguma réplica
+     * ainda não recebeu.
+     */
+    private final ConcurrentSkipListMap<Long, Long> gravadas = new ConcurrentSkipListMap<>();
+    private long sequencia;
+
+    /**
+     * Instante da gravação da primeira sequência ainda não recebida por alguma réplica na última leitura.
+     */
+    private volatile long pendenteDesde = SEM_LEITURA;
+
+    public SondaAtrasoReplica(RoteadorLeitura roteadorLeitura, NoAplicacao noAplicacao,
+                              @Value("${gymtime.replica.sonda.intervalo}") Duration intervalo) {
+        int limiteConsulta = (int) Math.max(1, intervalo.toSeconds());
+        this.primario = new JdbcTemplate(roteadorLeitura.primario());
+        this.primario.setQueryTimeout(limiteConsulta);
+        this.replicas = roteadorLeitura.replicas().stream().map(replica -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+            jdbcTemplate.setQueryTimeout(limiteConsulta);
+            return jdbcTemplate;
+        }).toList();
+        this.origem = noAplicacao.id();
+    }
+
+    @Override
+    public long atrasoNanos() {
+        long desde = pendenteDesde;
+        if (desde == SEM_LEITURA) {
+            return Long.MAX_VALUE;
+        }
+        return desde == EM_DIA ? 0 : Math.max(0, System.nanoTime() - desde);
+    }
+
+    /**
+     * Lê a sequência recebida por cada réplica e grava a seguinte no primário.
+     */
+    @Scheduled(fixedDelayString = "${gymtime.replica.sonda.intervalo}", initialDelayString = "${gymtime.replica.sonda.intervalo}")
+    public synchronized void medir() {
+        long menorRecebida = Long.MAX_VALUE;
+        try {
+            for (JdbcTemplate replica : replicas) {
+                List<Long> recebida = replica.queryForList(SQL_LER, Long.class, origem);
+                menorRecebida = Math.min(menorRecebida, recebida.isEmpty() ? 0 : recebida.get(0));
+            }
+            Map.Entry<Long, Long> pendente = gravadas.ceilingEntry(menorRecebida + 1);
+            pendenteDesde = pendente != null ? pendente.getValue() : EM_DIA;
+            gravadas.headMap(menorRecebida, true).clear();
+        } catch (DataAccessException e) {
+            if (pendenteDesde != SEM_LEITURA) {
+                log.warn("Falha ao ler o batimento das réplicas de leitura; as leituras vão para o primário.", e);
+            }
+            pendenteDesde = SEM_LEITURA;
+        }
+
+        long proxima = sequencia + 1;
+        long inicio = System.nanoTime();
+        try {
+            if (primario.update(SQL_ATUALIZAR, proxima, origem) == 0) {
+                primario.update(SQL_INSERIR, origem, proxima);
+                primario.update(SQL_REMOVER_PARADOS, origem);
+            }
+            sequencia = proxima;
+            gravadas.put(proxima, inicio);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao gravar o batimento das réplicas de leitura no primário.", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.gymtime.repository;
+
+import br.com.gymtime.model.Academia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface de repositório para a entidade {@link Academia}.
+ */
+@Repository
+public interface AcademiaRepository extends JpaRepository<Academia, Long> {
+
+    /**
+     * Lista os IDs de todas as academias, usados para construir os índices em memória de cada uma.
+     *
+     * @return Os IDs das academias, em ordem crescente.
+     */
+    @Query("select a.id from Academia a order by a.id")
+    List<Long> findAllIds();
+
+    /**
+     * Busca a academia cuja camada web é acessada pelo host informado.
+     *
+     * @param host O host da requisição, em minúsculas.
+     * @return O ID da academia, se houver uma com esse host.
+     */
+    @Query("select a.id from Academia a where a.host = :host")
+    Optional<Long> findIdByHost(String host);
+}
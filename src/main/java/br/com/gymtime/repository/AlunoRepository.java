@@ -1,8 +1,15 @@
 package br.com.gymtime.repository;
 
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.dto.AlunoSummaryDTO;
 import br.com.gymtime.model.Aluno;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -15,21 +22,28 @@ import java.util.Optional;
 public interface AlunoRepository extends JpaRepository<Aluno, Long> {
 
     /**
-     * Busca um aluno pelo seu endereço de e-mail.
-     * O Spring Data JPA gera a consulta a partir do nome do método.
+     * IDs dos alunos cujo nome, e-mail ou CPF começa com o prefixo: uma busca por coluna, cada uma com o seu índice.
+     */
+    String IDS_POR_PREFIXO = "select n.id from Aluno n where n.nomeBusca like :prefixo escape '\\' " +
+            "union select e.id from Aluno e where e.emailBusca like :prefixo escape '\\' " +
+            "union select c.id from Aluno c where c.cpf like :prefixoCpf";
+
+    /**
+     * Busca um aluno pelo seu endereço de e-mail, sem diferenciar maiúsculas de minúsculas.
+     * A comparação é feita sobre a coluna {@code email_busca}, que tem índice único.
      *
-     * @param email O e-mail a ser buscado.
+     * @param emailBusca O e-mail já normalizado com {@link br.com.gymtime.util.TextoUtils#normalizarEmail(String)}.
      * @return Um {@link Optional} contendo o {@link Aluno} encontrado, ou um Optional vazio se nenhum aluno for encontrado com o e-mail fornecido.
      */
-    Optional<Aluno> findByEmail(String email);
+    Optional<Aluno> findByEmailBusca(String emailBusca);
 
     /**
-     * Verifica se já existe um aluno com o e-mail fornecido.
+     * Verifica se já existe um aluno com o e-mail fornecido, sem diferenciar maiúsculas de minúsculas.
      *
-     * @param email O e-mail a ser verificado.
+     * @param emailBusca O e-mail já normalizado com {@link br.com.gymtime.util.TextoUtils#normalizarEmail(String)}.
      * @return {@code true} se um aluno com o e-mail existir, {@code false} caso contrário.
      */
-    boolean existsByEmail(String email);
+    boolean existsByEmailBusca(String emailBusca);
 
     /**
      * Busca um aluno pelo seu número de CPF.
@@ -47,4 +61,64 @@ public interface AlunoRepository extends JpaRepository<Aluno, Long> {
      * @return {@code true} se um aluno com o CPF existir, {@code false} caso contrário.
      */
     boolean existsByCpf(String cpf);
-}
+
+    /**
+     * Retorna uma página com a visão resumida dos alunos.
+     * A quantidade de treinos é calculada na própria consulta, sem carregar as coleções de treinos.
+     *
+     * @param pageable As informações de paginação e ordenação.
+     * @return Uma {@link Page} de {@link AlunoSummaryDTO}.
+     */
+    @Query(value = "select new br.com.gymtime.dto.AlunoSummaryDTO(a.id, a.nome, a.email, a.telefone, a.cpf, size(a.treinos)) " +
+            "from Aluno a",
+            countQuery = "select count(a) from Aluno a")
+    Page<AlunoSummaryDTO> findAllResumos(Pageable pageable);
+
+    /**
+     * Busca por prefixo de nome, e-mail ou CPF, retornando a visão resumida dos alunos.
+     * <p>
+     * Um {@code or} entre as três colunas impediria o banco de usar um índice, e cada busca percorreria a tabela
+     * inteira. Por isso, os IDs vêm de uma {@code union} de três buscas por prefixo, cada uma sobre a sua coluna
+     * normalizada e indexada ({@code nome_busca}, {@code email_busca} e {@code cpf}), e os alunos são lidos pela
+     * chave primária.
+     *
+     * @param prefixo    O prefixo já normalizado e com curingas escapados, seguido de '%'.
+     * @param prefixoCpf O prefixo numérico para o CPF, seguido de '%', ou {@code null} se o termo não tiver dígitos.
+     * @param pageable   As informações de paginação e ordenação.
+     * @return Uma {@link Page} de {@link AlunoSummaryDTO} com os alunos encontrados.
+     */
+    @Query(value = "select new br.com.gymtime.dto.AlunoSummaryDTO(a.id, a.nome, a.email, a.telefone, a.cpf, size(a.treinos)) " +
+            "from Aluno a where a.id in (" + IDS_POR_PREFIXO + ")",
+            countQuery = "select count(a) from Aluno a where a.id in (" + IDS_POR_PREFIXO + ")")
+    Page<AlunoSummaryDTO> buscarResumos(@Param("prefixo") String prefixo,
+                                        @Param("prefixoCpf") String prefixoCpf,
+                                        Pageable pageable);
+
+    /**
+     * Retorna todos os alunos com os seus treinos já carregados, em uma única consulta.
+     * Os exercícios dos treinos são carregados à parte ({@link TreinoRepository#findAllComExercicios()}): buscar as
+     * duas coleções no mesmo join multiplicaria as linhas, e o Hibernate não busca duas {@code List} de uma vez.
+     *
+     * @return Uma {@link List} com todos os alunos e os seus treinos.
+     */
+    @Query("select a from Aluno a left join fetch a.treinos")
+    List<Aluno> findAllComTreinos();
+
+    /**
+     * Retorna os dados de todos os alunos no formato usado pelo índice de busca em memória.
+     * A consulta projeta apenas as colunas necessárias, sem instanciar as entidades.
+     *
+     * @return Uma {@link List} de {@link AlunoSearchResultDTO} com todos os alunos.
+     */
+    @Query("select new br.com.gymtime.dto.AlunoSearchResultDTO(a.id, a.nome, a.email, a.telefone, a.cpf) from Aluno a")
+    List<AlunoSearchResultDTO> findAllParaBusca();
+
+    /**
+     * Retorna os dados de um aluno no formato usado pelo índice de busca em memória.
+     *
+     * @param id O ID do aluno.
+     * @return Um {@link Optional} com os dados do aluno, ou vazio se ele não existir.
+     */
+    @Query("select new br.com.gymtime.dto.AlunoSearchResultDTO(a.id, a.nome, a.email, a.telefone, a.cpf) from Aluno a where a.id = :id")
+    Optional<AlunoSearchResultDTO> findParaBuscaById(@Param("id") Long id);
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package br.com.gymtime.repository;
+
+import br.com.gymtime.dto.ExercicioCatalogoUsoDTO;
+import br.com.gymtime.model.ExercicioCatalogo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interface de repositório para a entidade {@link ExercicioCatalogo}.
+ * Estende {@link JpaRepository} para herdar métodos CRUD padrão para o catálogo de exercícios.
+ */
+@Repository
+public interface ExercicioCatalogoRepository extends JpaRepository<ExercicioCatalogo, Long> {
+
+    /**
+     * Busca um exercício do catálogo pelo seu nome normalizado.
+     *
+     * @param nomeNormalizado O nome sem acentos, em minúsculas e com espaços colapsados.
+     * @return Um {@link Optional} contendo o exercício do catálogo, se existir.
+     */
+    Optional<ExercicioCatalogo> findByNomeNormalizado(String nomeNormalizado);
+
+    /**
+     * Lista todos os exercícios do catálogo com a quantidade de exercícios de treinos que os utilizam.
+     * Usado para construir o catálogo em memória na inicialização.
+     *
+     * @return Uma {@link List} com cada exercício do catálogo e a sua quantidade de usos.
+     */
+    default List<ExercicioCatalogoUsoDTO> findAllComUsos() {
+        return contarUsos().stream()
+                .map(linha -> new ExercicioCatalogoUsoDTO(((Number) linha[0]).longValue(), (String) linha[1],
+                        ((Number) linha[2]).longValue()))
+                .toList();
+    }
+
+    /**
+     * Conta os usos de cada exercício do catálogo em todas as academias. Os exercícios de treinos de alunos removidos,
+     * ainda não expurgados, não contam. A consulta é nativa porque as entidades {@link br.com.gymtime.model.Treino} e
+     * {@link br.com.gymtime.model.Aluno} seriam filtradas pela academia da sessão.
+     *
+     * @return ID do catálogo, nome e quantidade de usos de cada exercício do catálogo.
+     */
+    @Query(value = "select c.id, c.nome, count(a.id) from exercicio_catalogo c " +
+            "left join exercicios e on e.catalogo_id = c.id " +
+            "left join treinos t on t.id = e.treino_id " +
+            "left join alunos a on a.academia_id = t.academia_id and a.id = t.aluno_id and a.removido_em is null " +
+            "group by c.id, c.nome",
+            nativeQuery = true)
+    List<Object[]> contarUsos();
+}
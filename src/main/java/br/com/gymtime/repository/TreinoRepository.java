@@ -2,6 +2,8 @@ package br.com.gymtime.repository;
 
 import br.com.gymtime.model.Treino;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -15,11 +17,42 @@ public interface TreinoRepository extends JpaRepository<Treino, Long> {
 
     /**
      * Busca todos os treinos associados a um aluno específico pelo ID do aluno.
-     * O Spring Data JPA gera a consulta baseado no nome do método, procurando pela propriedade 'id'
-     * dentro da propriedade 'aluno' da entidade Treino.
+     * A consulta compara diretamente a chave estrangeira {@code aluno_id} (indexada por {@code idx_treinos_aluno}).
+     * A consulta derivada do nome do método fazia um left join com {@code alunos} e filtrava pelo id do aluno,
+     * o que levava o H2 a percorrer a tabela de treinos inteira.
      *
      * @param alunoId O ID do aluno cujos treinos serão buscados.
      * @return Uma {@link List} de {@link Treino} pertencentes ao aluno. Retorna uma lista vazia se o aluno não tiver treinos.
      */
-    List<Treino> findByAlunoId(Long alunoId);
+    @Query("select t from Treino t where t.aluno.id = :alunoId")
+    List<Treino> findByAlunoId(@Param("alunoId") Long alunoId);
+
+    /**
+     * Retorna todos os treinos com os seus exercícios já carregados, em uma única consulta. Usada junto com
+     * {@link AlunoRepository#findAllComTreinos()} na listagem completa de alunos: os treinos carregados aqui são as
+     * mesmas instâncias das coleções dos alunos, que passam a ter os exercícios sem uma consulta por treino.
+     *
+     * @return Uma {@link List} com todos os treinos e os seus exercícios.
+     */
+    @Query("select t from Treino t left join fetch t.exercicios")
+    List<Treino> findAllComExercicios();
+
+    /**
+     * Lista os IDs dos treinos de um aluno, sem carregar os treinos.
+     *
+     * @param alunoId O ID do aluno.
+     * @return Os IDs dos treinos do aluno.
+     */
+    @Query("select t.id from Treino t where t.aluno.id = :alunoId")
+    List<Long> findIdsByAlunoId(@Param("alunoId") Long alunoId);
+
+    /**
+     * Lista o exercício do catálogo de cada exercício dos treinos de um aluno (com repetições, um item por exercício),
+     * sem carregar os treinos e os exercícios.
+     *
+     * @param alunoId O ID do aluno.
+     * @return Os IDs do catálogo usados pelos exercícios dos treinos do aluno.
+     */
+    @Query("select e.catalogo.id from Treino t join t.exercicios e where t.aluno.id = :alunoId")
+    List<Long> findIdsDoCatalogoByAlunoId(@Param("alunoId") Long alunoId);
 }
@@ -0,0 +1,331 @@
+package br.com.gymtime.search;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.evento.EventoDominio;
+import br.com.gymtime.invalidacao.Invalidacao;
+import br.com.gymtime.invalidacao.OuvinteInvalidacao;
+import br.com.gymtime.repository.AcademiaRepository;
+import br.com.gymtime.repository.AlunoRepository;
+import br.com.gymtime.shard.Shards;
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.util.TextoUtils;
+import br.com.gymtime.util.TransacaoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice em memória para a busca instantânea de alunos por prefixo de nome, CPF ou telefone.
+ * <p>
+ * Cada aluno é decomposto em termos normalizados: as palavras do nome (sem acentos e em minúsculas),
+ * os dígitos do CPF e os dígitos do telefone (com e sem DDD). Os termos ficam em um mapa ordenado,
+ * de forma que todos os termos que começam com um prefixo formam um intervalo contíguo do mapa.
+ * Uma busca percorre apenas esse intervalo e para assim que encontra o número de resultados pedido,
+ * sem consultar o banco de dados.
+ * <p>
+ * Os termos de cada academia ficam em um intervalo próprio do mapa (a chave começa pelo ID da academia), e uma
+ * busca só percorre o intervalo da academia da requisição ({@link ContextoAcademia}).
+ * <p>
+ * O índice é construído na inicialização da aplicação e mantido pelo {@code AlunoServiceImpl}
+ * a cada criação, atualização ou remoção de aluno. As alterações só são aplicadas após o commit da
+ * transação, para que um rollback não deixe o índice divergente do banco. As alterações feitas por outros nós chegam
+ * pelo barramento de invalidação ({@link OuvinteInvalidacao}): o aluno invalidado é relido do banco.
+ * <p>
+ * As buscas não usam bloqueio. As alterações são aplicadas uma de cada vez, e a troca dos termos de um aluno
+ * publica a entrada nova antes de retirar os termos antigos, de forma que uma busca concorrente nunca deixa de ver o
+ * aluno. Uma reconstrução monta um índice novo à parte e só então o coloca no lugar do atual; as alterações
+ * aplicadas enquanto ela lia o banco são repetidas no índice novo antes da troca.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AlunoSearchIndex implements OuvinteInvalidacao {
+
+    private final AlunoRepository alunoRepository;
+    private final AcademiaRepository academiaRepository;
+    private final Shards shards;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * O índice em uso. Substituído por inteiro a cada reconstrução.
+     */
+    private volatile Indice indice = new Indice();
+
+    /**
+     * Serializa as alterações do índice: com elas, a troca dos termos de um aluno não se intercala com outra.
+     */
+    private final Object escrita = new Object();
+
+    /**
+     * Alterações aplicadas durante uma reconstrução, a repetir no índice novo; {@code null} fora de uma reconstrução.
+     * Protegido por {@link #escrita}.
+     */
+    private List<Consumer<Indice>> alteracoesDuranteConstrucao;
+
+    /**
+     * Dados de um aluno no índice, junto com a sua academia e os termos sob os quais ele foi indexado.
+     */
+    private record Entrada(AlunoSearchResultDTO aluno, long academia, List<String> termos) {}
+
+    /**
+     * Os mapas do índice. As buscas leem os dois mapas sem bloqueio; as alterações são feitas sob {@link #escrita}
+     * ou, durante a construção, antes da publicação do índice.
+     */
+    private static final class Indice {
+
+        /**
+         * Academia e termo normalizado ({@code "academia:termo"}) -> IDs dos alunos que possuem o termo.
+         */
+        private final ConcurrentSkipListMap<String, Set<Long>> termos = new ConcurrentSkipListMap<>();
+
+        /**
+         * ID do aluno -> dados exibidos na busca e os termos indexados para ele.
+         */
+        private final Map<Long, Entrada> entradas = new ConcurrentHashMap<>();
+
+        private void indexar(AlunoSearchResultDTO aluno, long academia) {
+            Entrada nova = new Entrada(aluno, academia, termosDoAluno(aluno));
+            for (String termo : nova.termos()) {
+                termos.computeIfAbsent(chave(academia, termo), t -> ConcurrentHashMap.newKeySet()).add(aluno.id());
+            }
+            Entrada anterior = entradas.put(aluno.id(), nova);
+            if (anterior != null) {
+                for (String termo : anterior.termos()) {
+                    if (anterior.academia() != academia || !nova.termos().contains(termo)) {
+                        retirarTermo(anterior.academia(), termo, aluno.id());
+                    }
+                }
+            }
+        }
+
+        private void remover(Long alunoId) {
+            Entrada anterior = entradas.remove(alunoId);
+            if (anterior != null) {
+                anterior.termos().forEach(termo -> retirarTermo(anterior.academia(), termo, alunoId));
+            }
+        }
+
+        private void retirarTermo(long academia, String termo, Long alunoId) {
+            termos.computeIfPresent(chave(academia, termo), (t, ids) -> {
+                ids.remove(alunoId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Constrói o índice com todos os alunos cadastrados quando a aplicação termina de inicializar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void construir() {
+        long inicio = System.nanoTime();
+        Indice novo = new Indice();
+        synchronized (escrita) {
+            alteracoesDuranteConstrucao = new ArrayList<>();
+        }
+        try {
+            // Sem transação: cada consulta abre a própria sessão, filtrada pela academia definida para ela.
+            for (Long academia : academiaRepository.findAllIds()) {
+                ContextoAcademia.executar(academia, () -> shards.emTodos(alunoRepository::findAllParaBusca))
+                        .forEach(alunos -> alunos.forEach(aluno -> novo.indexar(aluno, academia)));
+            }
+            synchronized (escrita) {
+                // A leitura pode ter visto o banco antes ou depois de cada uma dessas alterações; repetidas na ordem
+                // em que foram aplicadas, elas deixam o índice novo igual ao atual para esses alunos.
+                alteracoesDuranteConstrucao.forEach(alteracao -> alteracao.accept(novo));
+                indice = novo;
+            }
+        } finally {
+            synchronized (escrita) {
+                alteracoesDuranteConstrucao = null;
+            }
+        }
+        log.info("Índice de busca de alunos construído com {} alunos em {} ms.",
+                novo.entradas.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Indexa (ou reindexa) um aluno após o commit da transação corrente.
+     * @param aluno Os dados do aluno a serem indexados.
+     */
+    public void indexar(AlunoSearchResultDTO aluno) {
+        long academia = ContextoAcademia.atual();
+        TransacaoUtils.aposCommit(() -> aplicar(alvo -> alvo.indexar(aluno, academia)));
+    }
+
+    /**
+     * Remove um aluno do índice após o commit da transação corrente.
+     * @param alunoId O ID do aluno removido.
+     */
+    public void remover(Long alunoId) {
+        TransacaoUtils.aposCommit(() -> aplicar(alvo -> alvo.remover(alunoId)));
+    }
+
+    /**
+     * Relê do banco os alunos alterados por outros nós e os reindexa (ou remove, se não existem mais).
+     */
+    @Override
+    public int invalidar(List<Invalidacao> invalidacoes) {
+        // Transação de escrita, para que a leitura seja feita no banco principal e não em uma réplica atrasada.
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        int aplicadas = 0;
+        // Um aluno alterado várias vezes no mesmo ciclo é relido uma única vez.
+        Map<Long, Invalidacao> porAluno = new LinkedHashMap<>();
+        for (Invalidacao invalidacao : invalidacoes) {
+            if (invalidacao.entidade() == EventoDominio.Entidade.ALUNO) {
+                porAluno.put(invalidacao.id(), invalidacao);
+            }
+        }
+        for (Invalidacao invalidacao : porAluno.values()) {
+            Optional<AlunoSearchResultDTO> aluno = ContextoAcademia.executar(invalidacao.academia(), () ->
+                    transacao.execute(status -> {
+                        shards.usarShardDoId(invalidacao.id());
+                        return alunoRepository.findParaBuscaById(invalidacao.id());
+                    }));
+            if (aluno.isPresent()) {
+                aplicar(alvo -> alvo.indexar(aluno.get(), invalidacao.academia()));
+            } else {
+                aplicar(alvo -> alvo.remover(invalidacao.id()));
+            }
+            aplicadas++;
+        }
+        return aplicadas;
+    }
+
+    /**
+     * Busca os alunos da academia atual cujos termos começam com as palavras informadas.
+     * Com mais de uma palavra, todas precisam casar com algum termo do aluno (ex: "ana sil").
+     * Os resultados seguem a ordem alfabética dos termos encontrados, de forma que correspondências
+     * exatas aparecem antes de termos mais longos com o mesmo prefixo.
+     *
+     * @param consulta O texto digitado pelo usuário (nome, CPF ou telefone, com ou sem máscara).
+     * @param limite O número máximo de resultados.
+     * @return A lista de alunos encontrados, com no máximo {@code limite} elementos.
+     */
+    public List<AlunoSearchResultDTO> buscar(String consulta, int limite) {
+        List<String> prefixos = termosDaConsulta(consulta);
+        if (prefixos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        // O prefixo mais longo é o mais seletivo: é ele que define o intervalo percorrido.
+        String guia = prefixos.get(0);
+        for (String prefixo : prefixos) {
+            if (prefixo.length() > guia.length()) {
+                guia = prefixo;
+            }
+        }
+
+        Indice atual = indice;
+        String inicio = chave(ContextoAcademia.atual(), guia);
+        Set<Long> vistos = new LinkedHashSet<>();
+        List<AlunoSearchResultDTO> resultados = new ArrayList<>(limite);
+        for (Set<Long> ids : atual.termos.subMap(inicio, true, inicio + Character.MAX_VALUE, false).values()) {
+            for (Long id : ids) {
+                if (!vistos.add(id)) {
+                    continue;
+                }
+                Entrada entrada = atual.entradas.get(id);
+                if (entrada != null && casaComTodos(entrada, prefixos)) {
+                    resultados.add(entrada.aluno());
+                    if (resultados.size() >= limite) {
+                        return resultados;
+                    }
+                }
+            }
+        }
+        return resultados;
+    }
+
+    /**
+     * Retorna a quantidade de alunos indexados.
+     * @return O tamanho do índice.
+     */
+    public int tamanho() {
+        return indice.entradas.size();
+    }
+
+    /**
+     * Aplica uma alteração ao índice atual e, durante uma reconstrução, guarda-a para repeti-la no índice novo.
+     */
+    private void aplicar(Consumer<Indice> alteracao) {
+        synchronized (escrita) {
+            alteracao.accept(indice);
+            if (alteracoesDuranteConstrucao != null) {
+                alteracoesDuranteConstrucao.add(alteracao);
+            }
+        }
+    }
+
+    private static String chave(long academia, String termo) {
+        return academia + ":" + termo;
+    }
+
+    private boolean casaComTodos(Entrada entrada, List<String> prefixos) {
+        for (String prefixo : prefixos) {
+            boolean casou = false;
+            for (String termo : entrada.termos()) {
+                if (termo.startsWith(prefixo)) {
+                    casou = true;
+                    break;
+                }
+            }
+            if (!casou) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gera os termos indexados de um aluno: palavras do nome, CPF e telefone (com e sem DDD).
+     */
+    private static List<String> termosDoAluno(AlunoSearchResultDTO aluno) {
+        Set<String> resultado = new LinkedHashSet<>();
+        String nome = TextoUtils.normalizarParaBusca(aluno.nome());
+        if (nome != null && !nome.isEmpty()) {
+            resultado.addAll(List.of(nome.split(" ")));
+        }
+        if (aluno.cpf() != null && !aluno.cpf().isEmpty()) {
+            resultado.add(aluno.cpf());
+        }
+        if (aluno.telefone() != null && aluno.telefone().length() > 2) {
+            resultado.add(aluno.telefone());
+            resultado.add(aluno.telefone().substring(2));
+        }
+        return List.copyOf(resultado);
+    }
+
+    /**
+     * Converte o texto digitado em prefixos comparáveis com os termos indexados.
+     * Palavras compostas apenas por dígitos e sinais de máscara (ex: "123.456" ou "(11) 9999")
+     * viram somente os dígitos.
+     */
+    private static List<String> termosDaConsulta(String consulta) {
+        String normalizada = TextoUtils.normalizarParaBusca(consulta);
+        if (normalizada == null || normalizada.isEmpty()) {
+            return List.of();
+        }
+        if (DocumentoUtils.isNumeroComMascara(normalizada)) {
+            String digitos = DocumentoUtils.apenasDigitos(normalizada);
+            return digitos.isEmpty() ? List.of() : List.of(digitos);
+        }
+        return List.of(normalizada.split(" "));
+    }
+}
@@ -0,0 +1,249 @@
+package br.com.gymtime.search;
+
+import br.com.gymtime.dto.ExercicioCatalogoUsoDTO;
+import br.com.gymtime.dto.ExercicioSuggestionDTO;
+import br.com.gymtime.evento.EventoDominio;
+import br.com.gymtime.invalidacao.Invalidacao;
+import br.com.gymtime.invalidacao.OuvinteInvalidacao;
+import br.com.gymtime.model.ExercicioCatalogo;
+import br.com.gymtime.repository.ExercicioCatalogoRepository;
+import br.com.gymtime.shard.Shards;
+import br.com.gymtime.util.TextoUtils;
+import br.com.gymtime.util.TransacaoUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Cópia em memória da tabela {@code exercicio_catalogo}, compartilhada por todos os treinadores.
+ * <p>
+ * Cada exercício do catálogo é identificado pelo seu nome normalizado (sem acentos, minúsculo e com espaços
+ * colapsados), de forma que "Supino reto", "supino Reto" e "Supino  reto" são o mesmo exercício. Para cada
+ * exercício o catálogo guarda o ID, o nome canônico e a quantidade de usos, que define a ordem das sugestões.
+ * As chaves ficam em um mapa ordenado: os nomes que começam com um prefixo formam um intervalo contíguo.
+ * <p>
+ * O catálogo também resolve o nome de um exercício a partir do ID, sem consultar o banco: todos os DTOs
+ * de um mesmo exercício compartilham a mesma instância de {@link String}, em vez de cada entidade carregada
+ * trazer a sua própria cópia do nome.
+ * <p>
+ * O catálogo é construído na inicialização e atualizado incrementalmente pelo {@code TreinoServiceImpl}
+ * após o commit de cada criação, atualização ou remoção de treino. Quando outro nó altera treinos (ver
+ * {@link OuvinteInvalidacao}), os usos não podem ser ajustados incrementalmente, pois a invalidação não diz quais
+ * exercícios mudaram: os usos de todo o catálogo são recontados, uma vez por ciclo de leitura das invalidações.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExercicioCatalogIndex implements OuvinteInvalidacao {
+
+    private final ExercicioCatalogoRepository exercicioCatalogoRepository;
+    private final Shards shards;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Nome normalizado -> exercício do catálogo.
+     */
+    private final ConcurrentSkipListMap<String, Entrada> porNome = new ConcurrentSkipListMap<>();
+
+    /**
+     * ID do catálogo -> exercício do catálogo.
+     */
+    private final Map<Long, Entrada> porId = new ConcurrentHashMap<>();
+
+    /**
+     * Um exercício do catálogo. O ID e o nome canônico são imutáveis; apenas os usos variam.
+     */
+    private static final class Entrada {
+        private final Long id;
+        private final String nomeCanonico;
+        private long usos;
+
+        private Entrada(Long id, String nomeCanonico, long usos) {
+            this.id = id;
+            this.nomeCanonico = nomeCanonico;
+            this.usos = usos;
+        }
+    }
+
+    /**
+     * Constrói o catálogo em memória a partir da tabela {@code exercicio_catalogo} quando a aplicação
+     * termina de inicializar.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void construir() {
+        porNome.clear();
+        porId.clear();
+        contarUsos().values().forEach(this::adicionar);
+        log.info("Catálogo de exercícios construído com {} nomes distintos.", porId.size());
+    }
+
+    /**
+     * Reconta os usos do catálogo quando outro nó altera treinos, incluindo os exercícios que ele criou no catálogo.
+     */
+    @Override
+    public int invalidar(List<Invalidacao> invalidacoes) {
+        int treinos = (int) invalidacoes.stream().filter(i -> i.entidade() == EventoDominio.Entidade.TREINO).count();
+        if (treinos == 0) {
+            return 0;
+        }
+        // Transação de escrita, para que a contagem seja feita no banco principal e não em uma réplica atrasada.
+        Map<Long, Entrada> contagem = new TransactionTemplate(transactionManager).execute(status -> contarUsos());
+        for (Entrada contada : contagem.values()) {
+            Entrada entrada = porId.get(contada.id);
+            if (entrada == null) {
+                adicionar(contada);
+            } else {
+                synchronized (entrada) {
+                    entrada.usos = contada.usos;
+                }
+            }
+        }
+        return treinos;
+    }
+
+    /**
+     * @return ID do catálogo -> exercício com o total de usos somado em todos os shards.
+     */
+    private Map<Long, Entrada> contarUsos() {
+        // Com shards, cada um tem uma cópia do catálogo e conta os usos dos seus próprios treinos.
+        Map<Long, Entrada> entradas = new HashMap<>();
+        for (List<ExercicioCatalogoUsoDTO> catalogo : shards.emTodos(exercicioCatalogoRepository::findAllComUsos)) {
+            for (ExercicioCatalogoUsoDTO exercicio : catalogo) {
+                entradas.computeIfAbsent(exercicio.id(), id -> new Entrada(id, exercicio.nome(), 0)).usos += exercicio.usos();
+            }
+        }
+        return entradas;
+    }
+
+    /**
+     * Retorna o ID do exercício do catálogo correspondente a um nome digitado pelo usuário,
+     * ignorando acentos, maiúsculas e espaços extras.
+     *
+     * @param nomeExercicio O nome digitado.
+     * @return O ID do catálogo, ou {@code null} se o exercício ainda não estiver no catálogo.
+     */
+    public Long buscarId(String nomeExercicio) {
+        String chave = chave(nomeExercicio);
+        if (chave == null || chave.isEmpty()) {
+            return null;
+        }
+        Entrada entrada = porNome.get(chave);
+        return entrada != null ? entrada.id : null;
+    }
+
+    /**
+     * Retorna o nome canônico de um exercício do catálogo.
+     * O ID é lido sem inicializar o proxy da entidade; o banco só é consultado se o exercício ainda não
+     * estiver em memória (ex: criado por uma transação que ainda não terminou).
+     *
+     * @param catalogo O exercício do catálogo (normalmente um proxy lazy).
+     * @return A instância compartilhada do nome canônico.
+     */
+    public String nomeDe(ExercicioCatalogo catalogo) {
+        if (catalogo == null) {
+            return null;
+        }
+        Entrada entrada = porId.get(catalogo.getId());
+        return entrada != null ? entrada.nomeCanonico : catalogo.getNome();
+    }
+
+    /**
+     * Sugere os nomes de exercícios que começam com o prefixo informado, dos mais usados para os menos usados.
+     * Exercícios do catálogo que não são usados por nenhum treino não são sugeridos.
+     *
+     * @param prefixo O início do nome do exercício (ignorando acentos, maiúsculas e espaços extras).
+     * @param limite  O número máximo de sugestões.
+     * @return As sugestões ordenadas pela quantidade de usos.
+     */
+    public List<ExercicioSuggestionDTO> sugerir(String prefixo, int limite) {
+        String chavePrefixo = chave(prefixo);
+        if (chavePrefixo == null || chavePrefixo.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        // Mantém apenas os 'limite' mais usados do intervalo (heap mínimo pelo número de usos).
+        Comparator<ExercicioSuggestionDTO> porUsos = Comparator.comparingLong(ExercicioSuggestionDTO::usos);
+        PriorityQueue<ExercicioSuggestionDTO> maisUsados = new PriorityQueue<>(limite + 1, porUsos);
+        for (Entrada entrada : porNome.subMap(chavePrefixo, true, chavePrefixo + Character.MAX_VALUE, false).values()) {
+            long usos;
+            synchronized (entrada) {
+                usos = entrada.usos;
+            }
+            if (usos <= 0) {
+                continue;
+            }
+            maisUsados.offer(new ExercicioSuggestionDTO(entrada.nomeCanonico, usos));
+            if (maisUsados.size() > limite) {
+                maisUsados.poll();
+            }
+        }
+
+        List<ExercicioSuggestionDTO> resultado = new ArrayList<>(maisUsados);
+        resultado.sort(porUsos.reversed().thenComparing(ExercicioSuggestionDTO::nomeExercicio));
+        return resultado;
+    }
+
+    /**
+     * Adiciona ao catálogo em memória, após o commit da transação corrente, um exercício recém-criado
+     * na tabela {@code exercicio_catalogo}.
+     *
+     * @param catalogo O exercício do catálogo já persistido.
+     */
+    public void registrarNovo(ExercicioCatalogo catalogo) {
+        Entrada entrada = new Entrada(catalogo.getId(), catalogo.getNome(), 0);
+        TransacaoUtils.aposCommit(() -> adicionar(entrada));
+    }
+
+    /**
+     * Contabiliza, após o commit da transação corrente, a troca dos exercícios de um treino.
+     * Os exercícios removidos perdem um uso e os adicionados ganham um uso.
+     *
+     * @param removidos Os IDs do catálogo dos exercícios que deixaram de existir (vazio na criação).
+     * @param adicionados Os IDs do catálogo dos exercícios que passaram a existir (vazio na remoção).
+     */
+    public void registrarAlteracao(Collection<Long> removidos, Collection<Long> adicionados) {
+        List<Long> idsRemovidos = List.copyOf(removidos);
+        List<Long> idsAdicionados = List.copyOf(adicionados);
+        TransacaoUtils.aposCommit(() -> {
+            idsRemovidos.forEach(id -> ajustarUsos(id, -1));
+            idsAdicionados.forEach(id -> ajustarUsos(id, 1));
+        });
+    }
+
+    private void adicionar(Entrada entrada) {
+        Entrada existente = porId.putIfAbsent(entrada.id, entrada);
+        if (existente == null) {
+            porNome.put(chave(entrada.nomeCanonico), entrada);
+        }
+    }
+
+    private void ajustarUsos(Long catalogoId, long delta) {
+        Entrada entrada = porId.get(catalogoId);
+        if (entrada == null) {
+            return;
+        }
+        synchronized (entrada) {
+            entrada.usos = Math.max(0, entrada.usos + delta);
+        }
+    }
+
+    private static String chave(String nome) {
+        return TextoUtils.normalizarParaBusca(nome);
+    }
+}
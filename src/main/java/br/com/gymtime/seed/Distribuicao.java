@@ -0,0 +1,80 @@
+package br.com.gymtime.seed;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribuição discreta de quantidades, configurada como pares {@code valor:peso} separados por vírgula.
+ * Exemplo: {@code "0:10,1:20,2:40,3:30"} sorteia 0 em 10% dos casos, 1 em 20%, 2 em 40% e 3 em 30%.
+ */
+final class Distribuicao {
+
+    private final int[] valores;
+    private final long[] pesosAcumulados;
+
+    private Distribuicao(int[] valores, long[] pesosAcumulados) {
+        this.valores = valores;
+        this.pesosAcumulados = pesosAcumulados;
+    }
+
+    /**
+     * Interpreta uma distribuição no formato {@code valor:peso,valor:peso,...}.
+     *
+     * @param especificacao A distribuição configurada.
+     * @return A distribuição pronta para sorteio.
+     * @throws IllegalArgumentException se a especificação estiver vazia, mal formada ou tiver pesos negativos.
+     */
+    static Distribuicao de(String especificacao) {
+        String[] pares = especificacao.split(",");
+        int[] valores = new int[pares.length];
+        long[] pesosAcumulados = new long[pares.length];
+        long total = 0;
+        for (int i = 0; i < pares.length; i++) {
+            String[] par = pares[i].trim().split(":");
+            if (par.length != 2) {
+                throw new IllegalArgumentException("Distribuição inválida (esperado valor:peso): " + especificacao);
+            }
+            valores[i] = Integer.parseInt(par[0].trim());
+            long peso = Long.parseLong(par[1].trim());
+            if (valores[i] < 0 || peso < 0) {
+                throw new IllegalArgumentException("Valores e pesos da distribuição não podem ser negativos: " + especificacao);
+            }
+            total += peso;
+            pesosAcumulados[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("A soma dos pesos da distribuição deve ser positiva: " + especificacao);
+        }
+        return new Distribuicao(valores, pesosAcumulados);
+    }
+
+    /**
+     * Sorteia um valor respeitando os pesos.
+     *
+     * @param aleatorio O gerador de números aleatórios (determinístico a partir da semente).
+     * @return O valor sorteado.
+     */
+    int sortear(SplittableRandom aleatorio) {
+        long sorteio = aleatorio.nextLong(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (sorteio < pesosAcumulados[i]) {
+                return valores[i];
+            }
+        }
+        return valores[valores.length - 1];
+    }
+
+    /**
+     * Retorna a média ponderada dos valores, usada para estimar o volume total gerado.
+     *
+     * @return O valor esperado de um sorteio.
+     */
+    double media() {
+        double soma = 0;
+        long anterior = 0;
+        for (int i = 0; i < valores.length; i++) {
+            soma += (double) valores[i] * (pesosAcumulados[i] - anterior);
+            anterior = pesosAcumulados[i];
+        }
+        return soma / pesosAcumulados[pesosAcumulados.length - 1];
+    }
+}
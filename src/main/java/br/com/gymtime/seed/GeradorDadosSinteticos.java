@@ -0,0 +1,317 @@
+package br.com.gymtime.seed;
+
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.util.TextoUtils;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+
+/**
+ * Gera uma massa de dados sintética (alunos, treinos e exercícios) para testes de carga e de capacidade.
+ * Ativado pelo profile {@code seed} (ver {@code application-seed.properties}).
+ * <p>
+ * Os dados são gravados diretamente por JDBC, em lotes ({@code addBatch}) com um commit a cada
+ * {@value #ALUNOS_POR_LOTE} alunos, sem passar pelo Hibernate. Os IDs são atribuídos pelo próprio gerador,
+ * o que permite gravar os treinos e exercícios sem ler as chaves geradas; ao final, as colunas de identidade
+ * são reposicionadas após o maior ID gerado.
+ * <p>
+ * A massa é determinística: a mesma semente e a mesma configuração geram exatamente os mesmos dados.
+ * Os CPFs são válidos e únicos (a base de 9 dígitos é uma permutação do número do aluno), assim como os e-mails.
+ * O gerador roda antes da construção dos índices em memória, que já incluem os dados gerados.
+ * Se a tabela de alunos não estiver vazia (ex: banco em arquivo já populado), nada é gerado.
+ */
+@Component
+@Profile("seed")
+@Slf4j
+public class GeradorDadosSinteticos implements ApplicationRunner {
+
+    private static final int ALUNOS_POR_LOTE = 1_000;
+
+    /**
+     * Multiplicador usado para espalhar as bases dos CPFs. Por ser primo com 10^9, a função
+     * {@code (k * MULTIPLICADOR) mod 10^9} é uma permutação: bases distintas para cada k.
+     */
+    private static final long MULTIPLICADOR_CPF = 387_420_489L;
+    private static final long BASES_CPF = 1_000_000_000L;
+
+    private static final String[] NOMES = {
+            "Ana", "Beatriz", "Bruna", "Camila", "Carla", "Daniela", "Fernanda", "Gabriela", "Helena", "Isabela",
+            "Juliana", "Larissa", "Letícia", "Luana", "Mariana", "Natália", "Patrícia", "Renata", "Sofia", "Vitória",
+            "André", "Bruno", "Caio", "Diego", "Eduardo", "Felipe", "Gabriel", "Gustavo", "Henrique", "João",
+            "Leonardo", "Lucas", "Marcelo", "Mateus", "Murilo", "Paulo", "Rafael", "Rodrigo", "Thiago", "Vinícius"
+    };
+
+    private static final String[] SOBRENOMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+            "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+            "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Camillo", "Leme", "Moraes", "Pinto"
+    };
+
+    private static final String[] DDDS = {"11", "19", "21", "31", "41", "47", "51", "61", "71", "81", "85", "92"};
+
+    private static final String[] TREINOS = {
+            "Treino A - Peito e Tríceps", "Treino B - Costas e Bíceps", "Treino C - Pernas",
+            "Treino D - Ombros e Abdômen", "Full Body", "Superiores", "Inferiores", "Funcional", "Hipertrofia",
+            "Resistência", "Adaptação", "Mobilidade e Core"
+    };
+
+    private static final String[] DESCRICOES = {
+            null, "Descanso de 60 segundos entre as séries.", "Aumentar a carga a cada duas semanas.",
+            "Executar com cadência controlada.", "Aquecimento de 10 minutos na esteira antes do treino."
+    };
+
+    /**
+     * Exercícios do catálogo, dos mais populares para os menos populares: o sorteio favorece o início da lista.
+     */
+    private static final String[] EXERCICIOS = {
+            "Supino reto", "Agachamento livre", "Leg press 45", "Puxada frontal", "Rosca direta", "Tríceps corda",
+            "Elevação lateral", "Cadeira extensora", "Mesa flexora", "Remada curvada", "Desenvolvimento com halteres",
+            "Abdominal supra", "Prancha", "Supino inclinado", "Crucifixo", "Levantamento terra", "Stiff",
+            "Panturrilha em pé", "Remada baixa", "Rosca martelo", "Tríceps testa", "Afundo", "Cadeira abdutora",
+            "Cadeira adutora", "Elevação pélvica", "Barra fixa", "Paralelas", "Crossover", "Face pull",
+            "Encolhimento", "Rosca concentrada", "Tríceps francês", "Agachamento búlgaro", "Hack machine",
+            "Pullover", "Abdominal infra", "Russian twist", "Burpee", "Kettlebell swing", "Corrida na esteira"
+    };
+
+    private static final String[] SERIES_REPETICOES = {"3x10", "3x12", "4x8", "4x10", "4x12", "3x15", "5x5", "3x20", "4x6-8", null};
+
+    private final DataSource dataSource;
+    private final int quantidadeAlunos;
+    private final long semente;
+    private final Distribuicao treinosPorAluno;
+    private final Distribuicao exerciciosPorTreino;
+
+    public GeradorDadosSinteticos(DataSource dataSource,
+                                  @Value("${gymtime.seed.alunos}") int quantidadeAlunos,
+                                  @Value("${gymtime.seed.semente}") long semente,
+                                  @Value("${gymtime.seed.treinos-por-aluno}") String treinosPorAluno,
+                                  @Value("${gymtime.seed.exercicios-por-treino}") String exerciciosPorTreino) {
+        if (quantidadeAlunos < 0 || quantidadeAlunos > BASES_CPF) {
+            throw new IllegalArgumentException("Quantidade de alunos inválida: " + quantidadeAlunos);
+        }
+        this.dataSource = dataSource;
+        this.quantidadeAlunos = quantidadeAlunos;
+        this.semente = semente;
+        this.treinosPorAluno = Distribuicao.de(treinosPorAluno);
+        this.exerciciosPorTreino = Distribuicao.de(exerciciosPorTreino);
+    }
+
+    /**
+     * IDs atribuídos a cada tabela: o próximo ID livre.
+     */
+    private static final class ProximosIds {
+        private long aluno;
+        private long treino;
+        private long exercicio;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        // Usa o DataSource original, sem o proxy de instrumentação SQL: milhões de instruções em lote
+        // não pertencem a nenhuma requisição e o proxy custaria ~10% do tempo de geração.
+        DataSource semProxy = dataSource instanceof ProxyDataSource proxy ? proxy.getDataSource() : dataSource;
+        try (Connection conexao = semProxy.getConnection()) {
+            if (contar(conexao, "alunos") > 0) {
+                log.warn("Geração de dados sintéticos ignorada: a tabela de alunos já contém dados.");
+                return;
+            }
+            log.info("Gerando {} alunos (semente {}, ~{} treinos por aluno, ~{} exercícios por treino)...",
+                    quantidadeAlunos, semente, String.format("%.1f", treinosPorAluno.media()),
+                    String.format("%.1f", exerciciosPorTreino.media()));
+            long inicio = System.nanoTime();
+
+            conexao.setAutoCommit(false);
+            long[] catalogo = prepararCatalogo(conexao);
+            ProximosIds ids = new ProximosIds();
+            ids.aluno = maiorId(conexao, "alunos") + 1;
+            ids.treino = maiorId(conexao, "treinos") + 1;
+            ids.exercicio = maiorId(conexao, "exercicios") + 1;
+            long primeiroTreino = ids.treino;
+            long primeiroExercicio = ids.exercicio;
+
+            gravarAlunos(conexao, catalogo, ids);
+            reposicionarIdentidade(conexao, "alunos", ids.aluno);
+            reposicionarIdentidade(conexao, "treinos", ids.treino);
+            reposicionarIdentidade(conexao, "exercicios", ids.exercicio);
+            conexao.commit();
+
+            long linhas = quantidadeAlunos + (ids.treino - primeiroTreino) + (ids.exercicio - primeiroExercicio);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            log.info("Dados sintéticos gerados em {} s: {} alunos, {} treinos, {} exercícios ({} linhas/s).",
+                    String.format("%.1f", segundos), quantidadeAlunos, ids.treino - primeiroTreino,
+                    ids.exercicio - primeiroExercicio, Math.round(linhas / segundos));
+        }
+    }
+
+    private void gravarAlunos(Connection conexao, long[] catalogo, ProximosIds ids) throws SQLException {
+        SplittableRandom aleatorio = new SplittableRandom(semente);
+        LocalDate hoje = LocalDate.now();
+        long proximaBaseCpf = 0;
+        int proximoProgresso = Math.max(quantidadeAlunos / 10, 1);
+
+        try (PreparedStatement insereAluno = conexao.prepareStatement(
+                "insert into alunos (id, nome, nome_busca, email, email_busca, telefone, cpf) values (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement insereTreino = conexao.prepareStatement(
+                     "insert into treinos (id, nome, descricao, data_criacao, data_atualizacao, aluno_id) values (?, ?, ?, ?, ?, ?)");
+             PreparedStatement insereExercicio = conexao.prepareStatement(
+                     "insert into exercicios (id, catalogo_id, series_repeticoes, treino_id) values (?, ?, ?, ?)")) {
+
+            for (int i = 0; i < quantidadeAlunos; i++) {
+                long alunoId = ids.aluno++;
+                String nome = sortear(aleatorio, NOMES) + " " + sortear(aleatorio, SOBRENOMES) + " " + sortear(aleatorio, SOBRENOMES);
+                String nomeBusca = TextoUtils.normalizarParaBusca(nome);
+                String email = nomeBusca.replace(' ', '.') + "." + alunoId + "@gymtime.seed";
+
+                String cpf;
+                do {
+                    cpf = DocumentoUtils.gerarCpf((proximaBaseCpf++ * MULTIPLICADOR_CPF + semente) % BASES_CPF);
+                } while (!DocumentoUtils.isCpfValido(cpf));
+
+                insereAluno.setLong(1, alunoId);
+                insereAluno.setString(2, nome);
+                insereAluno.setString(3, nomeBusca);
+                insereAluno.setString(4, email);
+                insereAluno.setString(5, email);
+                insereAluno.setString(6, telefone(aleatorio));
+                insereAluno.setString(7, cpf);
+                insereAluno.addBatch();
+
+                int quantidadeTreinos = treinosPorAluno.sortear(aleatorio);
+                for (int t = 0; t < quantidadeTreinos; t++) {
+                    long treinoId = ids.treino++;
+                    LocalDate criacao = hoje.minusDays(aleatorio.nextInt(730));
+                    LocalDate atualizacao = criacao.plusDays(aleatorio.nextInt((int) (hoje.toEpochDay() - criacao.toEpochDay()) + 1));
+                    insereTreino.setLong(1, treinoId);
+                    insereTreino.setString(2, sortear(aleatorio, TREINOS));
+                    insereTreino.setString(3, sortear(aleatorio, DESCRICOES));
+                    insereTreino.setDate(4, Date.valueOf(criacao));
+                    insereTreino.setDate(5, Date.valueOf(atualizacao));
+                    insereTreino.setLong(6, alunoId);
+                    insereTreino.addBatch();
+
+                    int quantidadeExercicios = Math.min(exerciciosPorTreino.sortear(aleatorio), catalogo.length);
+                    long sorteados = 0; // bitmask dos exercícios já usados neste treino (o catálogo tem menos de 64)
+                    for (int e = 0; e < quantidadeExercicios; e++) {
+                        int indice;
+                        do {
+                            // u² concentra os sorteios no início da lista (exercícios mais populares).
+                            double u = aleatorio.nextDouble();
+                            indice = (int) (u * u * catalogo.length);
+                        } while ((sorteados & (1L << indice)) != 0);
+                        sorteados |= 1L << indice;
+
+                        insereExercicio.setLong(1, ids.exercicio++);
+                        insereExercicio.setLong(2, catalogo[indice]);
+                        String series = sortear(aleatorio, SERIES_REPETICOES);
+                        if (series != null) {
+                            insereExercicio.setString(3, series);
+                        } else {
+                            insereExercicio.setNull(3, Types.VARCHAR);
+                        }
+                        insereExercicio.setLong(4, treinoId);
+                        insereExercicio.addBatch();
+                    }
+                }
+
+                if ((i + 1) % ALUNOS_POR_LOTE == 0 || i + 1 == quantidadeAlunos) {
+                    insereAluno.executeBatch();
+                    insereTreino.executeBatch();
+                    insereExercicio.executeBatch();
+                    conexao.commit();
+                }
+                if (i + 1 == proximoProgresso) {
+                    log.info("{} de {} alunos gerados.", i + 1, quantidadeAlunos);
+                    proximoProgresso += Math.max(quantidadeAlunos / 10, 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Garante que todos os exercícios da massa existam no catálogo, reaproveitando os já cadastrados.
+     *
+     * @return Os IDs do catálogo, na mesma ordem de {@link #EXERCICIOS}.
+     */
+    private static long[] prepararCatalogo(Connection conexao) throws SQLException {
+        long[] ids = new long[EXERCICIOS.length];
+        try (PreparedStatement busca = conexao.prepareStatement("select id from exercicio_catalogo where nome_normalizado = ?");
+             PreparedStatement insercao = conexao.prepareStatement(
+                     "insert into exercicio_catalogo (nome, nome_normalizado) values (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < EXERCICIOS.length; i++) {
+                String nomeNormalizado = TextoUtils.normalizarParaBusca(EXERCICIOS[i]);
+                busca.setString(1, nomeNormalizado);
+                try (ResultSet existente = busca.executeQuery()) {
+                    if (existente.next()) {
+                        ids[i] = existente.getLong(1);
+                        continue;
+                    }
+                }
+                insercao.setString(1, EXERCICIOS[i]);
+                insercao.setString(2, nomeNormalizado);
+                insercao.executeUpdate();
+                try (ResultSet chaves = insercao.getGeneratedKeys()) {
+                    chaves.next();
+                    ids[i] = chaves.getLong(1);
+                }
+            }
+        }
+        conexao.commit();
+        return ids;
+    }
+
+    /**
+     * Sorteia um telefone: 60% celulares, 20% fixos e 20% sem telefone.
+     */
+    private static String telefone(SplittableRandom aleatorio) {
+        int tipo = aleatorio.nextInt(10);
+        if (tipo < 2) {
+            return null;
+        }
+        String ddd = sortear(aleatorio, DDDS);
+        return tipo < 8
+                ? ddd + "9" + String.format("%08d", aleatorio.nextInt(100_000_000))
+                : ddd + String.format("%08d", 20_000_000 + aleatorio.nextInt(80_000_000));
+    }
+
+    private static <T> T sortear(SplittableRandom aleatorio, T[] opcoes) {
+        return opcoes[aleatorio.nextInt(opcoes.length)];
+    }
+
+    private static long contar(Connection conexao, String tabela) throws SQLException {
+        try (Statement consulta = conexao.createStatement();
+             ResultSet resultado = consulta.executeQuery("select count(*) from " + tabela)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    private static long maiorId(Connection conexao, String tabela) throws SQLException {
+        try (Statement consulta = conexao.createStatement();
+             ResultSet resultado = consulta.executeQuery("select coalesce(max(id), 0) from " + tabela)) {
+            resultado.next();
+            return resultado.getLong(1);
+        }
+    }
+
+    private static void reposicionarIdentidade(Connection conexao, String tabela, long proximoId) throws SQLException {
+        try (Statement alteracao = conexao.createStatement()) {
+            alteracao.execute("alter table " + tabela + " alter column id restart with " + proximoId);
+        }
+    }
+}
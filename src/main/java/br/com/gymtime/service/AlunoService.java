@@ -2,10 +2,14 @@ package br.com.gymtime.service;
 
 import br.com.gymtime.dto.AlunoCreateDTO;
 import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.dto.AlunoSummaryDTO;
 import br.com.gymtime.dto.AlunoUpdateDTO;
 import br.com.gymtime.exception.CpfAlreadyExistsException;
 import br.com.gymtime.exception.EmailAlreadyExistsException;
 import br.com.gymtime.exception.ResourceNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +38,26 @@ public interface AlunoService {
      */
     List<AlunoResponseDTO> getAllAlunos();
 
+    /**
+     * Retorna uma página da listagem resumida de alunos, opcionalmente filtrada por um termo de busca.
+     * O termo é comparado como prefixo do nome, do e-mail ou do CPF (ignorando acentos, maiúsculas e máscara).
+     *
+     * @param termo    O termo de busca. Se nulo ou em branco, todos os alunos são considerados.
+     * @param pageable As informações de paginação e ordenação. São aceitas ordenações por id, nome, email e cpf.
+     * @return Uma {@link Page} de {@link AlunoSummaryDTO}.
+     */
+    Page<AlunoSummaryDTO> getAlunosPaginados(String termo, Pageable pageable);
+
+    /**
+     * Busca instantânea (autocomplete) de alunos por prefixo de nome, CPF ou telefone.
+     * A busca é atendida pelo índice em memória, sem consultar o banco de dados.
+     *
+     * @param consulta O texto digitado, com ou sem máscara.
+     * @param limite   O número máximo de resultados.
+     * @return Uma lista com no máximo {@code limite} alunos encontrados.
+     */
+    List<AlunoSearchResultDTO> searchAlunos(String consulta, int limite);
+
     /**
      * Busca um aluno específico pelo seu ID.
      *
@@ -43,7 +67,7 @@ public interface AlunoService {
     Optional<AlunoResponseDTO> getAlunoById(Long id);
 
     /**
-     * Busca um aluno específico pelo seu endereço de e-mail.
+     * Busca um aluno específico pelo seu endereço de e-mail, sem diferenciar maiúsculas de minúsculas.
      *
      * @param email O e-mail único do aluno a ser buscado.
      * @return Um {@link Optional} contendo o DTO do aluno encontrado, ou um Optional vazio se não for encontrado.
@@ -64,7 +88,8 @@ public interface AlunoService {
 
     /**
      * Deleta um aluno do sistema com base no seu ID.
-     * A implementação deve garantir que os dados associados (como treinos) também sejam removidos.
+     * A implementação deve garantir que os dados associados (como treinos) também sejam removidos: a remoção é lógica e
+     * imediata para todas as consultas, e as linhas são apagadas depois, em segundo plano.
      *
      * @param id O ID do aluno a ser deletado.
      * @throws ResourceNotFoundException se nenhum aluno for encontrado com o ID fornecido.
@@ -0,0 +1,22 @@
+package br.com.gymtime.service;
+
+import br.com.gymtime.dto.ExercicioSuggestionDTO;
+
+import java.util.List;
+
+/**
+ * Interface que define o contrato para os serviços relacionados ao catálogo de exercícios.
+ * O catálogo reúne os nomes de exercícios já usados em todos os treinos cadastrados.
+ */
+public interface ExercicioService {
+
+    /**
+     * Sugere nomes de exercícios do catálogo que começam com o prefixo informado.
+     * A comparação ignora acentos, maiúsculas e espaços extras, e os exercícios mais usados aparecem primeiro.
+     *
+     * @param prefixo O início do nome do exercício digitado pelo usuário.
+     * @param limite O número máximo de sugestões a serem retornadas.
+     * @return Uma lista de {@link ExercicioSuggestionDTO} ordenada pela quantidade de usos.
+     */
+    List<ExercicioSuggestionDTO> suggestExercicios(String prefixo, int limite);
+}
@@ -1,23 +1,41 @@
 package br.com.gymtime.service.impl;
 
+import br.com.gymtime.config.MetricsConfig;
 import br.com.gymtime.dto.*;
+import br.com.gymtime.evento.EventoDominio;
+import br.com.gymtime.evento.PublicadorEventos;
 import br.com.gymtime.exception.CpfAlreadyExistsException;
 import br.com.gymtime.exception.EmailAlreadyExistsException;
+import br.com.gymtime.exception.InvalidCpfException;
 import br.com.gymtime.exception.ResourceNotFoundException;
+import br.com.gymtime.mapper.AlunoMapper;
 import br.com.gymtime.model.Aluno;
-import br.com.gymtime.model.Exercicio;
-import br.com.gymtime.model.Treino;
 import br.com.gymtime.repository.AlunoRepository;
+import br.com.gymtime.repository.TreinoRepository;
+import br.com.gymtime.search.AlunoSearchIndex;
+import br.com.gymtime.search.ExercicioCatalogIndex;
 import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.shard.DiretorioGlobal;
+import br.com.gymtime.shard.Shards;
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.util.TextoUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -26,62 +44,41 @@ import java.util.stream.Collectors;
  * Contém a lógica de negócio para manipulação de dados de alunos.
  */
 @Service
+@Timed(value = MetricsConfig.METRICA_SERVICO, description = "Latência dos métodos da camada de serviço")
 @RequiredArgsConstructor // Anotação do Lombok que cria um construtor com os campos 'final'.
 public class AlunoServiceImpl implements AlunoService {
 
     private static final Logger logger = LoggerFactory.getLogger(AlunoServiceImpl.class);
-    private final AlunoRepository alunoRepository;
 
     /**
-     * Converte uma entidade {@link Aluno} para seu DTO de resposta {@link AlunoResponseDTO}.
-     * @param aluno A entidade a ser convertida.
-     * @return O DTO correspondente.
+     * Campos aceitos na ordenação da listagem paginada, mapeados para a propriedade indexada correspondente.
      */
-    private AlunoResponseDTO convertToAlunoResponseDTO(Aluno aluno) {
-        if (aluno == null) {
-            return null;
-        }
-
-        List<TreinoResponseDTO> treinoDTOs = (aluno.getTreinos() == null)
-                ? Collections.emptyList()
-                : aluno.getTreinos().stream().map(this::convertToTreinoResponseDTO).collect(Collectors.toList());
-
-        return new AlunoResponseDTO(
-                aluno.getId(),
-                aluno.getNome(),
-                aluno.getEmail(),
-                aluno.getTelefone(),
-                aluno.getCpf(),
-                treinoDTOs
-        );
-    }
+    private static final Map<String, String> CAMPOS_ORDENACAO = Map.of(
+            "id", "id",
+            "nome", "nomeBusca",
+            "email", "emailBusca",
+            "cpf", "cpf"
+    );
 
     /**
-     * Converte uma entidade {@link Treino} para seu DTO de resposta {@link TreinoResponseDTO}.
-     * @param treino A entidade a ser convertida.
-     * @return O DTO correspondente.
+     * Critérios de ordenação da listagem paginada sobre os resumos, equivalentes às colunas de {@link #CAMPOS_ORDENACAO},
+     * usados para intercalar as páginas dos shards.
      */
-    private TreinoResponseDTO convertToTreinoResponseDTO(Treino treino) {
-        if (treino == null) {
-            return null;
-        }
-
-        List<ExercicioResponseDTO> exercicioDTOs = (treino.getExercicios() == null)
-                ? Collections.emptyList()
-                : treino.getExercicios().stream()
-                .map(ex -> new ExercicioResponseDTO(ex.getId(), ex.getNomeExercicio(), ex.getSeriesRepeticoes()))
-                .collect(Collectors.toList());
+    private static final Map<String, Comparator<AlunoSummaryDTO>> COMPARADORES = Map.of(
+            "id", Comparator.comparing(AlunoSummaryDTO::id),
+            "nomeBusca", Comparator.comparing(resumo -> TextoUtils.normalizarParaBusca(resumo.nome())),
+            "emailBusca", Comparator.comparing(resumo -> TextoUtils.normalizarEmail(resumo.email())),
+            "cpf", Comparator.comparing(AlunoSummaryDTO::cpf)
+    );
 
-        return new TreinoResponseDTO(
-                treino.getId(),
-                treino.getNome(),
-                treino.getDescricao(),
-                treino.getDataCriacao(),
-                treino.getDataAtualizacao(),
-                treino.getAluno() != null ? treino.getAluno().getId() : null,
-                exercicioDTOs
-        );
-    }
+    private final AlunoRepository alunoRepository;
+    private final TreinoRepository treinoRepository;
+    private final Shards shards;
+    private final DiretorioGlobal diretorioGlobal;
+    private final AlunoSearchIndex alunoSearchIndex;
+    private final ExercicioCatalogIndex exercicioCatalogIndex;
+    private final PublicadorEventos publicadorEventos;
+    private final AlunoMapper alunoMapper;
 
     /**
      * {@inheritDoc}
@@ -91,18 +88,24 @@ public class AlunoServiceImpl implements AlunoService {
     public AlunoResponseDTO createAluno(AlunoCreateDTO alunoCreateDTO) {
         logger.debug("Iniciando processo de criação de aluno com email: {}", alunoCreateDTO.email());
 
+        // O CPF é validado antes de qualquer consulta ao banco.
+        String cleanCpf = validateCpf(alunoCreateDTO.cpf());
+        shards.usar(shards.shardParaNovoAluno(cleanCpf));
         validateEmailUniqueness(alunoCreateDTO.email());
-        validateCpfUniqueness(alunoCreateDTO.cpf());
+        validateCpfUniqueness(cleanCpf);
 
         Aluno aluno = new Aluno();
         aluno.setNome(alunoCreateDTO.nome());
         aluno.setEmail(alunoCreateDTO.email());
         aluno.setTelefone(alunoCreateDTO.telefone());
-        aluno.setCpf(alunoCreateDTO.cpf());
+        aluno.setCpf(cleanCpf);
 
         Aluno savedAluno = alunoRepository.save(aluno);
+        diretorioGlobal.registrar(savedAluno);
+        alunoSearchIndex.indexar(alunoMapper.convertToAlunoSearchResultDTO(savedAluno));
+        publicadorEventos.publicar(EventoDominio.Entidade.ALUNO, EventoDominio.Operacao.CRIADO, savedAluno.getId());
         logger.info("Aluno criado com sucesso. ID: {}", savedAluno.getId());
-        return convertToAlunoResponseDTO(savedAluno);
+        return alunoMapper.convertToAlunoResponseDTO(savedAluno);
     }
 
     /**
@@ -111,19 +114,71 @@ public class AlunoServiceImpl implements AlunoService {
     @Transactional(readOnly = true)
     @Override
     public List<AlunoResponseDTO> getAllAlunos() {
-        return alunoRepository.findAll().stream()
-                .map(this::convertToAlunoResponseDTO)
+        // Duas consultas por shard (alunos com treinos, e treinos com exercícios) em vez de uma por aluno e por treino.
+        return shards.emTodos(() -> {
+                    List<Aluno> alunos = alunoRepository.findAllComTreinos();
+                    treinoRepository.findAllComExercicios();
+                    return alunos.stream().map(alunoMapper::convertToAlunoResponseDTO).toList();
+                })
+                .stream()
+                .flatMap(List::stream)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Page<AlunoSummaryDTO> getAlunosPaginados(String termo, Pageable pageable) {
+        Pageable paginacao = sanitizarPaginacao(pageable);
+        if (shards.quantidade() == 1) {
+            return buscarResumos(termo, paginacao);
+        }
+
+        // Cada shard devolve as primeiras linhas até o fim da página pedida; a página é recortada depois de
+        // intercalar os resultados na mesma ordem usada pelas consultas.
+        Pageable inicio = PageRequest.of(0, (int) Math.min(Integer.MAX_VALUE, paginacao.getOffset() + paginacao.getPageSize()),
+                paginacao.getSort());
+        List<Page<AlunoSummaryDTO>> paginas = shards.emTodos(() -> buscarResumos(termo, inicio));
+        List<AlunoSummaryDTO> conteudo = paginas.stream()
+                .flatMap(pagina -> pagina.getContent().stream())
+                .sorted(comparador(paginacao.getSort()))
+                .skip(paginacao.getOffset())
+                .limit(paginacao.getPageSize())
+                .toList();
+        long total = paginas.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(conteudo, paginacao, total);
+    }
+
+    private Page<AlunoSummaryDTO> buscarResumos(String termo, Pageable paginacao) {
+        if (!StringUtils.hasText(termo)) {
+            return alunoRepository.findAllResumos(paginacao);
+        }
+
+        String prefixo = TextoUtils.escaparLike(TextoUtils.normalizarParaBusca(termo)) + "%";
+        String digitos = DocumentoUtils.apenasDigitos(termo);
+        String prefixoCpf = digitos.isEmpty() ? null : digitos + "%";
+        return alunoRepository.buscarResumos(prefixo, prefixoCpf, paginacao);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<AlunoSearchResultDTO> searchAlunos(String consulta, int limite) {
+        return alunoSearchIndex.buscar(consulta, limite);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Transactional(readOnly = true)
     @Override
     public Optional<AlunoResponseDTO> getAlunoById(Long id) {
+        shards.usarShardDoId(id);
         return alunoRepository.findById(id)
-                .map(this::convertToAlunoResponseDTO);
+                .map(alunoMapper::convertToAlunoResponseDTO);
     }
 
     /**
@@ -132,8 +187,12 @@ public class AlunoServiceImpl implements AlunoService {
     @Transactional(readOnly = true)
     @Override
     public Optional<AlunoResponseDTO> getAlunoByEmail(String email) {
-        return alunoRepository.findByEmail(email)
-                .map(this::convertToAlunoResponseDTO);
+        return diretorioGlobal.alunoIdPorEmail(email)
+                .flatMap(id -> {
+                    shards.usarShardDoId(id);
+                    return alunoRepository.findById(id);
+                })
+                .map(alunoMapper::convertToAlunoResponseDTO);
     }
 
     /**
@@ -144,6 +203,10 @@ public class AlunoServiceImpl implements AlunoService {
     public AlunoResponseDTO updateAluno(Long id, AlunoUpdateDTO alunoUpdateDTO) {
         logger.debug("Iniciando processo de atualização para o aluno ID: {}", id);
 
+        // O CPF é validado antes de qualquer consulta ao banco.
+        String cleanCpf = StringUtils.hasText(alunoUpdateDTO.cpf()) ? validateCpf(alunoUpdateDTO.cpf()) : null;
+
+        shards.usarShardDoId(id);
         Aluno aluno = alunoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Aluno não encontrado com ID: " + id));
 
@@ -154,12 +217,9 @@ public class AlunoServiceImpl implements AlunoService {
         }
 
         // Atualiza CPF se fornecido e diferente do atual
-        if (StringUtils.hasText(alunoUpdateDTO.cpf())) {
-            String cleanCpf = alunoUpdateDTO.cpf().replaceAll("[^0-9]", "");
-            if (!cleanCpf.equals(aluno.getCpf())) {
-                validateCpfUniqueness(cleanCpf);
-                aluno.setCpf(cleanCpf);
-            }
+        if (cleanCpf != null && !cleanCpf.equals(aluno.getCpf())) {
+            validateCpfUniqueness(cleanCpf);
+            aluno.setCpf(cleanCpf);
         }
 
         // Atualiza nome se fornecido
@@ -173,8 +233,11 @@ public class AlunoServiceImpl implements AlunoService {
         }
 
         Aluno updatedAluno = alunoRepository.save(aluno);
+        diretorioGlobal.registrar(updatedAluno);
+        alunoSearchIndex.indexar(alunoMapper.convertToAlunoSearchResultDTO(updatedAluno));
+        publicadorEventos.publicar(EventoDominio.Entidade.ALUNO, EventoDominio.Operacao.ATUALIZADO, updatedAluno.getId());
         logger.info("Aluno ID: {} atualizado com sucesso.", updatedAluno.getId());
-        return convertToAlunoResponseDTO(updatedAluno);
+        return alunoMapper.convertToAlunoResponseDTO(updatedAluno);
     }
 
     /**
@@ -183,52 +246,93 @@ public class AlunoServiceImpl implements AlunoService {
     @Transactional
     @Override
     public void deleteAluno(Long id) {
-        if (!alunoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Aluno não encontrado com ID: " + id + " para deleção.");
-        }
-        alunoRepository.deleteById(id);
+        shards.usarShardDoId(id);
+        Aluno aluno = alunoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Aluno não encontrado com ID: " + id + " para deleção."));
+        // Os exercícios dos treinos removidos deixam de contar como usos no catálogo de exercícios. Os IDs são
+        // consultados sem carregar os treinos e os exercícios, que podem ser muitos em um aluno antigo.
+        List<Long> idsDoCatalogo = treinoRepository.findIdsDoCatalogoByAlunoId(id);
+        List<Long> idsDosTreinos = treinoRepository.findIdsByAlunoId(id);
+        // Remoção lógica: o aluno e os seus treinos somem das consultas já no commit, sem a remoção em cascata de cada
+        // treino e exercício, que fica para o ExpurgoAlunosRemovidos.
+        aluno.setRemovidoEm(LocalDateTime.now());
+        diretorioGlobal.remover(id);
+        alunoSearchIndex.remover(id);
+        exercicioCatalogIndex.registrarAlteracao(idsDoCatalogo, List.of());
+        publicadorEventos.publicar(EventoDominio.Entidade.ALUNO, EventoDominio.Operacao.REMOVIDO, id);
+        publicadorEventos.publicar(EventoDominio.Entidade.TREINO, EventoDominio.Operacao.REMOVIDO, idsDosTreinos);
         logger.info("Aluno com ID: {} deletado com sucesso.", id);
     }
 
+    /**
+     * Restringe a ordenação aos campos permitidos, trocando-os pelas colunas indexadas, e adiciona
+     * o ID como critério de desempate para que a paginação seja estável.
+     * @param pageable A paginação recebida da requisição.
+     * @return A paginação a ser usada na consulta.
+     */
+    private Pageable sanitizarPaginacao(Pageable pageable) {
+        List<Sort.Order> ordens = pageable.getSort().stream()
+                .filter(ordem -> CAMPOS_ORDENACAO.containsKey(ordem.getProperty()))
+                .map(ordem -> new Sort.Order(ordem.getDirection(), CAMPOS_ORDENACAO.get(ordem.getProperty())))
+                .collect(Collectors.toList());
+        Sort sort = ordens.isEmpty() ? Sort.by("nomeBusca") : Sort.by(ordens);
+        if (sort.getOrderFor("id") == null) {
+            sort = sort.and(Sort.by("id"));
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    /**
+     * Converte a ordenação da consulta em um comparador dos resumos.
+     */
+    private static Comparator<AlunoSummaryDTO> comparador(Sort sort) {
+        Comparator<AlunoSummaryDTO> comparador = null;
+        for (Sort.Order ordem : sort) {
+            Comparator<AlunoSummaryDTO> criterio = COMPARADORES.get(ordem.getProperty());
+            if (ordem.isDescending()) {
+                criterio = criterio.reversed();
+            }
+            comparador = comparador == null ? criterio : comparador.thenComparing(criterio);
+        }
+        return comparador;
+    }
+
     /**
      * Valida se um email já existe no repositório.
      * @param email O email a ser verificado.
      * @throws EmailAlreadyExistsException se o email já estiver em uso.
      */
     private void validateEmailUniqueness(String email) {
-        if (alunoRepository.existsByEmail(email)) {
+        if (diretorioGlobal.emailEmUso(email)) {
             throw new EmailAlreadyExistsException("Email '" + email + "' já cadastrado.");
         }
     }
 
     /**
-     * Valida se um CPF já existe no repositório.
-     * @param cpf O CPF a ser verificado.
-     * @throws CpfAlreadyExistsException se o CPF já estiver em uso.
-     * @throws IllegalArgumentException se o CPF não tiver 11 dígitos.
+     * Remove a máscara de um CPF e valida a quantidade de dígitos e os dígitos verificadores.
+     * @param cpf O CPF, com ou sem máscara.
+     * @return O CPF contendo apenas os 11 dígitos.
+     * @throws InvalidCpfException se o CPF não tiver 11 dígitos ou os dígitos verificadores não conferirem.
      */
-    private void validateCpfUniqueness(String cpf) {
-        String cleanCpf = cpf.replaceAll("[^0-9]", "");
-        if (cleanCpf.length() != 11) {
-            throw new IllegalArgumentException("CPF inválido. Deve conter 11 dígitos.");
+    private String validateCpf(String cpf) {
+        String cleanCpf = DocumentoUtils.apenasDigitos(cpf);
+        if (cleanCpf == null || cleanCpf.length() != DocumentoUtils.DIGITOS_CPF) {
+            throw new InvalidCpfException("CPF inválido. Deve conter 11 dígitos.");
         }
-        if (alunoRepository.existsByCpf(cleanCpf)) {
-            throw new CpfAlreadyExistsException("CPF '" + formatCpfForDisplay(cleanCpf) + "' já cadastrado!");
+        if (!DocumentoUtils.isCpfValido(cleanCpf)) {
+            throw new InvalidCpfException("CPF '" + DocumentoUtils.formatarCpf(cleanCpf) + "' inválido: os dígitos verificadores não conferem.");
         }
+        return cleanCpf;
     }
 
     /**
-     * Formata um CPF para exibição em mensagens de erro.
-     * @param cpfDigits O CPF com 11 dígitos.
-     * @return O CPF formatado (ex: "123.456.789-01").
+     * Valida se um CPF já existe no repositório.
+     * @param cleanCpf O CPF, já validado, contendo apenas os 11 dígitos.
+     * @throws CpfAlreadyExistsException se o CPF já estiver em uso.
      */
-    private String formatCpfForDisplay(String cpfDigits) {
-        if (cpfDigits != null && cpfDigits.matches("\\d{11}")) {
-            return cpfDigits.substring(0, 3) + "." +
-                    cpfDigits.substring(3, 6) + "." +
-                    cpfDigits.substring(6, 9) + "-" +
-                    cpfDigits.substring(9, 11);
+    private void validateCpfUniqueness(String cleanCpf) {
+        if (diretorioGlobal.cpfEmUso(cleanCpf)) {
+            throw new CpfAlreadyExistsException("CPF '" + DocumentoUtils.formatarCpf(cleanCpf) + "' já cadastrado!");
         }
-        return cpfDigits;
     }
 }
@@ -0,0 +1,28 @@
+package br.com.gymtime.service.impl;
+
+import br.com.gymtime.config.MetricsConfig;
+import br.com.gymtime.dto.ExercicioSuggestionDTO;
+import br.com.gymtime.search.ExercicioCatalogIndex;
+import br.com.gymtime.service.ExercicioService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementação da camada de serviço para o catálogo de exercícios.
+ * As sugestões são respondidas pelo catálogo em memória, sem consultar o banco de dados.
+ */
+@Service
+@Timed(value = MetricsConfig.METRICA_SERVICO, description = "Latência dos métodos da camada de serviço")
+@RequiredArgsConstructor
+public class ExercicioServiceImpl implements ExercicioService {
+
+    private final ExercicioCatalogIndex exercicioCatalogIndex;
+
+    @Override
+    public List<ExercicioSuggestionDTO> suggestExercicios(String prefixo, int limite) {
+        return exercicioCatalogIndex.sugerir(prefixo, limite);
+    }
+}
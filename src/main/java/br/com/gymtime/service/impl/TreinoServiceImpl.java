@@ -1,24 +1,33 @@
 package br.com.gymtime.service.impl;
 
+import br.com.gymtime.config.MetricsConfig;
 import br.com.gymtime.dto.ExercicioCreateDTO;
-import br.com.gymtime.dto.ExercicioResponseDTO;
 import br.com.gymtime.dto.TreinoCreateDTO;
 import br.com.gymtime.dto.TreinoResponseDTO;
 import br.com.gymtime.dto.TreinoUpdateDTO;
+import br.com.gymtime.evento.EventoDominio;
+import br.com.gymtime.evento.PublicadorEventos;
 import br.com.gymtime.exception.ResourceNotFoundException;
+import br.com.gymtime.mapper.TreinoMapper;
 import br.com.gymtime.model.Aluno;
 import br.com.gymtime.model.Exercicio;
+import br.com.gymtime.model.ExercicioCatalogo;
 import br.com.gymtime.model.Treino;
 import br.com.gymtime.repository.AlunoRepository;
+import br.com.gymtime.repository.ExercicioCatalogoRepository;
 import br.com.gymtime.repository.TreinoRepository;
+import br.com.gymtime.search.ExercicioCatalogIndex;
 import br.com.gymtime.service.TreinoService;
+import br.com.gymtime.shard.DiretorioGlobal;
+import br.com.gymtime.shard.Shards;
+import br.com.gymtime.util.TextoUtils;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -28,51 +37,64 @@ import java.util.stream.Collectors;
  * Contém a lógica de negócio para manipulação de dados de treinos.
  */
 @Service
+@Timed(value = MetricsConfig.METRICA_SERVICO, description = "Latência dos métodos da camada de serviço")
 @Slf4j
 @RequiredArgsConstructor
 public class TreinoServiceImpl implements TreinoService {
 
     private final TreinoRepository treinoRepository;
     private final AlunoRepository alunoRepository;
+    private final ExercicioCatalogoRepository exercicioCatalogoRepository;
+    private final Shards shards;
+    private final DiretorioGlobal diretorioGlobal;
+    private final ExercicioCatalogIndex exercicioCatalogIndex;
+    private final PublicadorEventos publicadorEventos;
+    private final TreinoMapper treinoMapper;
 
     /**
-     * Converte uma entidade {@link Exercicio} para seu DTO de resposta {@link ExercicioResponseDTO}.
+     * Adiciona ao treino os exercícios com nome preenchido, associando cada um ao exercício do catálogo
+     * de mesmo nome (ex: "supino  RETO" usa o "Supino reto" já cadastrado).
      */
-    private ExercicioResponseDTO convertToExercicioResponseDTO(Exercicio exercicio) {
-        if (exercicio == null) return null;
-        return new ExercicioResponseDTO(
-                exercicio.getId(),
-                exercicio.getNomeExercicio(),
-                exercicio.getSeriesRepeticoes()
-        );
+    private void adicionarExercicios(Treino treino, List<ExercicioCreateDTO> exercicios) {
+        exercicios.stream()
+                .filter(exDTO -> StringUtils.hasText(exDTO.getNomeExercicio()))
+                .map(exDTO -> new Exercicio(obterOuCriarCatalogo(exDTO.getNomeExercicio()), exDTO.getSeriesRepeticoes()))
+                .forEach(treino::addExercicio);
     }
 
     /**
-     * Converte uma entidade {@link Treino} para seu DTO de resposta {@link TreinoResponseDTO}.
+     * Retorna o exercício do catálogo correspondente ao nome informado, criando-o se ainda não existir.
+     * Exercícios já conhecidos são resolvidos pelo catálogo em memória e referenciados sem consulta ao banco.
      */
-    private TreinoResponseDTO convertToTreinoResponseDTO(Treino treino) {
-        if (treino == null) return null;
-
-        List<ExercicioResponseDTO> exercicioDTOs = treino.getExercicios() == null ? Collections.emptyList()
-                : treino.getExercicios().stream()
-                .map(this::convertToExercicioResponseDTO)
-                .collect(Collectors.toList());
+    private ExercicioCatalogo obterOuCriarCatalogo(String nomeExercicio) {
+        Long catalogoId = exercicioCatalogIndex.buscarId(nomeExercicio);
+        if (catalogoId != null) {
+            return exercicioCatalogoRepository.getReferenceById(catalogoId);
+        }
+        String nome = TextoUtils.colapsarEspacos(nomeExercicio);
+        return exercicioCatalogoRepository.findByNomeNormalizado(TextoUtils.normalizarParaBusca(nome))
+                .orElseGet(() -> {
+                    ExercicioCatalogo novo = diretorioGlobal.criarNoCatalogo(nome);
+                    exercicioCatalogIndex.registrarNovo(novo);
+                    log.debug("Exercício '{}' adicionado ao catálogo com ID {}.", nome, novo.getId());
+                    return novo;
+                });
+    }
 
-        return new TreinoResponseDTO(
-                treino.getId(),
-                treino.getNome(),
-                treino.getDescricao(),
-                treino.getDataCriacao(),
-                treino.getDataAtualizacao(),
-                treino.getAluno() != null ? treino.getAluno().getId() : null,
-                exercicioDTOs
-        );
+    /**
+     * Retorna os IDs do catálogo dos exercícios de um treino, usados para atualizar os usos do catálogo.
+     */
+    private static List<Long> idsDoCatalogo(Treino treino) {
+        return treino.getExercicios() == null ? List.of()
+                : treino.getExercicios().stream().map(exercicio -> exercicio.getCatalogo().getId()).toList();
     }
 
     @Transactional
     @Override
     public TreinoResponseDTO createTreino(TreinoCreateDTO treinoCreateDTO) {
         log.debug("Iniciando criação de treino para o aluno ID: {}", treinoCreateDTO.alunoId());
+        // O treino fica no shard do aluno.
+        shards.usarShardDoId(treinoCreateDTO.alunoId());
         Aluno aluno = alunoRepository.findById(treinoCreateDTO.alunoId())
                 .orElseThrow(() -> new ResourceNotFoundException("Aluno não encontrado com ID: " + treinoCreateDTO.alunoId() + " para associar ao treino."));
 
@@ -81,48 +103,51 @@ public class TreinoServiceImpl implements TreinoService {
         treino.setDescricao(treinoCreateDTO.descricao());
         treino.setAluno(aluno); // Associa o treino ao aluno
 
-        // Adiciona os exercícios ao treino
-        treinoCreateDTO.exercicios().stream()
-                .filter(exDTO -> StringUtils.hasText(exDTO.getNomeExercicio()))
-                .map(exDTO -> new Exercicio(exDTO.getNomeExercicio(), exDTO.getSeriesRepeticoes()))
-                .forEach(treino::addExercicio);
+        // Adiciona os exercícios ao treino, associados ao catálogo de exercícios
+        adicionarExercicios(treino, treinoCreateDTO.exercicios());
 
         Treino savedTreino = treinoRepository.save(treino);
+        exercicioCatalogIndex.registrarAlteracao(List.of(), idsDoCatalogo(savedTreino));
+        publicadorEventos.publicar(EventoDominio.Entidade.TREINO, EventoDominio.Operacao.CRIADO, savedTreino.getId());
         log.info("Treino ID {} criado com sucesso para o aluno ID {}.", savedTreino.getId(), aluno.getId());
-        return convertToTreinoResponseDTO(savedTreino);
+        return treinoMapper.convertToTreinoResponseDTO(savedTreino);
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<TreinoResponseDTO> getTreinosByAlunoId(Long alunoId) {
+        shards.usarShardDoId(alunoId);
         if (!alunoRepository.existsById(alunoId)) {
             throw new ResourceNotFoundException("Não é possível listar treinos. Aluno não encontrado com ID: " + alunoId);
         }
         return treinoRepository.findByAlunoId(alunoId).stream()
-                .map(this::convertToTreinoResponseDTO)
+                .map(treinoMapper::convertToTreinoResponseDTO)
                 .collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     @Override
     public Optional<TreinoResponseDTO> getTreinoById(Long id) {
+        shards.usarShardDoId(id);
         return treinoRepository.findById(id)
-                .map(this::convertToTreinoResponseDTO);
+                .map(treinoMapper::convertToTreinoResponseDTO);
     }
 
     @Transactional(readOnly = true)
     @Override
     public Optional<TreinoResponseDTO> getTreinoByIdAndAlunoId(Long treinoId, Long alunoId) {
+        shards.usarShardDoId(treinoId);
         return treinoRepository.findById(treinoId)
                 // Garante que o treino pertence ao aluno especificado
                 .filter(treino -> treino.getAluno() != null && treino.getAluno().getId().equals(alunoId))
-                .map(this::convertToTreinoResponseDTO);
+                .map(treinoMapper::convertToTreinoResponseDTO);
     }
 
     @Transactional
     @Override
     public TreinoResponseDTO updateTreino(Long id, TreinoUpdateDTO treinoUpdateDTO) {
         log.debug("Iniciando atualização do treino ID: {}", id);
+        shards.usarShardDoId(id);
         Treino treino = treinoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Treino não encontrado com ID: " + id));
 
@@ -134,28 +159,31 @@ public class TreinoServiceImpl implements TreinoService {
             treino.setDescricao(treinoUpdateDTO.descricao());
         }
 
+        List<Long> idsAnteriores = idsDoCatalogo(treino);
         treino.getExercicios().clear();
-        treinoUpdateDTO.exercicios().stream()
-                .filter(exDTO -> StringUtils.hasText(exDTO.getNomeExercicio()))
-                .map(exDTO -> new Exercicio(exDTO.getNomeExercicio(), exDTO.getSeriesRepeticoes()))
-                .forEach(treino::addExercicio);
+        adicionarExercicios(treino, treinoUpdateDTO.exercicios());
 
         Treino updatedTreino = treinoRepository.save(treino);
+        exercicioCatalogIndex.registrarAlteracao(idsAnteriores, idsDoCatalogo(updatedTreino));
+        publicadorEventos.publicar(EventoDominio.Entidade.TREINO, EventoDominio.Operacao.ATUALIZADO, updatedTreino.getId());
         log.info("Treino ID {} atualizado com sucesso.", updatedTreino.getId());
-        return convertToTreinoResponseDTO(updatedTreino);
+        return treinoMapper.convertToTreinoResponseDTO(updatedTreino);
     }
 
     @Transactional
     @Override
     public void deleteTreino(Long id) {
         log.debug("Iniciando deleção do treino ID: {}", id);
+        shards.usarShardDoId(id);
         // Verifica se o treino existe antes de deletar para fornecer uma exceção clara.
-        if (!treinoRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Treino não encontrado com id: " + id);
-        }
+        Treino treino = treinoRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Treino não encontrado com id: " + id));
+        List<Long> idsAnteriores = idsDoCatalogo(treino);
         // A deleção do treino irá remover os exercícios associados em cascata
         // devido à configuração `cascade = CascadeType.ALL` na entidade Treino.
-        treinoRepository.deleteById(id);
+        treinoRepository.delete(treino);
+        exercicioCatalogIndex.registrarAlteracao(idsAnteriores, List.of());
+        publicadorEventos.publicar(EventoDominio.Entidade.TREINO, EventoDominio.Operacao.REMOVIDO, id);
         log.info("Treino com ID: {} deletado com sucesso.", id);
     }
 }
@@ -0,0 +1,33 @@
+package br.com.gymtime.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource que entrega cada conexão física do shard associado à thread ({@link Shards#shardAtual()}),
+ * ou do banco de diretório quando não há shard associado (inicialização, Flyway, health check).
+ * <p>
+ * Usado por trás de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * ({@link RoteadorShards#criarDataSource()}): o {@code JpaTransactionManager} pede a conexão ao iniciar a transação,
+ * antes de o serviço escolher o shard.
+ */
+class DataSourceShards extends AbstractRoutingDataSource {
+
+    DataSourceShards(RoteadorShards roteador) {
+        Map<Object, Object> destinos = new HashMap<>();
+        for (int i = 0; i < roteador.quantidade(); i++) {
+            destinos.put(i, roteador.shards().get(i));
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(roteador.diretorio());
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Shards.shardAtual();
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.gymtime.shard;
+
+import br.com.gymtime.model.Aluno;
+import br.com.gymtime.model.ExercicioCatalogo;
+
+import java.util.Optional;
+
+/**
+ * Dados compartilhados por todos os shards: a unicidade de e-mail e CPF dos alunos e o catálogo de exercícios.
+ * <p>
+ * Com um único banco ({@link DiretorioLocal}), tudo é resolvido pelas tabelas e índices únicos do próprio banco.
+ * Com shards ({@link DiretorioShards}), um aluno só enxerga o seu shard, e esses dados ficam no banco de diretório.
+ */
+public interface DiretorioGlobal {
+
+    /**
+     * @param email O e-mail, com ou sem maiúsculas.
+     */
+    boolean emailEmUso(String email);
+
+    /**
+     * @param cpf O CPF (apenas dígitos).
+     */
+    boolean cpfEmUso(String cpf);
+
+    /**
+     * @param email O e-mail, com ou sem maiúsculas.
+     * @return O ID do aluno com o e-mail, se existir.
+     */
+    Optional<Long> alunoIdPorEmail(String email);
+
+    /**
+     * Registra o e-mail e o CPF de um aluno recém-gravado (já com ID) ou alterado, na transação corrente.
+     *
+     * @throws br.com.gymtime.exception.EmailAlreadyExistsException se outro aluno já usa o e-mail.
+     * @throws br.com.gymtime.exception.CpfAlreadyExistsException   se outro aluno já usa o CPF.
+     */
+    void registrar(Aluno aluno);
+
+    /**
+     * Remove o registro de um aluno excluído, após o commit da transação corrente.
+     */
+    void remover(Long alunoId);
+
+    /**
+     * Cria um exercício no catálogo e o devolve como referência utilizável na transação corrente. Se outra transação
+     * criou o mesmo nome ao mesmo tempo, devolve o exercício já existente, sem falhar.
+     *
+     * @param nome O nome canônico, já com os espaços colapsados.
+     */
+    ExercicioCatalogo criarNoCatalogo(String nome);
+}
@@ -0,0 +1,87 @@
+package br.com.gymtime.shard;
+
+import br.com.gymtime.model.Aluno;
+import br.com.gymtime.model.ExercicioCatalogo;
+import br.com.gymtime.repository.AlunoRepository;
+import br.com.gymtime.repository.ExercicioCatalogoRepository;
+import br.com.gymtime.util.TextoUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * {@link DiretorioGlobal} de um único banco: as consultas usam as colunas com índice único de {@code alunos}
+ * ({@code email_busca} e {@code cpf}) e o catálogo é a própria tabela {@code exercicio_catalogo}.
+ */
+@Component
+@ConditionalOnProperty(name = "gymtime.shard.habilitado", havingValue = "false", matchIfMissing = true)
+public class DiretorioLocal implements DiretorioGlobal {
+
+    private final AlunoRepository alunoRepository;
+    private final ExercicioCatalogoRepository exercicioCatalogoRepository;
+
+    /**
+     * Transação separada da corrente, para que a falha de um {@code insert} não a marque para rollback.
+     */
+    private final TransactionTemplate novaTransacao;
+
+    public DiretorioLocal(AlunoRepository alunoRepository,
+                          ExercicioCatalogoRepository exercicioCatalogoRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.alunoRepository = alunoRepository;
+        this.exercicioCatalogoRepository = exercicioCatalogoRepository;
+        this.novaTransacao = new TransactionTemplate(transactionManager);
+        this.novaTransacao.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public boolean emailEmUso(String email) {
+        return alunoRepository.existsByEmailBusca(TextoUtils.normalizarEmail(email));
+    }
+
+    @Override
+    public boolean cpfEmUso(String cpf) {
+        return alunoRepository.existsByCpf(cpf);
+    }
+
+    /**
+     * {@inheritDoc}
+     * O aluno encontrado fica no contexto de persistência: um {@code findById} em seguida, na mesma transação,
+     * não consulta o banco novamente.
+     */
+    @Override
+    public Optional<Long> alunoIdPorEmail(String email) {
+        return alunoRepository.findByEmailBusca(TextoUtils.normalizarEmail(email)).map(Aluno::getId);
+    }
+
+    @Override
+    public void registrar(Aluno aluno) {
+        // Os índices únicos de alunos já garantem a unicidade.
+    }
+
+    @Override
+    public void remover(Long alunoId) {
+        // Nada a remover além da própria linha do aluno.
+    }
+
+    /**
+     * {@inheritDoc}
+     * O exercício é gravado em uma transação própria, com commit imediato, como no banco de diretório dos shards.
+     * Se outra transação criou o mesmo nome ao mesmo tempo, o índice único de {@code nome_normalizado} recusa o
+     * {@code insert}, só a transação própria é desfeita e o exercício existente é usado.
+     */
+    @Override
+    public ExercicioCatalogo criarNoCatalogo(String nome) {
+        try {
+            novaTransacao.executeWithoutResult(status -> exercicioCatalogoRepository.save(new ExercicioCatalogo(nome)));
+        } catch (DataIntegrityViolationException e) {
+            // Criado ao mesmo tempo por outra transação: usa o existente.
+        }
+        return exercicioCatalogoRepository.findByNomeNormalizado(TextoUtils.normalizarParaBusca(nome)).orElseThrow();
+    }
+}
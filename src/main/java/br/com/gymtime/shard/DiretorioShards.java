@@ -0,0 +1,217 @@
+package br.com.gymtime.shard;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.exception.CpfAlreadyExistsException;
+import br.com.gymtime.exception.EmailAlreadyExistsException;
+import br.com.gymtime.model.Aluno;
+import br.com.gymtime.model.ExercicioCatalogo;
+import br.com.gymtime.repository.ExercicioCatalogoRepository;
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.util.TextoUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link DiretorioGlobal} com shards: os dados globais ficam no banco de diretório.
+ * <ul>
+ *     <li>{@code alunos_diretorio} guarda o e-mail e o CPF de cada aluno, com índices únicos por academia. A linha é gravada
+ *     depois do {@code insert} do aluno no shard (quando o ID já é conhecido) e antes do commit, como uma reserva
+ *     pendente ({@code pendente_desde}): se outro aluno, em qualquer shard, já usa o e-mail ou o CPF, a gravação falha
+ *     e a transação do shard é desfeita. Depois do commit, a reserva é confirmada; se a transação do shard não chegar
+ *     ao commit, ela é desfeita. A confirmação e a desistência só alteram a linha se ela ainda tiver os valores
+ *     gravados pela própria transação, para não sobrescrever uma alteração concorrente do mesmo aluno. A remoção
+ *     também marca a linha como pendente antes do commit e a apaga depois dele.</li>
+ *     <li>Se o nó parar entre a gravação no diretório e o commit no shard, a reserva fica pendente. A reconciliação
+ *     ({@link #reconciliar()}, a cada {@code gymtime.shard.reconciliacao.intervalo}) confere cada reserva pendente há
+ *     mais de {@code gymtime.shard.reconciliacao.prazo} com o aluno no seu shard: confirma os valores gravados no
+ *     shard, ou apaga a linha se o aluno não existe mais.</li>
+ *     <li>{@code exercicio_catalogo} do diretório é o catálogo principal: um exercício novo é criado nele (que
+ *     gera o ID) e copiado para todos os shards antes de ser referenciado, para que as chaves estrangeiras dos
+ *     exercícios sejam válidas em qualquer shard.</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "gymtime.shard.habilitado", havingValue = "true")
+@Slf4j
+public class DiretorioShards implements DiretorioGlobal {
+
+    private static final String INDICE_EMAIL = "UK_ALUNOS_DIRETORIO_EMAIL";
+    private static final String SQL_RESERVAR = "merge into alunos_diretorio "
+            + "(aluno_id, academia_id, email_busca, cpf, pendente_desde) key (aluno_id) values (?, ?, ?, ?, localtimestamp)";
+    private static final String SQL_CONFIRMAR = "update alunos_diretorio set pendente_desde = null "
+            + "where aluno_id = ? and email_busca = ? and cpf = ? and pendente_desde is not null";
+    private static final String SQL_RESTAURAR = "update alunos_diretorio set email_busca = ?, cpf = ?, pendente_desde = null "
+            + "where aluno_id = ? and email_busca = ? and cpf = ? and pendente_desde is not null";
+    private static final String SQL_APAGAR = "delete from alunos_diretorio where aluno_id = ? and email_busca = ? and cpf = ?";
+    private static final String SQL_PENDENTES = "select aluno_id, email_busca, cpf from alunos_diretorio "
+            + "where pendente_desde < dateadd('MILLISECOND', ?, localtimestamp)";
+    private static final String MESCLAGEM_CATALOGO =
+            "merge into exercicio_catalogo (id, nome, nome_normalizado) key (id) values (?, ?, ?)";
+
+    private final JdbcTemplate diretorio;
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+    private final Shards roteamento;
+    private final ExercicioCatalogoRepository exercicioCatalogoRepository;
+    private final Duration prazoReconciliacao;
+
+    public DiretorioShards(RoteadorShards roteadorShards, Shards roteamento,
+                           ExercicioCatalogoRepository exercicioCatalogoRepository,
+                           @Value("${gymtime.shard.reconciliacao.prazo}") Duration prazoReconciliacao) {
+        this.diretorio = new JdbcTemplate(roteadorShards.diretorio());
+        for (DataSource shard : roteadorShards.shards()) {
+            shards.add(new JdbcTemplate(shard));
+        }
+        this.roteamento = roteamento;
+        this.exercicioCatalogoRepository = exercicioCatalogoRepository;
+        this.prazoReconciliacao = prazoReconciliacao;
+    }
+
+    /**
+     * Copia para os shards o catálogo do diretório, que pode ter recebido exercícios enquanto algum shard estava
+     * fora do ar.
+     */
+    @PostConstruct
+    void sincronizarCatalogo() {
+        List<Object[]> catalogo = diretorio.query("select id, nome, nome_normalizado from exercicio_catalogo",
+                (linha, numero) -> new Object[]{linha.getLong(1), linha.getString(2), linha.getString(3)});
+        for (JdbcTemplate shard : shards) {
+            shard.batchUpdate(MESCLAGEM_CATALOGO, catalogo);
+        }
+        log.info("Catálogo de exercícios sincronizado em {} shards: {} exercícios.", shards.size(), catalogo.size());
+    }
+
+    @Override
+    public boolean emailEmUso(String email) {
+        return existe("email_busca", TextoUtils.normalizarEmail(email));
+    }
+
+    @Override
+    public boolean cpfEmUso(String cpf) {
+        return existe("cpf", cpf);
+    }
+
+    @Override
+    public Optional<Long> alunoIdPorEmail(String email) {
+        return diretorio.queryForList("select aluno_id from alunos_diretorio where academia_id = ? and email_busca = ?",
+                Long.class, ContextoAcademia.atual(), TextoUtils.normalizarEmail(email)).stream().findFirst();
+    }
+
+    @Override
+    public void registrar(Aluno aluno) {
+        List<Map<String, Object>> anterior = diretorio.queryForList(
+                "select email_busca, cpf from alunos_diretorio where aluno_id = ?", aluno.getId());
+        if (!anterior.isEmpty() && aluno.getEmailBusca().equals(anterior.get(0).get("EMAIL_BUSCA"))
+                && aluno.getCpf().equals(anterior.get(0).get("CPF"))) {
+            return;
+        }
+        Long alunoId = aluno.getId();
+        String emailBusca = aluno.getEmailBusca();
+        String cpf = aluno.getCpf();
+        try {
+            diretorio.update(SQL_RESERVAR, alunoId, aluno.getAcademiaId(), emailBusca, cpf);
+        } catch (DuplicateKeyException e) {
+            if (e.getMessage() != null && e.getMessage().contains(INDICE_EMAIL)) {
+                throw new EmailAlreadyExistsException("Email '" + aluno.getEmail() + "' já cadastrado.");
+            }
+            throw new CpfAlreadyExistsException("CPF '" + DocumentoUtils.formatarCpf(cpf) + "' já cadastrado!");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    diretorio.update(SQL_CONFIRMAR, alunoId, emailBusca, cpf);
+                } else if (anterior.isEmpty()) {
+                    diretorio.update(SQL_APAGAR + " and pendente_desde is not null", alunoId, emailBusca, cpf);
+                } else {
+                    diretorio.update(SQL_RESTAURAR, anterior.get(0).get("EMAIL_BUSCA"), anterior.get(0).get("CPF"),
+                            alunoId, emailBusca, cpf);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void remover(Long alunoId) {
+        diretorio.update("update alunos_diretorio set pendente_desde = localtimestamp where aluno_id = ?", alunoId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    diretorio.update("delete from alunos_diretorio where aluno_id = ?", alunoId);
+                } else {
+                    diretorio.update("update alunos_diretorio set pendente_desde = null where aluno_id = ?", alunoId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Confere as reservas pendentes há mais de {@code gymtime.shard.reconciliacao.prazo} com o aluno no seu shard.
+     * Os valores gravados no shard prevalecem: a reserva é confirmada (ou corrigida) com eles, ou apagada se o aluno não
+     * existe ou foi removido. Cada linha só é alterada se ainda tiver os valores lidos, para não desfazer uma gravação
+     * feita no meio da reconciliação.
+     *
+     * @return Quantas reservas foram resolvidas.
+     */
+    @Scheduled(fixedDelayString = "${gymtime.shard.reconciliacao.intervalo}")
+    public synchronized int reconciliar() {
+        int resolvidas = 0;
+        for (Map<String, Object> reserva : diretorio.queryForList(SQL_PENDENTES, -prazoReconciliacao.toMillis())) {
+            Long alunoId = ((Number) reserva.get("ALUNO_ID")).longValue();
+            String emailBusca = (String) reserva.get("EMAIL_BUSCA");
+            String cpf = (String) reserva.get("CPF");
+            List<Map<String, Object>> noShard = shards.get(roteamento.shardDoId(alunoId)).queryForList(
+                    "select email_busca, cpf from alunos where id = ? and removido_em is null", alunoId);
+            int alteradas;
+            if (noShard.isEmpty()) {
+                alteradas = diretorio.update(SQL_APAGAR + " and pendente_desde is not null", alunoId, emailBusca, cpf);
+            } else {
+                alteradas = diretorio.update(SQL_RESTAURAR, noShard.get(0).get("EMAIL_BUSCA"), noShard.get(0).get("CPF"),
+                        alunoId, emailBusca, cpf);
+            }
+            if (alteradas > 0) {
+                log.warn("Reserva pendente do aluno {} no diretório resolvida pela reconciliação ({}).", alunoId,
+                        noShard.isEmpty() ? "apagada" : "confirmada com os valores do shard");
+                resolvidas++;
+            }
+        }
+        return resolvidas;
+    }
+
+    @Override
+    public ExercicioCatalogo criarNoCatalogo(String nome) {
+        String nomeNormalizado = TextoUtils.normalizarParaBusca(nome);
+        try {
+            diretorio.update("insert into exercicio_catalogo (nome, nome_normalizado) values (?, ?)", nome, nomeNormalizado);
+        } catch (DuplicateKeyException e) {
+            // Criado ao mesmo tempo por outra transação: usa o existente.
+        }
+        Object[] exercicio = diretorio.queryForObject(
+                "select id, nome, nome_normalizado from exercicio_catalogo where nome_normalizado = ?",
+                (linha, numero) -> new Object[]{linha.getLong(1), linha.getString(2), linha.getString(3)}, nomeNormalizado);
+        for (JdbcTemplate shard : shards) {
+            shard.update(MESCLAGEM_CATALOGO, exercicio);
+        }
+        return exercicioCatalogoRepository.getReferenceById((Long) exercicio[0]);
+    }
+
+    private boolean existe(String coluna, String valor) {
+        return !diretorio.queryForList("select 1 from alunos_diretorio where academia_id = ? and " + coluna + " = ?",
+                Integer.class, ContextoAcademia.atual(), valor).isEmpty();
+    }
+}
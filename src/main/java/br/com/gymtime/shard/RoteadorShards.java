@@ -0,0 +1,112 @@
+package br.com.gymtime.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Os pools de conexões do banco de diretório e dos shards.
+ * <p>
+ * O banco de diretório ({@code spring.datasource}) guarda os dados globais: o índice de e-mail e CPF dos alunos
+ * e o catálogo de exercícios (ver {@link DiretorioShards}). Cada shard ({@code gymtime.shard.urls}) guarda uma
+ * parte dos alunos, com os seus treinos e exercícios, e uma cópia do catálogo. Todos têm o mesmo esquema, criado
+ * pelas migrações do Flyway.
+ */
+@Slf4j
+public class RoteadorShards implements AutoCloseable {
+
+    /**
+     * Tabelas cujas linhas são distribuídas entre os shards e cujos IDs são intercalados.
+     */
+    private static final List<String> TABELAS_PARTICIONADAS = List.of("alunos", "treinos", "exercicios");
+
+    private final HikariDataSource diretorio;
+    private final List<HikariDataSource> shards;
+
+    public RoteadorShards(HikariDataSource diretorio, List<HikariDataSource> shards) {
+        if (shards.size() < 2) {
+            throw new IllegalArgumentException("Informe ao menos dois shards em gymtime.shard.urls.");
+        }
+        this.diretorio = diretorio;
+        this.shards = List.copyOf(shards);
+    }
+
+    public int quantidade() {
+        return shards.size();
+    }
+
+    public DataSource diretorio() {
+        return diretorio;
+    }
+
+    public List<? extends DataSource> shards() {
+        return shards;
+    }
+
+    /**
+     * Cria o DataSource da aplicação: as conexões são obtidas do shard associado à transação
+     * ({@link Shards#usar(int)}) ou, sem shard, do banco de diretório, apenas na primeira instrução.
+     */
+    public DataSource criarDataSource() {
+        return new LazyConnectionDataSourceProxy(new DataSourceShards(this));
+    }
+
+    /**
+     * Aplica as migrações no banco de diretório e em cada shard, e intercala as colunas de identidade das tabelas
+     * particionadas: no shard {@code k} de {@code N}, os IDs gerados são {@code k + 1}, {@code k + 1 + N}, ...
+     *
+     * @param flyway O Flyway configurado pelo Spring Boot para o banco de diretório.
+     */
+    public void migrar(Flyway flyway) {
+        flyway.migrate();
+        for (int indice = 0; indice < shards.size(); indice++) {
+            HikariDataSource shard = shards.get(indice);
+            Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+            try {
+                intercalarIdentidades(shard, indice);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Falha ao preparar o shard " + indice + " (" + shard.getJdbcUrl() + ").", e);
+            }
+        }
+        log.info("{} shards prontos.", shards.size());
+    }
+
+    @Override
+    public void close() {
+        for (HikariDataSource shard : shards) {
+            shard.close();
+        }
+        diretorio.close();
+    }
+
+    private void intercalarIdentidades(DataSource shard, int indice) throws SQLException {
+        int quantidade = shards.size();
+        try (Connection conexao = shard.getConnection(); Statement comando = conexao.createStatement()) {
+            for (String tabela : TABELAS_PARTICIONADAS) {
+                long maior;
+                long foraDoShard;
+                try (ResultSet resultado = comando.executeQuery("select coalesce(max(id), 0), "
+                        + "count(case when mod(id - 1, " + quantidade + ") <> " + indice + " then 1 end) from " + tabela)) {
+                    resultado.next();
+                    maior = resultado.getLong(1);
+                    foraDoShard = resultado.getLong(2);
+                }
+                if (foraDoShard > 0) {
+                    throw new IllegalStateException("A tabela " + tabela + " do shard " + indice + " tem " + foraDoShard
+                            + " linhas com IDs de outro shard; os shards devem ser criados vazios com a mesma quantidade de shards.");
+                }
+                long proximo = maior + 1 + Math.floorMod(indice - maior, quantidade);
+                comando.execute("alter table " + tabela + " alter column id restart with " + proximo
+                        + " set increment by " + quantidade);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.gymtime.shard;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Associação das transações aos shards dos dados de alunos.
+ * <p>
+ * Com {@code gymtime.shard.habilitado=true} (ver {@link RoteadorShards}), cada aluno, com os seus treinos e
+ * exercícios, fica em um único shard, determinado pelo próprio ID: os IDs de cada shard são intercalados
+ * ({@code id ≡ shard + 1 (mod N)}), de forma que o shard de qualquer aluno, treino ou exercício é
+ * {@code (id - 1) mod N}. Os serviços chamam {@link #usarShardDoId(Long)} no início de cada transação, antes da
+ * primeira consulta; as consultas que envolvem todos os alunos usam {@link #emTodos(Supplier)}, que executa a
+ * consulta em paralelo, uma transação somente leitura por shard.
+ * <p>
+ * Sem shards, há um único banco: {@link #usar(int)} não faz nada e {@link #emTodos(Supplier)} executa a consulta
+ * na transação corrente.
+ */
+@Component
+public class Shards {
+
+    private static final ThreadLocal<Integer> SHARD_ATUAL = new ThreadLocal<>();
+
+    private final int quantidade;
+    private final TransactionTemplate leitura;
+    private final ExecutorService executor;
+
+    public Shards(ObjectProvider<RoteadorShards> roteadorShards, PlatformTransactionManager transactionManager) {
+        RoteadorShards roteador = roteadorShards.getIfAvailable();
+        this.quantidade = roteador != null ? roteador.quantidade() : 1;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        if (quantidade > 1) {
+            AtomicInteger numero = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(quantidade, tarefa -> {
+                Thread thread = new Thread(tarefa, "shard-consulta-" + numero.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * @return O shard associado à thread atual, ou {@code null} (banco de diretório).
+     */
+    static Integer shardAtual() {
+        return SHARD_ATUAL.get();
+    }
+
+    public int quantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return O shard de um aluno, treino ou exercício, a partir do seu ID.
+     */
+    public int shardDoId(Long id) {
+        return (int) Math.floorMod(id - 1, (long) quantidade);
+    }
+
+    /**
+     * @return O shard em que um novo aluno será gravado, a partir do seu CPF (apenas dígitos).
+     */
+    public int shardParaNovoAluno(String cpf) {
+        return Math.floorMod(cpf.hashCode(), quantidade);
+    }
+
+    public void usarShardDoId(Long id) {
+        usar(shardDoId(id));
+    }
+
+    /**
+     * Associa a transação corrente ao shard informado até o seu término. Deve ser chamado antes da primeira
+     * consulta da transação: a conexão é obtida na primeira instrução e não muda mais.
+     *
+     * @throws IllegalStateException se não houver transação ou se ela já estiver associada a outro shard.
+     */
+    public void usar(int shard) {
+        if (quantidade == 1) {
+            return;
+        }
+        Integer atual = SHARD_ATUAL.get();
+        if (atual != null) {
+            if (atual != shard) {
+                throw new IllegalStateException("A transação já está associada ao shard " + atual
+                        + " e não pode acessar o shard " + shard + ".");
+            }
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("O acesso a um shard deve acontecer dentro de uma transação.");
+        }
+        SHARD_ATUAL.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                SHARD_ATUAL.remove();
+            }
+        });
+    }
+
+    /**
+     * Executa a consulta em todos os shards, em paralelo, e devolve os resultados na ordem dos shards.
+     * A consulta deve devolver objetos já carregados (DTOs), pois cada transação termina com ela. As threads das
+     * consultas usam a academia da thread que chamou.
+     */
+    public <T> List<T> emTodos(Supplier<T> consulta) {
+        if (quantidade == 1) {
+            return List.of(consulta.get());
+        }
+        Long academia = ContextoAcademia.definida();
+        List<CompletableFuture<T>> consultas = new ArrayList<>(quantidade);
+        for (int shard = 0; shard < quantidade; shard++) {
+            int destino = shard;
+            consultas.add(CompletableFuture.supplyAsync(
+                    () -> ContextoAcademia.executar(academia, () -> noShard(destino, consulta)), executor));
+        }
+        List<T> resultados = new ArrayList<>(quantidade);
+        try {
+            for (CompletableFuture<T> resultado : consultas) {
+                resultados.add(resultado.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        return resultados;
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T noShard(int shard, Supplier<T> consulta) {
+        SHARD_ATUAL.set(shard);
+        try {
+            return leitura.execute(status -> consulta.get());
+        } finally {
+            SHARD_ATUAL.remove();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package br.com.gymtime.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Arquivo binário com o conteúdo das tabelas de {@link TabelaSnapshot}.
+ * <p>
+ * Formato: cabeçalho (identificador, versão do formato, data de criação, versão do esquema do Flyway e o primeiro
+ * segmento do {@link LogDeAlteracoes} que não está contido no snapshot), seguido de cada tabela (nome, colunas e
+ * linhas) e, no final, o CRC32 de todos os bytes anteriores. As colunas são gravadas pelo nome, de forma que um
+ * snapshot continue legível depois de uma migração que apenas adicione colunas.
+ * <p>
+ * A gravação é feita em um arquivo temporário, movido sobre o anterior apenas depois de completo e sincronizado
+ * com o disco. A leitura mapeia o arquivo em memória e valida o CRC antes de carregar qualquer linha.
+ */
+final class ArquivoSnapshot {
+
+    private static final int IDENTIFICADOR = 0x47594D53; // "GYMS"
+    private static final short VERSAO_FORMATO = 1;
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    private static final int LINHAS_POR_LOTE = 5_000;
+
+    /**
+     * Resultado de uma gravação.
+     */
+    record Resumo(long linhas, long bytes) {}
+
+    private final Path arquivo;
+    private final MappedByteBuffer conteudo;
+    private final Instant criadoEm;
+    private final String versaoEsquema;
+    private final long walInicial;
+
+    private ArquivoSnapshot(Path arquivo, MappedByteBuffer conteudo, Instant criadoEm, String versaoEsquema, long walInicial) {
+        this.arquivo = arquivo;
+        this.conteudo = conteudo;
+        this.criadoEm = criadoEm;
+        this.versaoEsquema = versaoEsquema;
+        this.walInicial = walInicial;
+    }
+
+    /**
+     * Grava o conteúdo das tabelas, lido na conexão informada, no arquivo de destino.
+     * A conexão deve estar em uma transação com isolamento de snapshot, para que as tabelas sejam lidas
+     * em um mesmo instante sem bloquear as escritas concorrentes.
+     *
+     * @param conexao       A conexão usada na leitura.
+     * @param destino       O arquivo do snapshot (substituído atomicamente).
+     * @param versaoEsquema A versão atual do esquema (Flyway).
+     * @param walInicial    O primeiro segmento do log de alterações posterior ao snapshot.
+     */
+    static Resumo gravar(Connection conexao, Path destino, String versaoEsquema, long walInicial) throws IOException, SQLException {
+        Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+        long linhas = 0;
+        try (FileOutputStream arquivo = new FileOutputStream(temporario.toFile())) {
+            CheckedOutputStream verificado = new CheckedOutputStream(arquivo, new CRC32());
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(verificado, TAMANHO_BUFFER));
+            saida.writeInt(IDENTIFICADOR);
+            saida.writeShort(VERSAO_FORMATO);
+            saida.writeLong(System.currentTimeMillis());
+            TipoColuna.TEXTO.escrever(saida, versaoEsquema);
+            TipoColuna.escreverVarLong(saida, walInicial);
+            TipoColuna.escreverVarLong(saida, TabelaSnapshot.values().length);
+
+            try (Statement consulta = conexao.createStatement()) {
+                for (TabelaSnapshot tabela : TabelaSnapshot.values()) {
+                    List<TabelaSnapshot.Coluna> colunas = tabela.colunas();
+                    TipoColuna.TEXTO.escrever(saida, tabela.nome());
+                    TipoColuna.escreverVarLong(saida, colunas.size());
+                    for (TabelaSnapshot.Coluna coluna : colunas) {
+                        TipoColuna.TEXTO.escrever(saida, coluna.nome());
+                        saida.writeByte(coluna.tipo().ordinal());
+                    }
+                    try (ResultSet resultado = consulta.executeQuery(tabela.sqlSelecao())) {
+                        while (resultado.next()) {
+                            saida.writeByte(1);
+                            for (int i = 0; i < colunas.size(); i++) {
+                                TipoColuna tipo = colunas.get(i).tipo();
+                                tipo.escrever(saida, tipo.lerColuna(resultado, i + 1));
+                            }
+                            linhas++;
+                        }
+                    }
+                    saida.writeByte(0);
+                }
+            }
+
+            saida.flush();
+            int crc = (int) verificado.getChecksum().getValue();
+            arquivo.write(ByteBuffer.allocate(Integer.BYTES).putInt(crc).array());
+            arquivo.getChannel().force(true);
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(temporario);
+            throw e;
+        }
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new Resumo(linhas, Files.size(destino));
+    }
+
+    /**
+     * Abre um snapshot, validando o identificador, a versão do formato e o CRC.
+     *
+     * @throws IllegalStateException se o arquivo estiver corrompido ou em um formato desconhecido.
+     */
+    static ArquivoSnapshot abrir(Path arquivo) throws IOException {
+        MappedByteBuffer conteudo;
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Snapshot maior que 2 GB não é suportado: " + arquivo);
+            }
+            conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        int tamanhoDados = conteudo.capacity() - Integer.BYTES;
+        if (tamanhoDados < Integer.BYTES + Short.BYTES) {
+            throw new IllegalStateException("Snapshot truncado: " + arquivo);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(conteudo.slice(0, tamanhoDados));
+        if ((int) crc.getValue() != conteudo.getInt(tamanhoDados)) {
+            throw new IllegalStateException("CRC inválido no snapshot " + arquivo + ": o arquivo está corrompido.");
+        }
+        if (conteudo.getInt() != IDENTIFICADOR) {
+            throw new IllegalStateException("O arquivo " + arquivo + " não é um snapshot do GymTime.");
+        }
+        short versao = conteudo.getShort();
+        if (versao != VERSAO_FORMATO) {
+            throw new IllegalStateException("Versão de formato de snapshot não suportada: " + versao);
+        }
+        Instant criadoEm = Instant.ofEpochMilli(conteudo.getLong());
+        String versaoEsquema = (String) TipoColuna.TEXTO.ler(conteudo);
+        long walInicial = TipoColuna.lerVarLong(conteudo);
+        return new ArquivoSnapshot(arquivo, conteudo, criadoEm, versaoEsquema, walInicial);
+    }
+
+    Instant criadoEm() {
+        return criadoEm;
+    }
+
+    String versaoEsquema() {
+        return versaoEsquema;
+    }
+
+    long walInicial() {
+        return walInicial;
+    }
+
+    /**
+     * Insere as linhas do snapshot em lotes, com um commit a cada {@value #LINHAS_POR_LOTE} linhas.
+     * A conexão deve estar sem auto-commit e com a verificação de integridade referencial desligada.
+     *
+     * @return A quantidade de linhas inseridas.
+     * @throws IllegalStateException se uma coluna do snapshot não existir mais na tabela.
+     */
+    long carregar(Connection conexao) throws SQLException {
+        ByteBuffer entrada = conteudo.duplicate();
+        long tabelas = TipoColuna.lerVarLong(entrada);
+        long linhas = 0;
+        for (long t = 0; t < tabelas; t++) {
+            TabelaSnapshot tabela = TabelaSnapshot.doNome((String) TipoColuna.TEXTO.ler(entrada));
+            int quantidadeColunas = (int) TipoColuna.lerVarLong(entrada);
+            List<TabelaSnapshot.Coluna> colunas = new ArrayList<>(quantidadeColunas);
+            for (int c = 0; c < quantidadeColunas; c++) {
+                String nome = (String) TipoColuna.TEXTO.ler(entrada);
+                colunas.add(new TabelaSnapshot.Coluna(nome, TipoColuna.values()[entrada.get()]));
+            }
+
+            String sql = (tabela.preenchidaPelasMigracoes() ? "merge into " : "insert into ") + tabela.nome()
+                    + " (" + TabelaSnapshot.listaColunas(colunas) + ") "
+                    + (tabela.preenchidaPelasMigracoes() ? "key (id) " : "")
+                    + "values (" + TabelaSnapshot.marcadores(colunas.size()) + ")";
+            try (PreparedStatement insercao = conexao.prepareStatement(sql)) {
+                int noLote = 0;
+                while (entrada.get() != 0) {
+                    for (int i = 0; i < colunas.size(); i++) {
+                        TipoColuna tipo = colunas.get(i).tipo();
+                        tipo.definir(insercao, i + 1, tipo.ler(entrada));
+                    }
+                    insercao.addBatch();
+                    linhas++;
+                    if (++noLote == LINHAS_POR_LOTE) {
+                        insercao.executeBatch();
+                        conexao.commit();
+                        noLote = 0;
+                    }
+                }
+                if (noLote > 0) {
+                    insercao.executeBatch();
+                    conexao.commit();
+                }
+            } catch (SQLException e) {
+                throw new SQLException("Falha ao restaurar a tabela " + tabela.nome() + " do snapshot " + arquivo, e);
+            }
+        }
+        return linhas;
+    }
+}
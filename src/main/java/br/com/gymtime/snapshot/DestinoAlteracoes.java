@@ -0,0 +1,14 @@
+package br.com.gymtime.snapshot;
+
+/**
+ * Destino das alterações capturadas pelo {@link RegistradorAlteracoes}: o log de alterações dos snapshots
+ * ({@link LogDeAlteracoes}) ou a réplica de leitura local ({@link ReplicadorLocal}).
+ */
+interface DestinoAlteracoes {
+
+    /**
+     * @param valores Os valores das colunas da tabela ({@link LogDeAlteracoes.Operacao#GRAVACAO})
+     *                ou apenas o ID ({@link LogDeAlteracoes.Operacao#REMOCAO}).
+     */
+    void registrar(LogDeAlteracoes.Operacao operacao, TabelaSnapshot tabela, Object[] valores);
+}
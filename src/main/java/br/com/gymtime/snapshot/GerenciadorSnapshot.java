@@ -0,0 +1,238 @@
+package br.com.gymtime.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Snapshots periódicos do banco em memória e restauração na inicialização.
+ * Habilitado com {@code gymtime.snapshot.habilitado=true}.
+ * <p>
+ * A cada {@code gymtime.snapshot.intervalo}, se houve alterações, as tabelas de {@link TabelaSnapshot} são gravadas
+ * em {@code gymtime.snapshot.diretorio} por uma thread do agendador, em uma transação com isolamento de snapshot do
+ * H2 (MVCC): a leitura é consistente e não bloqueia as escritas. Entre um snapshot e outro, as alterações feitas pelo
+ * Hibernate são registradas no {@link LogDeAlteracoes}. Um último snapshot é gravado no encerramento normal.
+ * <p>
+ * Na inicialização, antes dos demais {@link ApplicationRunner}s e da construção dos índices em memória (portanto
+ * antes de a aplicação aceitar tráfego), o snapshot é carregado com inserções em lote, o log de alterações posterior
+ * a ele é reproduzido e as colunas de identidade são reposicionadas. Se as tabelas já tiverem dados (ex: banco em
+ * arquivo), nada é restaurado.
+ */
+@Component
+@ConditionalOnProperty(name = "gymtime.snapshot.habilitado", havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class GerenciadorSnapshot implements ApplicationRunner, RemocoesDiretas {
+
+    static final String ARQUIVO = "gymtime.snapshot";
+
+    /**
+     * Nível de isolamento SNAPSHOT do H2 ({@code org.h2.engine.Constants.TRANSACTION_SNAPSHOT}).
+     */
+    private static final int ISOLAMENTO_SNAPSHOT_H2 = 6;
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Flyway flyway;
+    private final Path diretorio;
+    private LogDeAlteracoes logDeAlteracoes;
+    private RegistradorAlteracoes registrador;
+    private volatile boolean pronto;
+    private volatile boolean pendente = true;
+
+    public GerenciadorSnapshot(DataSource dataSource, EntityManagerFactory entityManagerFactory, Flyway flyway,
+                               @Value("${gymtime.snapshot.diretorio}") Path diretorio) {
+        // Usa o DataSource original, sem o proxy de instrumentação SQL (as instruções não pertencem a uma requisição).
+        this.dataSource = dataSource instanceof ProxyDataSource proxy ? proxy.getDataSource() : dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.flyway = flyway;
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Abre o log de alterações e registra o listener do Hibernate.
+     */
+    @PostConstruct
+    void registrarLogDeAlteracoes() throws IOException {
+        abrirLogDeAlteracoes();
+        registrador = RegistradorAlteracoes.registrar(entityManagerFactory, logDeAlteracoes);
+    }
+
+    void abrirLogDeAlteracoes() throws IOException {
+        Files.createDirectories(diretorio);
+        logDeAlteracoes = new LogDeAlteracoes(diretorio);
+    }
+
+    /**
+     * Restaura o último snapshot e o log de alterações posterior a ele.
+     */
+    @Override
+    public void run(ApplicationArguments args) throws IOException, SQLException {
+        Path arquivo = diretorio.resolve(ARQUIVO);
+        try (Connection conexao = dataSource.getConnection()) {
+            if (possuiDados(conexao)) {
+                log.info("Restauração do snapshot ignorada: o banco já contém dados.");
+                return;
+            }
+            ArquivoSnapshot snapshot = Files.exists(arquivo) ? ArquivoSnapshot.abrir(arquivo) : null;
+            long walInicial = snapshot != null ? snapshot.walInicial() : 0;
+            String versaoAtual = versaoEsquema();
+            if (snapshot != null && !snapshot.versaoEsquema().equals(versaoAtual)) {
+                if (logDeAlteracoes.possuiRegistros(walInicial)) {
+                    throw new IllegalStateException("O snapshot e o log de alterações em " + diretorio + " foram gravados com o esquema V"
+                            + snapshot.versaoEsquema() + " e a aplicação está no esquema V" + versaoAtual
+                            + ". Encerre a versão anterior normalmente (o encerramento grava um snapshot completo) antes de atualizar.");
+                }
+                log.warn("Snapshot gravado com o esquema V{}; restaurando no esquema V{} pelas colunas em comum.",
+                        snapshot.versaoEsquema(), versaoAtual);
+            }
+            if (snapshot == null && !logDeAlteracoes.possuiRegistros(walInicial)) {
+                log.info("Nenhum snapshot em {}: o banco inicia vazio.", diretorio);
+                return;
+            }
+
+            long inicio = System.nanoTime();
+            conexao.setAutoCommit(false);
+            integridadeReferencial(conexao, false);
+            try {
+                long linhas = snapshot != null ? snapshot.carregar(conexao) : 0;
+                long reproduzidos = logDeAlteracoes.reproduzir(conexao, walInicial);
+                for (TabelaSnapshot tabela : TabelaSnapshot.values()) {
+                    reposicionarIdentidade(conexao, tabela.nome());
+                }
+                conexao.commit();
+                pendente = reproduzidos > 0;
+                log.info("Snapshot restaurado em {} s: {} linhas{} e {} alterações do log reproduzidas.",
+                        String.format("%.1f", (System.nanoTime() - inicio) / 1e9), linhas,
+                        snapshot != null ? " (gravado em " + snapshot.criadoEm() + ")" : "", reproduzidos);
+            } catch (SQLException | RuntimeException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                integridadeReferencial(conexao, true);
+                conexao.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Acrescenta as remoções ao log de alterações; o próximo snapshot periódico as inclui.
+     */
+    @Override
+    public void registrarRemocoes(String tabela, List<Long> ids) {
+        registrador.registrarRemocoes(TabelaSnapshot.doNome(tabela), ids);
+    }
+
+    /**
+     * Libera os snapshots periódicos apenas depois da inicialização completa, para que dados gravados
+     * diretamente por JDBC durante a inicialização (ex: profile {@code seed}) sejam incluídos no primeiro snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void liberarSnapshots() {
+        pronto = true;
+    }
+
+    @Scheduled(fixedDelayString = "${gymtime.snapshot.intervalo}", initialDelayString = "${gymtime.snapshot.intervalo}")
+    void gravarPeriodicamente() {
+        if (pronto && (pendente || logDeAlteracoes.registrosNoSegmentoAtual() > 0)) {
+            gravar();
+        }
+    }
+
+    /**
+     * Grava um snapshot completo e remove os segmentos do log de alterações contidos nele.
+     */
+    public synchronized void gravar() {
+        long inicio = System.nanoTime();
+        try {
+            long walInicial = logDeAlteracoes.rotacionar();
+            pendente = false;
+            ArquivoSnapshot.Resumo resumo;
+            try (Connection conexao = dataSource.getConnection()) {
+                conexao.setAutoCommit(false);
+                conexao.setTransactionIsolation(ISOLAMENTO_SNAPSHOT_H2);
+                try {
+                    resumo = ArquivoSnapshot.gravar(conexao, diretorio.resolve(ARQUIVO), versaoEsquema(), walInicial);
+                } finally {
+                    conexao.rollback();
+                }
+            }
+            logDeAlteracoes.removerAnteriores(walInicial);
+            log.info("Snapshot gravado em {} ms: {} linhas, {} KB.",
+                    (System.nanoTime() - inicio) / 1_000_000, resumo.linhas(), resumo.bytes() / 1024);
+        } catch (IOException | SQLException | RuntimeException e) {
+            pendente = true;
+            log.error("Falha ao gravar o snapshot em {}; o log de alterações foi preservado.", diretorio, e);
+        }
+    }
+
+    @PreDestroy
+    void encerrar() throws IOException {
+        if (pronto && (pendente || logDeAlteracoes.registrosNoSegmentoAtual() > 0)) {
+            gravar();
+        }
+        logDeAlteracoes.close();
+    }
+
+    private String versaoEsquema() {
+        MigrationInfo atual = flyway.info().current();
+        return atual != null ? atual.getVersion().getVersion() : "0";
+    }
+
+    private static boolean possuiDados(Connection conexao) throws SQLException {
+        try (Statement consulta = conexao.createStatement()) {
+            for (TabelaSnapshot tabela : TabelaSnapshot.values()) {
+                if (tabela.preenchidaPelasMigracoes()) {
+                    continue;
+                }
+                try (ResultSet resultado = consulta.executeQuery("select 1 from " + tabela.nome() + " limit 1")) {
+                    if (resultado.next()) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void integridadeReferencial(Connection conexao, boolean ativa) throws SQLException {
+        try (Statement comando = conexao.createStatement()) {
+            comando.execute("set referential_integrity " + ativa);
+        }
+    }
+
+    private static void reposicionarIdentidade(Connection conexao, String tabela) throws SQLException {
+        try (Statement comando = conexao.createStatement();
+             ResultSet maior = comando.executeQuery("select coalesce(max(id), 0) + 1 from " + tabela)) {
+            maior.next();
+            long proximoId = maior.getLong(1);
+            try (Statement alteracao = conexao.createStatement()) {
+                alteracao.execute("alter table " + tabela + " alter column id restart with " + proximoId);
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package br.com.gymtime.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Log de alterações (write-ahead log) com as linhas gravadas e removidas desde o último snapshot.
+ * <p>
+ * O log é dividido em segmentos numerados ({@code alteracoes-<n>.log}); a cada snapshot, o segmento atual é
+ * fechado e um novo é aberto ({@link #rotacionar()}), e os segmentos anteriores ao snapshot concluído são removidos.
+ * Cada registro tem o tamanho, o CRC32 e o conteúdo (operação, tabela e valores das colunas); um registro incompleto
+ * no fim do último segmento (ex: queda do processo durante a escrita) é descartado na reprodução.
+ * <p>
+ * Os registros são escritos no sistema operacional a cada alteração, sem {@code fsync}: sobrevivem à queda do
+ * processo, mas não necessariamente à queda da máquina. A reprodução é idempotente ({@code merge} e
+ * {@code delete} pelo ID), o que permite que um mesmo registro esteja também contido no snapshot.
+ */
+@Slf4j
+final class LogDeAlteracoes implements DestinoAlteracoes, AutoCloseable {
+
+    /**
+     * Operações registradas no log.
+     */
+    enum Operacao {
+        /** Inclusão ou alteração: a linha completa é gravada. */
+        GRAVACAO,
+        /** Remoção: apenas o ID é gravado. */
+        REMOCAO
+    }
+
+    private static final String PREFIXO = "alteracoes-";
+    private static final String SUFIXO = ".log";
+
+    private final Path diretorio;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private final DataOutputStream registro = new DataOutputStream(buffer);
+    private final CRC32 crc = new CRC32();
+    private long segmentoAtual;
+    private FileOutputStream saida;
+    private long registrosNoSegmento;
+
+    /**
+     * Abre o log no diretório informado, continuando a partir do último segmento existente.
+     */
+    LogDeAlteracoes(Path diretorio) throws IOException {
+        this.diretorio = diretorio;
+        List<Long> segmentos = segmentos(diretorio);
+        this.segmentoAtual = segmentos.isEmpty() ? 1 : segmentos.get(segmentos.size() - 1) + 1;
+        this.saida = new FileOutputStream(arquivo(segmentoAtual).toFile(), true);
+    }
+
+    /**
+     * Acrescenta um registro ao segmento atual.
+     */
+    @Override
+    public synchronized void registrar(Operacao operacao, TabelaSnapshot tabela, Object[] valores) {
+        try {
+            buffer.reset();
+            registro.writeInt(0);
+            registro.writeInt(0);
+            registro.writeByte(operacao.ordinal());
+            registro.writeByte(tabela.ordinal());
+            List<TabelaSnapshot.Coluna> colunas = tabela.colunas();
+            for (int i = 0; i < valores.length; i++) {
+                colunas.get(i).tipo().escrever(registro, valores[i]);
+            }
+            registro.flush();
+
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            int tamanho = bytes.capacity() - 2 * Integer.BYTES;
+            crc.reset();
+            crc.update(bytes.array(), 2 * Integer.BYTES, tamanho);
+            bytes.putInt(0, tamanho).putInt(Integer.BYTES, (int) crc.getValue());
+            saida.write(bytes.array());
+            registrosNoSegmento++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o log de alterações em " + diretorio, e);
+        }
+    }
+
+    /**
+     * Fecha o segmento atual e abre o próximo. As alterações registradas a partir daqui não estão
+     * garantidamente contidas em um snapshot iniciado antes desta chamada.
+     *
+     * @return O número do novo segmento.
+     */
+    synchronized long rotacionar() throws IOException {
+        saida.close();
+        segmentoAtual++;
+        saida = new FileOutputStream(arquivo(segmentoAtual).toFile(), true);
+        registrosNoSegmento = 0;
+        return segmentoAtual;
+    }
+
+    synchronized long registrosNoSegmentoAtual() {
+        return registrosNoSegmento;
+    }
+
+    /**
+     * Verifica se há registros a reproduzir nos segmentos a partir do informado (exceto o segmento atual).
+     */
+    boolean possuiRegistros(long aPartirDe) throws IOException {
+        for (long numero : segmentos(diretorio)) {
+            if (numero >= aPartirDe && numero != segmentoAtual && Files.size(arquivo(numero)) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remove os segmentos anteriores ao informado, já contidos em um snapshot.
+     */
+    void removerAnteriores(long segmento) throws IOException {
+        for (long numero : segmentos(diretorio)) {
+            if (numero < segmento) {
+                Files.deleteIfExists(arquivo(numero));
+            }
+        }
+    }
+
+    /**
+     * Reproduz, na conexão informada, os registros dos segmentos a partir do informado (exceto o segmento atual,
+     * aberto para escrita). Instruções consecutivas iguais são agrupadas em lotes.
+     *
+     * @return A quantidade de registros reproduzidos.
+     */
+    long reproduzir(Connection conexao, long aPartirDe) throws IOException, SQLException {
+        long reproduzidos = 0;
+        CRC32 crcRegistro = new CRC32();
+        Map<TabelaSnapshot, PreparedStatement> mesclagens = new EnumMap<>(TabelaSnapshot.class);
+        Map<TabelaSnapshot, PreparedStatement> exclusoes = new EnumMap<>(TabelaSnapshot.class);
+        try {
+            for (long numero : segmentos(diretorio)) {
+                if (numero < aPartirDe || numero == segmentoAtual) {
+                    continue;
+                }
+                MappedByteBuffer conteudo;
+                try (FileChannel canal = FileChannel.open(arquivo(numero), StandardOpenOption.READ)) {
+                    conteudo = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                }
+                PreparedStatement pendente = null;
+                while (conteudo.remaining() >= 2 * Integer.BYTES) {
+                    int tamanho = conteudo.getInt();
+                    int crcEsperado = conteudo.getInt();
+                    if (tamanho < 2 || tamanho > conteudo.remaining()) {
+                        log.warn("Registro incompleto no fim de {}; o restante do segmento foi ignorado.", arquivo(numero));
+                        break;
+                    }
+                    ByteBuffer dados = conteudo.slice(conteudo.position(), tamanho);
+                    crcRegistro.reset();
+                    crcRegistro.update(dados.duplicate());
+                    if ((int) crcRegistro.getValue() != crcEsperado) {
+                        log.warn("CRC inválido em {}; o restante do segmento foi ignorado.", arquivo(numero));
+                        break;
+                    }
+                    conteudo.position(conteudo.position() + tamanho);
+
+                    Operacao operacao = Operacao.values()[dados.get()];
+                    TabelaSnapshot tabela = TabelaSnapshot.values()[dados.get()];
+                    PreparedStatement instrucao = operacao == Operacao.GRAVACAO
+                            ? mesclagens.computeIfAbsent(tabela, t -> preparar(conexao, t.sqlMesclagem()))
+                            : exclusoes.computeIfAbsent(tabela, t -> preparar(conexao, t.sqlExclusao()));
+                    if (pendente != null && pendente != instrucao) {
+                        pendente.executeBatch();
+                    }
+                    List<TabelaSnapshot.Coluna> colunas = tabela.colunas();
+                    int quantidade = operacao == Operacao.GRAVACAO ? colunas.size() : 1;
+                    for (int i = 0; i < quantidade; i++) {
+                        TipoColuna tipo = colunas.get(i).tipo();
+                        tipo.definir(instrucao, i + 1, tipo.ler(dados));
+                    }
+                    instrucao.addBatch();
+                    pendente = instrucao;
+                    reproduzidos++;
+                }
+                if (pendente != null) {
+                    pendente.executeBatch();
+                }
+                conexao.commit();
+            }
+        } catch (UncheckedSqlException e) {
+            throw e.getCause();
+        } finally {
+            for (PreparedStatement instrucao : mesclagens.values()) {
+                instrucao.close();
+            }
+            for (PreparedStatement instrucao : exclusoes.values()) {
+                instrucao.close();
+            }
+        }
+        return reproduzidos;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        saida.close();
+    }
+
+    private Path arquivo(long numero) {
+        return diretorio.resolve(String.format("%s%010d%s", PREFIXO, numero, SUFIXO));
+    }
+
+    private static List<Long> segmentos(Path diretorio) throws IOException {
+        List<Long> numeros = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, PREFIXO + "*" + SUFIXO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                numeros.add(Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length())));
+            }
+        }
+        numeros.sort(null);
+        return numeros;
+    }
+
+    private static PreparedStatement preparar(Connection conexao, String sql) {
+        try {
+            return conexao.prepareStatement(sql);
+        } catch (SQLException e) {
+            throw new UncheckedSqlException(e);
+        }
+    }
+
+    /**
+     * Transporta uma {@link SQLException} através do {@code computeIfAbsent}.
+     */
+    private static final class UncheckedSqlException extends RuntimeException {
+        UncheckedSqlException(SQLException causa) {
+            super(causa);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.gymtime.snapshot;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listener do Hibernate que registra no {@link DestinoAlteracoes} cada entidade gravada ou removida, na ordem dos
+ * commits. Alterações de transações desfeitas não são registradas.
+ * <p>
+ * A linha é capturada dentro da transação, no momento em que é gravada no banco. Antes do commit (depois do último
+ * flush, com os bloqueios de linha ainda mantidos pelo banco), cada alteração recebe um número de sequência; depois
+ * do commit, as alterações são entregues ao destino em ordem crescente de sequência, aguardando as transações com
+ * número menor que ainda não terminaram. Como uma segunda transação só consegue gravar a mesma linha depois do commit
+ * da primeira, a ordem de entrega de uma mesma linha é a ordem dos commits, mesmo que as duas terminem em threads
+ * diferentes e em outra ordem. Entregar as alterações logo após o commit (sem a sequência) permitiria que a gravação
+ * mais antiga chegasse depois da mais nova e a substituísse na reprodução.
+ * <p>
+ * Escritas feitas diretamente por JDBC (ex: o gerador de dados sintéticos) não passam por aqui;
+ * elas só são preservadas a partir do snapshot seguinte e chegam à réplica local apenas pela cópia inicial. As
+ * remoções diretas que precisam chegar ao destino (o expurgo) são informadas por {@link #registrarRemocoes}.
+ */
+class RegistradorAlteracoes implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    /**
+     * Uma alteração capturada na transação.
+     */
+    record Alteracao(LogDeAlteracoes.Operacao operacao, TabelaSnapshot tabela, Object[] valores) {}
+
+    private final DestinoAlteracoes destino;
+    private final Map<Long, Alteracao> concluidas = new HashMap<>();
+    private long proximaSequencia = 1;
+    private long proximaEntrega = 1;
+
+    RegistradorAlteracoes(DestinoAlteracoes destino) {
+        this.destino = destino;
+    }
+
+    /**
+     * Registra um novo listener para o destino informado nos eventos do Hibernate.
+     *
+     * @return O listener registrado, que também recebe as remoções feitas fora das entidades.
+     */
+    static RegistradorAlteracoes registrar(EntityManagerFactory entityManagerFactory, DestinoAlteracoes destino) {
+        RegistradorAlteracoes registrador = new RegistradorAlteracoes(destino);
+        EventListenerRegistry registro = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_INSERT, registrador);
+        registro.appendListeners(EventType.POST_UPDATE, registrador);
+        registro.appendListeners(EventType.POST_DELETE, registrador);
+        return registrador;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        capturarGravacao(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        capturarGravacao(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        TabelaSnapshot tabela = TabelaSnapshot.daEntidade(event.getPersister().getMappedClass());
+        if (tabela != null) {
+            capturar(event.getSession(), new Alteracao(LogDeAlteracoes.Operacao.REMOCAO, tabela, new Object[]{event.getId()}));
+        }
+    }
+
+    /**
+     * O registro é feito pelos processos de fim de transação, não pelos listeners pós-commit.
+     */
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Reserva o próximo número de sequência. Chamado antes do commit.
+     */
+    synchronized long reservar() {
+        return proximaSequencia++;
+    }
+
+    /**
+     * Conclui a sequência informada e entrega ao destino, em ordem, as alterações cuja vez chegou.
+     *
+     * @param alteracao A alteração, ou {@code null} se a transação foi desfeita.
+     */
+    synchronized void concluir(long sequencia, Alteracao alteracao) {
+        concluidas.put(sequencia, alteracao);
+        while (concluidas.containsKey(proximaEntrega)) {
+            Alteracao proxima = concluidas.remove(proximaEntrega++);
+            if (proxima != null) {
+                destino.registrar(proxima.operacao(), proxima.tabela(), proxima.valores());
+            }
+        }
+    }
+
+    /**
+     * Entrega ao destino, na sequência das demais alterações, a remoção de linhas apagadas (com commit) fora das
+     * entidades ({@link RemocoesDiretas}).
+     */
+    synchronized void registrarRemocoes(TabelaSnapshot tabela, List<Long> ids) {
+        for (Long id : ids) {
+            concluir(reservar(), new Alteracao(LogDeAlteracoes.Operacao.REMOCAO, tabela, new Object[]{id}));
+        }
+    }
+
+    private void capturarGravacao(EventSource sessao, Object entidade) {
+        TabelaSnapshot tabela = TabelaSnapshot.daEntidade(entidade.getClass());
+        if (tabela != null) {
+            capturar(sessao, new Alteracao(LogDeAlteracoes.Operacao.GRAVACAO, tabela, tabela.valores(entidade)));
+        }
+    }
+
+    private void capturar(EventSource sessao, Alteracao alteracao) {
+        AlteracaoDaTransacao daTransacao = new AlteracaoDaTransacao(alteracao);
+        sessao.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) daTransacao);
+        sessao.getActionQueue().registerProcess((AfterTransactionCompletionProcess) daTransacao);
+    }
+
+    /**
+     * Uma alteração da transação: recebe a sequência antes do commit e é concluída depois dele.
+     */
+    private final class AlteracaoDaTransacao implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final Alteracao alteracao;
+        private long sequencia;
+
+        AlteracaoDaTransacao(Alteracao alteracao) {
+            this.alteracao = alteracao;
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            sequencia = reservar();
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            // Sem sequência, a transação foi desfeita antes da preparação do commit.
+            if (sequencia > 0) {
+                concluir(sequencia, success ? alteracao : null);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.gymtime.snapshot;
+
+import java.util.List;
+
+/**
+ * Recebe as remoções feitas por SQL direto, fora das entidades (ex: o expurgo de alunos removidos), que o
+ * {@link RegistradorAlteracoes} não captura. Implementado pelos componentes que acompanham as alterações do banco:
+ * o log de alterações dos snapshots ({@link GerenciadorSnapshot}) e a réplica de leitura local ({@link ReplicadorLocal}).
+ */
+public interface RemocoesDiretas {
+
+    /**
+     * Registra linhas já apagadas da tabela informada, depois do commit da remoção.
+     *
+     * @param tabela O nome da tabela (uma das tabelas do snapshot).
+     * @param ids    Os IDs das linhas apagadas.
+     */
+    void registrarRemocoes(String tabela, List<Long> ids);
+}
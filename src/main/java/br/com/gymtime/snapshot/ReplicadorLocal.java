@@ -0,0 +1,280 @@
+package br.com.gymtime.snapshot;
+
+import br.com.gymtime.replicacao.EstadoReplica;
+import br.com.gymtime.replicacao.RoteadorLeitura;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replicação assíncrona do banco primário para as réplicas de leitura, para uso local com instâncias H2
+ * ({@code gymtime.replica.replicador-local=true}). Em produção, as réplicas seriam mantidas pela replicação do
+ * próprio banco e este componente ficaria desabilitado.
+ * <p>
+ * Na inicialização, o esquema das réplicas é criado pelas mesmas migrações do Flyway. Quando a aplicação fica pronta
+ * (depois da restauração do snapshot e da carga do profile {@code seed}), as tabelas de {@link TabelaSnapshot} são
+ * copiadas do primário; a partir daí, as alterações capturadas pelo {@link RegistradorAlteracoes} desde a
+ * inicialização são aplicadas em lotes, na ordem dos commits, por uma thread dedicada. Como no log de
+ * alterações, a aplicação é idempotente ({@code merge} e {@code delete} pelo ID).
+ * <p>
+ * O atraso informado ao {@link RoteadorLeitura} é a idade da alteração mais antiga ainda não aplicada; uma falha ao
+ * aplicar mantém as alterações na fila, e as leituras passam ao primário quando o atraso excede o limite.
+ */
+@Component
+@ConditionalOnProperty(name = {"gymtime.replica.habilitado", "gymtime.replica.replicador-local"}, havingValue = "true")
+@Slf4j
+public class ReplicadorLocal implements DestinoAlteracoes, EstadoReplica, RemocoesDiretas {
+
+    private static final int ALTERACOES_POR_LOTE = 500;
+    private static final int LINHAS_POR_LOTE = 5_000;
+    private static final long ESPERA_APOS_FALHA_MS = 1_000;
+
+    /**
+     * Uma alteração pendente e o instante em que foi registrada ({@link System#nanoTime()}).
+     */
+    private record Alteracao(LogDeAlteracoes.Operacao operacao, TabelaSnapshot tabela, Object[] valores,
+                             long registradaEm) {}
+
+    private final DataSource primario;
+    private final List<? extends DataSource> replicas;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Flyway flyway;
+
+    /**
+     * Alterações registradas e ainda não aplicadas em todas as réplicas. Um lote só é removido da fila depois de
+     * aplicado, para que o atraso continue visível enquanto a aplicação está em andamento.
+     */
+    private final ArrayDeque<Alteracao> pendentes = new ArrayDeque<>();
+    private volatile boolean sincronizada;
+    private RegistradorAlteracoes registrador;
+    private Thread aplicador;
+
+    public ReplicadorLocal(RoteadorLeitura roteadorLeitura, EntityManagerFactory entityManagerFactory, Flyway flyway) {
+        this.primario = roteadorLeitura.primario();
+        this.replicas = roteadorLeitura.replicas();
+        this.entityManagerFactory = entityManagerFactory;
+        this.flyway = flyway;
+    }
+
+    /**
+     * Cria o esquema das réplicas e registra o listener do Hibernate.
+     */
+    @PostConstruct
+    void iniciar() throws SQLException {
+        for (DataSource replica : replicas) {
+            Flyway.configure().configuration(flyway.getConfiguration()).dataSource(replica).load().migrate();
+            try (Connection conexao = replica.getConnection(); Statement comando = conexao.createStatement()) {
+                // As chaves estrangeiras já são verificadas no primário; na réplica, a ordem de aplicação entre
+                // transações concorrentes pode diferir ligeiramente da ordem dos commits.
+                comando.execute("set referential_integrity false");
+            }
+        }
+        registrador = RegistradorAlteracoes.registrar(entityManagerFactory, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void iniciarReplicacao() {
+        aplicador = new Thread(this::replicar, "replicador-local");
+        aplicador.setDaemon(true);
+        aplicador.start();
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        if (aplicador != null) {
+            aplicador.interrupt();
+            aplicador.join(ESPERA_APOS_FALHA_MS);
+        }
+    }
+
+    @Override
+    public synchronized void registrar(LogDeAlteracoes.Operacao operacao, TabelaSnapshot tabela, Object[] valores) {
+        pendentes.addLast(new Alteracao(operacao, tabela, valores, System.nanoTime()));
+        notifyAll();
+    }
+
+    @Override
+    public void registrarRemocoes(String tabela, List<Long> ids) {
+        registrador.registrarRemocoes(TabelaSnapshot.doNome(tabela), ids);
+    }
+
+    @Override
+    public long atrasoNanos() {
+        if (!sincronizada) {
+            return Long.MAX_VALUE;
+        }
+        Alteracao maisAntiga;
+        synchronized (this) {
+            maisAntiga = pendentes.peekFirst();
+        }
+        return maisAntiga == null ? 0 : System.nanoTime() - maisAntiga.registradaEm();
+    }
+
+    private void replicar() {
+        try {
+            while (!sincronizada) {
+                try {
+                    copiarTabelas();
+                    sincronizada = true;
+                } catch (SQLException | RuntimeException e) {
+                    log.error("Falha na cópia inicial para as réplicas de leitura; nova tentativa em {} ms.", ESPERA_APOS_FALHA_MS, e);
+                    Thread.sleep(ESPERA_APOS_FALHA_MS);
+                }
+            }
+            while (true) {
+                List<Alteracao> lote = proximoLote();
+                try {
+                    for (DataSource replica : replicas) {
+                        aplicar(replica, lote);
+                    }
+                    removerLote(lote.size());
+                } catch (SQLException | RuntimeException e) {
+                    log.error("Falha ao aplicar {} alterações nas réplicas de leitura; nova tentativa em {} ms.",
+                            lote.size(), ESPERA_APOS_FALHA_MS, e);
+                    Thread.sleep(ESPERA_APOS_FALHA_MS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Aguarda e devolve até {@value #ALTERACOES_POR_LOTE} alterações do início da fila, sem removê-las.
+     */
+    private synchronized List<Alteracao> proximoLote() throws InterruptedException {
+        while (pendentes.isEmpty()) {
+            wait();
+        }
+        List<Alteracao> lote = new ArrayList<>(Math.min(pendentes.size(), ALTERACOES_POR_LOTE));
+        for (Alteracao alteracao : pendentes) {
+            lote.add(alteracao);
+            if (lote.size() == ALTERACOES_POR_LOTE) {
+                break;
+            }
+        }
+        return lote;
+    }
+
+    private synchronized void removerLote(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            pendentes.removeFirst();
+        }
+    }
+
+    /**
+     * Substitui o conteúdo das réplicas pelo das tabelas do primário.
+     */
+    private void copiarTabelas() throws SQLException {
+        long inicio = System.nanoTime();
+        long linhas = 0;
+        for (DataSource replica : replicas) {
+            try (Connection origem = primario.getConnection(); Connection destino = replica.getConnection()) {
+                destino.setAutoCommit(false);
+                try (Statement comando = destino.createStatement()) {
+                    TabelaSnapshot[] tabelas = TabelaSnapshot.values();
+                    for (int i = tabelas.length - 1; i >= 0; i--) {
+                        comando.execute("delete from " + tabelas[i].nome());
+                    }
+                }
+                for (TabelaSnapshot tabela : TabelaSnapshot.values()) {
+                    linhas += copiar(origem, destino, tabela);
+                }
+                destino.commit();
+            }
+        }
+        log.info("Réplicas de leitura sincronizadas em {} ms: {} linhas copiadas ({} réplica(s)).",
+                (System.nanoTime() - inicio) / 1_000_000, linhas, replicas.size());
+    }
+
+    private static long copiar(Connection origem, Connection destino, TabelaSnapshot tabela) throws SQLException {
+        List<TabelaSnapshot.Coluna> colunas = tabela.colunas();
+        long linhas = 0;
+        try (Statement consulta = origem.createStatement();
+             ResultSet resultado = consulta.executeQuery(tabela.sqlSelecao());
+             PreparedStatement mesclagem = destino.prepareStatement(tabela.sqlMesclagem())) {
+            int noLote = 0;
+            while (resultado.next()) {
+                for (int i = 0; i < colunas.size(); i++) {
+                    TipoColuna tipo = colunas.get(i).tipo();
+                    tipo.definir(mesclagem, i + 1, tipo.lerColuna(resultado, i + 1));
+                }
+                mesclagem.addBatch();
+                linhas++;
+                if (++noLote == LINHAS_POR_LOTE) {
+                    mesclagem.executeBatch();
+                    destino.commit();
+                    noLote = 0;
+                }
+            }
+            mesclagem.executeBatch();
+        }
+        return linhas;
+    }
+
+    /**
+     * Aplica o lote na réplica em uma única transação, agrupando instruções consecutivas iguais.
+     */
+    private static void aplicar(DataSource replica, List<Alteracao> lote) throws SQLException {
+        Map<TabelaSnapshot, PreparedStatement> mesclagens = new EnumMap<>(TabelaSnapshot.class);
+        Map<TabelaSnapshot, PreparedStatement> exclusoes = new EnumMap<>(TabelaSnapshot.class);
+        try (Connection conexao = replica.getConnection()) {
+            conexao.setAutoCommit(false);
+            try {
+                PreparedStatement pendente = null;
+                for (Alteracao alteracao : lote) {
+                    TabelaSnapshot tabela = alteracao.tabela();
+                    boolean gravacao = alteracao.operacao() == LogDeAlteracoes.Operacao.GRAVACAO;
+                    Map<TabelaSnapshot, PreparedStatement> instrucoes = gravacao ? mesclagens : exclusoes;
+                    PreparedStatement instrucao = instrucoes.get(tabela);
+                    if (instrucao == null) {
+                        instrucao = conexao.prepareStatement(gravacao ? tabela.sqlMesclagem() : tabela.sqlExclusao());
+                        instrucoes.put(tabela, instrucao);
+                    }
+                    if (pendente != null && pendente != instrucao) {
+                        pendente.executeBatch();
+                    }
+                    List<TabelaSnapshot.Coluna> colunas = tabela.colunas();
+                    Object[] valores = alteracao.valores();
+                    for (int i = 0; i < valores.length; i++) {
+                        colunas.get(i).tipo().definir(instrucao, i + 1, valores[i]);
+                    }
+                    instrucao.addBatch();
+                    pendente = instrucao;
+                }
+                if (pendente != null) {
+                    pendente.executeBatch();
+                }
+                conexao.commit();
+            } catch (SQLException | RuntimeException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                for (PreparedStatement instrucao : mesclagens.values()) {
+                    instrucao.close();
+                }
+                for (PreparedStatement instrucao : exclusoes.values()) {
+                    instrucao.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package br.com.gymtime.snapshot;
+
+import br.com.gymtime.model.Academia;
+import br.com.gymtime.model.Aluno;
+import br.com.gymtime.model.Exercicio;
+import br.com.gymtime.model.ExercicioCatalogo;
+import br.com.gymtime.model.Treino;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tabelas incluídas no snapshot, na ordem em que são gravadas e restauradas (tabelas referenciadas primeiro).
+ * Cada tabela conhece as suas colunas e como extrair os valores de uma entidade, usado pelo log de alterações.
+ * A primeira coluna é sempre o ID.
+ */
+enum TabelaSnapshot {
+
+    ACADEMIAS("academias", Academia.class,
+            new Coluna("id", TipoColuna.LONG),
+            new Coluna("nome", TipoColuna.TEXTO)) {
+        @Override
+        Object[] valores(Object entidade) {
+            Academia academia = (Academia) entidade;
+            return new Object[]{academia.getId(), academia.getNome()};
+        }
+
+        @Override
+        boolean preenchidaPelasMigracoes() {
+            return true;
+        }
+    },
+
+    ALUNOS("alunos", Aluno.class,
+            new Coluna("id", TipoColuna.LONG),
+            new Coluna("academia_id", TipoColuna.LONG),
+            new Coluna("nome", TipoColuna.TEXTO),
+            new Coluna("nome_busca", TipoColuna.TEXTO),
+            new Coluna("email", TipoColuna.TEXTO),
+            new Coluna("email_busca", TipoColuna.TEXTO),
+            new Coluna("telefone", TipoColuna.TEXTO),
+            new Coluna("cpf", TipoColuna.TEXTO),
+            new Coluna("removido_em", TipoColuna.DATA_HORA)) {
+        @Override
+        Object[] valores(Object entidade) {
+            Aluno aluno = (Aluno) entidade;
+            return new Object[]{aluno.getId(), aluno.getAcademiaId(), aluno.getNome(), aluno.getNomeBusca(), aluno.getEmail(),
+                    aluno.getEmailBusca(), aluno.getTelefone(), aluno.getCpf(), aluno.getRemovidoEm()};
+        }
+    },
+
+    EXERCICIO_CATALOGO("exercicio_catalogo", ExercicioCatalogo.class,
+            new Coluna("id", TipoColuna.LONG),
+            new Coluna("nome", TipoColuna.TEXTO),
+            new Coluna("nome_normalizado", TipoColuna.TEXTO)) {
+        @Override
+        Object[] valores(Object entidade) {
+            ExercicioCatalogo catalogo = (ExercicioCatalogo) entidade;
+            return new Object[]{catalogo.getId(), catalogo.getNome(), catalogo.getNomeNormalizado()};
+        }
+    },
+
+    TREINOS("treinos", Treino.class,
+            new Coluna("id", TipoColuna.LONG),
+            new Coluna("academia_id", TipoColuna.LONG),
+            new Coluna("aluno_id", TipoColuna.LONG),
+            new Coluna("nome", TipoColuna.TEXTO),
+            new Coluna("descricao", TipoColuna.TEXTO),
+            new Coluna("data_criacao", TipoColuna.DATA),
+            new Coluna("data_atualizacao", TipoColuna.DATA)) {
+        @Override
+        Object[] valores(Object entidade) {
+            Treino treino = (Treino) entidade;
+            return new Object[]{treino.getId(), treino.getAcademiaId(), treino.getAluno().getId(), treino.getNome(), treino.getDescricao(),
+                    treino.getDataCriacao(), treino.getDataAtualizacao()};
+        }
+    },
+
+    EXERCICIOS("exercicios", Exercicio.class,
+            new Coluna("id", TipoColuna.LONG),
+            new Coluna("treino_id", TipoColuna.LONG),
+            new Coluna("catalogo_id", TipoColuna.LONG),
+            new Coluna("series_repeticoes", TipoColuna.TEXTO)) {
+        @Override
+        Object[] valores(Object entidade) {
+            Exercicio exercicio = (Exercicio) entidade;
+            return new Object[]{exercicio.getId(), exercicio.getTreino().getId(), exercicio.getCatalogo().getId(),
+                    exercicio.getSeriesRepeticoes()};
+        }
+    };
+
+    /**
+     * Uma coluna da tabela e o seu tipo no snapshot.
+     */
+    record Coluna(String nome, TipoColuna tipo) {}
+
+    private final String nome;
+    private final Class<?> entidade;
+    private final List<Coluna> colunas;
+
+    TabelaSnapshot(String nome, Class<?> entidade, Coluna... colunas) {
+        this.nome = nome;
+        this.entidade = entidade;
+        this.colunas = List.of(colunas);
+    }
+
+    /**
+     * Extrai da entidade os valores das colunas, na ordem de {@link #colunas()}.
+     */
+    abstract Object[] valores(Object entidade);
+
+    /**
+     * @return Se as migrações já gravam linhas na tabela (a academia padrão): ela não indica que o banco tem dados,
+     * e as linhas do snapshot substituem as existentes.
+     */
+    boolean preenchidaPelasMigracoes() {
+        return false;
+    }
+
+    String nome() {
+        return nome;
+    }
+
+    List<Coluna> colunas() {
+        return colunas;
+    }
+
+    String sqlSelecao() {
+        return "select " + listaColunas(colunas) + " from " + nome;
+    }
+
+    String sqlMesclagem() {
+        return "merge into " + nome + " (" + listaColunas(colunas) + ") key (id) values (" + marcadores(colunas.size()) + ")";
+    }
+
+    String sqlExclusao() {
+        return "delete from " + nome + " where id = ?";
+    }
+
+    /**
+     * @return A tabela da entidade, ou {@code null} se a entidade não fizer parte do snapshot.
+     */
+    static TabelaSnapshot daEntidade(Class<?> classe) {
+        for (TabelaSnapshot tabela : values()) {
+            if (tabela.entidade == classe) {
+                return tabela;
+            }
+        }
+        return null;
+    }
+
+    static TabelaSnapshot doNome(String nome) {
+        for (TabelaSnapshot tabela : values()) {
+            if (tabela.nome.equals(nome)) {
+                return tabela;
+            }
+        }
+        throw new IllegalStateException("Tabela desconhecida no snapshot: " + nome);
+    }
+
+    static String listaColunas(List<Coluna> colunas) {
+        return colunas.stream().map(Coluna::nome).collect(Collectors.joining(", "));
+    }
+
+    static String marcadores(int quantidade) {
+        return String.join(", ", Collections.nCopies(quantidade, "?"));
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.gymtime.snapshot;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Tipos de coluna do snapshot e a sua codificação binária.
+ * <p>
+ * Todos os valores são gravados como inteiros de tamanho variável (LEB128), deslocados de 1 para que o
+ * zero represente {@code null}: IDs pequenos ocupam 1 a 3 bytes em vez de 8, e textos levam apenas o
+ * tamanho em bytes UTF-8 seguido do conteúdo.
+ */
+enum TipoColuna {
+
+    /** {@code bigint} não negativo (IDs e chaves estrangeiras). */
+    LONG {
+        @Override
+        Object lerColuna(ResultSet resultado, int indice) throws SQLException {
+            long valor = resultado.getLong(indice);
+            return resultado.wasNull() ? null : valor;
+        }
+
+        @Override
+        void escrever(DataOutput saida, Object valor) throws IOException {
+            escreverVarLong(saida, valor == null ? 0 : (Long) valor + 1);
+        }
+
+        @Override
+        Object ler(ByteBuffer entrada) {
+            long valor = lerVarLong(entrada);
+            return valor == 0 ? null : valor - 1;
+        }
+
+        @Override
+        void definir(PreparedStatement instrucao, int indice, Object valor) throws SQLException {
+            if (valor == null) {
+                instrucao.setNull(indice, Types.BIGINT);
+            } else {
+                instrucao.setLong(indice, (Long) valor);
+            }
+        }
+    },
+
+    /** {@code varchar}. */
+    TEXTO {
+        @Override
+        Object lerColuna(ResultSet resultado, int indice) throws SQLException {
+            return resultado.getString(indice);
+        }
+
+        @Override
+        void escrever(DataOutput saida, Object valor) throws IOException {
+            if (valor == null) {
+                escreverVarLong(saida, 0);
+                return;
+            }
+            byte[] bytes = ((String) valor).getBytes(StandardCharsets.UTF_8);
+            escreverVarLong(saida, bytes.length + 1L);
+            saida.write(bytes);
+        }
+
+        @Override
+        Object ler(ByteBuffer entrada) {
+            long tamanho = lerVarLong(entrada);
+            if (tamanho == 0) {
+                return null;
+            }
+            byte[] bytes = new byte[(int) (tamanho - 1)];
+            entrada.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        void definir(PreparedStatement instrucao, int indice, Object valor) throws SQLException {
+            instrucao.setString(indice, (String) valor);
+        }
+    },
+
+    /** {@code date}, gravado como dias desde 1970-01-01. */
+    DATA {
+        @Override
+        Object lerColuna(ResultSet resultado, int indice) throws SQLException {
+            Date data = resultado.getDate(indice);
+            return data == null ? null : data.toLocalDate();
+        }
+
+        @Override
+        void escrever(DataOutput saida, Object valor) throws IOException {
+            escreverVarLong(saida, valor == null ? 0 : ((LocalDate) valor).toEpochDay() + 1);
+        }
+
+        @Override
+        Object ler(ByteBuffer entrada) {
+            long valor = lerVarLong(entrada);
+            return valor == 0 ? null : LocalDate.ofEpochDay(valor - 1);
+        }
+
+        @Override
+        void definir(PreparedStatement instrucao, int indice, Object valor) throws SQLException {
+            instrucao.setDate(indice, valor == null ? null : Date.valueOf((LocalDate) valor));
+        }
+    },
+
+    /** {@code timestamp}, gravado como milissegundos desde 1970-01-01T00:00, sem fuso. */
+    DATA_HORA {
+        @Override
+        Object lerColuna(ResultSet resultado, int indice) throws SQLException {
+            Timestamp dataHora = resultado.getTimestamp(indice);
+            return dataHora == null ? null : dataHora.toLocalDateTime();
+        }
+
+        @Override
+        void escrever(DataOutput saida, Object valor) throws IOException {
+            escreverVarLong(saida, valor == null ? 0 : ((LocalDateTime) valor).toInstant(ZoneOffset.UTC).toEpochMilli() + 1);
+        }
+
+        @Override
+        Object ler(ByteBuffer entrada) {
+            long valor = lerVarLong(entrada);
+            return valor == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(valor - 1), ZoneOffset.UTC);
+        }
+
+        @Override
+        void definir(PreparedStatement instrucao, int indice, Object valor) throws SQLException {
+            instrucao.setTimestamp(indice, valor == null ? null : Timestamp.valueOf((LocalDateTime) valor));
+        }
+    };
+
+    /**
+     * Lê o valor da coluna no formato usado pelo snapshot ({@link Long}, {@link String}, {@link LocalDate} ou
+     * {@link LocalDateTime}).
+     */
+    abstract Object lerColuna(ResultSet resultado, int indice) throws SQLException;
+
+    abstract void escrever(DataOutput saida, Object valor) throws IOException;
+
+    abstract Object ler(ByteBuffer entrada);
+
+    abstract void definir(PreparedStatement instrucao, int indice, Object valor) throws SQLException;
+
+    static void escreverVarLong(DataOutput saida, long valor) throws IOException {
+        while ((valor & ~0x7FL) != 0) {
+            saida.writeByte((int) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        saida.writeByte((int) valor);
+    }
+
+    static long lerVarLong(ByteBuffer entrada) {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            byte b = entrada.get();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if (b >= 0) {
+                return valor;
+            }
+        }
+        throw new IllegalStateException("Inteiro de tamanho variável malformado.");
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.gymtime.util;
+
+/**
+ * Utilitários para CPF e telefone: remoção de máscara, validação dos dígitos verificadores e formatação.
+ * <p>
+ * Todos os métodos percorrem o texto uma única vez, sem expressões regulares. Os campos já armazenados
+ * contêm apenas dígitos, então o caso mais comum (normalizar um valor sem máscara) devolve a própria
+ * instância recebida, sem alocar uma nova {@link String}.
+ */
+public final class DocumentoUtils {
+
+    /**
+     * Quantidade de dígitos de um CPF.
+     */
+    public static final int DIGITOS_CPF = 11;
+
+    private DocumentoUtils() {
+    }
+
+    /**
+     * Remove todos os caracteres que não são dígitos (0-9).
+     * Exemplo: "529.982.247-25" se torna "52998224725" e "(11) 98765-4321" se torna "11987654321".
+     *
+     * @param texto O texto, possivelmente com máscara.
+     * @return Apenas os dígitos do texto (a própria instância se ela já contiver apenas dígitos),
+     *         ou {@code null} se o texto for nulo.
+     */
+    public static String apenasDigitos(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        int tamanho = texto.length();
+        int i = 0;
+        while (i < tamanho && isDigito(texto.charAt(i))) {
+            i++;
+        }
+        if (i == tamanho) {
+            return texto;
+        }
+        char[] digitos = new char[tamanho - 1];
+        texto.getChars(0, i, digitos, 0);
+        int quantidade = i;
+        for (i++; i < tamanho; i++) {
+            char c = texto.charAt(i);
+            if (isDigito(c)) {
+                digitos[quantidade++] = c;
+            }
+        }
+        return new String(digitos, 0, quantidade);
+    }
+
+    /**
+     * Indica se o texto é composto apenas por dígitos e sinais de máscara de documentos e telefones
+     * (espaço, ponto, hífen, barra e parênteses), como "123.456" ou "(11) 9999".
+     *
+     * @param texto O texto a ser verificado.
+     * @return {@code true} se o texto não for vazio e contiver apenas dígitos e sinais de máscara.
+     */
+    public static boolean isNumeroComMascara(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (!isDigito(c) && c != ' ' && c != '.' && c != '-' && c != '/' && c != '(' && c != ')') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Valida um CPF pelos seus dois dígitos verificadores (módulo 11).
+     * CPFs com todos os dígitos iguais (ex: "111.111.111-11") passam no cálculo, mas não são válidos.
+     *
+     * @param cpf O CPF, com ou sem máscara.
+     * @return {@code true} se o CPF tiver 11 dígitos e os dígitos verificadores estiverem corretos.
+     */
+    public static boolean isCpfValido(String cpf) {
+        String digitos = apenasDigitos(cpf);
+        if (digitos == null || digitos.length() != DIGITOS_CPF) {
+            return false;
+        }
+        boolean todosIguais = true;
+        for (int i = 1; i < DIGITOS_CPF; i++) {
+            if (digitos.charAt(i) != digitos.charAt(0)) {
+                todosIguais = false;
+                break;
+            }
+        }
+        return !todosIguais
+                && digitos.charAt(9) - '0' == digitoVerificador(digitos, 9)
+                && digitos.charAt(10) - '0' == digitoVerificador(digitos, 10);
+    }
+
+    /**
+     * Completa uma base de até 9 dígitos com os dígitos verificadores, gerando um CPF válido.
+     * Usado para gerar massas de dados determinísticas em testes e benchmarks.
+     * Exemplo: 529982247 se torna "52998224725".
+     * Bases com todos os dígitos iguais (ex: 0 ou 111111111) geram CPFs rejeitados por {@link #isCpfValido(String)}.
+     *
+     * @param base Os 9 primeiros dígitos do CPF (entre 0 e 999.999.999).
+     * @return O CPF com 11 dígitos, sem máscara.
+     * @throws IllegalArgumentException se a base estiver fora do intervalo.
+     */
+    public static String gerarCpf(long base) {
+        if (base < 0 || base > 999_999_999L) {
+            throw new IllegalArgumentException("A base do CPF deve ter no máximo 9 dígitos: " + base);
+        }
+        char[] cpf = new char[DIGITOS_CPF];
+        long resto = base;
+        for (int i = 8; i >= 0; i--) {
+            cpf[i] = (char) ('0' + resto % 10);
+            resto /= 10;
+        }
+        String noveDigitos = new String(cpf, 0, 9);
+        cpf[9] = (char) ('0' + digitoVerificador(noveDigitos, 9));
+        cpf[10] = (char) ('0' + digitoVerificador(new String(cpf, 0, 10), 10));
+        return new String(cpf);
+    }
+
+    /**
+     * Formata um CPF de 11 dígitos no padrão de exibição brasileiro.
+     * Exemplo: "12345678901" se torna "123.456.789-01".
+     *
+     * @param cpf O CPF contendo apenas dígitos.
+     * @return O CPF formatado. Se o CPF for nulo ou não tiver 11 dígitos, retorna o valor original.
+     */
+    public static String formatarCpf(String cpf) {
+        if (cpf == null || cpf.length() != DIGITOS_CPF || !isApenasDigitos(cpf)) {
+            return cpf;
+        }
+        char[] formatado = new char[14];
+        cpf.getChars(0, 3, formatado, 0);
+        formatado[3] = '.';
+        cpf.getChars(3, 6, formatado, 4);
+        formatado[7] = '.';
+        cpf.getChars(6, 9, formatado, 8);
+        formatado[11] = '-';
+        cpf.getChars(9, 11, formatado, 12);
+        return new String(formatado);
+    }
+
+    /**
+     * Formata um telefone com DDD para exibição.
+     * Cobre formatos de celular (11 dígitos) e fixo (10 dígitos).
+     * Exemplo: "99999999999" se torna "(99) 99999-9999" e "9999999999" se torna "(99) 9999-9999".
+     *
+     * @param telefone O telefone contendo apenas dígitos.
+     * @return O telefone formatado. Se o telefone for nulo, vazio ou não tiver 10 ou 11 dígitos,
+     *         retorna o valor original.
+     */
+    public static String formatarTelefone(String telefone) {
+        if (telefone == null || (telefone.length() != 10 && telefone.length() != 11) || !isApenasDigitos(telefone)) {
+            return telefone;
+        }
+        int tamanho = telefone.length();
+        int fimPrefixo = tamanho - 4;
+        char[] formatado = new char[tamanho + 4];
+        formatado[0] = '(';
+        telefone.getChars(0, 2, formatado, 1);
+        formatado[3] = ')';
+        formatado[4] = ' ';
+        telefone.getChars(2, fimPrefixo, formatado, 5);
+        formatado[fimPrefixo + 3] = '-';
+        telefone.getChars(fimPrefixo, tamanho, formatado, fimPrefixo + 4);
+        return new String(formatado);
+    }
+
+    /**
+     * Calcula o dígito verificador do CPF sobre os {@code quantidade} primeiros dígitos.
+     * Os pesos começam em {@code quantidade + 1} e decrescem até 2.
+     */
+    private static int digitoVerificador(String digitos, int quantidade) {
+        int soma = 0;
+        for (int i = 0; i < quantidade; i++) {
+            soma += (digitos.charAt(i) - '0') * (quantidade + 1 - i);
+        }
+        int resto = (soma * 10) % 11;
+        return resto == 10 ? 0 : resto;
+    }
+
+    private static boolean isApenasDigitos(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (!isDigito(texto.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
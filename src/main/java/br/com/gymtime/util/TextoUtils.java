@@ -0,0 +1,86 @@
+package br.com.gymtime.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Utilitários para normalização de textos usados em buscas.
+ * A forma normalizada é usada tanto nas colunas de busca do banco quanto nos índices em memória,
+ * garantindo que "João", "joao" e "  JOAO " sejam tratados como o mesmo termo.
+ */
+public final class TextoUtils {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    private TextoUtils() {
+    }
+
+    /**
+     * Normaliza um texto para comparação em buscas: remove acentos, converte para minúsculas,
+     * remove espaços nas extremidades e colapsa espaços internos repetidos.
+     * Exemplo: "  Supino   Reto " se torna "supino reto" e "João" se torna "joao".
+     *
+     * @param texto O texto a ser normalizado.
+     * @return O texto normalizado, ou {@code null} se o texto for nulo.
+     */
+    public static String normalizarParaBusca(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return colapsarEspacos(semAcentos).toLowerCase();
+    }
+
+    /**
+     * Normaliza um e-mail para comparação sem diferenciar maiúsculas: remove espaços nas extremidades
+     * e converte para minúsculas. É a forma gravada na coluna {@code email_busca}.
+     *
+     * @param email O e-mail a ser normalizado.
+     * @return O e-mail normalizado, ou {@code null} se o e-mail for nulo.
+     */
+    public static String normalizarEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Remove espaços nas extremidades e substitui sequências de espaços internos por um único espaço,
+     * preservando maiúsculas e acentos.
+     * Exemplo: "  Supino   Reto " se torna "Supino Reto".
+     *
+     * @param texto O texto a ser ajustado.
+     * @return O texto com os espaços colapsados, ou {@code null} se o texto for nulo.
+     */
+    public static String colapsarEspacos(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(texto.length());
+        boolean espacoPendente = false;
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (Character.isWhitespace(c)) {
+                espacoPendente = sb.length() > 0;
+            } else {
+                if (espacoPendente) {
+                    sb.append(' ');
+                    espacoPendente = false;
+                }
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Escapa os curingas do SQL {@code LIKE} ({@code %} e {@code _}) e o próprio caractere de escape,
+     * para que um termo digitado pelo usuário seja tratado literalmente em buscas por prefixo.
+     * Deve ser usado em conjunto com {@code escape '\'} na consulta.
+     *
+     * @param termo O termo a ser escapado.
+     * @return O termo com os curingas escapados.
+     */
+    public static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.gymtime.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilitários para executar ações ao fim da transação corrente, usados pelas estruturas em memória que
+ * acompanham o banco (índices de busca, catálogo e diretório de shards).
+ */
+public final class TransacaoUtils {
+
+    private TransacaoUtils() {
+    }
+
+    /**
+     * Executa a ação após o commit da transação corrente; um rollback a descarta. Sem transação ativa, a ação é
+     * executada imediatamente.
+     *
+     * @param acao A ação a ser executada.
+     */
+    public static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.gymtime.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Valida os dígitos verificadores de um CPF com 11 dígitos.
+ * Valores nulos, vazios ou com outra quantidade de dígitos são aceitos: o formato é
+ * responsabilidade das anotações {@code @NotBlank} e {@code @Pattern} do mesmo campo.
+ */
+@Documented
+@Constraint(validatedBy = CpfValidoValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CpfValido {
+
+    String message() default "CPF inválido: os dígitos verificadores não conferem.";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,20 @@
+package br.com.gymtime.validation;
+
+import br.com.gymtime.util.DocumentoUtils;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+/**
+ * Implementação da validação {@link CpfValido}.
+ */
+public class CpfValidoValidator implements ConstraintValidator<CpfValido, String> {
+
+    @Override
+    public boolean isValid(String cpf, ConstraintValidatorContext context) {
+        String digitos = DocumentoUtils.apenasDigitos(cpf);
+        if (digitos == null || digitos.length() != DocumentoUtils.DIGITOS_CPF) {
+            return true;
+        }
+        return DocumentoUtils.isCpfValido(digitos);
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.gymtime.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.AbstractFlashMapManager;
+import org.springframework.web.util.WebUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link org.springframework.web.servlet.FlashMapManager} que guarda os atributos flash (as mensagens exibidas após
+ * um redirecionamento) em um cookie assinado, em vez da sessão HTTP.
+ * <p>
+ * O conteúdo do cookie é o JSON dos flash maps pendentes seguido da sua assinatura HMAC-SHA256
+ * ({@code base64url(json) + "." + base64url(hmac)}). Como todos os nós usam a mesma chave
+ * ({@code gymtime.web.flash.chave}), o redirecionamento pode ser atendido por qualquer nó, sem sessões fixas no
+ * balanceador nem replicação de sessão. Um cookie com assinatura inválida (adulterado ou assinado com outra chave)
+ * é ignorado. Os valores dos atributos devem ser serializáveis em JSON; na prática, são as mensagens de texto dos
+ * controllers web.
+ */
+@Slf4j
+public class FlashMapCookieManager extends AbstractFlashMapManager {
+
+    public static final String COOKIE = "GYMTIME_FLASH";
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    /**
+     * Limite prático de um cookie nos navegadores (nome, valor e atributos).
+     */
+    private static final int TAMANHO_MAXIMO = 4000;
+
+    private static final TypeReference<List<FlashCookie>> TIPO_CONTEUDO = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec chave;
+
+    public FlashMapCookieManager(ObjectMapper objectMapper, String chave) {
+        if (chave == null || chave.length() < 32) {
+            throw new IllegalArgumentException("A chave de assinatura dos atributos flash deve ter ao menos 32 caracteres.");
+        }
+        this.objectMapper = objectMapper;
+        this.chave = new SecretKeySpec(chave.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+    }
+
+    @Override
+    protected List<FlashMap> retrieveFlashMaps(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null || cookie.getValue().isEmpty()) {
+            return null;
+        }
+        String valor = cookie.getValue();
+        int separador = valor.lastIndexOf('.');
+        if (separador < 0 || !assinaturaValida(valor.substring(0, separador), valor.substring(separador + 1))) {
+            log.warn("Cookie {} com assinatura inválida ignorado.", COOKIE);
+            return null;
+        }
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(valor.substring(0, separador));
+            List<FlashMap> flashMaps = new ArrayList<>();
+            for (FlashCookie conteudo : objectMapper.readValue(json, TIPO_CONTEUDO)) {
+                flashMaps.add(conteudo.paraFlashMap());
+            }
+            return flashMaps;
+        } catch (Exception e) {
+            log.warn("Não foi possível ler o cookie {}: {}", COOKIE, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    protected void updateFlashMaps(List<FlashMap> flashMaps, HttpServletRequest request, HttpServletResponse response) {
+        if (flashMaps.isEmpty()) {
+            if (WebUtils.getCookie(request, COOKIE) != null) {
+                escreverCookie(request, response, "", Duration.ZERO);
+            }
+            return;
+        }
+        String valor;
+        try {
+            List<FlashCookie> conteudo = flashMaps.stream().map(FlashCookie::de).toList();
+            String json = Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(conteudo));
+            valor = json + "." + assinar(json);
+        } catch (JsonProcessingException e) {
+            log.error("Atributos flash não serializáveis em JSON; as mensagens do redirecionamento serão perdidas.", e);
+            return;
+        }
+        if (valor.length() > TAMANHO_MAXIMO) {
+            log.warn("Atributos flash com {} caracteres excedem o limite do cookie {}; as mensagens do redirecionamento serão perdidas.",
+                    valor.length(), COOKIE);
+            return;
+        }
+        escreverCookie(request, response, valor, Duration.ofSeconds(getFlashMapTimeout()));
+    }
+
+    /**
+     * Sem estado compartilhado entre requisições, não há o que sincronizar.
+     */
+    @Override
+    protected Object getFlashMapsMutex(HttpServletRequest request) {
+        return null;
+    }
+
+    private void escreverCookie(HttpServletRequest request, HttpServletResponse response, String valor, Duration duracao) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, valor)
+                .path(request.getContextPath().isEmpty() ? "/" : request.getContextPath())
+                .maxAge(duracao)
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private boolean assinaturaValida(String conteudo, String assinatura) {
+        try {
+            return MessageDigest.isEqual(Base64.getUrlDecoder().decode(assinatura), hmac(conteudo));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private String assinar(String conteudo) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hmac(conteudo));
+    }
+
+    private byte[] hmac(String conteudo) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponível para assinar os atributos flash.", e);
+        }
+    }
+
+    /**
+     * Forma serializada de um {@link FlashMap}.
+     */
+    record FlashCookie(String caminho, Map<String, List<String>> parametros, long expiraEm, Map<String, Object> atributos) {
+
+        static FlashCookie de(FlashMap flashMap) {
+            return new FlashCookie(flashMap.getTargetRequestPath(), new LinkedHashMap<>(flashMap.getTargetRequestParams()),
+                    flashMap.getExpirationTime(), new LinkedHashMap<>(flashMap));
+        }
+
+        FlashMap paraFlashMap() {
+            FlashMap flashMap = new FlashMap();
+            flashMap.setTargetRequestPath(caminho);
+            if (parametros != null) {
+                flashMap.addTargetRequestParams(new LinkedMultiValueMap<>(parametros));
+            }
+            flashMap.setExpirationTime(expiraEm);
+            if (atributos != null) {
+                flashMap.putAll(atributos);
+            }
+            return flashMap;
+        }
+    }
+}
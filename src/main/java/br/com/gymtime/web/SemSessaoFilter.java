@@ -0,0 +1,70 @@
+package br.com.gymtime.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtro que impede a criação de sessões HTTP, mantendo a camada web sem estado.
+ * <p>
+ * Qualquer nó pode atender qualquer requisição (os atributos flash vão em um cookie assinado, ver
+ * {@link FlashMapCookieManager}), então uma sessão criada por engano voltaria a exigir sessões fixas no
+ * balanceador. Com o filtro, {@code getSession(false)} sempre devolve {@code null} e {@code getSession()} falha
+ * com {@link IllegalStateException}, para que o problema apareça nos testes e não em produção. O console do H2,
+ * uma ferramenta de desenvolvimento, não passa pelo filtro.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SemSessaoFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/h2-console");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(new RequisicaoSemSessao(request), response);
+    }
+
+    private static final class RequisicaoSemSessao extends HttpServletRequestWrapper {
+
+        RequisicaoSemSessao(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public HttpSession getSession(boolean criar) {
+            if (criar) {
+                throw new IllegalStateException("A aplicação não usa sessão HTTP: guarde o estado em cookies assinados, "
+                        + "parâmetros ou no banco (requisição " + getMethod() + " " + getRequestURI() + ").");
+            }
+            return null;
+        }
+
+        @Override
+        public String changeSessionId() {
+            throw new IllegalStateException("A aplicação não usa sessão HTTP.");
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            return false;
+        }
+    }
+}
@@ -2,21 +2,28 @@ package br.com.gymtime.webcontroller;
 
 import br.com.gymtime.dto.AlunoCreateDTO;
 import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSummaryDTO;
 import br.com.gymtime.dto.AlunoUpdateDTO;
 import br.com.gymtime.exception.CpfAlreadyExistsException;
 import br.com.gymtime.exception.EmailAlreadyExistsException;
+import br.com.gymtime.exception.InvalidCpfException;
 import br.com.gymtime.exception.ResourceNotFoundException;
 import br.com.gymtime.service.AlunoService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,18 +36,40 @@ import java.util.Optional;
 @Slf4j
 public class AlunoWebController {
 
+    /**
+     * Header enviado pelo script da listagem nas requisições parciais (no estilo do HTMX).
+     */
+    private static final String HEADER_REQUISICAO_PARCIAL = "HX-Request";
+
     private final AlunoService alunoService;
 
     /**
-     * Exibe a página com a lista de todos os alunos cadastrados.
+     * Exibe a página com a lista paginada de alunos, opcionalmente filtrada por um termo de busca.
+     * Quando a requisição é parcial (header {@code HX-Request}), apenas o fragmento da tabela é renderizado,
+     * sem o restante do layout.
+     * @param termo O termo de busca por prefixo de nome, e-mail ou CPF (opcional).
+     * @param pageable A página, o tamanho e a ordenação solicitados.
+     * @param requisicaoParcial O valor do header {@code HX-Request}, presente nas navegações feitas pelo script.
      * @param model O Model para adicionar atributos que serão acessíveis na view.
-     * @return O nome do template Thymeleaf a ser renderizado ("alunos/lista-alunos").
+     * @param response A resposta HTTP, usada para sinalizar que o conteúdo varia conforme o header parcial.
+     * @return O template completo ("alunos/lista-alunos") ou apenas o fragmento da tabela.
      */
     @GetMapping
-    public String listarAlunos(Model model) {
-        List<AlunoResponseDTO> alunos = alunoService.getAllAlunos();
-        model.addAttribute("alunos", alunos);
-        return "alunos/lista-alunos";
+    public String listarAlunos(@RequestParam(name = "q", required = false) String termo,
+                               @PageableDefault(size = 20, sort = "nome") Pageable pageable,
+                               @RequestHeader(name = HEADER_REQUISICAO_PARCIAL, required = false) String requisicaoParcial,
+                               Model model,
+                               HttpServletResponse response) {
+        Page<AlunoSummaryDTO> paginaAlunos = alunoService.getAlunosPaginados(termo, pageable);
+        Sort.Order ordem = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("nome"));
+
+        model.addAttribute("paginaAlunos", paginaAlunos);
+        model.addAttribute("termo", termo);
+        model.addAttribute("ordenacaoCampo", ordem.getProperty());
+        model.addAttribute("ordenacaoDirecao", ordem.getDirection().isAscending() ? "asc" : "desc");
+
+        response.addHeader(HttpHeaders.VARY, HEADER_REQUISICAO_PARCIAL);
+        return requisicaoParcial != null ? "alunos/lista-alunos :: tabela" : "alunos/lista-alunos";
     }
 
     /**
@@ -109,7 +138,7 @@ public class AlunoWebController {
             bindingResult.rejectValue("email", "error.alunoForm", e.getMessage());
             model.addAttribute("pageTitle", "Cadastrar Novo Aluno");
             return "alunos/form-aluno";
-        } catch (CpfAlreadyExistsException e) {
+        } catch (CpfAlreadyExistsException | InvalidCpfException e) {
             bindingResult.rejectValue("cpf", "error.alunoForm", e.getMessage());
             model.addAttribute("pageTitle", "Cadastrar Novo Aluno");
             return "alunos/form-aluno";
@@ -153,7 +182,7 @@ public class AlunoWebController {
         } catch (EmailAlreadyExistsException e) {
             bindingResult.rejectValue("email", "error.alunoForm", e.getMessage());
             return "alunos/form-aluno";
-        } catch (CpfAlreadyExistsException e) {
+        } catch (CpfAlreadyExistsException | InvalidCpfException e) {
             bindingResult.rejectValue("cpf", "error.alunoForm", e.getMessage());
             return "alunos/form-aluno";
         } catch (Exception e) {
@@ -5,18 +5,9 @@ import br.com.gymtime.dto.ExercicioCreateDTO;
 import br.com.gymtime.dto.TreinoCreateDTO;
 import br.com.gymtime.dto.TreinoResponseDTO;
 import br.com.gymtime.dto.TreinoUpdateDTO;
+import br.com.gymtime.pdf.TreinoPdfRenderer;
 import br.com.gymtime.service.AlunoService;
 import br.com.gymtime.service.TreinoService;
-import com.lowagie.text.Document;
-import com.lowagie.text.DocumentException;
-import com.lowagie.text.Font;
-import com.lowagie.text.FontFactory;
-import com.lowagie.text.PageSize;
-import com.lowagie.text.Paragraph;
-import com.lowagie.text.Phrase;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.PdfWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,8 +20,6 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -49,6 +38,7 @@ public class TreinoWebController {
 
     private final TreinoService treinoService;
     private final AlunoService alunoService;
+    private final TreinoPdfRenderer treinoPdfRenderer;
 
     /**
      * Exibe a lista de treinos para um aluno específico.
@@ -258,7 +248,7 @@ public class TreinoWebController {
         }
 
         try {
-            byte[] pdfBytes = generatePdfBytes(alunoOpt.get(), treinoOpt.get());
+            byte[] pdfBytes = treinoPdfRenderer.renderizar(alunoOpt.get(), treinoOpt.get());
 
             HttpHeaders headers = new HttpHeaders();
             String filename = "treino_" + alunoOpt.get().nome().replace(" ", "_") + ".pdf";
@@ -285,58 +275,4 @@ public class TreinoWebController {
         alunoOpt.ifPresent(aluno -> model.addAttribute("aluno", aluno));
         return alunoOpt;
     }
-
-    /**
-     * Gera os bytes de um arquivo PDF para uma ficha de treino.
-     * @param aluno O DTO do aluno.
-     * @param treino O DTO do treino.
-     * @return Um array de bytes contendo o PDF.
-     * @throws DocumentException Se ocorrer um erro durante a criação do documento.
-     */
-    private byte[] generatePdfBytes(AlunoResponseDTO aluno, TreinoResponseDTO treino) throws DocumentException {
-        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4);
-            PdfWriter.getInstance(document, baos);
-            document.open();
-
-            // Definição de fontes
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18);
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 14);
-            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 12);
-            Font tableHeaderFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11);
-            Font tableBodyFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-
-            // Conteúdo do PDF
-            document.add(new Paragraph("Ficha de Treino - GymTime", titleFont));
-            document.add(new Paragraph(" "));
-            document.add(new Paragraph("Aluno: " + aluno.nome(), normalFont));
-            document.add(new Paragraph("Treino: " + treino.nome(), normalFont));
-            if (treino.descricao() != null && !treino.descricao().isBlank()) {
-                document.add(new Paragraph("Descrição: " + treino.descricao(), normalFont));
-            }
-            document.add(new Paragraph(" "));
-            document.add(new Paragraph("Exercícios", headerFont));
-            document.add(new Paragraph(" "));
-
-            // Tabela de exercícios
-            PdfPTable table = new PdfPTable(2);
-            table.setWidthPercentage(100);
-            table.setWidths(new float[]{3f, 1.5f});
-
-            table.addCell(new PdfPCell(new Phrase("Exercício", tableHeaderFont)));
-            table.addCell(new PdfPCell(new Phrase("Séries/Repetições", tableHeaderFont)));
-
-            treino.exercicios().forEach(ex -> {
-                table.addCell(new Phrase(ex.nomeExercicio(), tableBodyFont));
-                table.addCell(new Phrase(ex.seriesRepeticoes() != null ? ex.seriesRepeticoes() : "-", tableBodyFont));
-            });
-
-            document.add(table);
-            document.close();
-
-            return baos.toByteArray();
-        } catch (IOException e) {
-            throw new DocumentException(e);
-        }
-    }
 }
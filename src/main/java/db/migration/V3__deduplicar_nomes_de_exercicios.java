@@ -0,0 +1,84 @@
+package db.migration;
+
+import br.com.gymtime.util.TextoUtils;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migração de dados que preenche o catálogo de exercícios (V2) a partir dos nomes já gravados em {@code exercicios}.
+ * <p>
+ * Os nomes são agrupados pela mesma normalização usada pela aplicação ({@link TextoUtils#normalizarParaBusca}),
+ * que o SQL do H2 não consegue reproduzir (remoção de acentos). Em cada grupo, a variação de escrita mais usada
+ * se torna o nome canônico do catálogo, e todos os exercícios do grupo passam a apontar para ela.
+ */
+public class V3__deduplicar_nomes_de_exercicios extends BaseJavaMigration {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    /**
+     * Variações de escrita de um mesmo exercício, da mais usada para a menos usada.
+     */
+    private static final class Grupo {
+        private final String nomeCanonico;
+        private final List<String> variacoes = new ArrayList<>();
+
+        private Grupo(String nomeCanonico) {
+            this.nomeCanonico = nomeCanonico;
+        }
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection conexao = context.getConnection();
+
+        Map<String, Grupo> grupos = new LinkedHashMap<>();
+        try (Statement consulta = conexao.createStatement();
+             ResultSet nomes = consulta.executeQuery(
+                     "select nome_exercicio, count(*) as usos from exercicios group by nome_exercicio order by usos desc, nome_exercicio")) {
+            while (nomes.next()) {
+                String nome = nomes.getString("nome_exercicio");
+                String chave = TextoUtils.normalizarParaBusca(nome);
+                grupos.computeIfAbsent(chave, c -> new Grupo(TextoUtils.colapsarEspacos(nome))).variacoes.add(nome);
+            }
+        }
+
+        try (PreparedStatement insercao = conexao.prepareStatement(
+                "insert into exercicio_catalogo (nome, nome_normalizado) values (?, ?)", Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement vinculo = conexao.prepareStatement(
+                     "update exercicios set catalogo_id = ? where nome_exercicio = ?")) {
+            int pendentes = 0;
+            for (Map.Entry<String, Grupo> grupo : grupos.entrySet()) {
+                insercao.setString(1, grupo.getValue().nomeCanonico);
+                insercao.setString(2, grupo.getKey());
+                insercao.executeUpdate();
+                long catalogoId;
+                try (ResultSet chaves = insercao.getGeneratedKeys()) {
+                    chaves.next();
+                    catalogoId = chaves.getLong(1);
+                }
+
+                for (String variacao : grupo.getValue().variacoes) {
+                    vinculo.setLong(1, catalogoId);
+                    vinculo.setString(2, variacao);
+                    vinculo.addBatch();
+                    if (++pendentes == TAMANHO_LOTE) {
+                        vinculo.executeBatch();
+                        pendentes = 0;
+                    }
+                }
+            }
+            if (pendentes > 0) {
+                vinculo.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- Outbox dos eventos de domínio (ver PublicadorEventos e DespachanteEventos).
+--
+-- Cada escrita de aluno ou treino grava aqui os seus eventos na mesma transação da alteração: ou os dois são
+-- confirmados, ou nenhum. O despachante lê as linhas em lotes, fora das requisições, entrega os eventos aos ouvintes
+-- do próprio processo e só então as remove. As linhas de um nó que parou (origem) são assumidas pelos outros depois
+-- de algum tempo. Com shards, cada shard tem o seu outbox, gravado junto com os dados do aluno.
+-- A tabela não faz parte dos snapshots (TabelaSnapshot): os eventos pendentes só interessam aos nós em execução.
+
+create table eventos_outbox (
+    id bigint generated by default as identity primary key,
+    entidade varchar(20) not null,
+    operacao varchar(10) not null,
+    entidade_id bigint not null,
+    academia_id bigint not null,
+    origem varchar(36) not null,
+    criado_em timestamp default localtimestamp not null
+);
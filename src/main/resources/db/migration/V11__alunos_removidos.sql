@@ -0,0 +1,18 @@
+-- Remoção lógica de alunos (ver AlunoServiceImpl#deleteAluno e ExpurgoAlunosRemovidos).
+--
+-- A remoção apenas preenche removido_em: o aluno e os seus treinos deixam de aparecer em todas as consultas da
+-- aplicação (@SQLRestriction nas entidades Aluno e Treino) e as linhas são apagadas depois, em lotes, pelo expurgo.
+--
+-- E-mail e CPF ficam livres assim que o aluno é removido: as restrições únicas passam a incluir removido_em, com
+-- NULLS NOT DISTINCT, de forma que só os alunos ativos (removido_em nulo) colidem entre si. Os índices mantêm o nome
+-- e as colunas iniciais, e continuam atendendo as buscas por e-mail e CPF.
+
+alter table alunos add column removido_em timestamp;
+
+drop index uk_alunos_email_busca;
+drop index uk_alunos_cpf;
+create unique nulls not distinct index uk_alunos_email_busca on alunos (academia_id, email_busca, removido_em);
+create unique nulls not distinct index uk_alunos_cpf on alunos (academia_id, cpf, removido_em);
+
+-- Usado pelo expurgo para encontrar os alunos removidos, normalmente poucos.
+create index idx_alunos_removido_em on alunos (removido_em);
@@ -0,0 +1,13 @@
+-- Batimentos das réplicas de leitura (ver SondaAtrasoReplica).
+--
+-- Com réplicas mantidas pela replicação do próprio banco, cada nó da aplicação grava periodicamente no primário um
+-- número de sequência crescente na sua linha (origem) e lê a mesma linha em cada réplica: o atraso é o tempo desde a
+-- gravação da primeira sequência que a réplica ainda não recebeu, medido pelo relógio do próprio nó. A coluna
+-- gravado_em serve apenas para remover as linhas dos nós que pararam.
+-- A tabela não faz parte dos snapshots (TabelaSnapshot).
+
+create table replica_batimentos (
+    origem varchar(36) primary key,
+    sequencia bigint not null,
+    gravado_em timestamp default localtimestamp not null
+);
@@ -0,0 +1,10 @@
+-- Reservas no diretório de alunos (ver DiretorioShards).
+--
+-- A linha de alunos_diretorio é gravada antes do commit do aluno no shard, em outra conexão, para reservar o e-mail e
+-- o CPF entre todos os shards. Enquanto o commit não é confirmado, pendente_desde guarda o instante da reserva (e, na
+-- remoção, o do pedido de remoção). Uma reserva que continua pendente depois de um tempo (o nó parou entre a
+-- gravação no diretório e o commit no shard) é conferida com o aluno no seu shard pela reconciliação.
+
+alter table alunos_diretorio add column pendente_desde timestamp;
+
+create index idx_alunos_diretorio_pendente on alunos_diretorio (pendente_desde);
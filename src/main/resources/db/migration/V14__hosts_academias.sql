@@ -0,0 +1,7 @@
+-- Host de cada academia na camada web (ver AcademiaFilter). O navegador não envia o header assinado pelo gateway;
+-- nas páginas web, a academia é identificada pelo host da requisição (ex: forca.gymtime.com.br). Academias sem host
+-- são acessadas apenas pela API.
+
+alter table academias add column host varchar(255);
+
+create unique index uk_academias_host on academias (host);
@@ -0,0 +1,27 @@
+-- Sequência das invalidações na ordem dos commits (ver BarramentoInvalidacaoBanco).
+--
+-- O ID da linha é atribuído na inserção, e não no commit: duas transações concorrentes podem tornar as linhas
+-- visíveis fora da ordem dos IDs, e um cliente do feed de alterações que retomasse do maior ID recebido perderia a
+-- linha de ID menor confirmada depois. A coluna sequencia é preenchida depois do commit, pelo nó que sincroniza,
+-- com o bloqueio da linha única de invalidacoes_sequencia: uma linha só recebe a sua posição quando todas as
+-- anteriores já estão visíveis. A sequência passa a ser o ID dos eventos do feed.
+--
+-- As linhas existentes já estão confirmadas e mantêm o ID como posição, para que os clientes conectados retomem
+-- de onde estavam.
+
+alter table invalidacoes add column sequencia bigint;
+
+update invalidacoes set sequencia = id;
+
+create unique index uk_invalidacoes_sequencia on invalidacoes (sequencia);
+
+create index idx_invalidacoes_academia_sequencia on invalidacoes (academia_id, sequencia);
+
+drop index idx_invalidacoes_academia;
+
+create table invalidacoes_sequencia (
+    id int primary key,
+    ultima bigint not null
+);
+
+insert into invalidacoes_sequencia (id, ultima) select 1, coalesce(max(id), 0) from invalidacoes;
@@ -0,0 +1,37 @@
+-- Esquema inicial do GymTime, equivalente ao gerado pelo Hibernate antes da adoção do Flyway.
+
+create table alunos (
+    id bigint generated by default as identity,
+    cpf varchar(11) not null,
+    email varchar(100) not null,
+    email_busca varchar(100) not null,
+    nome varchar(100) not null,
+    nome_busca varchar(100) not null,
+    telefone varchar(11),
+    primary key (id),
+    constraint uk_alunos_cpf unique (cpf),
+    constraint uk_alunos_email unique (email)
+);
+
+create index idx_alunos_nome_busca on alunos (nome_busca);
+create index idx_alunos_email_busca on alunos (email_busca);
+
+create table treinos (
+    id bigint generated by default as identity,
+    data_atualizacao date,
+    data_criacao date not null,
+    descricao varchar(500),
+    nome varchar(100) not null,
+    aluno_id bigint not null,
+    primary key (id),
+    constraint fk_treinos_aluno foreign key (aluno_id) references alunos (id)
+);
+
+create table exercicios (
+    id bigint generated by default as identity,
+    nome_exercicio varchar(150) not null,
+    series_repeticoes varchar(100),
+    treino_id bigint not null,
+    primary key (id),
+    constraint fk_exercicios_treino foreign key (treino_id) references treinos (id)
+);
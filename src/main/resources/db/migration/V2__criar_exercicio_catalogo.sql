@@ -0,0 +1,13 @@
+-- Catálogo de exercícios: cada nome distinto passa a ser gravado uma única vez.
+-- O nome normalizado (sem acentos, minúsculo e com espaços colapsados) identifica o exercício,
+-- de forma que "Supino reto", "supino Reto" e "Supino  reto" apontam para a mesma linha.
+
+create table exercicio_catalogo (
+    id bigint generated by default as identity,
+    nome varchar(150) not null,
+    nome_normalizado varchar(150) not null,
+    primary key (id),
+    constraint uk_exercicio_catalogo_nome_normalizado unique (nome_normalizado)
+);
+
+alter table exercicios add column catalogo_id bigint;
@@ -0,0 +1,10 @@
+-- Com todos os exercícios apontando para o catálogo (V3), o nome repetido em cada linha deixa de ser necessário.
+
+alter table exercicios alter column catalogo_id set not null;
+
+alter table exercicios
+    add constraint fk_exercicios_catalogo foreign key (catalogo_id) references exercicio_catalogo (id);
+
+create index idx_exercicios_catalogo on exercicios (catalogo_id);
+
+alter table exercicios drop column nome_exercicio;
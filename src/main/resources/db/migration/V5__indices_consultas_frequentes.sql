@@ -0,0 +1,32 @@
+-- Índices explícitos para as consultas mais frequentes.
+--
+-- Chaves estrangeiras: nem todo banco cria um índice para a coluna de uma FK (o H2 cria um, com nome gerado;
+-- o PostgreSQL, nenhum). Os índices passam a ser declarados aqui, com nome estável, e cada FK é recriada
+-- depois dele para que o H2 a associe ao índice declarado em vez de manter um segundo índice automático.
+--   treinos.aluno_id     -> TreinoRepository.findByAlunoId e a coleção Aluno.treinos
+--   exercicios.treino_id -> a coleção Treino.exercicios
+--   exercicios.catalogo_id (índice criado na V4, antes duplicado pelo índice automático da FK)
+--
+-- E-mail sem diferenciar maiúsculas: email_busca guarda lower(email) (mantido por Aluno.setEmail), o
+-- equivalente a um índice funcional sobre lower(email), que o H2 não suporta. O índice passa a ser único,
+-- de forma que "Ana@x.com" e "ana@x.com" não possam ser cadastrados como alunos diferentes.
+--
+-- Novas colunas de busca seguem o mesmo padrão: uma coluna normalizada (*_busca) com índice próprio,
+-- criada por uma nova migração.
+
+alter table treinos drop constraint fk_treinos_aluno;
+create index idx_treinos_aluno on treinos (aluno_id);
+alter table treinos
+    add constraint fk_treinos_aluno foreign key (aluno_id) references alunos (id);
+
+alter table exercicios drop constraint fk_exercicios_treino;
+create index idx_exercicios_treino on exercicios (treino_id);
+alter table exercicios
+    add constraint fk_exercicios_treino foreign key (treino_id) references treinos (id);
+
+alter table exercicios drop constraint fk_exercicios_catalogo;
+alter table exercicios
+    add constraint fk_exercicios_catalogo foreign key (catalogo_id) references exercicio_catalogo (id);
+
+drop index idx_alunos_email_busca;
+create unique index uk_alunos_email_busca on alunos (email_busca);
@@ -0,0 +1,16 @@
+-- Índice global de e-mail e CPF dos alunos, usado quando os alunos estão particionados em shards
+-- (gymtime.shard.habilitado=true, ver DiretorioShards). A tabela é preenchida apenas no banco de diretório;
+-- nos shards e com um único banco ela existe, mas fica vazia (a unicidade é garantida pelos índices de alunos).
+--
+-- Cada shard só enxerga os próprios alunos: os índices únicos abaixo garantem que um e-mail ou CPF não seja
+-- cadastrado em dois shards diferentes.
+
+create table alunos_diretorio (
+    aluno_id bigint not null,
+    email_busca varchar(100) not null,
+    cpf varchar(11) not null,
+    primary key (aluno_id)
+);
+
+create unique index uk_alunos_diretorio_email on alunos_diretorio (email_busca);
+create unique index uk_alunos_diretorio_cpf on alunos_diretorio (cpf);
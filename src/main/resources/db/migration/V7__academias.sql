@@ -0,0 +1,53 @@
+-- Várias academias na mesma instalação (ver ContextoAcademia). Cada aluno e cada treino pertence a uma academia,
+-- identificada pela coluna academia_id, e todas as consultas da aplicação filtram por ela (@TenantId do Hibernate).
+--
+-- academia_id é a primeira coluna de todos os índices e restrições únicas de alunos e treinos: as consultas de uma
+-- academia percorrem apenas o intervalo dela no índice, e e-mail e CPF passam a ser únicos dentro de cada academia.
+-- A chave estrangeira de treinos inclui a academia, de forma que um treino não possa apontar para um aluno de outra.
+-- Os exercícios são acessados apenas pelo treino (treino_id) e o catálogo de exercícios é compartilhado; as duas
+-- tabelas não têm a coluna.
+--
+-- Os dados existentes ficam na academia 1. O valor padrão da coluna também mantém os snapshots anteriores a esta
+-- migração e os dados sintéticos (perfil seed) na academia 1.
+
+create table academias (
+    id bigint generated by default as identity,
+    nome varchar(100) not null,
+    primary key (id)
+);
+
+insert into academias (id, nome) values (1, 'GymTime');
+alter table academias alter column id restart with 2;
+
+alter table alunos add column academia_id bigint default 1 not null;
+alter table treinos add column academia_id bigint default 1 not null;
+update treinos t set academia_id = (select a.academia_id from alunos a where a.id = t.aluno_id);
+
+alter table treinos drop constraint fk_treinos_aluno;
+alter table alunos drop constraint uk_alunos_cpf;
+alter table alunos drop constraint uk_alunos_email;
+drop index uk_alunos_email_busca;
+drop index idx_alunos_nome_busca;
+drop index idx_treinos_aluno;
+
+-- Como na V5, os índices usados pelas restrições são declarados antes delas, com nome estável (o H2 só reaproveita
+-- um índice com exatamente as mesmas colunas).
+create index idx_alunos_academia on alunos (academia_id);
+create unique index idx_alunos_academia_id on alunos (academia_id, id);
+alter table alunos add constraint uk_alunos_academia_id unique (academia_id, id);
+create unique index uk_alunos_email_busca on alunos (academia_id, email_busca);
+create unique index uk_alunos_cpf on alunos (academia_id, cpf);
+create index idx_alunos_nome_busca on alunos (academia_id, nome_busca);
+alter table alunos
+    add constraint fk_alunos_academia foreign key (academia_id) references academias (id);
+
+create index idx_treinos_aluno on treinos (academia_id, aluno_id);
+alter table treinos
+    add constraint fk_treinos_aluno foreign key (academia_id, aluno_id) references alunos (academia_id, id);
+
+-- Índice global do modo com shards (V6): e-mail e CPF únicos por academia.
+alter table alunos_diretorio add column academia_id bigint default 1 not null;
+drop index uk_alunos_diretorio_email;
+drop index uk_alunos_diretorio_cpf;
+create unique index uk_alunos_diretorio_email on alunos_diretorio (academia_id, email_busca);
+create unique index uk_alunos_diretorio_cpf on alunos_diretorio (academia_id, cpf);
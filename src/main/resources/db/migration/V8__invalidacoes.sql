@@ -0,0 +1,17 @@
+-- Invalidações dos dados em memória de cada nó (ver BarramentoInvalidacaoBanco).
+--
+-- Cada escrita de aluno ou treino grava aqui, após o commit, o ID da entidade alterada e o nó que a fez (origem).
+-- Os outros nós leem as linhas novas periodicamente e atualizam os seus índices em memória. As linhas são
+-- descartadas depois do tempo de retenção, que precisa ser bem maior que o intervalo de leitura.
+-- A tabela não faz parte dos snapshots (TabelaSnapshot): as invalidações só interessam aos nós em execução.
+
+create table invalidacoes (
+    id bigint generated by default as identity primary key,
+    entidade varchar(20) not null,
+    entidade_id bigint not null,
+    academia_id bigint not null,
+    origem varchar(36) not null,
+    criada_em timestamp default current_timestamp not null
+);
+
+create index idx_invalidacoes_criada_em on invalidacoes (criada_em);
@@ -0,0 +1,7 @@
+-- Feed de alterações (GET /api/v1/changes, ver FeedAlteracoes): cada linha de invalidacoes passa a registrar a
+-- operação que a gerou. O ID da linha, crescente em todo o cluster, é o ID do evento enviado aos clientes e a
+-- versão da entidade informada no evento. As linhas anteriores ficam como atualizações.
+
+alter table invalidacoes add column operacao varchar(10) default 'ATUALIZADO' not null;
+
+create index idx_invalidacoes_academia on invalidacoes (academia_id, id);
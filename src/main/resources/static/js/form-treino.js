@@ -1,3 +1,6 @@
+/** Tempo de espera (ms) após a última tecla antes de consultar as sugestões de exercícios. */
+const DEBOUNCE_SUGESTOES_EXERCICIOS_MS = 200;
+
 /**
  * Adiciona os listeners de evento quando o conteúdo do DOM estiver totalmente carregado.
  * Configura a lógica de formulário dinâmico para os containers de exercícios.
@@ -16,6 +19,9 @@ document.addEventListener('DOMContentLoaded', () => {
     if (updateContainer && updateAddButton) {
         setupDynamicExerciseHandling(updateContainer, updateAddButton, '-update');
     }
+
+    // Sugestões do catálogo de exercícios para todos os campos de nome de exercício
+    setupSugestoesExercicios(document.getElementById('sugestoesExercicios'));
 });
 
 /**
@@ -33,7 +39,7 @@ function setupDynamicExerciseHandling(container, addButton, idSuffix) {
         newExercicioDiv.classList.add('exercise-item');
         newExercicioDiv.innerHTML = `
             <label for="exercicios[${newIndex}].nomeExercicio${idSuffix}">Exercício:</label>
-            <input type="text" id="exercicios[${newIndex}].nomeExercicio${idSuffix}" name="exercicios[${newIndex}].nomeExercicio" placeholder="Nome do Exercício"/>
+            <input type="text" id="exercicios[${newIndex}].nomeExercicio${idSuffix}" name="exercicios[${newIndex}].nomeExercicio" placeholder="Nome do Exercício" list="sugestoesExercicios" autocomplete="off"/>
             <div class="error-message"></div>
 
             <label for="exercicios[${newIndex}].seriesRepeticoes${idSuffix}">Séries/Rep:</label>
@@ -80,4 +86,43 @@ function reindexExercises(container, idSuffix) {
             seriesInput.name = `exercicios[${index}].seriesRepeticoes`;
         }
     });
-}
\ No newline at end of file
+}
+
+/**
+ * Preenche o datalist de sugestões com os nomes do catálogo de exercícios enquanto o usuário digita.
+ * Um único listener (delegado no documento) atende tanto os campos renderizados pelo servidor quanto os
+ * adicionados dinamicamente. Respostas que chegam fora de ordem são descartadas.
+ * @param {HTMLDataListElement} datalist - O datalist compartilhado, com a URL da API no atributo data-url.
+ */
+function setupSugestoesExercicios(datalist) {
+    if (!datalist) return;
+    let temporizador = null;
+    let ultimaConsulta = 0;
+
+    document.addEventListener('input', (event) => {
+        const input = event.target;
+        if (!input.matches || !input.matches('input[list="sugestoesExercicios"]')) return;
+
+        clearTimeout(temporizador);
+        const prefixo = input.value.trim();
+        if (prefixo.length === 0) return;
+
+        temporizador = setTimeout(async () => {
+            const consulta = ++ultimaConsulta;
+            try {
+                const url = datalist.dataset.url + '?' + new URLSearchParams({ prefix: prefixo, limit: 10 });
+                const resposta = await fetch(url, { headers: { 'Accept': 'application/json' } });
+                if (resposta.ok && consulta === ultimaConsulta) {
+                    const sugestoes = await resposta.json();
+                    datalist.replaceChildren(...sugestoes.map(sugestao => {
+                        const opcao = document.createElement('option');
+                        opcao.value = sugestao.nomeExercicio;
+                        return opcao;
+                    }));
+                }
+            } catch (erro) {
+                // Sem sugestões: o campo continua aceitando qualquer nome.
+            }
+        }, DEBOUNCE_SUGESTOES_EXERCICIOS_MS);
+    });
+}
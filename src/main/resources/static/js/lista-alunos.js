@@ -0,0 +1,161 @@
+/**
+ * Navegação parcial e busca instantânea da listagem de alunos.
+ * Links marcados com "data-parcial" (paginação e ordenação) e o formulário de busca buscam apenas
+ * o fragmento da tabela (header HX-Request), que substitui a tabela atual sem recarregar a página.
+ * Enquanto o usuário digita, sugestões são buscadas na API de busca instantânea (com debounce).
+ * Sem JavaScript, os mesmos links e o formulário funcionam como navegação comum.
+ */
+
+/** Tempo de espera (ms) após a última tecla antes de consultar as sugestões. */
+const DEBOUNCE_SUGESTOES_MS = 250;
+
+/** Quantidade mínima de caracteres para consultar as sugestões. */
+const MINIMO_CARACTERES_SUGESTOES = 2;
+
+document.addEventListener('DOMContentLoaded', () => {
+    const buscaForm = document.getElementById('buscaAlunosForm');
+
+    // Paginação e ordenação
+    document.addEventListener('click', (event) => {
+        const link = event.target.closest('a[data-parcial]');
+        if (link) {
+            event.preventDefault();
+            carregarTabelaAlunos(link.href);
+        }
+    });
+
+    // Busca
+    if (buscaForm) {
+        buscaForm.addEventListener('submit', (event) => {
+            event.preventDefault();
+            esconderSugestoes();
+            carregarTabelaAlunos(urlDaBusca(buscaForm));
+        });
+        configurarSugestoes(buscaForm);
+    }
+
+    // Botões voltar/avançar do navegador
+    window.addEventListener('popstate', () => carregarTabelaAlunos(window.location.href, false));
+});
+
+/**
+ * Monta a URL de busca a partir dos campos do formulário, sempre voltando para a primeira página.
+ * @param {HTMLFormElement} form O formulário de busca.
+ * @returns {string} A URL da listagem com os parâmetros da busca.
+ */
+function urlDaBusca(form) {
+    const params = new URLSearchParams(new FormData(form));
+    return form.action + '?' + params.toString();
+}
+
+/**
+ * Busca o fragmento da tabela na URL informada e substitui a tabela atual.
+ * Em caso de falha, faz a navegação completa para a mesma URL.
+ * @param {string} url A URL da listagem (com página, ordenação e busca).
+ * @param {boolean} registrarHistorico Se a URL deve ser registrada no histórico do navegador.
+ */
+async function carregarTabelaAlunos(url, registrarHistorico = true) {
+    try {
+        const resposta = await fetch(url, { headers: { 'HX-Request': 'true' } });
+        if (!resposta.ok) {
+            throw new Error('Status ' + resposta.status);
+        }
+        document.getElementById('tabelaAlunos').outerHTML = await resposta.text();
+        if (registrarHistorico) {
+            history.pushState(null, '', url);
+        }
+    } catch (erro) {
+        window.location.href = url;
+    }
+}
+
+/**
+ * Configura as sugestões instantâneas no campo de busca.
+ * Cada tecla reinicia o temporizador; a consulta só é feita quando o usuário para de digitar.
+ * Respostas que chegam fora de ordem são descartadas.
+ * @param {HTMLFormElement} form O formulário de busca, com as URLs nos atributos data-*.
+ */
+function configurarSugestoes(form) {
+    const input = document.getElementById('buscaAlunos');
+    let temporizador = null;
+    let ultimaConsulta = 0;
+
+    input.addEventListener('input', () => {
+        clearTimeout(temporizador);
+        const termo = input.value.trim();
+        if (termo.length < MINIMO_CARACTERES_SUGESTOES) {
+            esconderSugestoes();
+            return;
+        }
+        temporizador = setTimeout(async () => {
+            const consulta = ++ultimaConsulta;
+            try {
+                const url = form.dataset.sugestoesUrl + '?' + new URLSearchParams({ q: termo, limit: 8 });
+                const resposta = await fetch(url, { headers: { 'Accept': 'application/json' } });
+                if (resposta.ok && consulta === ultimaConsulta) {
+                    exibirSugestoes(await resposta.json(), form.dataset.treinosUrl);
+                }
+            } catch (erro) {
+                esconderSugestoes();
+            }
+        }, DEBOUNCE_SUGESTOES_MS);
+    });
+
+    input.addEventListener('keydown', (event) => {
+        if (event.key === 'Escape') {
+            esconderSugestoes();
+        }
+    });
+
+    document.addEventListener('click', (event) => {
+        if (!event.target.closest('.autocomplete')) {
+            esconderSugestoes();
+        }
+    });
+}
+
+/**
+ * Exibe a lista de sugestões, cada uma levando à página de treinos do aluno.
+ * @param {Array<{id: number, nome: string, cpf: string, telefone: string}>} alunos Os alunos sugeridos.
+ * @param {string} treinosUrl A URL base das páginas de alunos ("/web/alunos/").
+ */
+function exibirSugestoes(alunos, treinosUrl) {
+    const lista = document.getElementById('sugestoesAlunos');
+    lista.replaceChildren(...alunos.map(aluno => {
+        const item = document.createElement('li');
+        item.setAttribute('role', 'option');
+        const link = document.createElement('a');
+        link.href = treinosUrl + aluno.id + '/treinos';
+        link.textContent = aluno.nome + ' ';
+        const detalhe = document.createElement('small');
+        detalhe.textContent = formatarCpf(aluno.cpf);
+        link.appendChild(detalhe);
+        item.appendChild(link);
+        return item;
+    }));
+    lista.hidden = alunos.length === 0;
+    document.getElementById('buscaAlunos').setAttribute('aria-expanded', String(!lista.hidden));
+}
+
+/**
+ * Esconde e limpa a lista de sugestões.
+ */
+function esconderSugestoes() {
+    const lista = document.getElementById('sugestoesAlunos');
+    if (lista) {
+        lista.hidden = true;
+        lista.replaceChildren();
+        document.getElementById('buscaAlunos').setAttribute('aria-expanded', 'false');
+    }
+}
+
+/**
+ * Formata um CPF de 11 dígitos no padrão XXX.XXX.XXX-XX.
+ * @param {string} cpf O CPF contendo apenas dígitos.
+ * @returns {string} O CPF formatado, ou o valor original se não tiver 11 dígitos.
+ */
+function formatarCpf(cpf) {
+    return cpf && cpf.length === 11
+        ? cpf.replace(/(\d{3})(\d{3})(\d{3})(\d{2})/, '$1.$2.$3-$4')
+        : (cpf || '');
+}
@@ -0,0 +1,181 @@
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo até a primeira requisição da aplicação empacotada pelo profile Maven {@code inicio-rapido}.
+ * <p>
+ * Para cada modo, a aplicação é iniciada {@code repeticoes} vezes em um processo novo; o tempo medido vai do
+ * início do processo até a primeira resposta 200 de {@code GET /actuator/health}. Os modos comparados são:
+ * <ul>
+ *     <li>{@code padrao}: o mesmo jar, sem AOT e sem o arquivo CDS (referência);</li>
+ *     <li>{@code aot}: com {@code -Dspring.aot.enabled=true};</li>
+ *     <li>{@code aot-cds}: com AOT e com o arquivo AppCDS gerado pela execução de treino do build.</li>
+ * </ul>
+ * Programa de arquivo único, executado diretamente pelo launcher do Java ({@code java TempoDeInicializacao.java}),
+ * para que não entre no classpath da aplicação. Parâmetros no formato {@code chave=valor}:
+ * jar, cds, saida, repeticoes (padrão 5), porta (padrão 8097), modos (padrão padrao,aot,aot-cds),
+ * tempo-limite (segundos, padrão 120) e jvm (opções extras da JVM, separadas por vírgula).
+ * O relatório é gravado em {@code <saida>/inicializacao.json}; a saída de cada execução, em {@code <saida>/<modo>-<n>.log}.
+ */
+public class TempoDeInicializacao {
+
+    private static final Duration INTERVALO_SONDAGEM = Duration.ofMillis(10);
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> parametros = lerParametros(args);
+        Path jar = Path.of(obrigatorio(parametros, "jar"));
+        Path cds = Path.of(obrigatorio(parametros, "cds"));
+        Path saida = Path.of(parametros.getOrDefault("saida", "target/inicializacao"));
+        int repeticoes = Integer.parseInt(parametros.getOrDefault("repeticoes", "5"));
+        int porta = Integer.parseInt(parametros.getOrDefault("porta", "8097"));
+        Duration tempoLimite = Duration.ofSeconds(Long.parseLong(parametros.getOrDefault("tempo-limite", "120")));
+        List<String> modos = Arrays.asList(parametros.getOrDefault("modos", "padrao,aot,aot-cds").split(","));
+        List<String> jvmExtra = parametros.containsKey("jvm") ? Arrays.asList(parametros.get("jvm").split(",")) : List.of();
+
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Jar não encontrado: " + jar + ". Execute mvn -P inicio-rapido -DskipTests verify.");
+        }
+        Files.createDirectories(saida);
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        URI health = URI.create("http://localhost:" + porta + "/actuator/health");
+
+        Map<String, long[]> resultados = new HashMap<>();
+        for (String modo : modos) {
+            List<String> comando = new ArrayList<>();
+            comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            comando.addAll(jvmExtra);
+            switch (modo) {
+                case "padrao" -> { }
+                case "aot" -> comando.add("-Dspring.aot.enabled=true");
+                case "aot-cds" -> {
+                    if (!Files.isRegularFile(cds)) {
+                        throw new IllegalArgumentException("Arquivo CDS não encontrado: " + cds);
+                    }
+                    comando.add("-Dspring.aot.enabled=true");
+                    comando.add("-XX:SharedArchiveFile=" + cds);
+                    comando.add("-Xshare:on");
+                }
+                default -> throw new IllegalArgumentException("Modo desconhecido: " + modo);
+            }
+            comando.addAll(List.of("-jar", jar.toString(), "--server.port=" + porta));
+
+            long[] tempos = new long[repeticoes];
+            for (int i = 0; i < repeticoes; i++) {
+                File log = saida.resolve(modo + "-" + (i + 1) + ".log").toFile();
+                tempos[i] = medir(comando, log, cliente, health, tempoLimite);
+                System.out.printf(Locale.ROOT, "%-8s #%d: %,d ms%n", modo, i + 1, tempos[i]);
+            }
+            Arrays.sort(tempos);
+            resultados.put(modo, tempos);
+        }
+
+        String relatorio = relatorio(modos, resultados, repeticoes);
+        Files.writeString(saida.resolve("inicializacao.json"), relatorio);
+        System.out.println();
+        System.out.println("Tempo até a primeira requisição (mediana de " + repeticoes + " execuções)");
+        long referencia = resultados.containsKey("padrao") ? mediana(resultados.get("padrao")) : 0;
+        for (String modo : modos) {
+            long[] tempos = resultados.get(modo);
+            String ganho = referencia > 0 && !modo.equals("padrao")
+                    ? String.format(Locale.ROOT, "  (%.0f%% do padrão)", 100.0 * mediana(tempos) / referencia)
+                    : "";
+            System.out.printf(Locale.ROOT, "  %-8s %,6d ms  [mín %,d / máx %,d]%s%n",
+                    modo, mediana(tempos), tempos[0], tempos[tempos.length - 1], ganho);
+        }
+        System.out.println("Relatório: " + saida.resolve("inicializacao.json"));
+    }
+
+    /**
+     * Inicia a aplicação, aguarda a primeira resposta 200 do health check e encerra o processo.
+     *
+     * @return O tempo, em milissegundos, entre o início do processo e a primeira resposta.
+     */
+    private static long medir(List<String> comando, File log, HttpClient cliente, URI health, Duration tempoLimite)
+            throws IOException, InterruptedException {
+        HttpRequest requisicao = HttpRequest.newBuilder(health).timeout(Duration.ofSeconds(5)).GET().build();
+        long inicio = System.nanoTime();
+        Process processo = new ProcessBuilder(comando).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (true) {
+                if (!processo.isAlive()) {
+                    throw new IllegalStateException("A aplicação terminou antes de responder (código "
+                            + processo.exitValue() + "). Ver " + log);
+                }
+                if (System.nanoTime() - inicio > tempoLimite.toNanos()) {
+                    throw new IllegalStateException("A aplicação não respondeu em " + tempoLimite.toSeconds() + " s. Ver " + log);
+                }
+                try {
+                    if (cliente.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                    }
+                } catch (ConnectException e) {
+                    // A porta ainda não está aberta.
+                }
+                Thread.sleep(INTERVALO_SONDAGEM.toMillis());
+            }
+        } finally {
+            processo.destroy();
+            if (!processo.waitFor(30, TimeUnit.SECONDS)) {
+                processo.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String relatorio(List<String> modos, Map<String, long[]> resultados, int repeticoes) {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"java\": \"").append(System.getProperty("java.version")).append("\",\n");
+        json.append("  \"processadores\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"repeticoes\": ").append(repeticoes).append(",\n");
+        json.append("  \"modos\": {\n");
+        for (int m = 0; m < modos.size(); m++) {
+            long[] tempos = resultados.get(modos.get(m));
+            json.append("    \"").append(modos.get(m)).append("\": {")
+                    .append("\"medianaMs\": ").append(mediana(tempos))
+                    .append(", \"minimoMs\": ").append(tempos[0])
+                    .append(", \"maximoMs\": ").append(tempos[tempos.length - 1])
+                    .append(", \"execucoesMs\": ").append(Arrays.toString(tempos))
+                    .append('}').append(m < modos.size() - 1 ? ",\n" : "\n");
+        }
+        return json.append("  }\n}\n").toString();
+    }
+
+    private static long mediana(long[] ordenados) {
+        int meio = ordenados.length / 2;
+        return ordenados.length % 2 == 1 ? ordenados[meio] : (ordenados[meio - 1] + ordenados[meio]) / 2;
+    }
+
+    private static Map<String, String> lerParametros(String[] args) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String arg : args) {
+            int separador = arg.indexOf('=');
+            if (separador < 1) {
+                throw new IllegalArgumentException("Parâmetro inválido (esperado chave=valor): " + arg);
+            }
+            parametros.put(arg.substring(0, separador), arg.substring(separador + 1));
+        }
+        return parametros;
+    }
+
+    private static String obrigatorio(Map<String, String> parametros, String chave) {
+        String valor = parametros.get(chave);
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("Parâmetro obrigatório ausente: " + chave);
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.AcademiaFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Cria as academias usadas pelos testes.
+ * <p>
+ * Os contextos de teste compartilham o mesmo banco em memória. Cada classe de teste cria as suas academias em um
+ * {@code @BeforeAll}, com o ID gerado pelo banco, para não alterar os dados da academia padrão nem os de outra classe.
+ */
+final class AcademiasDeTeste {
+
+    /**
+     * A chave do gateway definida no profile dev (application-dev.properties).
+     */
+    static final String CHAVE_GATEWAY = "gymtime-gateway-de-desenvolvimento-nao-usar-em-producao";
+
+    private AcademiasDeTeste() {
+    }
+
+    /**
+     * @return O ID da academia criada.
+     */
+    static long criar(JdbcTemplate jdbcTemplate, String nome) {
+        KeyHolder chave = new GeneratedKeyHolder();
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement instrucao = conexao.prepareStatement("insert into academias (nome) values (?)", new String[]{"id"});
+            instrucao.setString(1, nome);
+            return instrucao;
+        }, chave);
+        return chave.getKey().longValue();
+    }
+
+    /**
+     * Identifica a academia da requisição como o gateway: o header {@value AcademiaFilter#HEADER} com a sua assinatura.
+     */
+    static RequestPostProcessor doGateway(long academia) {
+        return requisicao -> {
+            requisicao.addHeader(AcademiaFilter.HEADER, academia);
+            requisicao.addHeader(AcademiaFilter.HEADER_ASSINATURA, AcademiaFilter.assinar(CHAVE_GATEWAY, academia));
+            return requisicao;
+        };
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.repository.AcademiaRepository;
+import br.com.gymtime.repository.AlunoRepository;
+import br.com.gymtime.search.AlunoSearchIndex;
+import br.com.gymtime.shard.RoteadorShards;
+import br.com.gymtime.shard.Shards;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Índice em memória da busca instantânea de alunos, sem banco: busca por prefixo, limite de resultados,
+ * isolamento entre academias, remoção e reconstrução concorrente com as alterações.
+ */
+class AlunoSearchIndexTests {
+
+    private static final long ACADEMIA = 7L;
+    private static final long OUTRA_ACADEMIA = 8L;
+
+    private final AlunoRepository alunoRepository = mock(AlunoRepository.class);
+    private final AcademiaRepository academiaRepository = mock(AcademiaRepository.class);
+    private final AlunoSearchIndex indice = new AlunoSearchIndex(alunoRepository, academiaRepository,
+            new Shards(new StaticListableBeanFactory().getBeanProvider(RoteadorShards.class), null), null);
+
+    @Test
+    void encontraPorPrefixoDoNomeDoCpfOuDoTelefone() {
+        indexar(ACADEMIA, aluno(1L, "Ana Júlia Silva", "52998224725", "11987654321"));
+        indexar(ACADEMIA, aluno(2L, "Bruno Souza", "11144477735", "2132654321"));
+
+        assertThat(ids(ACADEMIA, "SIL")).containsExactly(1L);
+        assertThat(ids(ACADEMIA, "julia ana")).containsExactly(1L);
+        assertThat(ids(ACADEMIA, "ana sou")).isEmpty();
+        assertThat(ids(ACADEMIA, "529.982")).containsExactly(1L);
+        assertThat(ids(ACADEMIA, "(21) 3265")).containsExactly(2L);
+        assertThat(ids(ACADEMIA, "3265")).containsExactly(2L);
+        assertThat(ids(ACADEMIA, " ")).isEmpty();
+    }
+
+    @Test
+    void devolveNoMaximoOLimiteComAsCorrespondenciasExatasPrimeiro() {
+        IntStream.rangeClosed(1, 50).forEach(i -> indexar(ACADEMIA, aluno((long) i, "Anabela Numero", null, null)));
+        indexar(ACADEMIA, aluno(100L, "Ana Numero", null, null));
+
+        List<AlunoSearchResultDTO> resultados = buscar(ACADEMIA, "ana", 10);
+
+        assertThat(resultados).hasSize(10);
+        assertThat(resultados.get(0).id()).isEqualTo(100L);
+        assertThat(buscar(ACADEMIA, "ana", 0)).isEmpty();
+    }
+
+    @Test
+    void buscaApenasNaAcademiaAtual() {
+        indexar(ACADEMIA, aluno(1L, "Carla Dias", null, null));
+        indexar(OUTRA_ACADEMIA, aluno(2L, "Carla Dantas", null, null));
+
+        assertThat(ids(ACADEMIA, "carla")).containsExactly(1L);
+        assertThat(ids(OUTRA_ACADEMIA, "carla")).containsExactly(2L);
+        assertThat(ids(OUTRA_ACADEMIA, "dias")).isEmpty();
+    }
+
+    @Test
+    void remocaoEReindexacaoRetiramOsTermosAntigos() {
+        indexar(ACADEMIA, aluno(1L, "Davi Lima", "52998224725", null));
+        indexar(ACADEMIA, aluno(2L, "Davi Rocha", null, null));
+
+        indexar(ACADEMIA, aluno(1L, "Davi Moreira", "52998224725", null));
+        assertThat(ids(ACADEMIA, "lima")).isEmpty();
+        assertThat(ids(ACADEMIA, "mor")).containsExactly(1L);
+        assertThat(ids(ACADEMIA, "davi")).containsExactlyInAnyOrder(1L, 2L);
+
+        indice.remover(1L);
+        assertThat(ids(ACADEMIA, "davi")).containsExactly(2L);
+        assertThat(ids(ACADEMIA, "5299")).isEmpty();
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void reconstrucaoPreservaAsAlteracoesFeitasDuranteALeituraDoBanco() {
+        indexar(ACADEMIA, aluno(9L, "Fantasma Antigo", null, null));
+        when(academiaRepository.findAllIds()).thenReturn(List.of(ACADEMIA));
+        when(alunoRepository.findAllParaBusca()).thenAnswer(invocacao -> {
+            // Commits de outras requisições enquanto o banco é lido: a leitura já não vê o aluno 2 e não vê o 3.
+            indexar(ACADEMIA, aluno(3L, "Elisa Nova", null, null));
+            indice.remover(2L);
+            return List.of(aluno(1L, "Elisa Antiga", null, null), aluno(2L, "Elisa Removida", null, null));
+        });
+
+        indice.construir();
+
+        assertThat(ids(ACADEMIA, "elisa")).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(ids(ACADEMIA, "fantasma")).isEmpty();
+        assertThat(indice.tamanho()).isEqualTo(2);
+    }
+
+    private void indexar(long academia, AlunoSearchResultDTO aluno) {
+        ContextoAcademia.executar(academia, () -> {
+            indice.indexar(aluno);
+            return null;
+        });
+    }
+
+    private List<AlunoSearchResultDTO> buscar(long academia, String consulta, int limite) {
+        return ContextoAcademia.executar(academia, () -> indice.buscar(consulta, limite));
+    }
+
+    private List<Long> ids(long academia, String consulta) {
+        return buscar(academia, consulta, 20).stream().map(AlunoSearchResultDTO::id).toList();
+    }
+
+    private static AlunoSearchResultDTO aluno(Long id, String nome, String cpf, String telefone) {
+        return new AlunoSearchResultDTO(id, nome, nome.toLowerCase().replace(' ', '.') + "@gymtime.test", telefone, cpf);
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoSummaryDTO;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.util.DocumentoUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Listagem paginada de alunos com busca por prefixo de nome, e-mail ou CPF: paginação, escape dos curingas do
+ * {@code like}, ordenação restrita aos campos permitidos e o fragmento {@code tabela} da tela de listagem.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BuscaAlunosTests {
+
+    /**
+     * Academia própria desta classe, criada em {@code @BeforeAll} (ver {@link AcademiasDeTeste}).
+     */
+    private long academia;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void criarAlunos() {
+        academia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Busca");
+        criar("Bruna Busca", "bruna.busca@gymtime.test", 996_000_001);
+        criar("Bruno Busca", "bru_no@gymtime.test", 996_000_002);
+        criar("Brenda Busca", "brenda@gymtime.test", 996_000_003);
+        // Encontrado pelo e-mail, não pelo nome.
+        criar("Carlos Busca", "bruto.carlos@gymtime.test", 996_000_004);
+        criar("Dalva Busca", "dalva@gymtime.test", 996_000_005);
+    }
+
+    @Test
+    void buscaPorPrefixoDeNomeEmailOuCpfSemRepetirAlunos() {
+        assertThat(nomes(buscar("bru", PageRequest.of(0, 20))))
+                .containsExactly("Bruna Busca", "Bruno Busca", "Carlos Busca");
+        // "Bruna" casa pelo nome e pelo e-mail, e aparece uma única vez.
+        assertThat(buscar("bruna", PageRequest.of(0, 20)).getTotalElements()).isEqualTo(1);
+        assertThat(nomes(buscar("BRÉ", PageRequest.of(0, 20)))).containsExactly("Brenda Busca");
+        assertThat(nomes(buscar("996.000.005", PageRequest.of(0, 20)))).containsExactly("Dalva Busca");
+        assertThat(buscar("99600000", PageRequest.of(0, 20)).getTotalElements()).isEqualTo(5);
+    }
+
+    @Test
+    void paginaOsResultadosDaBusca() {
+        Page<AlunoSummaryDTO> primeira = buscar("b", PageRequest.of(0, 2, Sort.by("nome")));
+        Page<AlunoSummaryDTO> segunda = buscar("b", PageRequest.of(1, 2, Sort.by("nome")));
+
+        assertThat(primeira.getTotalElements()).isEqualTo(4);
+        assertThat(primeira.getTotalPages()).isEqualTo(2);
+        assertThat(nomes(primeira)).containsExactly("Brenda Busca", "Bruna Busca");
+        assertThat(nomes(segunda)).containsExactly("Bruno Busca", "Carlos Busca");
+        assertThat(buscar("b", PageRequest.of(2, 2, Sort.by("nome"))).getContent()).isEmpty();
+    }
+
+    @Test
+    void curingasDoTermoSaoTratadosComoTexto() {
+        // Sem o escape, "_" casaria qualquer caractere e "%" qualquer sequência.
+        assertThat(nomes(buscar("bru_", PageRequest.of(0, 20)))).containsExactly("Bruno Busca");
+        assertThat(buscar("%", PageRequest.of(0, 20)).getTotalElements()).isZero();
+        assertThat(buscar("b%a", PageRequest.of(0, 20)).getTotalElements()).isZero();
+        assertThat(buscar("\\", PageRequest.of(0, 20)).getTotalElements()).isZero();
+    }
+
+    @Test
+    void ordenacaoAceitaApenasOsCamposPermitidos() {
+        assertThat(nomes(buscar("b", PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "nome")))))
+                .containsExactly("Carlos Busca", "Bruno Busca", "Bruna Busca", "Brenda Busca");
+        assertThat(nomes(buscar("b", PageRequest.of(0, 20, Sort.by("email")))))
+                .containsExactly("Brenda Busca", "Bruno Busca", "Bruna Busca", "Carlos Busca");
+        // Campos fora da lista (ou nomes de coluna) são descartados, e vale a ordenação padrão por nome.
+        assertThat(nomes(buscar("b", PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "telefone")))))
+                .containsExactly("Brenda Busca", "Bruna Busca", "Bruno Busca", "Carlos Busca");
+        assertThat(nomes(buscar("b", PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "nome_busca")))))
+                .containsExactly("Brenda Busca", "Bruna Busca", "Bruno Busca", "Carlos Busca");
+    }
+
+    @Test
+    void requisicaoParcialRenderizaApenasOFragmentoDaTabela() throws Exception {
+        mockMvc.perform(get("/web/alunos").param("q", "bru").param("sort", "nome,desc")
+                        .with(AcademiasDeTeste.doGateway(academia))
+                        .header("HX-Request", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("id=\"tabelaAlunos\"")))
+                .andExpect(content().string(containsString("Carlos Busca")))
+                .andExpect(content().string(not(containsString("Dalva Busca"))))
+                .andExpect(content().string(not(containsString("<html"))));
+
+        mockMvc.perform(get("/web/alunos").param("q", "bru").with(AcademiasDeTeste.doGateway(academia)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("<html")))
+                .andExpect(content().string(containsString("id=\"tabelaAlunos\"")));
+    }
+
+    private void criar(String nome, String email, long base) {
+        ContextoAcademia.executar(academia, () -> alunoService.createAluno(
+                new AlunoCreateDTO(nome, email, "11900000000", DocumentoUtils.gerarCpf(base))));
+    }
+
+    private Page<AlunoSummaryDTO> buscar(String termo, Pageable pageable) {
+        return ContextoAcademia.executar(academia, () -> alunoService.getAlunosPaginados(termo, pageable));
+    }
+
+    private static List<String> nomes(Page<AlunoSummaryDTO> pagina) {
+        return pagina.getContent().stream().map(AlunoSummaryDTO::nome).toList();
+    }
+}
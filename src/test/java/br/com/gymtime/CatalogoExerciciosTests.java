@@ -0,0 +1,81 @@
+package br.com.gymtime;
+
+import br.com.gymtime.model.ExercicioCatalogo;
+import br.com.gymtime.shard.DiretorioGlobal;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Catálogo de exercícios: criação concorrente de um mesmo nome e a migração V3, que deduplicou os nomes já gravados.
+ */
+@SpringBootTest
+class CatalogoExerciciosTests {
+
+    @Autowired
+    private DiretorioGlobal diretorioGlobal;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void nomeCriadoPorOutraTransacaoEReaproveitadoSemDesfazerATransacaoCorrente() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Long[] ids = transacao.execute(status -> {
+            // O segundo insert do mesmo nome esbarra no índice único, como na corrida entre duas requisições.
+            ExercicioCatalogo primeiro = diretorioGlobal.criarNoCatalogo("Remada cavalinho concorrente");
+            ExercicioCatalogo segundo = diretorioGlobal.criarNoCatalogo("Remada  Cavalinho concorrente");
+            assertThat(status.isRollbackOnly()).isFalse();
+            return new Long[]{primeiro.getId(), segundo.getId()};
+        });
+
+        assertThat(ids[1]).isEqualTo(ids[0]);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from exercicio_catalogo where nome_normalizado = ?",
+                Integer.class, "remada cavalinho concorrente")).isEqualTo(1);
+    }
+
+    @Test
+    void migracaoV3AgrupaAsVariacoesDeUmMesmoNome() {
+        String url = "jdbc:h2:mem:gymtime-v3-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        JdbcTemplate banco = new JdbcTemplate(dataSource);
+        try {
+            Flyway.configure().dataSource(dataSource).target("2").load().migrate();
+            banco.update("insert into alunos (id, cpf, email, email_busca, nome, nome_busca) "
+                    + "values (1, '52998224725', 'v3@gymtime.test', 'v3@gymtime.test', 'Aluno V3', 'aluno v3')");
+            banco.update("insert into treinos (id, data_criacao, nome, aluno_id) values (1, current_date, 'Treino V3', 1)");
+            for (String nome : List.of("Supino reto", "Supino reto", "supino  Reto", "Súpino reto", "Agachamento livre")) {
+                banco.update("insert into exercicios (nome_exercicio, treino_id) values (?, 1)", nome);
+            }
+
+            Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+
+            List<Map<String, Object>> catalogo = banco.queryForList(
+                    "select id, nome, nome_normalizado from exercicio_catalogo order by nome_normalizado");
+            assertThat(catalogo).extracting(linha -> linha.get("NOME"))
+                    .containsExactly("Agachamento livre", "Supino reto");
+            assertThat(catalogo).extracting(linha -> linha.get("NOME_NORMALIZADO"))
+                    .containsExactly("agachamento livre", "supino reto");
+            assertThat(banco.queryForObject("select count(*) from exercicios where catalogo_id = ?",
+                    Integer.class, catalogo.get(1).get("ID"))).isEqualTo(4);
+            assertThat(banco.queryForObject("select count(*) from exercicios where catalogo_id is null", Integer.class))
+                    .isZero();
+        } finally {
+            banco.execute("shutdown");
+        }
+    }
+}
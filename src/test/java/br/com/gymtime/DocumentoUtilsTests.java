@@ -0,0 +1,81 @@
+package br.com.gymtime;
+
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.validation.CpfValidoValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Validação, geração e formatação de CPF e telefone em {@link DocumentoUtils} e no {@link CpfValidoValidator}.
+ * Os CPFs válidos usados aqui têm os dígitos verificadores conferidos à mão, sem depender do próprio código testado.
+ */
+class DocumentoUtilsTests {
+
+    private final CpfValidoValidator validador = new CpfValidoValidator();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"52998224725", "529.982.247-25", "11144477735", "12345678909", "000.000.001-91"})
+    void aceitaCpfComDigitosVerificadoresCorretos(String cpf) {
+        assertThat(DocumentoUtils.isCpfValido(cpf)).isTrue();
+        assertThat(validador.isValid(cpf, null)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"52998224724", "52998224715", "529.982.247-52", "11144477734", "12345678900"})
+    void rejeitaCpfComDigitoVerificadorErrado(String cpf) {
+        assertThat(DocumentoUtils.isCpfValido(cpf)).isFalse();
+        assertThat(validador.isValid(cpf, null)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"00000000000", "11111111111", "999.999.999-99"})
+    void rejeitaCpfComTodosOsDigitosIguais(String cpf) {
+        assertThat(DocumentoUtils.isCpfValido(cpf)).isFalse();
+        assertThat(validador.isValid(cpf, null)).isFalse();
+    }
+
+    @Test
+    void validadorDeixaTamanhoEAusenciaParaAsOutrasRestricoes() {
+        assertThat(DocumentoUtils.isCpfValido(null)).isFalse();
+        assertThat(DocumentoUtils.isCpfValido("5299822472")).isFalse();
+        assertThat(validador.isValid(null, null)).isTrue();
+        assertThat(validador.isValid("5299822472", null)).isTrue();
+        assertThat(validador.isValid("529982247251", null)).isTrue();
+    }
+
+    @Test
+    void gerarCpfCompletaOsDigitosVerificadores() {
+        assertThat(DocumentoUtils.gerarCpf(529_982_247)).isEqualTo("52998224725");
+        assertThat(DocumentoUtils.gerarCpf(111_444_777)).isEqualTo("11144477735");
+        assertThat(DocumentoUtils.gerarCpf(123_456_789)).isEqualTo("12345678909");
+        assertThat(DocumentoUtils.gerarCpf(1)).isEqualTo("00000000191");
+        assertThat(DocumentoUtils.isCpfValido(DocumentoUtils.gerarCpf(0))).isFalse();
+        assertThatThrownBy(() -> DocumentoUtils.gerarCpf(1_000_000_000L)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> DocumentoUtils.gerarCpf(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void formataCpfETelefone() {
+        assertThat(DocumentoUtils.formatarCpf("52998224725")).isEqualTo("529.982.247-25");
+        assertThat(DocumentoUtils.formatarCpf("5299822472")).isEqualTo("5299822472");
+        assertThat(DocumentoUtils.formatarTelefone("11987654321")).isEqualTo("(11) 98765-4321");
+        assertThat(DocumentoUtils.formatarTelefone("1132654321")).isEqualTo("(11) 3265-4321");
+        assertThat(DocumentoUtils.formatarTelefone("119876543")).isEqualTo("119876543");
+        assertThat(DocumentoUtils.formatarTelefone("(11) 9876-5432")).isEqualTo("(11) 9876-5432");
+        assertThat(DocumentoUtils.formatarTelefone(null)).isNull();
+    }
+
+    @Test
+    void apenasDigitosDevolveAMesmaInstanciaQuandoNaoHaMascara() {
+        String semMascara = "52998224725";
+        assertThat(DocumentoUtils.apenasDigitos(semMascara)).isSameAs(semMascara);
+        assertThat(DocumentoUtils.apenasDigitos("529.982.247-25")).isEqualTo(semMascara);
+        assertThat(DocumentoUtils.apenasDigitos("(11) 98765-4321")).isEqualTo("11987654321");
+        assertThat(DocumentoUtils.apenasDigitos("-.")).isEmpty();
+        assertThat(DocumentoUtils.apenasDigitos(null)).isNull();
+    }
+}
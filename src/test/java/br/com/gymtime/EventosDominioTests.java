@@ -0,0 +1,100 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.evento.DespachanteEventos;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.util.DocumentoUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outbox de eventos de domínio: gravação na transação da escrita e entrega em segundo plano, inclusive dos eventos de
+ * um nó que parou.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EventosDominioTests {
+
+    /**
+     * Academia própria desta classe, criada em {@code @BeforeAll} (ver {@link AcademiasDeTeste}).
+     */
+    private long academia;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private DespachanteEventos despachante;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void criarAcademia() {
+        academia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Eventos");
+    }
+
+    @Test
+    void eventoEGravadoNaTransacaoDaEscritaEDespachadoDepois() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Long desfeito = transacao.execute(status -> {
+            AlunoResponseDTO aluno = ContextoAcademia.executar(academia, () -> alunoService.createAluno(
+                    new AlunoCreateDTO("Wanda Eventos", "wanda.eventos@gymtime.test", "11933332222", DocumentoUtils.gerarCpf(990_000_001))));
+            // Antes do commit, o evento já está no outbox, visível apenas para a própria transação.
+            assertThat(pendentes(aluno.id())).isEqualTo(1);
+            status.setRollbackOnly();
+            return aluno.id();
+        });
+        assertThat(pendentes(desfeito)).isZero();
+
+        AlunoResponseDTO aluno = ContextoAcademia.executar(academia, () -> alunoService.createAluno(
+                new AlunoCreateDTO("Xavier Eventos", "xavier.eventos@gymtime.test", "11922221111", DocumentoUtils.gerarCpf(990_000_002))));
+        despachante.despachar();
+
+        assertThat(pendentes(aluno.id())).isZero();
+        assertThat(invalidacoes(aluno.id())).isEqualTo(1);
+    }
+
+    @Test
+    void eventosDeUmNoParadoSaoAssumidosDepoisDoPrazo() {
+        long parado = 990_000_101L;
+        long ativo = 990_000_102L;
+        jdbcTemplate.update("insert into eventos_outbox (entidade, operacao, entidade_id, academia_id, origem, criado_em) "
+                + "values ('ALUNO', 'ATUALIZADO', ?, ?, 'no-parado', dateadd('MINUTE', -10, localtimestamp))", parado, academia);
+        jdbcTemplate.update("insert into eventos_outbox (entidade, operacao, entidade_id, academia_id, origem) "
+                + "values ('ALUNO', 'ATUALIZADO', ?, ?, 'outro-no-ativo')", ativo, academia);
+
+        despachante.despachar();
+
+        assertThat(pendentes(parado)).isZero();
+        // Pelo menos uma vez: outro contexto de teste em execução também pode ter assumido o evento.
+        assertThat(invalidacoes(parado)).isPositive();
+        // O evento recente de outro nó fica para o próprio nó despachar.
+        assertThat(pendentes(ativo)).isEqualTo(1);
+        assertThat(invalidacoes(ativo)).isZero();
+        jdbcTemplate.update("delete from eventos_outbox where entidade_id = ?", ativo);
+    }
+
+    private int pendentes(Long alunoId) {
+        return jdbcTemplate.queryForObject("select count(*) from eventos_outbox where entidade = 'ALUNO' and entidade_id = ?",
+                Integer.class, alunoId);
+    }
+
+    private int invalidacoes(Long alunoId) {
+        return jdbcTemplate.queryForObject("select count(*) from invalidacoes where entidade = 'ALUNO' and entidade_id = ?",
+                Integer.class, alunoId);
+    }
+}
@@ -0,0 +1,218 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoUpdateDTO;
+import br.com.gymtime.evento.DespachanteEventos;
+import br.com.gymtime.feed.FeedAlteracoes;
+import br.com.gymtime.invalidacao.BarramentoInvalidacaoBanco;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.util.DocumentoUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Feed de alterações por SSE: retomada pelo {@code Last-Event-ID}, inclusive com commits fora da ordem dos IDs,
+ * entrega das novas alterações e isolamento entre academias.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FeedAlteracoesTests {
+
+    /**
+     * Academias próprias desta classe, criadas em {@code @BeforeAll} (ver {@link AcademiasDeTeste}).
+     */
+    private long academia;
+    private long outraAcademia;
+
+    /**
+     * IDs de alunos de outro nó, usados apenas nas invalidações gravadas diretamente.
+     */
+    private static final long ALUNO_LENTO = 9_480_000_001L;
+    private static final long ALUNO_RAPIDO = 9_480_000_002L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private DespachanteEventos despachante;
+
+    @Autowired
+    private BarramentoInvalidacaoBanco barramento;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void criarAcademias() {
+        academia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Feed");
+        outraAcademia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Feed Outra");
+    }
+
+    @Test
+    void feedRetomaDoUltimoEventoEEnviaAsNovasAlteracoes() throws Exception {
+        AlunoResponseDTO aluno = ContextoAcademia.executar(academia, () -> alunoService.createAluno(
+                new AlunoCreateDTO("Teodora Feed", "teodora.feed@gymtime.test", "11966665555", DocumentoUtils.gerarCpf(980_000_001))));
+        long criacao = ultimaSequencia();
+
+        MvcResult feed = mockMvc.perform(get("/api/v1/changes")
+                        .with(AcademiasDeTeste.doGateway(academia))
+                        .header("Last-Event-ID", criacao - 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // A criação, anterior à conexão, vem do histórico.
+        assertThat(feed.getResponse().getContentAsString())
+                .contains("id:" + criacao + "\nevent:aluno\ndata:{\"tipo\":\"ALUNO\",\"operacao\":\"CRIADO\",\"id\":" + aluno.id());
+
+        ContextoAcademia.executar(academia, () -> alunoService.updateAluno(aluno.id(), new AlunoUpdateDTO("Teodora Feed Nova", null, null, null)));
+        AlunoResponseDTO deOutra = ContextoAcademia.executar(outraAcademia, () -> alunoService.createAluno(
+                new AlunoCreateDTO("Ulisses Feed", "ulisses.feed@gymtime.test", "11955554444", DocumentoUtils.gerarCpf(980_000_002))));
+        despachante.despachar();
+        barramento.sincronizar();
+
+        // A atualização chega ao vivo; a alteração da outra academia não.
+        String eventos = aguardarEvento(feed, "\"operacao\":\"ATUALIZADO\",\"id\":" + aluno.id());
+        assertThat(eventos).doesNotContain("\"id\":" + deOutra.id() + ",");
+    }
+
+    @Test
+    void feedPedeReinicioQuandoOHistoricoFoiDescartado() throws Exception {
+        ContextoAcademia.executar(academia, () -> alunoService.createAluno(
+                new AlunoCreateDTO("Valquíria Feed", "valquiria.feed@gymtime.test", "11944443333", DocumentoUtils.gerarCpf(980_000_003))));
+        long criacao = ultimaSequencia();
+        despachante.despachar();
+        barramento.sincronizar();
+        // Simula a retenção: as linhas mais antigas, até o evento seguinte ao último conhecido pelo cliente, já foram removidas.
+        jdbcTemplate.update("delete from invalidacoes where sequencia <= ?", criacao);
+
+        MvcResult feed = mockMvc.perform(get("/api/v1/changes")
+                        .with(AcademiasDeTeste.doGateway(academia))
+                        .header("Last-Event-ID", criacao - 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(feed.getResponse().getContentAsString()).contains("event:" + FeedAlteracoes.EVENTO_REINICIO);
+    }
+
+    @Test
+    void feedPedeReinicioQuandoOUltimoEventoEPosteriorASequencia() throws Exception {
+        // Como um cliente que recebeu eventos antes de o banco ser recriado e a sequência recomeçar.
+        long futuro = ultimaSequencia() + 1_000;
+
+        MvcResult feed = mockMvc.perform(get("/api/v1/changes")
+                        .with(AcademiasDeTeste.doGateway(academia))
+                        .header("Last-Event-ID", futuro))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(feed.getResponse().getContentAsString()).contains("event:" + FeedAlteracoes.EVENTO_REINICIO);
+
+        // As alterações seguintes chegam ao vivo, mesmo com posições menores que o ID enviado pelo cliente.
+        AlunoResponseDTO aluno = ContextoAcademia.executar(academia, () -> alunoService.createAluno(
+                new AlunoCreateDTO("Wanda Feed", "wanda.feed@gymtime.test", "11933332222", DocumentoUtils.gerarCpf(980_000_004))));
+        despachante.despachar();
+        barramento.sincronizar();
+        aguardarEvento(feed, "\"operacao\":\"CRIADO\",\"id\":" + aluno.id());
+    }
+
+    @Test
+    void retomadaNaoPerdeAlteracaoConfirmadaDepoisDeUmaPosterior() throws Exception {
+        MvcResult feed = mockMvc.perform(get("/api/v1/changes").with(AcademiasDeTeste.doGateway(academia)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        long posicaoRapida;
+        try (Connection lenta = jdbcTemplate.getDataSource().getConnection()) {
+            // A transação lenta grava primeiro (ID menor), mas só confirma depois da rápida.
+            lenta.setAutoCommit(false);
+            long idLenta = inserirInvalidacao(lenta, ALUNO_LENTO);
+            long idRapida;
+            try (Connection rapida = jdbcTemplate.getDataSource().getConnection()) {
+                idRapida = inserirInvalidacao(rapida, ALUNO_RAPIDO);
+            }
+            assertThat(idRapida).isGreaterThan(idLenta);
+
+            barramento.sincronizar();
+            aguardarEvento(feed, "\"id\":" + ALUNO_RAPIDO + ",");
+            posicaoRapida = posicao(ALUNO_RAPIDO);
+            lenta.commit();
+        }
+        barramento.sincronizar();
+
+        // A alteração confirmada por último fica depois na sequência, e chega ao vivo depois da outra.
+        long posicaoLenta = posicao(ALUNO_LENTO);
+        assertThat(posicaoLenta).isGreaterThan(posicaoRapida);
+        String eventos = aguardarEvento(feed, "\"id\":" + ALUNO_LENTO + ",");
+        assertThat(eventos.indexOf("id:" + posicaoRapida + "\n")).isLessThan(eventos.indexOf("id:" + posicaoLenta + "\n"));
+
+        // O cliente que reconecta a partir do último evento recebido antes do commit da transação lenta recebe a alteração dela.
+        MvcResult retomada = mockMvc.perform(get("/api/v1/changes")
+                        .with(AcademiasDeTeste.doGateway(academia))
+                        .header("Last-Event-ID", posicaoRapida))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(retomada.getResponse().getContentAsString())
+                .contains("id:" + posicaoLenta + "\nevent:aluno\ndata:{\"tipo\":\"ALUNO\",\"operacao\":\"CRIADO\",\"id\":" + ALUNO_LENTO + ",")
+                .doesNotContain("\"id\":" + ALUNO_RAPIDO + ",");
+    }
+
+    private long ultimaSequencia() {
+        despachante.despachar();
+        barramento.sincronizar();
+        return jdbcTemplate.queryForObject("select coalesce(max(sequencia), 0) from invalidacoes", Long.class);
+    }
+
+    /**
+     * Grava, como outro nó, a invalidação da criação de um aluno e devolve o ID da linha.
+     */
+    private long inserirInvalidacao(Connection conexao, long aluno) throws SQLException {
+        try (PreparedStatement insercao = conexao.prepareStatement("insert into invalidacoes "
+                + "(entidade, operacao, entidade_id, academia_id, origem) values ('ALUNO', 'CRIADO', ?, ?, 'outro-no')",
+                Statement.RETURN_GENERATED_KEYS)) {
+            insercao.setLong(1, aluno);
+            insercao.setLong(2, academia);
+            insercao.executeUpdate();
+            try (ResultSet chaves = insercao.getGeneratedKeys()) {
+                chaves.next();
+                return chaves.getLong(1);
+            }
+        }
+    }
+
+    private long posicao(long aluno) {
+        return jdbcTemplate.queryForObject("select sequencia from invalidacoes where entidade_id = ?", Long.class, aluno);
+    }
+
+    /**
+     * Aguarda o envio de um evento, feito fora da thread do teste, e devolve o conteúdo recebido até então.
+     */
+    private static String aguardarEvento(MvcResult feed, String trecho) throws Exception {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!feed.getResponse().getContentAsString().contains(trecho) && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(feed.getResponse().getContentAsString()).contains(trecho);
+        return feed.getResponse().getContentAsString();
+    }
+}
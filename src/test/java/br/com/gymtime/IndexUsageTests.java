@@ -0,0 +1,184 @@
+package br.com.gymtime;
+
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.ExercicioCreateDTO;
+import br.com.gymtime.dto.TreinoCreateDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.repository.AlunoRepository;
+import br.com.gymtime.repository.TreinoRepository;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.service.TreinoService;
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.util.TextoUtils;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.ChainListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica, com o {@code EXPLAIN} do H2, que as consultas mais frequentes usam os índices criados pelas migrações.
+ * <p>
+ * Cada consulta é executada pelo próprio repositório; a instrução gerada pelo Hibernate é capturada no proxy do
+ * DataSource e repetida com {@code EXPLAIN} e os mesmos parâmetros. Uma alteração no mapeamento ou nas migrações
+ * que faça uma dessas consultas voltar a percorrer a tabela inteira faz o teste falhar.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class IndexUsageTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private TreinoService treinoService;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TreinoRepository treinoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<QueryInfo> capturadas = new ArrayList<>();
+    /**
+     * A thread do teste: as tarefas em segundo plano do contexto compartilhado também consultam a tabela de alunos.
+     */
+    private volatile Thread capturando;
+    private final QueryExecutionListener captura = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (Thread.currentThread() != capturando) {
+                return;
+            }
+            synchronized (capturadas) {
+                capturadas.addAll(queryInfoList);
+            }
+        }
+    };
+
+    private AlunoResponseDTO aluno;
+    private TreinoResponseDTO treino;
+
+    @BeforeAll
+    void prepararDados() {
+        aluno = alunoService.createAluno(new AlunoCreateDTO(
+                "Índice Teste", "Indice.Teste@gymtime.com", "11987654321", DocumentoUtils.gerarCpf(900_000_001)));
+        treino = treinoService.createTreino(new TreinoCreateDTO("Treino A", null, aluno.id(),
+                List.of(new ExercicioCreateDTO("Supino reto", "3x12"), new ExercicioCreateDTO("Remada curvada", "3x12"))));
+        listeners().addListener(captura);
+    }
+
+    @AfterAll
+    void removerCaptura() {
+        listeners().getListeners().remove(captura);
+    }
+
+    @Test
+    void treinosDoAlunoUsamIndiceDaChaveEstrangeira() throws Exception {
+        String plano = planoDaConsulta("from treinos", () -> treinoRepository.findByAlunoId(aluno.id()));
+
+        assertThat(plano).contains("PUBLIC.IDX_TREINOS_ALUNO");
+    }
+
+    @Test
+    void exerciciosDoTreinoUsamIndiceDaChaveEstrangeira() throws Exception {
+        String plano = planoDaConsulta("from exercicios", () -> transactionTemplate.executeWithoutResult(status ->
+                treinoRepository.findById(treino.id()).orElseThrow().getExercicios().size()));
+
+        assertThat(plano).contains("PUBLIC.IDX_EXERCICIOS_TREINO");
+    }
+
+    @Test
+    void buscaPorEmailSemDiferenciarMaiusculasUsaIndiceUnico() throws Exception {
+        String plano = planoDaConsulta("from alunos", () ->
+                alunoRepository.findByEmailBusca(TextoUtils.normalizarEmail("INDICE.teste@GymTime.com")));
+
+        assertThat(plano).contains("PUBLIC.UK_ALUNOS_EMAIL_BUSCA");
+    }
+
+    @Test
+    void verificacaoDeCpfUsaIndiceUnico() throws Exception {
+        String plano = planoDaConsulta("from alunos", () -> alunoRepository.existsByCpf(aluno.cpf()));
+
+        assertThat(plano).contains("PUBLIC.UK_ALUNOS_CPF");
+    }
+
+    @Test
+    void buscaPorPrefixoUsaUmIndicePorColuna() throws Exception {
+        String plano = planoDaConsulta("from alunos", () -> alunoRepository.buscarResumos("indice%", "900%",
+                PageRequest.of(0, 20, Sort.by("nomeBusca"))));
+
+        assertThat(plano).contains("PUBLIC.IDX_ALUNOS_NOME_BUSCA", "PUBLIC.UK_ALUNOS_EMAIL_BUSCA", "PUBLIC.UK_ALUNOS_CPF")
+                .doesNotContain("tableScan");
+    }
+
+    /**
+     * Executa a consulta, localiza a primeira instrução capturada que contém o trecho informado
+     * e retorna o plano de execução dela.
+     */
+    private String planoDaConsulta(String trecho, Runnable consulta) throws Exception {
+        synchronized (capturadas) {
+            capturadas.clear();
+        }
+        capturando = Thread.currentThread();
+        try {
+            consulta.run();
+        } finally {
+            capturando = null;
+        }
+        QueryInfo instrucao;
+        synchronized (capturadas) {
+            instrucao = capturadas.stream()
+                    .filter(query -> query.getQuery().toLowerCase().contains(trecho))
+                    .findFirst()
+                    .orElseThrow(() -> new AssertionError("Nenhuma instrução com '" + trecho + "' foi executada: " + capturadas));
+        }
+
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement explain = conexao.prepareStatement("explain " + instrucao.getQuery())) {
+            if (!instrucao.getParametersList().isEmpty()) {
+                for (ParameterSetOperation parametro : instrucao.getParametersList().get(0)) {
+                    parametro.getMethod().invoke(explain, parametro.getArgs());
+                }
+            }
+            try (ResultSet resultado = explain.executeQuery()) {
+                resultado.next();
+                return resultado.getString(1);
+            }
+        }
+    }
+
+    private ChainListener listeners() {
+        return ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener();
+    }
+}
@@ -0,0 +1,116 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.evento.DespachanteEventos;
+import br.com.gymtime.invalidacao.BarramentoInvalidacaoBanco;
+import br.com.gymtime.search.ExercicioCatalogIndex;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.util.DocumentoUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aplicação das invalidações publicadas por outros nós aos índices em memória.
+ * <p>
+ * O outro nó é simulado alterando o banco diretamente e gravando a invalidação com outra origem.
+ */
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InvalidacaoTests {
+
+    /**
+     * Academia própria desta classe, criada em {@code @BeforeAll} (ver {@link AcademiasDeTeste}).
+     */
+    private long academia;
+
+    private static final String OUTRO_NO = "outro-no";
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private ExercicioCatalogIndex exercicioCatalogIndex;
+
+    @Autowired
+    private DespachanteEventos despachante;
+
+    @Autowired
+    private BarramentoInvalidacaoBanco barramento;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void criarAcademia() {
+        academia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Invalidação");
+    }
+
+    @Test
+    void alunoAlteradoEmOutroNoEReindexado() {
+        AlunoResponseDTO aluno = naAcademia(() -> alunoService.createAluno(
+                new AlunoCreateDTO("Quirino Local", "quirino.local@gymtime.test", "11977776666", DocumentoUtils.gerarCpf(970_000_001))));
+        despachante.despachar();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from invalidacoes where entidade = 'ALUNO' and entidade_id = ?",
+                Integer.class, aluno.id())).isEqualTo(1);
+        // A própria escrita já foi aplicada ao índice e a sua invalidação é ignorada por este nó.
+        barramento.sincronizar();
+        double aplicadasAntes = aplicadas("AlunoSearchIndex");
+
+        jdbcTemplate.update("update alunos set nome = ? where id = ?", "Quirino Remoto", aluno.id());
+        invalidarNoOutroNo("ALUNO", aluno.id());
+        barramento.sincronizar();
+
+        assertThat(naAcademia(() -> alunoService.searchAlunos("quirino remoto", 10)))
+                .extracting(AlunoSearchResultDTO::id).containsExactly(aluno.id());
+        assertThat(naAcademia(() -> alunoService.searchAlunos("quirino local", 10))).isEmpty();
+        assertThat(aplicadas("AlunoSearchIndex")).isEqualTo(aplicadasAntes + 1);
+        assertThat(meterRegistry.get("gymtime.invalidacao.atraso").timer().count()).isPositive();
+
+        jdbcTemplate.update("delete from alunos where id = ?", aluno.id());
+        invalidarNoOutroNo("ALUNO", aluno.id());
+        barramento.sincronizar();
+
+        assertThat(naAcademia(() -> alunoService.searchAlunos("quirino", 10))).isEmpty();
+    }
+
+    @Test
+    void exercicioCriadoEmOutroNoEntraNoCatalogo() {
+        jdbcTemplate.update("insert into exercicio_catalogo (nome, nome_normalizado) values (?, ?)",
+                "Remada Cavalinho Remota", "remada cavalinho remota");
+        assertThat(exercicioCatalogIndex.buscarId("Remada cavalinho remota")).isNull();
+
+        invalidarNoOutroNo("TREINO", Long.MAX_VALUE);
+        barramento.sincronizar();
+
+        assertThat(exercicioCatalogIndex.buscarId("Remada cavalinho remota")).isNotNull();
+    }
+
+    private void invalidarNoOutroNo(String entidade, Long id) {
+        jdbcTemplate.update("insert into invalidacoes (entidade, entidade_id, academia_id, origem) values (?, ?, ?, ?)",
+                entidade, id, academia, OUTRO_NO);
+    }
+
+    private double aplicadas(String ouvinte) {
+        var contador = meterRegistry.find("gymtime.invalidacao.aplicadas").tag("ouvinte", ouvinte).counter();
+        return contador == null ? 0 : contador.count();
+    }
+
+    private <T> T naAcademia(Supplier<T> acao) {
+        return ContextoAcademia.executar(academia, acao);
+    }
+}
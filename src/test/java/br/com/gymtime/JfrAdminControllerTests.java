@@ -0,0 +1,89 @@
+package br.com.gymtime;
+
+import br.com.gymtime.controller.JfrAdminController;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint de gravações JFR sob demanda: token, limites da duração, uma gravação por vez e endpoint desabilitado.
+ */
+@SpringBootTest(properties = {
+        "gymtime.jfr.habilitado=true",
+        "gymtime.jfr.token=" + JfrAdminControllerTests.TOKEN,
+        "gymtime.jfr.duracao-maxima=PT5S"
+})
+@AutoConfigureMockMvc
+class JfrAdminControllerTests {
+
+    static final String TOKEN = "token-de-teste-do-jfr";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void exigeOToken() throws Exception {
+        mockMvc.perform(post("/admin/jfr").param("duracao", "1"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/admin/jfr").param("duracao", "1").header(JfrAdminController.HEADER_TOKEN, "outro-token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void recusaDuracaoForaDoLimite() throws Exception {
+        mockMvc.perform(post("/admin/jfr").param("duracao", "0").header(JfrAdminController.HEADER_TOKEN, TOKEN))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/admin/jfr").param("duracao", "6").header(JfrAdminController.HEADER_TOKEN, TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void gravaSemPrenderAThreadERecusaUmaSegundaGravacaoSimultanea() throws Exception {
+        MvcResult gravacao = mockMvc.perform(post("/admin/jfr").param("duracao", "1").param("perfil", "default")
+                        .header(JfrAdminController.HEADER_TOKEN, TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/admin/jfr").param("duracao", "1").header(JfrAdminController.HEADER_TOKEN, TOKEN))
+                .andExpect(status().isConflict());
+
+        MvcResult resposta = mockMvc.perform(asyncDispatch(gravacao))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult arquivo = mockMvc.perform(asyncDispatch(resposta))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", startsWith("attachment; filename=gymtime-")))
+                .andReturn();
+        assertThat(arquivo.getResponse().getContentAsByteArray()).startsWith('F', 'L', 'R', 0);
+    }
+
+    /**
+     * Com o padrão {@code gymtime.jfr.habilitado=false}, o endpoint não existe.
+     */
+    @Nested
+    @TestPropertySource(properties = "gymtime.jfr.habilitado=false")
+    class Desabilitado {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void respondeNaoEncontrado() throws Exception {
+            mockMvc.perform(post("/admin/jfr").param("duracao", "1").header(JfrAdminController.HEADER_TOKEN, TOKEN))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.AcademiaFilter;
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.dto.TreinoCreateDTO;
+import br.com.gymtime.exception.ResourceNotFoundException;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.service.TreinoService;
+import br.com.gymtime.util.DocumentoUtils;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Isolamento dos dados entre academias, identificação da academia da requisição e limite de conexões por academia.
+ */
+@SpringBootTest(properties = {
+        "gymtime.academia.conexoes-maximas=2",
+        "gymtime.academia.espera-conexao=PT0.2S"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MultiAcademiaTests {
+
+    private long umaAcademia;
+    private long outraAcademia;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private TreinoService treinoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void criarAcademia() {
+        umaAcademia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Teste A");
+        outraAcademia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Teste B");
+    }
+
+    @Test
+    void cadaAcademiaSoEnxergaOsPropriosAlunos() {
+        String cpf = DocumentoUtils.gerarCpf(950_000_001);
+        AlunoResponseDTO daUma = ContextoAcademia.executar(umaAcademia, () ->
+                alunoService.createAluno(novoAluno("Xisto Uma", "academia.mesmo@gymtime.test", cpf)));
+        // O mesmo e-mail e o mesmo CPF podem ser usados em outra academia.
+        AlunoResponseDTO daOutra = naOutraAcademia(() ->
+                alunoService.createAluno(novoAluno("Xisto Outra", "academia.mesmo@gymtime.test", cpf)));
+
+        assertThat(naOutraAcademia(() -> alunoService.getAlunoById(daUma.id()))).isEmpty();
+        assertThat(naOutraAcademia(() -> alunoService.getAlunoByEmail("academia.mesmo@gymtime.test")))
+                .get().extracting(AlunoResponseDTO::id).isEqualTo(daOutra.id());
+        assertThat(naOutraAcademia(() -> alunoService.searchAlunos("xisto", 10)))
+                .extracting(AlunoSearchResultDTO::id).containsExactly(daOutra.id());
+        assertThat(ContextoAcademia.executar(umaAcademia, () -> alunoService.searchAlunos("xisto", 10)))
+                .extracting(AlunoSearchResultDTO::id).containsExactly(daUma.id());
+        assertThat(naOutraAcademia(() -> alunoService.getAllAlunos())).extracting(AlunoResponseDTO::id)
+                .doesNotContain(daUma.id());
+
+        assertThatThrownBy(() -> naOutraAcademia(() ->
+                treinoService.createTreino(new TreinoCreateDTO("Treino alheio", null, daUma.id(), List.of()))))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void academiaInformadaNaRequisicaoPrecisaExistir() throws Exception {
+        mockMvc.perform(get("/api/v1/alunos").with(AcademiasDeTeste.doGateway(outraAcademia))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/alunos").with(AcademiasDeTeste.doGateway(999))).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/alunos").header(AcademiaFilter.HEADER, "abc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void headerDaAcademiaPrecisaDaAssinaturaDoGateway() throws Exception {
+        mockMvc.perform(get("/api/v1/alunos").header(AcademiaFilter.HEADER, outraAcademia))
+                .andExpect(status().isUnauthorized());
+        // A assinatura de uma academia não vale para outra.
+        mockMvc.perform(get("/api/v1/alunos").header(AcademiaFilter.HEADER, outraAcademia)
+                        .header(AcademiaFilter.HEADER_ASSINATURA, AcademiaFilter.assinar(AcademiasDeTeste.CHAVE_GATEWAY, umaAcademia)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/alunos").header(AcademiaFilter.HEADER, outraAcademia)
+                        .header(AcademiaFilter.HEADER_ASSINATURA, AcademiaFilter.assinar("outra-chave-qualquer-com-ao-menos-32-caracteres", outraAcademia)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void camadaWebIdentificaAAcademiaPeloHost() throws Exception {
+        jdbcTemplate.update("update academias set host = ? where id = ?", "academia-a.gymtime.test", umaAcademia);
+        ContextoAcademia.executar(umaAcademia, () ->
+                alunoService.createAluno(novoAluno("Yolanda Host", "yolanda.host@gymtime.test", DocumentoUtils.gerarCpf(950_000_002))));
+
+        mockMvc.perform(get("/web/alunos").with(host("Academia-A.gymtime.test")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Yolanda Host")));
+        // Um host sem academia cai na academia padrão.
+        mockMvc.perform(get("/web/alunos").with(host("outra.gymtime.test")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("Yolanda Host"))));
+    }
+
+    @Test
+    void academiaNaoPassaDoLimiteDeConexoes() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch obtidas = new CountDownLatch(2);
+        CountDownLatch liberar = new CountDownLatch(1);
+        try {
+            List<Future<?>> ocupadas = List.of(executor.submit(() -> segurarConexao(obtidas, liberar)),
+                    executor.submit(() -> segurarConexao(obtidas, liberar)));
+            assertThat(obtidas.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> ContextoAcademia.executar(outraAcademia, () -> {
+                try (Connection conexao = dataSource.getConnection()) {
+                    return conexao;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })).hasCauseInstanceOf(SQLTransientConnectionException.class);
+            // As outras academias continuam sendo atendidas.
+            ContextoAcademia.executar(ContextoAcademia.PADRAO, () -> jdbcTemplate.queryForObject("select 1", Integer.class));
+
+            liberar.countDown();
+            for (Future<?> ocupada : ocupadas) {
+                ocupada.get(5, TimeUnit.SECONDS);
+            }
+            assertThat(ContextoAcademia.executar(outraAcademia, () -> jdbcTemplate.queryForObject("select 1", Integer.class)))
+                    .isEqualTo(1);
+        } finally {
+            liberar.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private Void segurarConexao(CountDownLatch obtidas, CountDownLatch liberar) throws Exception {
+        ContextoAcademia.definir(outraAcademia);
+        try (Connection conexao = dataSource.getConnection()) {
+            obtidas.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+        } finally {
+            ContextoAcademia.definir(null);
+        }
+        return null;
+    }
+
+    private static RequestPostProcessor host(String host) {
+        return requisicao -> {
+            requisicao.setServerName(host);
+            return requisicao;
+        };
+    }
+
+    private <T> T naOutraAcademia(Supplier<T> acao) {
+        return ContextoAcademia.executar(outraAcademia, acao);
+    }
+
+    private static AlunoCreateDTO novoAluno(String nome, String email, String cpf) {
+        return new AlunoCreateDTO(nome, email, "11999990000", cpf);
+    }
+}
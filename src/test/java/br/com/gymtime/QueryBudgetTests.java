@@ -0,0 +1,222 @@
+package br.com.gymtime;
+
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.ExercicioCreateDTO;
+import br.com.gymtime.dto.TreinoCreateDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.service.TreinoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
+
+/**
+ * Orçamento de consultas SQL por endpoint.
+ * <p>
+ * Popula o banco com um conjunto de dados realista e, para cada endpoint listado em
+ * {@code src/test/resources/query-budgets.csv}, verifica o número de instruções SQL e o tempo gasto no JDBC,
+ * lidos do header {@code Server-Timing} gerado pelo {@code SqlStatsFilter}. Uma alteração que adicione
+ * consultas a um desses caminhos (ex: um novo acesso lazy em uma conversão para DTO) faz o teste falhar;
+ * se o aumento for intencional, o orçamento deve ser ajustado no mesmo commit.
+ * <p>
+ * As escritas levam o corpo da requisição na última coluna do arquivo: JSON nos caminhos da API e os campos do
+ * formulário ({@code application/x-www-form-urlencoded}) nos caminhos {@code /web}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTests {
+
+    private static final String ARQUIVO_ORCAMENTOS = "/query-budgets.csv";
+
+    private static final Pattern SERVER_TIMING = Pattern.compile("db;desc=\"consultas SQL: (\\d+)\";dur=([0-9.]+)");
+
+    private static final int ALUNOS = 100;
+    private static final int TREINOS_POR_ALUNO = 3;
+    private static final int EXERCICIOS_POR_TREINO = 6;
+
+    private static final String[] EXERCICIOS = {
+            "Supino reto", "Supino inclinado", "Crucifixo", "Agachamento livre", "Leg press", "Cadeira extensora",
+            "Mesa flexora", "Stiff", "Remada curvada", "Puxada frontal", "Rosca direta", "Rosca martelo",
+            "Tríceps pulley", "Tríceps testa", "Desenvolvimento", "Elevação lateral", "Panturrilha em pé",
+            "Abdominal supra", "Prancha", "Levantamento terra"
+    };
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela", "Heitor"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Santos", "Pereira", "Lima", "Costa"};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private TreinoService treinoService;
+
+    private AlunoResponseDTO aluno;
+    private TreinoResponseDTO treino;
+
+    /**
+     * Alunos do conjunto de dados ainda disponíveis para os orçamentos de remoção ({@code {alunoParaRemoverId}}).
+     */
+    private final Deque<Long> alunosParaRemover = new ArrayDeque<>();
+
+    /**
+     * Sequência usada em {@code {novo}} e {@code {cpfNovo}}, para que cada cadastro use um e-mail e um CPF inéditos.
+     */
+    private int novos;
+
+    /**
+     * Orçamento de um endpoint, lido do arquivo CSV.
+     */
+    record Orcamento(String metodo, String caminho, int maxInstrucoes, double maxTempoJdbcMs, String corpo) {
+        @Override
+        public String toString() {
+            return metodo + " " + caminho;
+        }
+    }
+
+    @BeforeAll
+    void popularBanco() {
+        for (int i = 0; i < ALUNOS; i++) {
+            String nome = NOMES[i % NOMES.length] + " " + SOBRENOMES[(i / NOMES.length) % SOBRENOMES.length];
+            AlunoResponseDTO criado = alunoService.createAluno(new AlunoCreateDTO(
+                    nome, "aluno" + i + "@gymtime.com", String.format("119%08d", i), cpfValido(100_000_000 + i)));
+            for (int t = 0; t < TREINOS_POR_ALUNO; t++) {
+                List<ExercicioCreateDTO> exercicios = new ArrayList<>();
+                for (int e = 0; e < EXERCICIOS_POR_TREINO; e++) {
+                    exercicios.add(new ExercicioCreateDTO(EXERCICIOS[(i + t * 7 + e) % EXERCICIOS.length], "3x12"));
+                }
+                TreinoResponseDTO criadoTreino = treinoService.createTreino(
+                        new TreinoCreateDTO("Treino " + (char) ('A' + t), "Treino de hipertrofia", criado.id(), exercicios));
+                if (aluno == null) {
+                    aluno = criado;
+                    treino = criadoTreino;
+                }
+            }
+            if (i >= ALUNOS - 2) {
+                alunosParaRemover.push(criado.id());
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("orcamentos")
+    void endpointRespeitaOrcamentoDeConsultas(Orcamento orcamento) throws Exception {
+        MockHttpServletRequestBuilder requisicao = request(HttpMethod.valueOf(orcamento.metodo()), substituir(orcamento.caminho()));
+        if (orcamento.corpo() != null) {
+            requisicao.content(substituir(orcamento.corpo())).contentType(orcamento.caminho().startsWith("/web/")
+                    ? MediaType.APPLICATION_FORM_URLENCODED : MediaType.APPLICATION_JSON);
+        }
+
+        MvcResult resultado = mockMvc.perform(requisicao).andReturn();
+
+        assertThat(resultado.getResponse().getStatus()).as("status de %s", orcamento).isLessThan(400);
+        if (orcamento.corpo() != null && orcamento.caminho().startsWith("/web/")) {
+            // O formulário com erro de validação é renderizado de novo (200); só a escrita concluída redireciona.
+            assertThat(resultado.getResponse().getStatus()).as("redirecionamento de %s", orcamento).isEqualTo(302);
+        }
+        String serverTiming = resultado.getResponse().getHeader("Server-Timing");
+        assertThat(serverTiming).as("header Server-Timing de %s", orcamento).isNotNull();
+        Matcher medicao = SERVER_TIMING.matcher(serverTiming);
+        assertThat(medicao.find()).as("formato do Server-Timing: %s", serverTiming).isTrue();
+
+        int instrucoes = Integer.parseInt(medicao.group(1));
+        double tempoJdbcMs = Double.parseDouble(medicao.group(2));
+        assertThat(instrucoes)
+                .as("instruções SQL em %s (orçamento em %s)", orcamento, ARQUIVO_ORCAMENTOS)
+                .isLessThanOrEqualTo(orcamento.maxInstrucoes());
+        assertThat(tempoJdbcMs)
+                .as("tempo JDBC (ms) em %s (orçamento em %s)", orcamento, ARQUIVO_ORCAMENTOS)
+                .isLessThanOrEqualTo(orcamento.maxTempoJdbcMs());
+    }
+
+    /**
+     * Substitui os marcadores do caminho ou do corpo pelos dados criados em {@link #popularBanco()}.
+     */
+    private String substituir(String texto) {
+        if (texto.contains("{novo}") || texto.contains("{cpfNovo}")) {
+            novos++;
+            texto = texto.replace("{novo}", Integer.toString(novos)).replace("{cpfNovo}", cpfValido(200_000_000 + novos));
+        }
+        if (texto.contains("{alunoParaRemoverId}")) {
+            texto = texto.replace("{alunoParaRemoverId}", alunosParaRemover.pop().toString());
+        }
+        return texto
+                .replace("{alunoId}", aluno.id().toString())
+                .replace("{treinoId}", treino.id().toString())
+                .replace("{email}", aluno.email())
+                .replace("{cpf}", aluno.cpf());
+    }
+
+    /**
+     * Lê os orçamentos do arquivo CSV ({@code metodo;caminho;max_instrucoes;max_tempo_jdbc_ms[;corpo]}).
+     * Linhas em branco e iniciadas por {@code #} são ignoradas.
+     */
+    static Stream<Arguments> orcamentos() throws IOException {
+        List<Arguments> orcamentos = new ArrayList<>();
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(QueryBudgetTests.class.getResourceAsStream(ARQUIVO_ORCAMENTOS)),
+                StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = leitor.readLine()) != null) {
+                linha = linha.trim();
+                if (linha.isEmpty() || linha.startsWith("#")) {
+                    continue;
+                }
+                String[] campos = linha.split(";", 5);
+                orcamentos.add(Arguments.of(new Orcamento(campos[0].trim(), campos[1].trim(),
+                        Integer.parseInt(campos[2].trim()), Double.parseDouble(campos[3].trim()),
+                        campos.length > 4 ? campos[4].trim() : null)));
+            }
+        }
+        return orcamentos.stream();
+    }
+
+    /**
+     * Gera um CPF válido (com os dígitos verificadores corretos) a partir de uma base de 9 dígitos.
+     */
+    private static String cpfValido(int base) {
+        String noveDigitos = String.format("%09d", base);
+        int primeiro = digitoVerificador(noveDigitos, 10);
+        int segundo = digitoVerificador(noveDigitos + primeiro, 11);
+        return noveDigitos + primeiro + segundo;
+    }
+
+    private static int digitoVerificador(String digitos, int pesoInicial) {
+        int soma = 0;
+        for (int i = 0; i < digitos.length(); i++) {
+            soma += (digitos.charAt(i) - '0') * (pesoInicial - i);
+        }
+        int resto = (soma * 10) % 11;
+        return resto == 10 ? 0 : resto;
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.gymtime;
+
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.replicacao.EstadoReplica;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.util.DocumentoUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteamento entre o banco primário e a réplica de leitura, com duas instâncias H2 mantidas em sincronia pelo
+ * {@code ReplicadorLocal}. O banco que atendeu cada transação é identificado pela função {@code DATABASE()} do H2.
+ */
+@SpringBootTest(properties = {
+        "gymtime.replica.habilitado=true",
+        "gymtime.replica.urls=jdbc:h2:mem:gymtime-replica-teste"
+})
+class ReadReplicaRoutingTests {
+
+    private static final String PRIMARIO = "GYMTIMEDB";
+    private static final String REPLICA = "GYMTIME-REPLICA-TESTE";
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EstadoReplica estadoReplica;
+
+    @Test
+    void leituraUsaAReplicaEEscritaUsaOPrimario() throws InterruptedException {
+        AlunoResponseDTO aluno = alunoService.createAluno(novoAluno("replica.leitura@gymtime.test", 910_000_001));
+        aguardarReplica();
+        novaRequisicao();
+
+        assertThat(bancoDaTransacao(true)).isEqualTo(REPLICA);
+        assertThat(bancoDaTransacao(false)).isEqualTo(PRIMARIO);
+        assertThat(alunoService.getAlunoById(aluno.id())).get()
+                .extracting(AlunoResponseDTO::email).isEqualTo("replica.leitura@gymtime.test");
+    }
+
+    @Test
+    void leituraDepoisDeUmaEscritaNaMesmaRequisicaoUsaOPrimario() throws InterruptedException {
+        aguardarReplica();
+        novaRequisicao();
+        assertThat(bancoDaTransacao(true)).isEqualTo(REPLICA);
+
+        alunoService.createAluno(novoAluno("replica.escrita@gymtime.test", 910_000_002));
+
+        assertThat(bancoDaTransacao(true)).isEqualTo(PRIMARIO);
+    }
+
+    /**
+     * Simula o início de outra requisição HTTP (o contexto de teste associa uma requisição à thread do teste).
+     */
+    private static void novaRequisicao() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    private String bancoDaTransacao(boolean somenteLeitura) {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(somenteLeitura);
+        return transacao.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+
+    private void aguardarReplica() throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (estadoReplica.atrasoNanos() != 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(estadoReplica.atrasoNanos()).isZero();
+    }
+
+    private static AlunoCreateDTO novoAluno(String email, long baseCpf) {
+        return new AlunoCreateDTO("Aluno Réplica", email, "11999990000", DocumentoUtils.gerarCpf(baseCpf));
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.gymtime;
+
+import br.com.gymtime.academia.ContextoAcademia;
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.ExercicioCreateDTO;
+import br.com.gymtime.dto.TreinoCreateDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.expurgo.ExpurgoAlunosRemovidos;
+import br.com.gymtime.replicacao.EstadoReplica;
+import br.com.gymtime.replicacao.RoteadorLeitura;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.service.TreinoService;
+import br.com.gymtime.util.DocumentoUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Remoção lógica de alunos: o aluno e os seus treinos somem das consultas na hora, e o expurgo apaga as linhas depois,
+ * também na réplica de leitura mantida pelo {@code ReplicadorLocal}.
+ */
+@SpringBootTest(properties = {
+        "gymtime.replica.habilitado=true",
+        "gymtime.replica.urls=jdbc:h2:mem:gymtime-replica-remocao"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RemocaoAlunosTests {
+
+    /**
+     * Academia própria desta classe, criada em {@code @BeforeAll} (ver {@link AcademiasDeTeste}).
+     */
+    private long academia;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private TreinoService treinoService;
+
+    @Autowired
+    private ExpurgoAlunosRemovidos expurgo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RoteadorLeitura roteadorLeitura;
+
+    @Autowired
+    private EstadoReplica estadoReplica;
+
+    @BeforeAll
+    void criarAcademia() {
+        academia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Remoção");
+    }
+
+    @Test
+    void alunoRemovidoSomeNaHoraEEExpurgadoDepois() throws Exception {
+        AlunoCreateDTO dados = new AlunoCreateDTO("Yara Remoção", "yara.remocao@gymtime.test", "11911110000",
+                DocumentoUtils.gerarCpf(995_000_001));
+        AlunoResponseDTO aluno = ContextoAcademia.executar(academia, () -> alunoService.createAluno(dados));
+        TreinoResponseDTO treino = ContextoAcademia.executar(academia, () -> treinoService.createTreino(new TreinoCreateDTO(
+                "Treino Remoção", null, aluno.id(),
+                List.of(new ExercicioCreateDTO("Supino reto", "3x12"), new ExercicioCreateDTO("Agachamento livre", "4x10")))));
+
+        mockMvc.perform(delete("/api/v1/alunos/{id}", aluno.id()).with(AcademiasDeTeste.doGateway(academia)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/alunos/{id}", aluno.id()).with(AcademiasDeTeste.doGateway(academia)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/treinos/{id}", treino.id()).with(AcademiasDeTeste.doGateway(academia)))
+                .andExpect(status().isNotFound());
+        // As linhas continuam no banco até o expurgo.
+        assertThat(linhas("select count(*) from alunos where id = ? and removido_em is not null", aluno.id())).isEqualTo(1);
+        assertThat(linhas("select count(*) from exercicios where treino_id = ?", treino.id())).isEqualTo(2);
+
+        // E-mail e CPF ficam livres logo após a remoção.
+        AlunoResponseDTO novo = ContextoAcademia.executar(academia, () -> alunoService.createAluno(dados));
+        JdbcTemplate replica = new JdbcTemplate(roteadorLeitura.replicas().get(0));
+        aguardarReplica();
+        assertThat(replica.queryForObject("select count(*) from exercicios where treino_id = ?", Integer.class, treino.id()))
+                .isEqualTo(2);
+
+        expurgo.expurgar();
+
+        assertThat(linhas("select count(*) from alunos where id = ?", aluno.id())).isZero();
+        assertThat(linhas("select count(*) from treinos where id = ?", treino.id())).isZero();
+        assertThat(linhas("select count(*) from exercicios where treino_id = ?", treino.id())).isZero();
+        assertThat(ContextoAcademia.executar(academia, () -> alunoService.getAlunoById(novo.id()))).isPresent();
+        assertThat(meterRegistry.get("gymtime.expurgo.linhas").tag("tabela", "exercicios").counter().count())
+                .isGreaterThanOrEqualTo(2);
+
+        // As linhas expurgadas (SQL direto, sem as entidades) também são apagadas da réplica.
+        aguardarReplica();
+        assertThat(replica.queryForObject("select count(*) from alunos where id = ?", Integer.class, aluno.id())).isZero();
+        assertThat(replica.queryForObject("select count(*) from treinos where id = ?", Integer.class, treino.id())).isZero();
+        assertThat(replica.queryForObject("select count(*) from exercicios where treino_id = ?", Integer.class, treino.id()))
+                .isZero();
+        assertThat(replica.queryForObject("select count(*) from alunos where id = ?", Integer.class, novo.id())).isOne();
+    }
+
+    private void aguardarReplica() throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (estadoReplica.atrasoNanos() != 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(estadoReplica.atrasoNanos()).isZero();
+    }
+
+    private int linhas(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
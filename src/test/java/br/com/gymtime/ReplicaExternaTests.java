@@ -0,0 +1,94 @@
+package br.com.gymtime;
+
+import br.com.gymtime.replicacao.RoteadorLeitura;
+import br.com.gymtime.replicacao.SondaAtrasoReplica;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Réplica de leitura mantida fora da aplicação ({@code replicador-local=false}): o atraso vem dos batimentos da
+ * {@link SondaAtrasoReplica}. A replicação é simulada copiando a tabela de batimentos do primário para a réplica, e a
+ * sonda é acionada diretamente (o intervalo configurado é longo demais para disparar durante o teste).
+ */
+@SpringBootTest(properties = {
+        "gymtime.replica.habilitado=true",
+        "gymtime.replica.replicador-local=false",
+        "gymtime.replica.urls=jdbc:h2:mem:gymtime-replica-externa",
+        "gymtime.replica.atraso-maximo=PT0.05S",
+        "gymtime.replica.sonda.intervalo=PT1H"
+})
+class ReplicaExternaTests {
+
+    private static final String PRIMARIO = "GYMTIMEDB";
+    private static final String REPLICA = "GYMTIME-REPLICA-EXTERNA";
+
+    @Autowired
+    private SondaAtrasoReplica sonda;
+
+    @Autowired
+    private RoteadorLeitura roteadorLeitura;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void atrasoVemDosBatimentosERoteiaAsLeituras() throws InterruptedException {
+        JdbcTemplate replica = new JdbcTemplate(roteadorLeitura.replicas().get(0));
+
+        // Antes da primeira leitura da sonda, o atraso é desconhecido.
+        assertThat(sonda.atrasoNanos()).isEqualTo(Long.MAX_VALUE);
+        assertThat(bancoDeUmaLeitura()).isEqualTo(PRIMARIO);
+
+        // A réplica ainda não tem a tabela: a leitura falha e o atraso continua desconhecido.
+        sonda.medir();
+        assertThat(sonda.atrasoNanos()).isEqualTo(Long.MAX_VALUE);
+
+        replica.execute("create table replica_batimentos (origem varchar(36) primary key, sequencia bigint not null, "
+                + "gravado_em timestamp default localtimestamp not null)");
+        sonda.medir();
+        Thread.sleep(100);
+        // O batimento gravado na medição anterior ainda não chegou à réplica.
+        assertThat(sonda.atrasoNanos()).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(bancoDeUmaLeitura()).isEqualTo(PRIMARIO);
+
+        replicarBatimentos(replica);
+        sonda.medir();
+        assertThat(sonda.atrasoNanos()).isZero();
+        assertThat(bancoDeUmaLeitura()).isEqualTo(REPLICA);
+    }
+
+    private void replicarBatimentos(JdbcTemplate replica) {
+        List<Map<String, Object>> linhas = jdbcTemplate.queryForList("select origem, sequencia from replica_batimentos");
+        replica.update("delete from replica_batimentos");
+        for (Map<String, Object> linha : linhas) {
+            replica.update("insert into replica_batimentos (origem, sequencia) values (?, ?)",
+                    linha.get("ORIGEM"), linha.get("SEQUENCIA"));
+        }
+    }
+
+    /**
+     * Executa uma transação somente leitura em uma nova requisição e devolve o banco que a atendeu.
+     */
+    private String bancoDeUmaLeitura() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.setReadOnly(true);
+        return transacao.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+    }
+}
@@ -0,0 +1,194 @@
+package br.com.gymtime;
+
+import br.com.gymtime.dto.AlunoCreateDTO;
+import br.com.gymtime.dto.AlunoResponseDTO;
+import br.com.gymtime.dto.AlunoSearchResultDTO;
+import br.com.gymtime.dto.AlunoSummaryDTO;
+import br.com.gymtime.dto.AlunoUpdateDTO;
+import br.com.gymtime.dto.ExercicioCreateDTO;
+import br.com.gymtime.dto.TreinoCreateDTO;
+import br.com.gymtime.dto.TreinoResponseDTO;
+import br.com.gymtime.exception.EmailAlreadyExistsException;
+import br.com.gymtime.service.AlunoService;
+import br.com.gymtime.service.TreinoService;
+import br.com.gymtime.shard.DiretorioShards;
+import br.com.gymtime.shard.RoteadorShards;
+import br.com.gymtime.shard.Shards;
+import br.com.gymtime.util.DocumentoUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Distribuição dos alunos entre dois shards H2, com o banco de diretório guardando o índice global de e-mail e CPF
+ * e o catálogo de exercícios.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:gymtime-diretorio-teste",
+        "gymtime.shard.habilitado=true",
+        "gymtime.shard.urls=jdbc:h2:mem:gymtime-shard-teste-0,jdbc:h2:mem:gymtime-shard-teste-1"
+})
+class ShardingTests {
+
+    @Autowired
+    private AlunoService alunoService;
+
+    @Autowired
+    private TreinoService treinoService;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private RoteadorShards roteadorShards;
+
+    @Autowired
+    private DiretorioShards diretorioShards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void alunoETreinosFicamNoShardDoAluno() {
+        AlunoResponseDTO primeiro = alunoService.createAluno(novoAluno("shard.primeiro@gymtime.test", cpfNoShard(0, 920_000_000)));
+        AlunoResponseDTO segundo = alunoService.createAluno(novoAluno("shard.segundo@gymtime.test", cpfNoShard(1, 920_000_000)));
+        assertThat(shards.shardDoId(primeiro.id())).isZero();
+        assertThat(shards.shardDoId(segundo.id())).isEqualTo(1);
+
+        TreinoResponseDTO treino = treinoService.createTreino(new TreinoCreateDTO("Treino shard", null, segundo.id(),
+                List.of(new ExercicioCreateDTO("Remada cavalinho shard", "4x10"))));
+
+        assertThat(shards.shardDoId(treino.id())).isEqualTo(1);
+        assertThat(contar(1, "select count(*) from treinos where id = ? and aluno_id = ?", treino.id(), segundo.id())).isOne();
+        assertThat(contar(0, "select count(*) from alunos where id = ?", segundo.id())).isZero();
+        // O exercício novo foi criado no catálogo do diretório e copiado para todos os shards.
+        for (int shard = 0; shard < shards.quantidade(); shard++) {
+            assertThat(contar(shard, "select count(*) from exercicio_catalogo where nome = ?", "Remada cavalinho shard")).isOne();
+        }
+        assertThat(treinoService.getTreinosByAlunoId(segundo.id())).extracting(TreinoResponseDTO::id).containsExactly(treino.id());
+        assertThat(alunoService.getAlunoByEmail("shard.primeiro@gymtime.test")).get()
+                .extracting(AlunoResponseDTO::id).isEqualTo(primeiro.id());
+    }
+
+    @Test
+    void emailUnicoEntreShards() {
+        alunoService.createAluno(novoAluno("shard.unico@gymtime.test", cpfNoShard(0, 930_000_000)));
+
+        assertThatThrownBy(() -> alunoService.createAluno(novoAluno("Shard.Unico@gymtime.test", cpfNoShard(1, 930_000_000))))
+                .isInstanceOf(EmailAlreadyExistsException.class);
+        assertThat(contar(1, "select count(*) from alunos where email_busca = ?", "shard.unico@gymtime.test")).isZero();
+    }
+
+    @Test
+    void listagensJuntamOsShards() {
+        AlunoResponseDTO a = alunoService.createAluno(novoAluno("shard.lista.a@gymtime.test", cpfNoShard(0, 940_000_000), "Zulmira Lista"));
+        AlunoResponseDTO b = alunoService.createAluno(novoAluno("shard.lista.b@gymtime.test", cpfNoShard(1, 940_000_000), "Zuleica Lista"));
+
+        assertThat(alunoService.getAllAlunos()).extracting(AlunoResponseDTO::id).contains(a.id(), b.id());
+        assertThat(alunoService.searchAlunos("Zul", 10)).extracting(AlunoSearchResultDTO::id).contains(a.id(), b.id());
+
+        Page<AlunoSummaryDTO> pagina = alunoService.getAlunosPaginados("Zul", PageRequest.of(0, 1, Sort.by("nome")));
+        assertThat(pagina.getTotalElements()).isEqualTo(2);
+        assertThat(pagina.getContent()).extracting(AlunoSummaryDTO::id).containsExactly(b.id());
+        assertThat(alunoService.getAlunosPaginados("Zul", PageRequest.of(1, 1, Sort.by("nome"))).getContent())
+                .extracting(AlunoSummaryDTO::id).containsExactly(a.id());
+    }
+
+    @Test
+    void rollbackDesfazApenasAPropriaReserva() {
+        AlunoResponseDTO aluno = alunoService.createAluno(novoAluno("shard.reserva@gymtime.test", cpfNoShard(0, 950_000_000)));
+        assertThat(entradaNoDiretorio(aluno.id())).containsEntry("PENDENTE_DESDE", null);
+
+        // Criação desfeita: a reserva do novo aluno é apagada.
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        transacao.executeWithoutResult(status -> {
+            AlunoResponseDTO desfeito = alunoService.createAluno(
+                    novoAluno("shard.desfeito@gymtime.test", cpfNoShard(1, 950_000_000)));
+            assertThat(entradaNoDiretorio(desfeito.id())).isNotNull();
+            status.setRollbackOnly();
+        });
+        assertThat(diretorio().queryForObject("select count(*) from alunos_diretorio where email_busca = ?", Long.class,
+                "shard.desfeito@gymtime.test")).isZero();
+
+        // Atualização desfeita depois que outra gravação alterou a linha: os valores da outra gravação são mantidos.
+        transacao.executeWithoutResult(status -> {
+            alunoService.updateAluno(aluno.id(), new AlunoUpdateDTO(null, "shard.reserva.nova@gymtime.test", null, null));
+            diretorio().update("update alunos_diretorio set email_busca = ?, pendente_desde = null where aluno_id = ?",
+                    "shard.reserva.concorrente@gymtime.test", aluno.id());
+            status.setRollbackOnly();
+        });
+        assertThat(entradaNoDiretorio(aluno.id())).containsEntry("EMAIL_BUSCA", "shard.reserva.concorrente@gymtime.test");
+    }
+
+    @Test
+    void reconciliacaoConfereAsReservasPendentesComOShard() {
+        AlunoResponseDTO confirmado = alunoService.createAluno(novoAluno("shard.conf@gymtime.test", cpfNoShard(0, 960_000_000)));
+        AlunoResponseDTO divergente = alunoService.createAluno(novoAluno("shard.div@gymtime.test", cpfNoShard(1, 960_000_000)));
+        // Reservas deixadas por um nó que parou antes do commit no shard.
+        diretorio().update("update alunos_diretorio set pendente_desde = dateadd('MINUTE', -10, localtimestamp) "
+                + "where aluno_id = ?", confirmado.id());
+        diretorio().update("update alunos_diretorio set email_busca = ?, pendente_desde = dateadd('MINUTE', -10, localtimestamp) "
+                + "where aluno_id = ?", "shard.div.antigo@gymtime.test", divergente.id());
+        diretorio().update("insert into alunos_diretorio (aluno_id, academia_id, email_busca, cpf, pendente_desde) "
+                        + "values (?, 1, ?, ?, dateadd('MINUTE', -10, localtimestamp))",
+                900_000_001L, "shard.orfao@gymtime.test", cpfNoShard(0, 970_000_000));
+        // Reserva recente: a transação do shard ainda pode estar em andamento.
+        diretorio().update("insert into alunos_diretorio (aluno_id, academia_id, email_busca, cpf, pendente_desde) "
+                + "values (?, 1, ?, ?, localtimestamp)", 900_000_002L, "shard.recente@gymtime.test", cpfNoShard(1, 970_000_000));
+
+        assertThat(diretorioShards.reconciliar()).isEqualTo(3);
+
+        assertThat(entradaNoDiretorio(confirmado.id())).containsEntry("EMAIL_BUSCA", "shard.conf@gymtime.test")
+                .containsEntry("PENDENTE_DESDE", null);
+        assertThat(entradaNoDiretorio(divergente.id())).containsEntry("EMAIL_BUSCA", "shard.div@gymtime.test")
+                .containsEntry("PENDENTE_DESDE", null);
+        assertThat(diretorio().queryForList("select * from alunos_diretorio where aluno_id = ?", 900_000_001L)).isEmpty();
+        assertThat(entradaNoDiretorio(900_000_002L)).isNotNull();
+        // O e-mail da reserva órfã volta a ficar disponível.
+        alunoService.createAluno(novoAluno("shard.orfao@gymtime.test", cpfNoShard(0, 980_000_000)));
+        diretorio().update("delete from alunos_diretorio where aluno_id = ?", 900_000_002L);
+    }
+
+    private JdbcTemplate diretorio() {
+        return new JdbcTemplate(roteadorShards.diretorio());
+    }
+
+    private Map<String, Object> entradaNoDiretorio(Long alunoId) {
+        return diretorio().queryForMap("select email_busca, pendente_desde from alunos_diretorio where aluno_id = ?", alunoId);
+    }
+
+    private long contar(int shard, String sql, Object... parametros) {
+        return new JdbcTemplate(roteadorShards.shards().get(shard)).queryForObject(sql, Long.class, parametros);
+    }
+
+    /**
+     * Gera um CPF válido cujo aluno será gravado no shard informado.
+     */
+    private String cpfNoShard(int shard, long base) {
+        String cpf = DocumentoUtils.gerarCpf(base);
+        while (shards.shardParaNovoAluno(cpf) != shard) {
+            cpf = DocumentoUtils.gerarCpf(++base);
+        }
+        return cpf;
+    }
+
+    private static AlunoCreateDTO novoAluno(String email, String cpf) {
+        return novoAluno(email, cpf, "Aluno Shard");
+    }
+
+    private static AlunoCreateDTO novoAluno(String email, String cpf, String nome) {
+        return new AlunoCreateDTO(nome, email, "11999990000", cpf);
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.gymtime;
+
+import br.com.gymtime.util.DocumentoUtils;
+import br.com.gymtime.web.FlashMapCookieManager;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mensagens flash em cookie assinado e ausência de sessão HTTP na camada web.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WebSemSessaoTests {
+
+    /**
+     * Academia própria desta classe, criada em {@code @BeforeAll} (ver {@link AcademiasDeTeste}).
+     */
+    private long academia;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void criarAcademia() {
+        academia = AcademiasDeTeste.criar(jdbcTemplate, "Academia Web");
+    }
+
+    @Test
+    void mensagemFlashSobreviveAoRedirecionamentoSemSessao() throws Exception {
+        MvcResult cadastro = mockMvc.perform(post("/web/alunos/criar")
+                        .with(AcademiasDeTeste.doGateway(academia))
+                        .param("nome", "Flávia Cookie")
+                        .param("email", "flavia.cookie@gymtime.test")
+                        .param("telefone", "11988887777")
+                        .param("cpf", DocumentoUtils.gerarCpf(960_000_001)))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/web/alunos"))
+                .andReturn();
+        assertThat(cadastro.getRequest().getSession(false)).isNull();
+        Cookie flash = cadastro.getResponse().getCookie(FlashMapCookieManager.COOKIE);
+        assertThat(flash).isNotNull();
+        assertThat(flash.isHttpOnly()).isTrue();
+
+        // O redirecionamento pode ser atendido por outro nó: basta o cookie.
+        MvcResult lista = mockMvc.perform(get("/web/alunos").with(AcademiasDeTeste.doGateway(academia)).cookie(flash))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(lista.getResponse().getContentAsString()).contains("Aluno cadastrado com sucesso!");
+        assertThat(lista.getRequest().getSession(false)).isNull();
+        Cookie removido = lista.getResponse().getCookie(FlashMapCookieManager.COOKIE);
+        assertThat(removido).isNotNull();
+        assertThat(removido.getMaxAge()).isZero();
+    }
+
+    @Test
+    void cookieAdulteradoEIgnorado() throws Exception {
+        MvcResult remocao = mockMvc.perform(get("/web/alunos/deletar/{id}", Long.MAX_VALUE).with(AcademiasDeTeste.doGateway(academia)))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        Cookie flash = remocao.getResponse().getCookie(FlashMapCookieManager.COOKIE);
+        assertThat(flash).isNotNull();
+
+        String valor = flash.getValue();
+        String conteudo = valor.substring(0, valor.lastIndexOf('.'));
+        Cookie adulterado = new Cookie(FlashMapCookieManager.COOKIE, conteudo + ".AAAA" + valor.substring(valor.lastIndexOf('.') + 5));
+        MvcResult lista = mockMvc.perform(get("/web/alunos").with(AcademiasDeTeste.doGateway(academia)).cookie(adulterado))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(lista.getResponse().getContentAsString()).doesNotContain("Aluno não encontrado");
+    }
+}
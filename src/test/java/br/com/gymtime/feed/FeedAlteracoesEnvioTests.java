@@ -0,0 +1,123 @@
+package br.com.gymtime.feed;
+
+import br.com.gymtime.evento.EventoDominio;
+import br.com.gymtime.invalidacao.BarramentoInvalidacao;
+import br.com.gymtime.invalidacao.Invalidacao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Envio do feed de alterações aos assinantes, sem o contexto do Spring: um assinante lento não atrasa os demais e é
+ * desconectado quando a sua fila enche.
+ */
+class FeedAlteracoesEnvioTests {
+
+    private static final long ACADEMIA = 1L;
+    private static final int FILA = 2;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FeedAlteracoes feed = new FeedAlteracoes(new BarramentoSemHistorico(), meterRegistry,
+            Duration.ofMinutes(1), Duration.ofSeconds(1), FILA, 2);
+
+    @AfterEach
+    void encerrar() {
+        feed.encerrar();
+    }
+
+    @Test
+    void assinanteLentoNaoAtrasaOsDemaisEEDesconectado() throws Exception {
+        EmitterDeTeste lento = new EmitterDeTeste();
+        EmitterDeTeste rapido = new EmitterDeTeste();
+        feed.assinar(ACADEMIA, null, lento);
+        feed.assinar(ACADEMIA, null, rapido);
+        // A partir daqui, o envio ao assinante lento fica parado até ser liberado.
+        lento.travar();
+
+        for (int sequencia = 1; sequencia <= 5; sequencia++) {
+            feed.alterado(List.of(alteracao(sequencia)));
+            // Conectado + as alterações até aqui.
+            rapido.aguardarEnvios(1 + sequencia);
+        }
+        assertThat(meterRegistry.get("gymtime.alteracoes.desconectados").counter().count()).isOne();
+        assertThat(meterRegistry.get("gymtime.alteracoes.assinantes").gauge().value()).isOne();
+
+        // Quando o envio parado termina, a conexão é encerrada sem erro: o cliente reconecta com o Last-Event-ID.
+        lento.liberar();
+        assertThat(lento.encerrada.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(lento.envios.get()).isEqualTo(2);
+    }
+
+    private static Invalidacao alteracao(long sequencia) {
+        return new Invalidacao(EventoDominio.Entidade.ALUNO, EventoDominio.Operacao.ATUALIZADO, sequencia, ACADEMIA, sequencia);
+    }
+
+    /**
+     * Conexão que conta os envios e que pode ficar parada em um envio, como um cliente que não lê a resposta.
+     */
+    private static final class EmitterDeTeste extends SseEmitter {
+
+        private final AtomicInteger envios = new AtomicInteger();
+        private final CountDownLatch liberacao = new CountDownLatch(1);
+        private final CountDownLatch encerrada = new CountDownLatch(1);
+        private volatile boolean travado;
+
+        void travar() {
+            travado = true;
+        }
+
+        void liberar() {
+            liberacao.countDown();
+        }
+
+        void aguardarEnvios(int quantidade) throws InterruptedException {
+            long limite = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (envios.get() < quantidade && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            assertThat(envios.get()).isEqualTo(quantidade);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            envios.incrementAndGet();
+            if (travado) {
+                try {
+                    liberacao.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            super.send(builder);
+        }
+
+        @Override
+        public void complete() {
+            super.complete();
+            encerrada.countDown();
+        }
+    }
+
+    private static final class BarramentoSemHistorico implements BarramentoInvalidacao {
+
+        @Override
+        public void receber(List<EventoDominio> eventos) {
+        }
+
+        @Override
+        public Optional<List<Invalidacao>> historico(long academia, long depoisDe) {
+            return Optional.of(List.of());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package br.com.gymtime.snapshot;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Snapshot binário e log de alterações, sem o contexto do Spring: cada teste usa bancos H2 em memória próprios,
+ * criados pelas migrações do Flyway, e um diretório temporário.
+ */
+class SnapshotTests {
+
+    private static final AtomicInteger BANCOS = new AtomicInteger();
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void snapshotGravadoERestauradoComAsMesmasLinhas() throws Exception {
+        DataSource origem = novoBanco();
+        JdbcTemplate jdbc = new JdbcTemplate(origem);
+        inserirAluno(jdbc, 1, "Ana Snapshot", "52998224725");
+        inserirAluno(jdbc, 2, "Bruno Snapshot", "11144477735");
+        jdbc.update("insert into exercicio_catalogo (id, nome, nome_normalizado) values (1, 'Supino', 'supino')");
+        jdbc.update("insert into treinos (id, academia_id, aluno_id, nome, data_criacao) values (1, 1, 2, 'Treino A', current_date)");
+        jdbc.update("insert into exercicios (id, treino_id, catalogo_id, series_repeticoes) values (1, 1, 1, '3x12')");
+        gravarSnapshot(origem, versaoAtual(origem), 1);
+
+        DataSource destino = novoBanco();
+        gerenciador(destino).run(null);
+
+        JdbcTemplate restaurado = new JdbcTemplate(destino);
+        for (TabelaSnapshot tabela : TabelaSnapshot.values()) {
+            String sql = tabela.sqlSelecao() + " order by id";
+            assertThat(restaurado.queryForList(sql)).isEqualTo(jdbc.queryForList(sql));
+        }
+        // As colunas de identidade continuam após os IDs restaurados.
+        restaurado.update("insert into alunos (academia_id, nome, nome_busca, email, email_busca, cpf) "
+                + "values (1, 'Novo', 'novo', 'novo@gymtime.test', 'novo@gymtime.test', '39053344705')");
+        assertThat(restaurado.queryForObject("select max(id) from alunos", Long.class)).isEqualTo(3);
+    }
+
+    @Test
+    void snapshotComCrcInvalidoERecusado() throws Exception {
+        DataSource origem = novoBanco();
+        inserirAluno(new JdbcTemplate(origem), 1, "Ana Corrompida", "52998224725");
+        Path arquivo = gravarSnapshot(origem, versaoAtual(origem), 1);
+
+        try (RandomAccessFile conteudo = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            long posicao = conteudo.length() / 2;
+            conteudo.seek(posicao);
+            int original = conteudo.read();
+            conteudo.seek(posicao);
+            conteudo.write(original ^ 0xFF);
+        }
+
+        assertThatThrownBy(() -> ArquivoSnapshot.abrir(arquivo))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("CRC inválido");
+        DataSource destino = novoBanco();
+        assertThatThrownBy(() -> gerenciador(destino).run(null)).isInstanceOf(IllegalStateException.class);
+        assertThat(new JdbcTemplate(destino).queryForObject("select count(*) from alunos", Long.class)).isZero();
+    }
+
+    @Test
+    void registroIncompletoNoFimDoLogEDescartado() throws Exception {
+        try (LogDeAlteracoes log = new LogDeAlteracoes(diretorio)) {
+            log.registrar(LogDeAlteracoes.Operacao.GRAVACAO, TabelaSnapshot.ALUNOS, aluno(1, "Ana Log", "52998224725"));
+            log.registrar(LogDeAlteracoes.Operacao.GRAVACAO, TabelaSnapshot.ALUNOS, aluno(2, "Bruno Log", "11144477735"));
+            log.rotacionar();
+        }
+        // Simula a queda do processo no meio da escrita do último registro.
+        Path segmento = segmentos().get(0);
+        try (RandomAccessFile conteudo = new RandomAccessFile(segmento.toFile(), "rw")) {
+            conteudo.setLength(conteudo.length() - 3);
+        }
+
+        DataSource banco = novoBanco();
+        try (LogDeAlteracoes log = new LogDeAlteracoes(diretorio); Connection conexao = banco.getConnection()) {
+            conexao.setAutoCommit(false);
+            assertThat(log.reproduzir(conexao, 1)).isOne();
+        }
+        assertThat(new JdbcTemplate(banco).queryForList("select id from alunos", Long.class)).containsExactly(1L);
+    }
+
+    @Test
+    void reproducaoDoLogEIdempotenteSobreAsLinhasDoSnapshot() throws Exception {
+        DataSource origem = novoBanco();
+        JdbcTemplate jdbc = new JdbcTemplate(origem);
+        inserirAluno(jdbc, 1, "Ana Repetida", "52998224725");
+        inserirAluno(jdbc, 2, "Bruno Removido", "11144477735");
+        gravarSnapshot(origem, versaoAtual(origem), 1);
+        // As alterações do segmento 1 já estão no snapshot (ele foi gravado depois delas) e são reproduzidas de novo.
+        try (LogDeAlteracoes log = new LogDeAlteracoes(diretorio)) {
+            log.registrar(LogDeAlteracoes.Operacao.GRAVACAO, TabelaSnapshot.ALUNOS, aluno(1, "Ana Repetida", "52998224725"));
+            log.registrar(LogDeAlteracoes.Operacao.GRAVACAO, TabelaSnapshot.ALUNOS, aluno(2, "Bruno Removido", "11144477735"));
+            log.registrar(LogDeAlteracoes.Operacao.REMOCAO, TabelaSnapshot.ALUNOS, new Object[]{2L});
+            log.registrar(LogDeAlteracoes.Operacao.GRAVACAO, TabelaSnapshot.ALUNOS, aluno(1, "Ana Alterada", "52998224725"));
+            log.registrar(LogDeAlteracoes.Operacao.GRAVACAO, TabelaSnapshot.ALUNOS, aluno(3, "Carla Nova", "39053344705"));
+            log.rotacionar();
+        }
+
+        DataSource destino = novoBanco();
+        gerenciador(destino).run(null);
+
+        JdbcTemplate restaurado = new JdbcTemplate(destino);
+        List<Map<String, Object>> esperado = List.of(Map.of("ID", 1L, "NOME", "Ana Alterada"), Map.of("ID", 3L, "NOME", "Carla Nova"));
+        assertThat(restaurado.queryForList("select id, nome from alunos order by id")).isEqualTo(esperado);
+
+        // Reproduzir novamente o mesmo log não altera o resultado.
+        try (LogDeAlteracoes log = new LogDeAlteracoes(diretorio); Connection conexao = destino.getConnection()) {
+            conexao.setAutoCommit(false);
+            assertThat(log.reproduzir(conexao, 1)).isEqualTo(5);
+        }
+        assertThat(restaurado.queryForList("select id, nome from alunos order by id")).isEqualTo(esperado);
+    }
+
+    @Test
+    void snapshotDeOutroEsquemaComLogPendenteImpedeARestauracao() throws Exception {
+        DataSource origem = novoBanco();
+        inserirAluno(new JdbcTemplate(origem), 1, "Ana Esquema", "52998224725");
+        gravarSnapshot(origem, "7", 1);
+        try (LogDeAlteracoes log = new LogDeAlteracoes(diretorio)) {
+            log.registrar(LogDeAlteracoes.Operacao.GRAVACAO, TabelaSnapshot.ALUNOS, aluno(2, "Bruno Esquema", "11144477735"));
+        }
+
+        DataSource destino = novoBanco();
+        assertThatThrownBy(() -> gerenciador(destino).run(null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("esquema V7");
+        assertThat(new JdbcTemplate(destino).queryForObject("select count(*) from alunos", Long.class)).isZero();
+
+        // Sem alterações pendentes no log, o snapshot é restaurado pelas colunas em comum.
+        for (Path segmento : segmentos()) {
+            Files.delete(segmento);
+        }
+        gerenciador(destino).run(null);
+        assertThat(new JdbcTemplate(destino).queryForList("select nome from alunos", String.class)).containsExactly("Ana Esquema");
+    }
+
+    @Test
+    void alteracoesSaoEntreguesNaOrdemDasSequencias() {
+        List<String> entregues = new ArrayList<>();
+        RegistradorAlteracoes registrador = new RegistradorAlteracoes(
+                (operacao, tabela, valores) -> entregues.add(operacao + ":" + valores[0] + ":" + valores[valores.length > 2 ? 2 : 0]));
+        RegistradorAlteracoes.Alteracao antiga = new RegistradorAlteracoes.Alteracao(LogDeAlteracoes.Operacao.GRAVACAO,
+                TabelaSnapshot.ALUNOS, aluno(1, "Antiga", "52998224725"));
+        RegistradorAlteracoes.Alteracao nova = new RegistradorAlteracoes.Alteracao(LogDeAlteracoes.Operacao.GRAVACAO,
+                TabelaSnapshot.ALUNOS, aluno(1, "Nova", "52998224725"));
+
+        // A primeira transação a gravar a linha termina depois da segunda.
+        long primeira = registrador.reservar();
+        long desfeita = registrador.reservar();
+        long segunda = registrador.reservar();
+        registrador.concluir(segunda, nova);
+        registrador.concluir(desfeita, null);
+        assertThat(entregues).isEmpty();
+
+        registrador.concluir(primeira, antiga);
+        assertThat(entregues).containsExactly("GRAVACAO:1:Antiga", "GRAVACAO:1:Nova");
+    }
+
+    /**
+     * O gerenciador com o log de alterações aberto no diretório do teste, sem os listeners do Hibernate.
+     */
+    private GerenciadorSnapshot gerenciador(DataSource dataSource) throws IOException {
+        GerenciadorSnapshot gerenciador = new GerenciadorSnapshot(dataSource, null, flyway(dataSource), diretorio);
+        gerenciador.abrirLogDeAlteracoes();
+        return gerenciador;
+    }
+
+    private Path gravarSnapshot(DataSource dataSource, String versaoEsquema, long walInicial) throws IOException, SQLException {
+        Path arquivo = diretorio.resolve(GerenciadorSnapshot.ARQUIVO);
+        try (Connection conexao = dataSource.getConnection()) {
+            ArquivoSnapshot.gravar(conexao, arquivo, versaoEsquema, walInicial);
+        }
+        return arquivo;
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(arquivo -> arquivo.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private static DataSource novoBanco() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:gymtime-snapshot-teste-" + BANCOS.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        flyway(dataSource).migrate();
+        try (Connection conexao = dataSource.getConnection(); Statement comando = conexao.createStatement()) {
+            // O catálogo de exercícios vem preenchido pelas migrações; os testes usam apenas as próprias linhas.
+            comando.execute("delete from exercicio_catalogo");
+        }
+        return dataSource;
+    }
+
+    private static Flyway flyway(DataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).load();
+    }
+
+    private static String versaoAtual(DataSource dataSource) {
+        return flyway(dataSource).info().current().getVersion().getVersion();
+    }
+
+    private static void inserirAluno(JdbcTemplate jdbc, long id, String nome, String cpf) {
+        jdbc.update(TabelaSnapshot.ALUNOS.sqlMesclagem(), aluno(id, nome, cpf));
+    }
+
+    private static Object[] aluno(long id, String nome, String cpf) {
+        String email = nome.toLowerCase().replace(' ', '.') + "@gymtime.test";
+        return new Object[]{id, 1L, nome, nome.toLowerCase(), email, email, null, cpf, null};
+    }
+}